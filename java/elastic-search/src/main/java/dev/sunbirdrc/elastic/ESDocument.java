@@ -0,0 +1,46 @@
+package dev.sunbirdrc.elastic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A document read from ES along with its sequence number and primary term, which conditional writes of the
+ * document are checked against
+ */
+public class ESDocument {
+    JsonNode source;
+    long seqNo;
+    long primaryTerm;
+
+    public ESDocument() {
+    }
+
+    public ESDocument(JsonNode source, long seqNo, long primaryTerm) {
+        setSource(source);
+        setSeqNo(seqNo);
+        setPrimaryTerm(primaryTerm);
+    }
+
+    public JsonNode getSource() {
+        return source;
+    }
+
+    public void setSource(JsonNode source) {
+        this.source = source;
+    }
+
+    public long getSeqNo() {
+        return seqNo;
+    }
+
+    public void setSeqNo(long seqNo) {
+        this.seqNo = seqNo;
+    }
+
+    public long getPrimaryTerm() {
+        return primaryTerm;
+    }
+
+    public void setPrimaryTerm(long primaryTerm) {
+        this.primaryTerm = primaryTerm;
+    }
+}
@@ -5,9 +5,16 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 @JsonSerialize
 public class ESMessage {
+    // expected sequence number of a document which must not exist yet
+    public static final long NOT_EXISTS = -1L;
+
     String indexName;
     String osid;
     JsonNode input;
+    String operation;
+    // sequence number and primary term the document must have for the write to apply, null to write it anyway
+    Long seqNo;
+    Long primaryTerm;
 
     public ESMessage() {
     }
@@ -41,4 +48,36 @@ public class ESMessage {
     public void setInput(JsonNode input) {
         this.input = input;
     }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public Long getSeqNo() {
+        return seqNo;
+    }
+
+    public void setSeqNo(Long seqNo) {
+        this.seqNo = seqNo;
+    }
+
+    public Long getPrimaryTerm() {
+        return primaryTerm;
+    }
+
+    public void setPrimaryTerm(Long primaryTerm) {
+        this.primaryTerm = primaryTerm;
+    }
+
+    /**
+     * Makes the write apply only while the document is the one read, or doesn't exist when it is null
+     */
+    public void expect(ESDocument document) {
+        setSeqNo(document == null ? NOT_EXISTS : document.getSeqNo());
+        setPrimaryTerm(document == null ? null : document.getPrimaryTerm());
+    }
 }
@@ -4,8 +4,10 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
+import dev.sunbirdrc.pojos.Aggregation;
 import dev.sunbirdrc.pojos.ComponentHealthInfo;
 import dev.sunbirdrc.pojos.Filter;
 import dev.sunbirdrc.pojos.FilterOperators;
@@ -16,6 +18,10 @@ import java.io.IOException;
 import java.net.ConnectException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import org.apache.commons.collections4.KeyValue;
 import org.apache.commons.collections4.keyvalue.DefaultKeyValue;
@@ -25,24 +31,43 @@ import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.apache.lucene.search.join.ScoreMode;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.admin.cluster.health.ClusterHealthRequest;
 import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.ClearScrollRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.action.update.UpdateResponse;
 import org.elasticsearch.client.*;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.search.Scroll;
 import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.MultiBucketsAggregation;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.bucket.nested.Nested;
+import org.elasticsearch.search.aggregations.metrics.NumericMetricsAggregation;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.retry.annotation.Backoff;
@@ -61,6 +86,33 @@ public class ElasticServiceImpl implements IElasticService {
     private static String userName;
     private static String password;
     private static String defaultScheme;
+    private static int numberOfShards = 1;
+    private static int numberOfReplicas = 1;
+    private static final long MAPPING_TTL = 60000;
+    // Mappings of the indices behind the aliases, reloaded every MAPPING_TTL millis since another instance may swap them
+    private static final Map<String, CachedMapping> mappings = new ConcurrentHashMap<>();
+    private static final ExecutorService reindexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "es-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    // Held by the instance migrating an index, so that replicas starting together don't all migrate it
+    private static final String MIGRATION_LOCK_INDEX = "registry_index_migrations";
+    private static final long MIGRATION_LOCK_TTL = 3600000;
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+    private static volatile Consumer<String> catchUpListener;
+    // Histogram keys are formatted like the prefixes of the ISO-8601 dates bucketed by the native search
+    private static final Map<String, String> DATE_HISTOGRAM_FORMATS = new HashMap<>();
+    private static final Map<String, DateHistogramInterval> DATE_HISTOGRAM_INTERVALS = new HashMap<>();
+    static {
+        DATE_HISTOGRAM_FORMATS.put("year", "yyyy");
+        DATE_HISTOGRAM_FORMATS.put("month", "yyyy-MM");
+        DATE_HISTOGRAM_FORMATS.put("day", "yyyy-MM-dd");
+        DATE_HISTOGRAM_INTERVALS.put("year", DateHistogramInterval.YEAR);
+        DATE_HISTOGRAM_INTERVALS.put("month", DateHistogramInterval.MONTH);
+        DATE_HISTOGRAM_INTERVALS.put("day", DateHistogramInterval.DAY);
+    }
 
     public void setConnectionInfo(String connection) {
         connectionInfo = connection;
@@ -70,22 +122,323 @@ public class ElasticServiceImpl implements IElasticService {
         searchType = type;
     }
 
+    public void setNumberOfShards(int shards) {
+        numberOfShards = shards;
+    }
+
+    public void setNumberOfReplicas(int replicas) {
+        numberOfReplicas = replicas;
+    }
+
     /**
-     * This method runs when the application is started in order to add all the indcies to the elastic search
+     * This method runs when the application is started in order to add all the indices to the elastic search.
+     * Every index is an alias of a physical index named after its settings and mapping. A physical index with
+     * an older mapping is reindexed in the background and the alias then swapped to the new one.
      *
-     * @param indices
+     * @param indexMappings - index name to its type mapping
      * @throws RuntimeException
      */
-    public void init(Set<String> indices) throws RuntimeException {
-        indices.iterator().forEachRemaining(index -> {
+    public void init(Map<String, JsonNode> indexMappings) throws RuntimeException {
+        indexMappings.forEach((index, mapping) -> {
             try {
-                addIndex(index.toLowerCase(), searchType);
+                ensureIndex(index.toLowerCase(), mapping);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
         });
     }
 
+    private static void ensureIndex(String alias, JsonNode mapping) throws IOException {
+        ObjectNode body = JsonNodeFactory.instance.objectNode();
+        ObjectNode settings = body.putObject("settings");
+        settings.put("number_of_shards", numberOfShards);
+        settings.put("number_of_replicas", numberOfReplicas);
+        body.putObject("mappings").set(searchType, mapping);
+        String physicalIndex = alias + "_" + Integer.toHexString(body.toString().hashCode());
+
+        String currentIndex = getAliasedIndex(alias);
+        if (physicalIndex.equals(currentIndex)) {
+            return;
+        }
+        if (!isIndexExists(physicalIndex)) {
+            Request request = new Request("PUT", "/" + physicalIndex);
+            request.setJsonEntity(body.toString());
+            getClient(alias).getLowLevelClient().performRequest(request);
+            logger.info("Created index {} for {}", physicalIndex, alias);
+        }
+        ArrayNode actions = JsonNodeFactory.instance.arrayNode();
+        if (currentIndex == null && !isIndexExists(alias)) {
+            addAliasAction(actions, "add", physicalIndex, alias);
+            updateAliases(alias, actions);
+            return;
+        }
+        // Either an index created before the aliases or one with an older mapping
+        boolean concreteIndex = currentIndex == null;
+        String source = concreteIndex ? alias : currentIndex;
+        reindexExecutor.submit(() -> migrate(alias, source, physicalIndex, concreteIndex));
+    }
+
+    @Override
+    public void setCatchUpListener(Consumer<String> listener) {
+        catchUpListener = listener;
+    }
+
+    /**
+     * Copies the documents to the new index and moves the alias to it. Writes keep going to the old index
+     * until the swap, the pass following the swap copies the documents they changed.
+     * Only the instance holding the migration lock of the alias migrates it.
+     */
+    private static void migrate(String alias, String source, String destination, boolean concreteIndex) {
+        boolean locked = false;
+        try {
+            locked = acquireMigrationLock(alias);
+            if (!locked) {
+                logger.info("{} is being migrated by another instance", alias);
+                return;
+            }
+            if (destination.equals(getAliasedIndex(alias))) {
+                // migrated by another instance meanwhile
+                return;
+            }
+            logger.info("Reindexing {} into {}", source, destination);
+            reindex(alias, source, destination);
+            ArrayNode actions = JsonNodeFactory.instance.arrayNode();
+            if (concreteIndex) {
+                // An alias can take the name of an index only by removing the index in the same request,
+                // so the second pass happens before. Writes are blocked from the second pass to the swap and
+                // the ones refused meanwhile are caught up from the database.
+                setWriteBlock(alias, source, true);
+                try {
+                    reindex(alias, source, destination);
+                    ObjectNode removeIndex = JsonNodeFactory.instance.objectNode();
+                    removeIndex.putObject("remove_index").put("index", source);
+                    actions.add(removeIndex);
+                    addAliasAction(actions, "add", destination, alias);
+                    updateAliases(alias, actions);
+                } catch (Exception e) {
+                    setWriteBlock(alias, source, false);
+                    throw e;
+                }
+                Consumer<String> listener = catchUpListener;
+                if (listener != null) {
+                    listener.accept(alias);
+                } else {
+                    logger.warn("Writes to {} may have been refused during its migration, reconcile it", alias);
+                }
+            } else {
+                addAliasAction(actions, "remove", source, alias);
+                addAliasAction(actions, "add", destination, alias);
+                updateAliases(alias, actions);
+                reindex(alias, source, destination);
+                getClient(alias).getLowLevelClient().performRequest(new Request("DELETE", "/" + source));
+            }
+            mappings.remove(alias);
+            logger.info("Index {} now points to {}", alias, destination);
+        } catch (Exception e) {
+            logger.error("Reindexing {} into {} failed, {} still points to {}", source, destination, alias, source, e);
+        } finally {
+            if (locked) {
+                releaseMigrationLock(alias);
+            }
+        }
+    }
+
+    /**
+     * Creates the lock document of the alias, or takes it over once its holder let it run out
+     * @return false if another instance holds it
+     */
+    private static boolean acquireMigrationLock(String alias) throws IOException {
+        RestClient client = getClient(alias).getLowLevelClient();
+        String path = "/" + MIGRATION_LOCK_INDEX + "/_doc/" + alias;
+        Request create = new Request("PUT", path);
+        create.addParameter("op_type", "create");
+        create.addParameter("ignore", "409");
+        create.setJsonEntity(migrationLock().toString());
+        if (client.performRequest(create).getStatusLine().getStatusCode() != 409) {
+            return true;
+        }
+        Request get = new Request("GET", path);
+        get.addParameter("ignore", "404");
+        JsonNode current = readJson(client.performRequest(get));
+        if (!current.path("found").asBoolean()
+                || current.path("_source").path("lockedUntil").asLong() > System.currentTimeMillis()) {
+            return false;
+        }
+        Request takeOver = new Request("PUT", path);
+        takeOver.addParameter("if_seq_no", current.path("_seq_no").asText());
+        takeOver.addParameter("if_primary_term", current.path("_primary_term").asText());
+        takeOver.addParameter("ignore", "409");
+        takeOver.setJsonEntity(migrationLock().toString());
+        return client.performRequest(takeOver).getStatusLine().getStatusCode() != 409;
+    }
+
+    private static void renewMigrationLock(String alias) throws IOException {
+        Request request = new Request("PUT", "/" + MIGRATION_LOCK_INDEX + "/_doc/" + alias);
+        request.setJsonEntity(migrationLock().toString());
+        getClient(alias).getLowLevelClient().performRequest(request);
+    }
+
+    private static void releaseMigrationLock(String alias) {
+        try {
+            Request request = new Request("DELETE", "/" + MIGRATION_LOCK_INDEX + "/_doc/" + alias);
+            request.addParameter("ignore", "404");
+            getClient(alias).getLowLevelClient().performRequest(request);
+        } catch (IOException e) {
+            logger.warn("Migration lock of {} not released, it runs out in {} ms", alias, MIGRATION_LOCK_TTL, e);
+        }
+    }
+
+    private static ObjectNode migrationLock() {
+        ObjectNode lock = JsonNodeFactory.instance.objectNode();
+        lock.put("owner", INSTANCE_ID);
+        lock.put("lockedUntil", System.currentTimeMillis() + MIGRATION_LOCK_TTL);
+        return lock;
+    }
+
+    private static void setWriteBlock(String alias, String index, boolean blocked) throws IOException {
+        ObjectNode body = JsonNodeFactory.instance.objectNode();
+        body.put("index.blocks.write", blocked);
+        Request request = new Request("PUT", "/" + index + "/_settings");
+        request.setJsonEntity(body.toString());
+        getClient(alias).getLowLevelClient().performRequest(request);
+    }
+
+    /**
+     * Reindexes with the versions of the source documents, so that a second pass only copies the
+     * documents changed since the first one
+     */
+    private static void reindex(String alias, String source, String destination) throws IOException, InterruptedException {
+        ObjectNode body = JsonNodeFactory.instance.objectNode();
+        body.put("conflicts", "proceed");
+        body.putObject("source").put("index", source);
+        body.putObject("dest").put("index", destination).put("version_type", "external");
+        Request request = new Request("POST", "/_reindex");
+        request.addParameter("wait_for_completion", "false");
+        request.addParameter("refresh", "true");
+        request.setJsonEntity(body.toString());
+        RestClient client = getClient(alias).getLowLevelClient();
+        String task = readJson(client.performRequest(request)).get("task").asText();
+        JsonNode status;
+        long renewedAt = System.currentTimeMillis();
+        do {
+            Thread.sleep(1000);
+            status = readJson(client.performRequest(new Request("GET", "/_tasks/" + task)));
+            if (System.currentTimeMillis() - renewedAt > MIGRATION_LOCK_TTL / 4) {
+                renewMigrationLock(alias);
+                renewedAt = System.currentTimeMillis();
+            }
+        } while (!status.path("completed").asBoolean());
+        JsonNode failures = status.path("response").path("failures");
+        if (failures.size() > 0) {
+            throw new IOException("Reindex of " + source + " failed for " + failures.size() + " documents: " + failures.get(0));
+        }
+        logger.info("Reindexed {} into {}: {}", source, destination, status.path("response").path("created"));
+    }
+
+    private static void addAliasAction(ArrayNode actions, String action, String index, String alias) {
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        node.putObject(action).put("index", index).put("alias", alias);
+        actions.add(node);
+    }
+
+    /**
+     * Applies all the alias actions atomically
+     */
+    private static void updateAliases(String alias, ArrayNode actions) throws IOException {
+        ObjectNode body = JsonNodeFactory.instance.objectNode();
+        body.set("actions", actions);
+        Request request = new Request("POST", "/_aliases");
+        request.setJsonEntity(body.toString());
+        getClient(alias).getLowLevelClient().performRequest(request);
+    }
+
+    /**
+     * @return the physical index behind the alias, null if there is no such alias
+     */
+    private static String getAliasedIndex(String alias) throws IOException {
+        Request request = new Request("GET", "/_alias/" + alias);
+        request.addParameter("ignore", "404");
+        Response response = getClient(alias).getLowLevelClient().performRequest(request);
+        if (response.getStatusLine().getStatusCode() != 200) {
+            return null;
+        }
+        Iterator<String> indices = readJson(response).fieldNames();
+        return indices.hasNext() ? indices.next() : null;
+    }
+
+    /**
+     * @return the properties mapping of the index, empty if it cannot be read
+     */
+    private static JsonNode getMapping(String index) {
+        CachedMapping cached = mappings.get(index);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < MAPPING_TTL) {
+            return cached.mapping;
+        }
+        JsonNode mapping = cached != null ? cached.mapping : JsonNodeFactory.instance.objectNode();
+        try {
+            Request request = new Request("GET", "/" + index + "/_mapping");
+            request.addParameter("ignore", "404");
+            Response response = getClient(index).getLowLevelClient().performRequest(request);
+            if (response.getStatusLine().getStatusCode() == 200) {
+                Iterator<JsonNode> indices = readJson(response).elements();
+                if (indices.hasNext()) {
+                    mapping = indices.next().path("mappings").path(searchType);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Reading the mapping of {} failed", index, e);
+        }
+        mappings.put(index, new CachedMapping(mapping, System.currentTimeMillis()));
+        return mapping;
+    }
+
+    /**
+     * Sets the mapping of the index, until it is reloaded
+     */
+    static void cacheMapping(String index, JsonNode mapping) {
+        mappings.put(index, new CachedMapping(mapping, System.currentTimeMillis()));
+    }
+
+    private static JsonNode getFieldMapping(String index, String field) {
+        JsonNode mapping = getMapping(index);
+        for (String name : field.split("\\.")) {
+            mapping = mapping.path("properties").path(name);
+        }
+        return mapping;
+    }
+
+    /**
+     * @return the path of the nested objects holding the field, null if the field is not nested
+     */
+    private static String getNestedPath(String index, String path) {
+        if (path == null) {
+            return null;
+        }
+        return "nested".equals(getFieldMapping(index, path).path("type").asText()) ? path : null;
+    }
+
+    /**
+     * @return the field to use for exact matches and terms, the keyword sub field of a text field
+     */
+    private static String getKeywordField(String index, String field) {
+        return "keyword".equals(getFieldMapping(index, field).path("type").asText()) ?
+                field : String.format("%s.keyword", field);
+    }
+
+    private static JsonNode readJson(Response response) throws IOException {
+        return objectMapper.readTree(EntityUtils.toString(response.getEntity()));
+    }
+
+    private static class CachedMapping {
+        private final JsonNode mapping;
+        private final long loadedAt;
+
+        private CachedMapping(JsonNode mapping, long loadedAt) {
+            this.mapping = mapping;
+            this.loadedAt = loadedAt;
+        }
+    }
+
     /**
      * This method creates the high-level-client w.r.to index, if client is not created. for every index one client object is created
      *
@@ -216,10 +569,20 @@ public class ElasticServiceImpl implements IElasticService {
     @Retryable(value = {IOException.class, ConnectException.class}, maxAttemptsExpression = "#{${service.retry.maxAttempts}}",
             backoff = @Backoff(delayExpression = "#{${service.retry.backoff.delay}}"))
     public Map<String, Object> readEntity(String index, String osid) throws IOException {
+        return readEntity(index, osid, null);
+    }
+
+    @Override
+    @Retryable(value = {IOException.class, ConnectException.class}, maxAttemptsExpression = "#{${service.retry.maxAttempts}}",
+            backoff = @Backoff(delayExpression = "#{${service.retry.backoff.delay}}"))
+    public Map<String, Object> readEntity(String index, String osid, String[] fields) throws IOException {
         logger.debug("readEntity starts with index {} and entityId {}", index, osid);
         
-        GetResponse response = null;
-        response = getClient(index).get(new GetRequest(index, searchType, osid), RequestOptions.DEFAULT);
+        GetRequest request = new GetRequest(index, searchType, osid);
+        if (fields != null) {
+            request.fetchSourceContext(new FetchSourceContext(true, fields, null));
+        }
+        GetResponse response = getClient(index).get(request, RequestOptions.DEFAULT);
         return response.getSourceAsMap();
     }
     
@@ -270,15 +633,93 @@ public class ElasticServiceImpl implements IElasticService {
         return response.status();
     }
 
+    /**
+     * Writes all the messages of an index in one bulk request. Deletes are soft, same as deleteEntity.
+     *
+     * @param index    - ElasticSearch Index
+     * @param messages - documents along with the operation to be applied
+     * @return osids of the documents which failed
+     * @throws IOException
+     */
+    @Override
+    public List<String> bulk(String index, List<ESMessage> messages) throws IOException {
+        List<String> failedIds = new ArrayList<>();
+        if (messages.isEmpty()) {
+            return failedIds;
+        }
+        String indexL = index.toLowerCase();
+        BulkRequest bulkRequest = new BulkRequest();
+        for (ESMessage message : messages) {
+            DocWriteRequest request;
+            switch (message.getOperation()) {
+                case "ADD":
+                    IndexRequest indexRequest = new IndexRequest(indexL, searchType, message.getOsid())
+                            .source(JSONUtil.convertJsonNodeToMap(message.getInput()));
+                    if (message.getSeqNo() != null && message.getSeqNo() == ESMessage.NOT_EXISTS) {
+                        indexRequest.opType(DocWriteRequest.OpType.CREATE);
+                    } else if (message.getSeqNo() != null) {
+                        indexRequest.setIfSeqNo(message.getSeqNo());
+                        indexRequest.setIfPrimaryTerm(message.getPrimaryTerm());
+                    }
+                    request = indexRequest;
+                    break;
+                case "UPDATE":
+                    request = versioned(new UpdateRequest(indexL, searchType, message.getOsid())
+                            .doc(JSONUtil.convertJsonNodeToMap(message.getInput())), message);
+                    break;
+                case "DELETE":
+                    request = versioned(new UpdateRequest(indexL, searchType, message.getOsid())
+                            .doc(Collections.singletonMap(Constants.STATUS_KEYWORD, Constants.STATUS_INACTIVE)), message);
+                    break;
+                default:
+                    logger.error("Unsupported bulk operation {} for {}", message.getOperation(), message.getOsid());
+                    continue;
+            }
+            bulkRequest.add(request);
+        }
+        if (bulkRequest.numberOfActions() == 0) {
+            return failedIds;
+        }
+        BulkResponse response = getClient(indexL).bulk(bulkRequest, RequestOptions.DEFAULT);
+        if (response.hasFailures()) {
+            for (BulkItemResponse item : response.getItems()) {
+                if (item.isFailed() && item.getFailure().getStatus() == RestStatus.CONFLICT) {
+                    // The document was written since it was read, the newer write wins
+                    logger.debug("Bulk write skipped for {}: {}", item.getId(), item.getFailureMessage());
+                } else if (item.isFailed()) {
+                    logger.error("Bulk write failed for {}: {}", item.getId(), item.getFailureMessage());
+                    failedIds.add(item.getId());
+                }
+            }
+        }
+        return failedIds;
+    }
+
+    /**
+     * Internal versions are refused for conditional updates since ES 7, the sequence number and primary term
+     * are used instead. An update of a document which doesn't exist fails anyway.
+     */
+    private static UpdateRequest versioned(UpdateRequest request, ESMessage message) {
+        if (message.getSeqNo() == null || message.getSeqNo() == ESMessage.NOT_EXISTS) {
+            return request;
+        }
+        request.setIfSeqNo(message.getSeqNo());
+        request.setIfPrimaryTerm(message.getPrimaryTerm());
+        return request;
+    }
+
     @Override
     @Retryable(value = {IOException.class, ConnectException.class}, maxAttemptsExpression = "#{${service.retry.maxAttempts}}",
             backoff = @Backoff(delayExpression = "#{${service.retry.backoff.delay}}"))
     public JsonNode search(String index, SearchQuery searchQuery) throws IOException {
-        BoolQueryBuilder query = buildQuery(searchQuery);
+        BoolQueryBuilder query = buildQuery(index, searchQuery);
         SearchSourceBuilder sourceBuilder = new SearchSourceBuilder()
                 .query(query)
                 .size(searchQuery.getLimit())
                 .from(searchQuery.getOffset());
+        if (searchQuery.getFields() != null && !searchQuery.getFields().isEmpty()) {
+            sourceBuilder.fetchSource(searchQuery.getFields().toArray(new String[0]), null);
+        }
         SearchRequest searchRequest = new SearchRequest(index).source(sourceBuilder);
         ArrayNode resultArray = JsonNodeFactory.instance.arrayNode();
         ObjectMapper mapper = new ObjectMapper();
@@ -296,6 +737,137 @@ public class ElasticServiceImpl implements IElasticService {
 
     }
 
+    @Override
+    public Map<String, ESDocument> multiGet(String index, List<String> ids, String... fields) throws IOException {
+        Map<String, ESDocument> documents = new HashMap<>();
+        if (ids.isEmpty()) {
+            return documents;
+        }
+        MultiGetRequest request = new MultiGetRequest();
+        FetchSourceContext sourceContext = fields.length == 0 ? FetchSourceContext.DO_NOT_FETCH_SOURCE :
+                new FetchSourceContext(true, fields, null);
+        for (String id : ids) {
+            request.add(new MultiGetRequest.Item(index, searchType, id).fetchSourceContext(sourceContext));
+        }
+        for (MultiGetItemResponse item : getClient(index).multiGet(request, RequestOptions.DEFAULT)) {
+            if (!item.isFailed() && item.getResponse().isExists()) {
+                GetResponse response = item.getResponse();
+                JsonNode source = response.isSourceEmpty() ? objectMapper.createObjectNode() :
+                        objectMapper.readTree(response.getSourceAsString());
+                documents.put(item.getId(), new ESDocument(source, response.getSeqNo(), response.getPrimaryTerm()));
+            }
+        }
+        return documents;
+    }
+
+    @Override
+    public void scrollIds(String index, int pageSize, Consumer<Map<String, ESDocument>> consumer) throws IOException {
+        RestHighLevelClient client = getClient(index);
+        Scroll scroll = new Scroll(TimeValue.timeValueMinutes(5));
+        SearchSourceBuilder sourceBuilder = new SearchSourceBuilder()
+                .query(QueryBuilders.boolQuery().mustNot(QueryBuilders.matchPhraseQuery(Constants.STATUS_KEYWORD, Constants.STATUS_INACTIVE)))
+                .fetchSource(false)
+                .seqNoAndPrimaryTerm(true)
+                .size(pageSize);
+        SearchResponse response = client.search(new SearchRequest(index).scroll(scroll).source(sourceBuilder), RequestOptions.DEFAULT);
+        String scrollId = response.getScrollId();
+        try {
+            while (response.getHits().getHits().length > 0) {
+                Map<String, ESDocument> ids = new LinkedHashMap<>();
+                for (SearchHit hit : response.getHits()) {
+                    ids.put(hit.getId(), new ESDocument(objectMapper.createObjectNode(), hit.getSeqNo(), hit.getPrimaryTerm()));
+                }
+                consumer.accept(ids);
+                response = client.scroll(new SearchScrollRequest(scrollId).scroll(scroll), RequestOptions.DEFAULT);
+                scrollId = response.getScrollId();
+            }
+        } finally {
+            ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+            clearScrollRequest.addScrollId(scrollId);
+            client.clearScroll(clearScrollRequest, RequestOptions.DEFAULT);
+        }
+    }
+
+    @Override
+    @Retryable(value = {IOException.class, ConnectException.class}, maxAttemptsExpression = "#{${service.retry.maxAttempts}}",
+            backoff = @Backoff(delayExpression = "#{${service.retry.backoff.delay}}"))
+    public JsonNode aggregate(String index, SearchQuery searchQuery) throws IOException {
+        SearchSourceBuilder sourceBuilder = new SearchSourceBuilder()
+                .query(buildQuery(index, searchQuery))
+                .size(0);
+        for (Aggregation aggregation : searchQuery.getAggregations()) {
+            AggregationBuilder aggregationBuilder;
+            switch (aggregation.getType()) {
+                case terms:
+                    aggregationBuilder = AggregationBuilders.terms(aggregation.getName())
+                            .field(getKeywordField(index, aggregation.getField()))
+                            .size(aggregation.getSize());
+                    break;
+                case dateHistogram:
+                    aggregationBuilder = AggregationBuilders.dateHistogram(aggregation.getName())
+                            .field(aggregation.getField())
+                            .dateHistogramInterval(DATE_HISTOGRAM_INTERVALS.get(aggregation.getInterval()))
+                            .format(DATE_HISTOGRAM_FORMATS.get(aggregation.getInterval()))
+                            .minDocCount(1);
+                    break;
+                case min:
+                    aggregationBuilder = AggregationBuilders.min(aggregation.getName()).field(aggregation.getField());
+                    break;
+                default:
+                    aggregationBuilder = AggregationBuilders.max(aggregation.getName()).field(aggregation.getField());
+                    break;
+            }
+            String nestedPath = getNestedPath(index, aggregation.getPath());
+            if (nestedPath != null) {
+                aggregationBuilder = AggregationBuilders.nested(aggregation.getName(), nestedPath)
+                        .subAggregation(aggregationBuilder);
+            }
+            sourceBuilder.aggregation(aggregationBuilder);
+        }
+        SearchResponse searchResponse = getClient(index).search(new SearchRequest(index).source(sourceBuilder), RequestOptions.DEFAULT);
+
+        ObjectNode result = JsonNodeFactory.instance.objectNode();
+        result.put(Aggregation.COUNT, searchResponse.getHits().getTotalHits());
+        ObjectNode aggregationsNode = result.putObject(Aggregation.AGGREGATIONS);
+        for (Aggregation aggregation : searchQuery.getAggregations()) {
+            ObjectNode aggregationNode = aggregationsNode.putObject(aggregation.getName());
+            org.elasticsearch.search.aggregations.Aggregation esAggregation = searchResponse.getAggregations() == null ?
+                    null : searchResponse.getAggregations().get(aggregation.getName());
+            if (esAggregation instanceof Nested) {
+                esAggregation = ((Nested) esAggregation).getAggregations().get(aggregation.getName());
+            }
+            if (esAggregation instanceof MultiBucketsAggregation) {
+                ArrayNode buckets = aggregationNode.putArray(Aggregation.BUCKETS);
+                for (MultiBucketsAggregation.Bucket bucket : ((MultiBucketsAggregation) esAggregation).getBuckets()) {
+                    ObjectNode bucketNode = buckets.addObject();
+                    bucketNode.put(Aggregation.KEY, bucket.getKeyAsString());
+                    bucketNode.put(Aggregation.COUNT, bucket.getDocCount());
+                }
+            } else if (esAggregation instanceof NumericMetricsAggregation.SingleValue) {
+                NumericMetricsAggregation.SingleValue value = (NumericMetricsAggregation.SingleValue) esAggregation;
+                if (Double.isInfinite(value.value())) {
+                    // no document has the field
+                    aggregationNode.putNull(Aggregation.VALUE);
+                } else if (isNumeric(value.getValueAsString())) {
+                    aggregationNode.put(Aggregation.VALUE, value.value());
+                } else {
+                    // a date, formatted by the field mapping
+                    aggregationNode.put(Aggregation.VALUE, value.getValueAsString());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isNumeric(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     @Override
     public String getServiceName() {
         return SUNBIRD_ELASTIC_SERVICE_NAME;
@@ -319,7 +891,7 @@ public class ElasticServiceImpl implements IElasticService {
      * @param searchQuery
      * @return
      */
-    private BoolQueryBuilder buildQuery(SearchQuery searchQuery) {
+    BoolQueryBuilder buildQuery(String index, SearchQuery searchQuery) {
         List<Filter> filters = searchQuery.getFilters();
         BoolQueryBuilder query = QueryBuilders.boolQuery();
 
@@ -332,65 +904,81 @@ public class ElasticServiceImpl implements IElasticService {
             if (path != null) {
                 field = path + "." + field;
             }
+            String nestedPath = getNestedPath(index, path);
+            // The clauses are added to a query of their own, which is wrapped when the field is nested
+            BoolQueryBuilder fieldQuery = nestedPath != null ? QueryBuilders.boolQuery() : query;
             switch (operator) {
             case eq:
-                query = query.must(QueryBuilders.matchPhraseQuery(field, value));
+                fieldQuery = fieldQuery.must(QueryBuilders.matchPhraseQuery(field, value));
                 break;
             case neq:
-                query = query.mustNot(QueryBuilders.matchPhraseQuery(field, value));
+                fieldQuery = fieldQuery.mustNot(QueryBuilders.matchPhraseQuery(field, value));
                 break;
             case gt:
-                query = query.must(QueryBuilders.rangeQuery(field).gt(value));
+                fieldQuery = fieldQuery.must(QueryBuilders.rangeQuery(field).gt(value));
                 break;
             case lt:
-                query = query.must(QueryBuilders.rangeQuery(field).lt(value));
+                fieldQuery = fieldQuery.must(QueryBuilders.rangeQuery(field).lt(value));
                 break;
             case gte:
-                query = query.must(QueryBuilders.rangeQuery(field).gte(value));
+                fieldQuery = fieldQuery.must(QueryBuilders.rangeQuery(field).gte(value));
                 break;
             case lte:
-                query = query.must(QueryBuilders.rangeQuery(field).lte(value));
+                fieldQuery = fieldQuery.must(QueryBuilders.rangeQuery(field).lte(value));
                 break;
             case between:
                 List<Object> objects = (List<Object>) value;
-                query = query
+                fieldQuery = fieldQuery
                         .must(QueryBuilders.rangeQuery(field).from(objects.get(0)).to(objects.get(objects.size() - 1)));
                 break;
             case or:
                 List<Object> values = (List<Object>) value;
-                query = query.must(QueryBuilders.termsQuery(String.format("%s.keyword", field), values));
+                fieldQuery = fieldQuery.must(QueryBuilders.termsQuery(getKeywordField(index, field), values));
                 break;
 
             case contains:
-                query = query.must(QueryBuilders.matchPhraseQuery(field, value));
+                fieldQuery = fieldQuery.must(QueryBuilders.matchPhraseQuery(field, value));
                 break;
             case startsWith:
-                query = query.must(QueryBuilders.matchPhrasePrefixQuery(field, value.toString()));
+                fieldQuery = fieldQuery.must(QueryBuilders.matchPhrasePrefixQuery(field, value.toString()));
                 break;
             case endsWith:
-                query = query.must(QueryBuilders.wildcardQuery(field, "*" + value));
+                // On the whole value, not on the words of the text
+                fieldQuery = fieldQuery.must(QueryBuilders.wildcardQuery(getKeywordField(index, field), "*" + value));
                 break;
             case notContains:
-                query = query.mustNot(QueryBuilders.matchPhraseQuery(field, value));
+                fieldQuery = fieldQuery.mustNot(QueryBuilders.matchPhraseQuery(field, value));
                 break;
             case notStartsWith:
-                query = query.mustNot(QueryBuilders.matchPhrasePrefixQuery(field, value.toString()));
+                fieldQuery = fieldQuery.mustNot(QueryBuilders.matchPhrasePrefixQuery(field, value.toString()));
                 break;
             case notEndsWith:
-                query = query.mustNot(QueryBuilders.wildcardQuery(field, "*" + value));
+                fieldQuery = fieldQuery.mustNot(QueryBuilders.wildcardQuery(getKeywordField(index, field), "*" + value));
                 break;                
             case queryString:
-                query = query.must(QueryBuilders.queryStringQuery(value.toString()));
+                fieldQuery = fieldQuery.must(QueryBuilders.queryStringQuery(value.toString()));
                 break;
             default:
-                query = query.must(QueryBuilders.matchQuery(field, value));
+                fieldQuery = fieldQuery.must(QueryBuilders.matchQuery(field, value));
                 break;
             }
+            if (nestedPath != null) {
+                // As on flattened objects, a negated clause excludes the documents having a matching nested object
+                query = fieldQuery.mustNot().isEmpty() ?
+                        query.must(QueryBuilders.nestedQuery(nestedPath, fieldQuery, ScoreMode.None)) :
+                        query.mustNot(QueryBuilders.nestedQuery(nestedPath, negate(fieldQuery), ScoreMode.None));
+            }
         }
 
         return query;
     }
 
+    private static BoolQueryBuilder negate(BoolQueryBuilder query) {
+        BoolQueryBuilder negated = QueryBuilders.boolQuery();
+        query.mustNot().forEach(negated::must);
+        return negated;
+    }
+
     public void setAuthEnabled(boolean authEnabled) {
         this.authEnabled = authEnabled;
     }
@@ -4,7 +4,9 @@ import com.fasterxml.jackson.databind.JsonNode;
 import dev.sunbirdrc.pojos.HealthIndicator;
 import dev.sunbirdrc.pojos.SearchQuery;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.elasticsearch.rest.RestStatus;
 
 /**
@@ -27,6 +29,14 @@ public interface IElasticService extends HealthIndicator {
      */
     Map<String, Object> readEntity(String index, String osid) throws IOException;
 
+    /** Reads document with respect to input osid from ES, with only the given source fields
+     * @param index - ElasticSearch Index
+     * @param osid - which maps to document
+     * @param fields - source fields to return, all when null
+     * @return
+     */
+    Map<String, Object> readEntity(String index, String osid, String[] fields) throws IOException;
+
     /** updates document with respect to input osid to ES
      * @param index - ElasticSearch Index
      * @param inputEntity - input json document for updating
@@ -41,6 +51,14 @@ public interface IElasticService extends HealthIndicator {
      */
     RestStatus deleteEntity(String index, String osid);
 
+    /** applies ADD, UPDATE and DELETE operations on documents of one index in a single bulk request
+     * @param index - ElasticSearch Index
+     * @param messages - documents along with the operation to be applied on each, writes with a sequence number
+     *                 and primary term only apply when the document still has them and are skipped otherwise
+     * @return osids of the documents which could not be written
+     */
+    List<String> bulk(String index, List<ESMessage> messages) throws IOException;
+
     /** searches documents from ES based on query
      * @param index - ElasticSearch Index
      * @param searchQuery - which contains details for search
@@ -48,4 +66,31 @@ public interface IElasticService extends HealthIndicator {
      */
     JsonNode search(String index, SearchQuery searchQuery) throws IOException;
 
+    /** reads documents by id, with only the given source fields
+     * @param index - ElasticSearch Index
+     * @param ids - document ids
+     * @param fields - source fields to return, none when empty
+     * @return id to source, sequence number and primary term of the documents found
+     */
+    Map<String, ESDocument> multiGet(String index, List<String> ids, String... fields) throws IOException;
+
+    /** pages through the ids of all the documents which are not deleted
+     * @param index - ElasticSearch Index
+     * @param pageSize - ids per page
+     * @param consumer - called with each page of ids and their documents, without source
+     */
+    void scrollIds(String index, int pageSize, Consumer<Map<String, ESDocument>> consumer) throws IOException;
+
+    /** counts the documents matching the query and computes its aggregations, without fetching any document
+     * @param index - ElasticSearch Index
+     * @param searchQuery - filters and aggregations
+     * @return count and aggregations
+     */
+    JsonNode aggregate(String index, SearchQuery searchQuery) throws IOException;
+
+    /** sets what to run when writes to an index may have been refused while the index was migrated
+     * @param listener - called with the index
+     */
+    void setCatchUpListener(Consumer<String> listener);
+
 }
@@ -0,0 +1,61 @@
+package dev.sunbirdrc.elastic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.pojos.Filter;
+import dev.sunbirdrc.pojos.FilterOperators;
+import dev.sunbirdrc.pojos.SearchQuery;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.MatchPhraseQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.WildcardQueryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class ElasticServiceImplTest {
+    private static final String INDEX = "teacher";
+
+    private final ElasticServiceImpl elasticService = new ElasticServiceImpl();
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        ElasticServiceImpl.cacheMapping(INDEX, new ObjectMapper().readTree("{\"properties\": {"
+                + "\"gender\": {\"type\": \"text\", \"fields\": {\"keyword\": {\"type\": \"keyword\"}}},"
+                + "\"osid\": {\"type\": \"keyword\"}}}"));
+    }
+
+    private BoolQueryBuilder query(String field, FilterOperators operator, Object value) {
+        SearchQuery searchQuery = new SearchQuery(Collections.singletonList("Teacher"), 0, 10);
+        searchQuery.setFilters(Collections.singletonList(new Filter(field, operator, value)));
+        return elasticService.buildQuery(INDEX, searchQuery);
+    }
+
+    @Test
+    public void shouldMatchContainsOnTheText() {
+        QueryBuilder clause = query("gender", FilterOperators.contains, "ema").must().get(0);
+        assertEquals("gender", ((MatchPhraseQueryBuilder) clause).fieldName());
+
+        clause = query("gender", FilterOperators.notContains, "ema").mustNot().get(0);
+        assertEquals("gender", ((MatchPhraseQueryBuilder) clause).fieldName());
+    }
+
+    @Test
+    public void shouldMatchSuffixesOnTheWholeValue() {
+        WildcardQueryBuilder clause = (WildcardQueryBuilder) query("gender", FilterOperators.endsWith, "ale").must().get(0);
+        assertEquals("gender.keyword", clause.fieldName());
+        assertEquals("*ale", clause.value());
+
+        clause = (WildcardQueryBuilder) query("gender", FilterOperators.notEndsWith, "ale").mustNot().get(0);
+        assertEquals("gender.keyword", clause.fieldName());
+    }
+
+    @Test
+    public void shouldMatchSuffixesOfKeywordFieldsOnTheField() {
+        WildcardQueryBuilder clause = (WildcardQueryBuilder) query("osid", FilterOperators.endsWith, "42").must().get(0);
+        assertEquals("osid", clause.fieldName());
+    }
+}
@@ -0,0 +1,63 @@
+package dev.sunbirdrc.registry.middleware.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Helpers of the components which work in the background, like dispatchers and provisioning: their threads,
+ * the backoff of their retries and their counters.
+ */
+public class BackgroundTasks {
+    // Backoff stops doubling after this many attempts
+    private static final int MAX_BACKOFF_DOUBLINGS = 16;
+
+    private BackgroundTasks() {
+    }
+
+    /**
+     * Daemon threads named prefix-1, prefix-2..., so that background work doesn't hold up shutdown
+     */
+    public static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Delay before retrying the attempt, doubling from the base delay with every attempt
+     *
+     * @param attempt - the attempt which failed, starting at 1
+     */
+    public static long backoff(long base, int attempt) {
+        return base << Math.min(Math.max(0, attempt - 1), MAX_BACKOFF_DOUBLINGS);
+    }
+
+    /**
+     * Named counters of a component, whose snapshot lists them in the order they were added. Counters are added
+     * while the component is constructed, and counted from any thread after that.
+     */
+    public static class Counters {
+        private final Map<String, LongAdder> counters = new LinkedHashMap<>();
+
+        public LongAdder add(String name) {
+            LongAdder counter = new LongAdder();
+            counters.put(name, counter);
+            return counter;
+        }
+
+        /**
+         * The current counts, callers add their gauges to it
+         */
+        public Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            counters.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+            return snapshot;
+        }
+    }
+}
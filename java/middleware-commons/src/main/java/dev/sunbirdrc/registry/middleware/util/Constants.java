@@ -34,6 +34,7 @@ public class Constants {
 	public static final String ARRAY_ITEM = "_item";
 	public static final String INTERNAL_TYPE_KEYWORD = "_intType";
 	public static final String ROOT_KEYWORD = "_osroot";
+	public static final String SHARD_HASH_KEYWORD = "_osshardhash";
 	
 	//Audit Fields Constant
 	public static final String ACTION="action";
@@ -112,6 +113,7 @@ public class Constants {
 
 	public static final String ENTITY_TYPE = "entityType";
 	public static final String FILTERS = "filters";
+	public static final String FIELDS = "fields";
 
 	//Audit Data Store Type
 	public static final String FILE="FILE";
@@ -8,6 +8,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
 import com.flipkart.zjsonpatch.JsonDiff;
 import com.github.jsonldjava.core.JsonLdError;
 import com.github.jsonldjava.core.JsonLdOptions;
@@ -195,6 +196,43 @@ public class JSONUtil {
 		});
 	}
 
+	/**
+	 * Copy of the node with the prefix added to the values of the given keys, like {@link #addPrefix} but in a
+	 * single walk which leaves the node unchanged. Value nodes are immutable and shared with the copy.
+	 *
+	 * @param node
+	 * @param prefix
+	 * @param keys
+	 */
+	public static JsonNode copyWithPrefix(JsonNode node, String prefix, Set<String> keys) {
+		if (node.isObject()) {
+			ObjectNode copy = JsonNodeFactory.instance.objectNode();
+			node.fields().forEachRemaining(entry -> copy.set(entry.getKey(),
+					copyWithPrefix(entry.getKey(), entry.getValue(), prefix, keys)));
+			return copy;
+		}
+		if (node.isArray()) {
+			ArrayNode copy = JsonNodeFactory.instance.arrayNode();
+			node.forEach(item -> copy.add(copyWithPrefix(item, prefix, keys)));
+			return copy;
+		}
+		return node;
+	}
+
+	private static JsonNode copyWithPrefix(String key, JsonNode value, String prefix, Set<String> keys) {
+		boolean prefixed = keys.contains(key);
+		if (value.isValueNode()) {
+			return prefixed ? TextNode.valueOf(prefix + value.asText()) : value;
+		}
+		if (value.isArray()) {
+			ArrayNode copy = JsonNodeFactory.instance.arrayNode();
+			value.forEach(item -> copy.add(prefixed && item.isTextual() ? TextNode.valueOf(prefix + item.asText())
+					: copyWithPrefix(item, prefix, keys)));
+			return copy;
+		}
+		return copyWithPrefix(value, prefix, keys);
+	}
+
 	/**
 	 * Adding a child node to Parent's hierarchy.
 	 * 
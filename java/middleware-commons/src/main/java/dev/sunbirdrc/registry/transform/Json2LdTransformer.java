@@ -1,5 +1,6 @@
 package dev.sunbirdrc.registry.transform;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import dev.sunbirdrc.registry.middleware.util.Constants.JsonldConstants;
@@ -7,18 +8,25 @@ import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.json.JsonObject;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Json2LdTransformer implements ITransformer<Object> {
 
 	private static final String SEPERATOR = ":";
+	private static final String TYPE_PLACEHOLDER = "<@type>";
 	private static Logger logger = LoggerFactory.getLogger(Json2LdTransformer.class);
-	private String context;
-	private List<String> nodeTypes = new ArrayList<>();
-	private String prefix = "";
+	private final String context;
+	private final String prefix;
 	private final ObjectMapper mapper = new ObjectMapper();
+	// Context of each entity type, parsed once and only read afterwards
+	private final Map<String, CompiledContext> compiledContexts = new ConcurrentHashMap<>();
 
 	public Json2LdTransformer(String context, String domain) {
 		this.context = context;
@@ -26,25 +34,28 @@ public class Json2LdTransformer implements ITransformer<Object> {
 
 	}
 
+	/**
+	 * Transforms {entity:{...}} to the entity with the context of its type, in a single walk of the entity which
+	 * leaves the given node unchanged
+	 */
 	@Override
 	public Data<Object> transform(Data<Object> data) throws TransformationException {
 		try {
-			ObjectNode resultNode = (ObjectNode) mapper.readTree(data.getData().toString());
-			String rootType = getTypeFromNode(resultNode);
-			resultNode = (ObjectNode) resultNode.path(rootType);
-
-			// Set the generic context to this entity type
-			String modifiedContext = context.replace("<@type>", rootType);
-			ObjectNode contextNode = (ObjectNode) mapper.readTree(modifiedContext);
-			resultNode.set("@context", contextNode);
-			setNodeTypeToAppend(contextNode);
+			JsonNode requestNode = toJsonNode(data.getData());
+			String rootType = getTypeFromNode(requestNode);
+			JsonNode entityNode = requestNode.path(rootType);
+			if (!entityNode.isObject()) {
+				throw new IllegalArgumentException("Expected an object for the entity " + rootType);
+			}
+			CompiledContext compiledContext = compiledContexts.computeIfAbsent(rootType, this::compile);
 
 			// Add prefix to all content
-			JSONUtil.addPrefix(resultNode, prefix, nodeTypes);
+			ObjectNode resultNode = (ObjectNode) JSONUtil.copyWithPrefix(entityNode, prefix, compiledContext.prefixedKeys);
 			logger.debug("Appended prefix to requestNode.");
 
 			// Insert context to the result
-			resultNode.setAll(contextNode);
+			compiledContext.contextNode.fields()
+					.forEachRemaining(entry -> resultNode.set(entry.getKey(), entry.getValue().deepCopy()));
 			return new Data<>(resultNode);
 		} catch (Exception ex) {
 			logger.error("Error trnsx : " + ex.getMessage(), ex);
@@ -52,33 +63,55 @@ public class Json2LdTransformer implements ITransformer<Object> {
 		}
 	}
 
+	private JsonNode toJsonNode(Object data) throws IOException {
+		if (data instanceof JsonNode) {
+			return (JsonNode) data;
+		}
+		return mapper.readTree(data.toString());
+	}
+
 	/*
 	 * Given a input like the following, {entity:{"a":1, "b":1}} returns
 	 * "entity" being the type of the json object.
 	 */
-	private String getTypeFromNode(ObjectNode requestNode) {
+	private String getTypeFromNode(JsonNode requestNode) {
 		String rootValue = "";
-		if (requestNode.isObject()) {
-			logger.info("root node to set as type " + requestNode.fields().next().getKey());
-			rootValue = requestNode.fields().next().getKey();
+		if (requestNode.isObject() && requestNode.size() > 0) {
+			rootValue = requestNode.fieldNames().next();
+			logger.debug("root node to set as type " + rootValue);
 		}
 		return rootValue;
 	}
 
+	/**
+	 * Sets the generic context to the entity type and extracts the keys whose values get the prefix.
+	 *
+	 * @param rootType
+	 */
+	private CompiledContext compile(String rootType) {
+		try {
+			ObjectNode contextNode = (ObjectNode) mapper.readTree(context.replace(TYPE_PLACEHOLDER, rootType));
+			return new CompiledContext(contextNode, getNodeTypesToAppend(contextNode));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
 	/**
 	 * Extracting the sub entities from context.
-	 * 
+	 *
 	 * @param contextNode
 	 */
-	private void setNodeTypeToAppend(ObjectNode contextNode) {
-		ObjectNode context = (ObjectNode) contextNode.path(JsonldConstants.CONTEXT);
+	private Set<String> getNodeTypesToAppend(ObjectNode contextNode) {
+		Set<String> nodeTypes = new HashSet<>();
 		nodeTypes.add(JsonldConstants.ID);
-		context.fields().forEachRemaining(entry -> {
+		contextNode.path(JsonldConstants.CONTEXT).fields().forEachRemaining(entry -> {
 			if (entry.getValue().has(JsonldConstants.TYPE)
 					&& entry.getValue().get(JsonldConstants.TYPE).asText().equalsIgnoreCase(JsonldConstants.ID)) {
 				nodeTypes.add(entry.getKey());
 			}
 		});
+		return Collections.unmodifiableSet(nodeTypes);
 	}
 
 	@Override
@@ -86,4 +119,14 @@ public class Json2LdTransformer implements ITransformer<Object> {
 		// Nothing to purge
 	}
 
+	private static class CompiledContext {
+		private final ObjectNode contextNode;
+		private final Set<String> prefixedKeys;
+
+		private CompiledContext(ObjectNode contextNode, Set<String> prefixedKeys) {
+			this.contextNode = contextNode;
+			this.prefixedKeys = prefixedKeys;
+		}
+	}
+
 }
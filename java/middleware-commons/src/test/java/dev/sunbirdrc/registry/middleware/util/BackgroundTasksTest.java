@@ -0,0 +1,43 @@
+package dev.sunbirdrc.registry.middleware.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.Assert.*;
+
+public class BackgroundTasksTest {
+
+    @Test
+    public void shouldNameTheDaemonThreadsInOrder() {
+        ThreadFactory threadFactory = BackgroundTasks.daemonThreads("dispatch");
+        Thread first = threadFactory.newThread(() -> {});
+        Thread second = threadFactory.newThread(() -> {});
+        assertEquals("dispatch-1", first.getName());
+        assertEquals("dispatch-2", second.getName());
+        assertTrue(first.isDaemon());
+    }
+
+    @Test
+    public void shouldDoubleTheBackoffWithEveryAttempt() {
+        assertEquals(100, BackgroundTasks.backoff(100, 1));
+        assertEquals(200, BackgroundTasks.backoff(100, 2));
+        assertEquals(800, BackgroundTasks.backoff(100, 4));
+        assertEquals(100L << 16, BackgroundTasks.backoff(100, 40));
+        assertEquals(100, BackgroundTasks.backoff(100, 0));
+    }
+
+    @Test
+    public void shouldSnapshotTheCountersInOrder() {
+        BackgroundTasks.Counters counters = new BackgroundTasks.Counters();
+        counters.add("sent").add(3);
+        counters.add("failed").increment();
+        Map<String, Object> snapshot = counters.snapshot();
+        assertEquals(Arrays.asList("sent", "failed"), new ArrayList<>(snapshot.keySet()));
+        assertEquals(3L, snapshot.get("sent"));
+        assertEquals(1L, snapshot.get("failed"));
+    }
+}
@@ -0,0 +1,37 @@
+package dev.sunbirdrc.registry.transform;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+public class Json2LdTransformerTest {
+    private static final String CONTEXT = "{\"@context\":{\"@vocab\":\"http://example.com/\",\"school\":{\"@type\":\"@id\"}},\"@type\":\"<@type>\"}";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Json2LdTransformer transformer = new Json2LdTransformer(CONTEXT, "example");
+
+    @Test
+    public void shouldAddContextAndPrefixIdentifiers() throws IOException, TransformationException {
+        JsonNode input = mapper.readTree("{\"Student\":{\"@id\":\"1\",\"name\":\"a\",\"school\":\"2\",\"subjects\":[{\"@id\":\"3\",\"school\":[\"4\"]}]}}");
+        JsonNode expected = mapper.readTree("{\"@id\":\"example:1\",\"name\":\"a\",\"school\":\"example:2\",\"subjects\":[{\"@id\":\"example:3\",\"school\":[\"example:4\"]}],"
+                + "\"@context\":{\"@vocab\":\"http://example.com/\",\"school\":{\"@type\":\"@id\"}},\"@type\":\"Student\"}");
+        JsonNode original = input.deepCopy();
+
+        assertEquals(expected, transformer.transform(new Data<>(input)).getData());
+        assertEquals(original, input);
+        assertEquals(expected, transformer.transform(new Data<>(input.toString())).getData());
+    }
+
+    @Test
+    public void shouldSetTheContextOfEachType() throws IOException, TransformationException {
+        JsonNode student = (JsonNode) transformer.transform(new Data<>(mapper.readTree("{\"Student\":{\"name\":\"a\"}}"))).getData();
+        JsonNode teacher = (JsonNode) transformer.transform(new Data<>(mapper.readTree("{\"Teacher\":{\"name\":\"b\"}}"))).getData();
+
+        assertEquals("Student", student.get("@type").asText());
+        assertEquals("Teacher", teacher.get("@type").asText());
+    }
+}
@@ -0,0 +1,76 @@
+package dev.sunbirdrc.registry.authorization;
+
+import dev.sunbirdrc.registry.authorization.pojos.AuthInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the AuthInfo of verified tokens until the tokens expire, keyed by the token hash so that the tokens
+ * themselves are not held in memory. When full, the expired entries are dropped first, then arbitrary ones.
+ */
+public class AuthInfoCache {
+
+	private final int maxSize;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	public AuthInfoCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public AuthInfo get(String token, long now) {
+		String key = hash(token);
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.expiresAt <= now) {
+			entries.remove(key, entry);
+			return null;
+		}
+		return entry.authInfo;
+	}
+
+	public void put(String token, AuthInfo authInfo, long expiresAt, long now) {
+		if (maxSize <= 0 || expiresAt <= now) {
+			return;
+		}
+		if (entries.size() >= maxSize) {
+			entries.values().removeIf(entry -> entry.expiresAt <= now);
+			Iterator<String> keys = entries.keySet().iterator();
+			while (entries.size() >= maxSize && keys.hasNext()) {
+				keys.next();
+				keys.remove();
+			}
+		}
+		entries.put(hash(token), new Entry(authInfo, expiresAt));
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private static String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static class Entry {
+		private final AuthInfo authInfo;
+		private final long expiresAt;
+
+		private Entry(AuthInfo authInfo, long expiresAt) {
+			this.authInfo = authInfo;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -1,15 +1,11 @@
 package dev.sunbirdrc.registry.authorization;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import io.jsonwebtoken.Jwts;
 import dev.sunbirdrc.pojos.APIMessage;
 import dev.sunbirdrc.pojos.SunbirdRCInstrumentation;
 import dev.sunbirdrc.registry.authorization.pojos.AuthInfo;
 import dev.sunbirdrc.registry.middleware.Middleware;
 import dev.sunbirdrc.registry.middleware.MiddlewareHaltException;
 import dev.sunbirdrc.registry.middleware.util.Constants;
-import org.apache.commons.codec.binary.Base64;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +13,6 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -54,11 +49,12 @@ public class AuthorizationFilter implements Middleware {
 				throw new MiddlewareHaltException(TOKEN_IS_MISSING);
 			}
 			String token = tokenObject.toString();
-			watch.start("KeycloakServiceImpl.verifyToken");
-			String userId = keyCloakServiceImpl.verifyToken(token);
-			watch.stop("KeycloakServiceImpl.verifyToken");
+			watch.start("KeycloakServiceImpl.authenticate");
+			AuthInfo authInfo = keyCloakServiceImpl.authenticate(token);
+			watch.stop("KeycloakServiceImpl.authenticate");
+			String userId = authInfo.getSub();
 
-			if (!userId.trim().isEmpty()) {
+			if (userId != null && !userId.trim().isEmpty()) {
 				apiMessage.setUserID(userId);
 				if (mapObject.containsKey("userName")) {
 					logger.debug("Access token for user {} verified successfully with KeyCloak server !",
@@ -66,8 +62,7 @@ public class AuthorizationFilter implements Middleware {
 				} else {
 					logger.debug("Access token verified successfully with KeyCloak server !");
 				}
-				AuthInfo authInfo = extractTokenIntoAuthInfo(token);
-				if (authInfo.getSub() == null || authInfo.getAud() == null || authInfo.getName() == null) {
+				if (authInfo.getAud() == null || authInfo.getName() == null) {
 					throw new MiddlewareHaltException(VERIFICATION_EXCEPTION);
 				}
 				List<SimpleGrantedAuthority> authorityList = new ArrayList<>();
@@ -92,33 +87,12 @@ public class AuthorizationFilter implements Middleware {
 	 * @param token
 	 */
 	public AuthInfo extractTokenIntoAuthInfo(String token) {
-		AuthInfo authInfo = new AuthInfo();
 		try {
-			Jwts.parser().setSigningKey(keyCloakServiceImpl.getPublicKey()).parseClaimsJws(token);
-
-			String[] split_string = token.split("\\.");
-			String base64EncodedBody = split_string[1];
-			Base64 base64Url = new Base64(true);
-			String body = new String(base64Url.decode(base64EncodedBody));
-
-			Map<String, Object> map = new Gson().fromJson(body, new TypeToken<HashMap<String, Object>>() {
-			}.getType());
-
-			for (String s : map.keySet()) {
-				if (s.equalsIgnoreCase("aud")) {
-					authInfo.setAud(map.get(s).toString());
-				}
-				if (s.equalsIgnoreCase("sub")) {
-					authInfo.setSub(map.get(s).toString());
-				}
-				if (s.equalsIgnoreCase("name")) {
-					authInfo.setName(map.get(s).toString());
-				}
-			}
+			return keyCloakServiceImpl.authenticate(token);
 		} catch (Exception e) {
 			logger.error("Claim extracted but verification failed !", e);
 		}
-		return authInfo;
+		return new AuthInfo();
 	}
 
 }
@@ -1,28 +1,52 @@
 package dev.sunbirdrc.registry.authorization;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.authorization.pojos.AuthInfo;
 import org.keycloak.RSATokenVerifier;
 import org.keycloak.common.VerificationException;
 import org.keycloak.representations.AccessToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.net.HttpURLConnection;
+import java.net.URL;
 import java.security.KeyFactory;
 import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class KeyCloakServiceImpl {
 
 	private static Logger logger = LoggerFactory.getLogger(KeyCloakServiceImpl.class);
+	private static final int DEFAULT_CACHE_SIZE = 10000;
+	// Unknown key ids fetch the realm keys at most this often
+	private static final long REALM_KEYS_REFRESH_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+	private static final int REALM_KEYS_TIMEOUT = 5000;
 
 	private String ssoUrl;
 	private String ssoRealm;
 	private PublicKey publicKey;
+	private final AuthInfoCache authInfoCache;
+	private volatile Map<String, PublicKey> realmKeys = new HashMap<>();
+	private volatile long realmKeysFetchedAt;
 
 	public KeyCloakServiceImpl(String ssoUrl, String ssoRealm, String publicKeyStr) {
+		this(ssoUrl, ssoRealm, publicKeyStr, DEFAULT_CACHE_SIZE);
+	}
+
+	public KeyCloakServiceImpl(String ssoUrl, String ssoRealm, String publicKeyStr, int authInfoCacheSize) {
 		this.ssoUrl = ssoUrl;
 		this.ssoRealm = ssoRealm;
 		this.publicKey = toPublicKey(publicKeyStr);
+		this.authInfoCache = new AuthInfoCache(authInfoCacheSize);
 	}
 
 	public PublicKey getPublicKey() {
@@ -38,12 +62,94 @@ public class KeyCloakServiceImpl {
 	 * @throws Exception
 	 */
 	public String verifyToken(String accessToken) throws VerificationException, Exception {
-		AccessToken token = RSATokenVerifier.verifyToken(accessToken, publicKey, ssoUrl + "realms/" + ssoRealm, true,
-				true);
-		String userId = token.getSubject();
+		return authenticate(accessToken).getSub();
+	}
+
+	/**
+	 * Verifies the signature of the token once and reads the claims from the verified token. The result is
+	 * kept until the token expires, so repeat requests with the same token skip the verification.
+	 *
+	 * @param accessToken
+	 * @throws VerificationException
+	 */
+	public AuthInfo authenticate(String accessToken) throws VerificationException {
+		long now = System.currentTimeMillis();
+		AuthInfo authInfo = authInfoCache.get(accessToken, now);
+		if (authInfo != null) {
+			return authInfo;
+		}
+		AccessToken token = verify(accessToken);
 		logger.debug("Authentication token \n TokenId: {} \t isActive: {} \t isExpired: {} \t", token.getId(),
 				token.isActive(), token.isExpired());
-		return userId;
+		authInfo = new AuthInfo();
+		authInfo.setSub(token.getSubject());
+		authInfo.setName(token.getName());
+		String[] audience = token.getAudience();
+		if (audience != null && audience.length > 0) {
+			authInfo.setAud(audience.length == 1 ? audience[0] : Arrays.toString(audience));
+		}
+		authInfoCache.put(accessToken, authInfo, TimeUnit.SECONDS.toMillis(token.getExpiration()), now);
+		return authInfo;
+	}
+
+	private AccessToken verify(String accessToken) throws VerificationException {
+		RSATokenVerifier verifier = RSATokenVerifier.create(accessToken)
+				.realmUrl(ssoUrl + "realms/" + ssoRealm)
+				.checkActive(true)
+				.checkTokenType(true);
+		return verifier.publicKey(getSigningKey(verifier.getHeader().getKeyId())).verify().getToken();
+	}
+
+	/**
+	 * The realm key the token was signed with. Keys are read from the realm certs endpoint and cached, a key id
+	 * not seen before fetches them again so that rotated keys are picked up. Tokens without a key id, or whose
+	 * key can't be found, are checked against the configured public key.
+	 */
+	private PublicKey getSigningKey(String keyId) {
+		if (keyId == null) {
+			return publicKey;
+		}
+		PublicKey key = realmKeys.get(keyId);
+		if (key == null && System.currentTimeMillis() - realmKeysFetchedAt >= REALM_KEYS_REFRESH_INTERVAL) {
+			synchronized (this) {
+				if (!realmKeys.containsKey(keyId) && System.currentTimeMillis() - realmKeysFetchedAt >= REALM_KEYS_REFRESH_INTERVAL) {
+					fetchRealmKeys();
+				}
+			}
+			key = realmKeys.get(keyId);
+		}
+		return key != null ? key : publicKey;
+	}
+
+	private void fetchRealmKeys() {
+		realmKeysFetchedAt = System.currentTimeMillis();
+		String certsUrl = ssoUrl + "realms/" + ssoRealm + "/protocol/openid-connect/certs";
+		try {
+			HttpURLConnection connection = (HttpURLConnection) new URL(certsUrl).openConnection();
+			connection.setConnectTimeout(REALM_KEYS_TIMEOUT);
+			connection.setReadTimeout(REALM_KEYS_TIMEOUT);
+			JsonNode keys;
+			try (InputStream inputStream = connection.getInputStream()) {
+				keys = new ObjectMapper().readTree(inputStream).path("keys");
+			}
+			Map<String, PublicKey> fetchedKeys = new HashMap<>();
+			for (JsonNode key : keys) {
+				if ("RSA".equals(key.path("kty").asText()) && !"enc".equals(key.path("use").asText())) {
+					fetchedKeys.put(key.path("kid").asText(), toPublicKey(key.path("n").asText(), key.path("e").asText()));
+				}
+			}
+			realmKeys = fetchedKeys;
+			logger.info("Fetched {} keys of realm {}", fetchedKeys.size(), ssoRealm);
+		} catch (Exception e) {
+			logger.error("Failed fetching the keys of realm {}", ssoRealm, e);
+		}
+	}
+
+	private static PublicKey toPublicKey(String modulus, String exponent) throws Exception {
+		Base64.Decoder decoder = Base64.getUrlDecoder();
+		RSAPublicKeySpec keySpec = new RSAPublicKeySpec(new BigInteger(1, decoder.decode(modulus)),
+				new BigInteger(1, decoder.decode(exponent)));
+		return KeyFactory.getInstance("RSA").generatePublic(keySpec);
 	}
 
 	/**
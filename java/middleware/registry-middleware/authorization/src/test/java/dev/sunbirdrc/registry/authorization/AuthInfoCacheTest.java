@@ -0,0 +1,37 @@
+package dev.sunbirdrc.registry.authorization;
+
+import dev.sunbirdrc.registry.authorization.pojos.AuthInfo;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AuthInfoCacheTest {
+
+	@Test
+	public void test_cached_until_token_expiry() {
+		AuthInfoCache cache = new AuthInfoCache(10);
+		AuthInfo authInfo = new AuthInfo();
+		cache.put("token", authInfo, 2000, 1000);
+		assertSame(authInfo, cache.get("token", 1500));
+		assertNull(cache.get("token", 2000));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void test_expired_tokens_not_cached() {
+		AuthInfoCache cache = new AuthInfoCache(10);
+		cache.put("token", new AuthInfo(), 1000, 1000);
+		assertNull(cache.get("token", 500));
+	}
+
+	@Test
+	public void test_cache_is_bounded() {
+		AuthInfoCache cache = new AuthInfoCache(2);
+		cache.put("token1", new AuthInfo(), 1500, 1000);
+		cache.put("token2", new AuthInfo(), 5000, 1000);
+		cache.put("token3", new AuthInfo(), 5000, 2000);
+		assertEquals(2, cache.size());
+		assertNull(cache.get("token1", 2000));
+		assertNotNull(cache.get("token3", 2000));
+	}
+}
@@ -19,6 +19,8 @@ import org.springframework.context.annotation.PropertySource;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.ws.rs.NotFoundException;
 import javax.ws.rs.core.Response;
 
 import static dev.sunbirdrc.registry.middleware.util.Constants.CONNECTION_FAILURE;
@@ -44,6 +46,8 @@ public class KeycloakAdminUtil implements HealthIndicator {
     private List<String> emailActions;
     private final Keycloak keycloak;
     private boolean authenticationEnabled;
+    // Group of each entity, the group and its role are created once and reused for every owner of the entity
+    private final Map<String, String> realmGroupIds = new ConcurrentHashMap<>();
 
     @Autowired
     public KeycloakAdminUtil(
@@ -77,14 +81,15 @@ public class KeycloakAdminUtil implements HealthIndicator {
                 .clientSecret(adminClientSecret)
                 .resteasyClient(
                         new ResteasyClientBuilder()
-                                .connectionPoolSize(httpMaxConnections).build()
+                                .connectionPoolSize(httpMaxConnections)
+                                .maxPooledPerRoute(httpMaxConnections).build()
                 )
                 .build();
     }
 
     public String createUser(String entityName, String userName, String email, String mobile, String password) throws OwnerCreationException {
         logger.info("Creating user with mobile_number : " + userName);
-        String groupId = createOrUpdateRealmGroup(entityName);
+        String groupId = getRealmGroupId(entityName);
         UserRepresentation newUser = createUserRepresentation(entityName, userName, email, mobile, password);
         UsersResource usersResource = keycloak.realm(realm).users();
         try (Response response = usersResource.create(newUser)) {
@@ -100,13 +105,25 @@ public class KeycloakAdminUtil implements HealthIndicator {
                 logger.info("UserID: {} exists", userName);
                 return updateExistingUserAttributes(entityName, userName, email, mobile, groupId);
             } else if (response.getStatus() == 500) {
-                throw new OwnerCreationException("Keycloak user creation error");
+                realmGroupIds.remove(entityName);
+                throw new OwnerCreationException("Keycloak user creation error", true);
             } else {
                 throw new OwnerCreationException("Username already invited / registered");
             }
         }
     }
 
+    private String getRealmGroupId(String entityName) {
+        String groupId = realmGroupIds.get(entityName);
+        if (groupId == null) {
+            groupId = createOrUpdateRealmGroup(entityName);
+            if (!groupId.isEmpty()) {
+                realmGroupIds.put(entityName, groupId);
+            }
+        }
+        return groupId;
+    }
+
     private String createOrUpdateRealmGroup(String entityName) {
         RoleRepresentation roleRepresentation = createOrGetRealmRole(entityName);
         GroupsResource groupsResource = keycloak.realm(realm).groups();
@@ -155,7 +172,13 @@ public class KeycloakAdminUtil implements HealthIndicator {
                 userRepresentation.setGroups(groups);
             }
             userResource.update(userRepresentation);
-            userResource.joinGroup(groupId);
+            try {
+                userResource.joinGroup(groupId);
+            } catch (NotFoundException e) {
+                // The group was removed from the realm since it was cached
+                realmGroupIds.remove(entityName);
+                userResource.joinGroup(getRealmGroupId(entityName));
+            }
             return userRepresentation.getId();
         } else {
             logger.error("Failed fetching user by username: {}", userName);
@@ -7,8 +7,22 @@ public class OwnerCreationException extends Exception {
 	 */
 	private static final long serialVersionUID = 8690094725383702979L;
 
+	private final boolean retryable;
+
 	public OwnerCreationException(String message) {
+		this(message, false);
+	}
+
+	public OwnerCreationException(String message, boolean retryable) {
 		super(message);
+		this.retryable = retryable;
+	}
+
+	/**
+	 * Whether the owner creation failed for a transient reason and can be tried again
+	 */
+	public boolean isRetryable() {
+		return retryable;
 	}
 
 }
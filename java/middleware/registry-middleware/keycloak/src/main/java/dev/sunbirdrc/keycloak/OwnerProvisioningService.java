@@ -0,0 +1,231 @@
+package dev.sunbirdrc.keycloak;
+
+import dev.sunbirdrc.registry.middleware.util.BackgroundTasks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Provisions the keycloak accounts of entity owners. All provisioning shares the admin client of
+ * {@link KeycloakAdminUtil}, with its token and connection pool, and runs on at most
+ * keycloak-user.provisioning.parallelism threads so that bulk onboarding doesn't overload keycloak.
+ * Batches report a result per owner, a failed owner doesn't fail the rest of the batch.
+ * In async mode owners are provisioned in the background and retried with backoff.
+ */
+@Component
+public class OwnerProvisioningService {
+    private static final Logger logger = LoggerFactory.getLogger(OwnerProvisioningService.class);
+
+    private final KeycloakAdminUtil keycloakAdminUtil;
+    private final boolean async;
+    private final int maxAttempts;
+    private final long retryBackoff;
+    private final ScheduledExecutorService executor;
+    private final BackgroundTasks.Counters counters = new BackgroundTasks.Counters();
+    private final LongAdder provisioned = counters.add("provisioned");
+    private final LongAdder failed = counters.add("failed");
+    private final LongAdder retried = counters.add("retried");
+
+    @Autowired
+    public OwnerProvisioningService(KeycloakAdminUtil keycloakAdminUtil,
+                                    @Value("${keycloak-user.provisioning.parallelism:4}") int parallelism,
+                                    @Value("${keycloak-user.provisioning.async:false}") boolean async,
+                                    @Value("${keycloak-user.provisioning.maxAttempts:5}") int maxAttempts,
+                                    @Value("${keycloak-user.provisioning.retryBackoff:1000}") long retryBackoff) {
+        this.keycloakAdminUtil = keycloakAdminUtil;
+        this.async = async;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.executor = Executors.newScheduledThreadPool(Math.max(1, parallelism),
+                BackgroundTasks.daemonThreads("owner-provisioning"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Whether owners should be provisioned in the background instead of with the record
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Provisions the account of the owner and returns its id
+     */
+    public String provision(Owner owner) throws OwnerCreationException {
+        try {
+            String ownerId = keycloakAdminUtil.createUser(owner.getEntityName(), owner.getUserName(), owner.getEmail(),
+                    owner.getMobile(), owner.getPassword());
+            provisioned.increment();
+            return ownerId;
+        } catch (OwnerCreationException | RuntimeException e) {
+            failed.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Provisions the accounts of the owners in parallel and returns the result of each, in the order of the owners
+     */
+    public List<Result> provision(List<Owner> owners) {
+        List<Future<String>> futures = new ArrayList<>();
+        for (Owner owner : owners) {
+            futures.add(executor.submit(() -> provision(owner)));
+        }
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < owners.size(); i++) {
+            Owner owner = owners.get(i);
+            try {
+                results.add(new Result(owner, futures.get(i).get(), null));
+            } catch (ExecutionException e) {
+                logger.error("Provisioning owner {} of {} failed", owner.getUserName(), owner.getEntityName(), e.getCause());
+                results.add(new Result(owner, null, String.valueOf(e.getCause().getMessage())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.get(i).cancel(true);
+                results.add(new Result(owner, null, "Interrupted"));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Provisions the account of the owner in the background, retrying transient failures with exponential backoff.
+     * The future completes with the id of the account, or exceptionally with a {@link ProvisioningFailedException}
+     * once the attempts are exhausted.
+     */
+    public CompletableFuture<String> provisionAsync(Owner owner) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        executor.execute(() -> attempt(owner, 1, result));
+        return result;
+    }
+
+    private void attempt(Owner owner, int attempt, CompletableFuture<String> result) {
+        try {
+            result.complete(provision(owner));
+        } catch (Exception e) {
+            boolean retryable = !(e instanceof OwnerCreationException) || ((OwnerCreationException) e).isRetryable();
+            if (retryable && attempt < maxAttempts) {
+                long delay = BackgroundTasks.backoff(retryBackoff, attempt);
+                retried.increment();
+                logger.warn("Provisioning owner {} of {} failed, attempt {} of {}, retrying in {} ms: {}", owner.getUserName(),
+                        owner.getEntityName(), attempt, maxAttempts, delay, e.getMessage());
+                executor.schedule(() -> attempt(owner, attempt + 1, result), delay, TimeUnit.MILLISECONDS);
+            } else {
+                logger.error("Provisioning owner {} of {} failed after {} attempts", owner.getUserName(), owner.getEntityName(),
+                        attempt, e);
+                result.completeExceptionally(new ProvisioningFailedException(owner, attempt, e));
+            }
+        }
+    }
+
+    /**
+     * Provisioning counts, failed includes the attempts which were retried
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = counters.snapshot();
+        metrics.put("async", async);
+        return metrics;
+    }
+
+    /**
+     * Failure of an owner provisioned in the background, with the owner it was for
+     */
+    public static class ProvisioningFailedException extends OwnerCreationException {
+        private static final long serialVersionUID = -2146513024862718840L;
+
+        private final transient Owner owner;
+        private final int attempts;
+
+        public ProvisioningFailedException(Owner owner, int attempts, Exception cause) {
+            super(String.valueOf(cause.getMessage()));
+            initCause(cause);
+            this.owner = owner;
+            this.attempts = attempts;
+        }
+
+        public Owner getOwner() {
+            return owner;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+    }
+
+    public static class Owner {
+        private final String entityName;
+        private final String userName;
+        private final String email;
+        private final String mobile;
+        private final String password;
+
+        public Owner(String entityName, String userName, String email, String mobile, String password) {
+            this.entityName = entityName;
+            this.userName = userName;
+            this.email = email;
+            this.mobile = mobile;
+            this.password = password;
+        }
+
+        public String getEntityName() {
+            return entityName;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getMobile() {
+            return mobile;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+    }
+
+    public static class Result {
+        private final String userName;
+        private final String ownerId;
+        private final String error;
+
+        private Result(Owner owner, String ownerId, String error) {
+            this.userName = owner.getUserName();
+            this.ownerId = ownerId;
+            this.error = error;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public String getOwnerId() {
+            return ownerId;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+    }
+}
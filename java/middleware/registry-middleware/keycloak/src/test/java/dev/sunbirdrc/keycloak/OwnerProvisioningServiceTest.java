@@ -0,0 +1,87 @@
+package dev.sunbirdrc.keycloak;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class OwnerProvisioningServiceTest {
+
+	private final KeycloakAdminUtil keycloakAdminUtil = mock(KeycloakAdminUtil.class);
+	private OwnerProvisioningService ownerProvisioningService;
+
+	@After
+	public void tearDown() {
+		ownerProvisioningService.stop();
+	}
+
+	private OwnerProvisioningService.Owner owner(String userName) {
+		return new OwnerProvisioningService.Owner("Teacher", userName, userName + "@example.com", "", "");
+	}
+
+	@Test
+	public void test_batch_reports_result_per_owner() throws Exception {
+		ownerProvisioningService = new OwnerProvisioningService(keycloakAdminUtil, 2, false, 1, 0);
+		when(keycloakAdminUtil.createUser(eq("Teacher"), eq("t1"), any(), any(), any())).thenReturn("id1");
+		when(keycloakAdminUtil.createUser(eq("Teacher"), eq("t2"), any(), any(), any()))
+				.thenThrow(new OwnerCreationException("Username already invited / registered"));
+		when(keycloakAdminUtil.createUser(eq("Teacher"), eq("t3"), any(), any(), any())).thenReturn("id3");
+
+		List<OwnerProvisioningService.Result> results = ownerProvisioningService.provision(Arrays.asList(owner("t1"), owner("t2"), owner("t3")));
+
+		assertEquals(3, results.size());
+		assertEquals("id1", results.get(0).getOwnerId());
+		assertFalse(results.get(1).isSuccessful());
+		assertEquals("Username already invited / registered", results.get(1).getError());
+		assertEquals("t3", results.get(2).getUserName());
+		assertEquals("id3", results.get(2).getOwnerId());
+	}
+
+	@Test
+	public void test_async_retries_transient_failures() throws Exception {
+		ownerProvisioningService = new OwnerProvisioningService(keycloakAdminUtil, 1, true, 3, 10);
+		when(keycloakAdminUtil.createUser(any(), any(), any(), any(), any()))
+				.thenThrow(new OwnerCreationException("Keycloak user creation error", true))
+				.thenReturn("id1");
+
+		CompletableFuture<String> owner = ownerProvisioningService.provisionAsync(owner("t1"));
+
+		assertEquals("id1", owner.get(5, TimeUnit.SECONDS));
+		verify(keycloakAdminUtil, times(2)).createUser(any(), any(), any(), any(), any());
+		Map<String, Object> metrics = ownerProvisioningService.getMetrics();
+		assertEquals(1L, metrics.get("provisioned"));
+		assertEquals(1L, metrics.get("failed"));
+		assertEquals(1L, metrics.get("retried"));
+	}
+
+	@Test
+	public void test_async_does_not_retry_permanent_failures() throws Exception {
+		ownerProvisioningService = new OwnerProvisioningService(keycloakAdminUtil, 1, true, 3, 10);
+		when(keycloakAdminUtil.createUser(any(), any(), any(), any(), any()))
+				.thenThrow(new OwnerCreationException("Username already invited / registered"));
+
+		CompletableFuture<String> owner = ownerProvisioningService.provisionAsync(owner("t1"));
+
+		try {
+			owner.get(5, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof OwnerCreationException);
+			OwnerProvisioningService.ProvisioningFailedException failure = (OwnerProvisioningService.ProvisioningFailedException) e.getCause();
+			assertEquals("t1", failure.getOwner().getUserName());
+			assertEquals("Username already invited / registered", failure.getMessage());
+			assertEquals(1, failure.getAttempts());
+		}
+		verify(keycloakAdminUtil, times(1)).createUser(any(), any(), any(), any(), any());
+	}
+}
@@ -9,6 +9,14 @@ public interface IValidate {
 
     void validate(String entityType, String payload, boolean ignoreRequiredFields) throws MiddlewareHaltException;
 
+    /**
+     * Validates an already parsed payload, implementations should read the tree without serializing it again.
+     * The payload is not changed.
+     */
+    default void validate(String entityType, JsonNode payload, boolean ignoreRequiredFields) throws MiddlewareHaltException {
+        validate(entityType, payload.toString(), ignoreRequiredFields);
+    }
+
     /**
      * Store all list of known definitions as definitionMap.
      * Must get populated before creating the schema.
@@ -17,8 +17,7 @@ public class ValidationFilter implements Middleware {
 	@Override
 	public boolean execute(APIMessage apiMessage) throws MiddlewareHaltException {
 		String entityType = apiMessage.getRequest().getEntityType();
-		String payload = apiMessage.getRequest().getRequestMapAsString();
-		validationService.validate(entityType, payload, false);
+		validationService.validate(entityType, apiMessage.getRequest().getRequestMapNode(), false);
 		return true;
 	}
 }
@@ -3,6 +3,7 @@ package dev.sunbirdrc.workflow;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import dev.sunbirdrc.keycloak.KeycloakAdminUtil;
+import dev.sunbirdrc.keycloak.OwnerProvisioningService;
 import dev.sunbirdrc.pojos.OwnershipsAttributes;
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
@@ -19,12 +20,15 @@ import static dev.sunbirdrc.registry.middleware.util.Constants.*;
 public class RuleEngineService {
     private final KieContainer kieContainer;
     private final KeycloakAdminUtil keycloakAdminUtil;
+    private final OwnerProvisioningService ownerProvisioningService;
     private static final String PATH = "path";
 
     @Autowired
-    public RuleEngineService(KieContainer kieContainer, KeycloakAdminUtil keycloakAdminUtil) {
+    public RuleEngineService(KieContainer kieContainer, KeycloakAdminUtil keycloakAdminUtil,
+                             OwnerProvisioningService ownerProvisioningService) {
         this.kieContainer = kieContainer;
         this.keycloakAdminUtil = keycloakAdminUtil;
+        this.ownerProvisioningService = ownerProvisioningService;
     }
 
     public void doTransition(List<StateContext> stateContexts) {
@@ -41,6 +45,18 @@ public class RuleEngineService {
         kieSession.execute(stateContext);
     }
 
+    public void createOwner(StateContext stateContext) throws Exception {
+        JsonNode owner = stateContext.getUpdated();
+        OwnerProvisioningService.Owner newOwner = new OwnerProvisioningService.Owner(stateContext.getEntityName(),
+                owner.get(USER_ID).textValue(), owner.get(EMAIL).textValue(), owner.get(MOBILE).textValue(),
+                owner.get(PASSWORD).textValue());
+        if (ownerProvisioningService.isAsync()) {
+            stateContext.addPendingOwner(ownerProvisioningService.provisionAsync(newOwner));
+        } else {
+            stateContext.addOwner(ownerProvisioningService.provision(newOwner));
+        }
+    }
+
     public void revertOwnershipDetails(StateContext stateContext) {
         OwnershipsAttributes ownershipAttribute = stateContext.getOwnershipAttribute();
         ObjectNode updatedNode = stateContext.getMetadataNode();
@@ -21,6 +21,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Builder
 @Getter
@@ -46,6 +47,9 @@ public class StateContext {
     private List<String> ignoredFields = new ArrayList<>();
     @Builder.Default
     private ObjectNode metaData = JsonNodeFactory.instance.objectNode();
+    // Owners provisioned in the background, added to the record once their accounts exist
+    @Builder.Default
+    private List<CompletableFuture<String>> pendingOwners = new ArrayList<>();
 
 
     private void setMetadata(String fieldName, JsonNode fieldValue) throws Exception {
@@ -119,6 +123,10 @@ public class StateContext {
         }
     }
 
+    public void addPendingOwner(CompletableFuture<String> owner) {
+        pendingOwners.add(owner);
+    }
+
     public boolean isAttestationProperty() {
         return isAttestationProperty != null;
     }
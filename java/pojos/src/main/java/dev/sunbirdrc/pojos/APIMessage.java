@@ -19,6 +19,7 @@ import java.util.Map;
 					proxyMode = ScopedProxyMode.TARGET_CLASS)
 public class APIMessage {
 	private static Logger logger = LoggerFactory.getLogger(APIMessage.class);
+	private static final ObjectMapper objectMapper = new ObjectMapper();
 
 	/* HTTP wrapper */
 	private RequestWrapper requestWrapper;
@@ -39,7 +40,8 @@ public class APIMessage {
 		requestWrapper = new RequestWrapper(servletRequest);
 		String body = requestWrapper.getBody();
 		try {
-			request = new ObjectMapper().readValue(body, Request.class);
+			// Parsed once per request, the payload tree is shared from here on
+			request = objectMapper.readValue(body, Request.class);
 		} catch (IOException jpe) {
 			logger.error("Can't read request body", jpe);
 			request = null;
@@ -0,0 +1,86 @@
+package dev.sunbirdrc.pojos;
+
+public class Aggregation {
+	// Keys of an aggregation result
+	public static final String COUNT = "count";
+	public static final String AGGREGATIONS = "aggregations";
+	public static final String BUCKETS = "buckets";
+	public static final String KEY = "key";
+	public static final String VALUE = "value";
+
+	public static final int DEFAULT_SIZE = 10;
+
+	// Name of the aggregation in the result
+	private String name;
+
+	private AggregationType type;
+
+	// Denotes the path of the nested object holding the property, if any
+	private String path;
+
+	// The attribute being aggregated
+	private String property;
+
+	// Number of terms buckets returned
+	private int size = DEFAULT_SIZE;
+
+	// year, month or day, for a date histogram
+	private String interval;
+
+	public Aggregation(String name, AggregationType type, String property) {
+		this.name = name;
+		this.type = type;
+		this.property = property;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public AggregationType getType() {
+		return type;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+	public String getProperty() {
+		return property;
+	}
+
+	/**
+	 * The dotted field name, as used by elastic search
+	 */
+	public String getField() {
+		return path == null ? property : path + "." + property;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(int size) {
+		this.size = size;
+	}
+
+	/**
+	 * Number of terms buckets each shard returns. Shards return more than size, as elastic search's default
+	 * shard_size, so that a term which is not in the top of every shard still gets its count in the merge.
+	 */
+	public int getShardSize() {
+		return size * 3 / 2 + 10;
+	}
+
+	public String getInterval() {
+		return interval;
+	}
+
+	public void setInterval(String interval) {
+		this.interval = interval;
+	}
+}
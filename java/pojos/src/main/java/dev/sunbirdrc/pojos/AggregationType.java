@@ -0,0 +1,18 @@
+package dev.sunbirdrc.pojos;
+
+public enum AggregationType {
+    // number of records per distinct value of the field
+    terms,
+    // number of records per year, month or day of a date field
+    dateHistogram,
+    min,
+    max;
+
+    public static AggregationType get(String name) {
+        try {
+            return AggregationType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -4,18 +4,20 @@ import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.Map;
 
 public class Request {
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+	private static final TypeReference<Map<String, Object>> REQUEST_MAP_TYPE = new TypeReference<Map<String, Object>>() {};
 
 	private String id;
 	private String ver;
 	private Long ets;
 	private RequestParams params;
-	@JsonSetter("request")
 	private Map<String, Object> requestMap;
 	@JsonIgnore
 	private String requestMapString;
@@ -68,6 +70,9 @@ public class Request {
 
 	@JsonGetter("request")
 	public Map<String, Object> getRequestMap() {
+		if (requestMap == null && requestMapNode != null && !requestMapNode.isNull()) {
+			requestMap = objectMapper.convertValue(requestMapNode, REQUEST_MAP_TYPE);
+		}
 		return requestMap;
 	}
 
@@ -76,13 +81,13 @@ public class Request {
 	 * @return
 	 */
 	public String getEntityType() {
-		return requestMap.keySet().iterator().next().toString();
+		return getRequestMapNode().fieldNames().next();
 	}
 
 	public String getRequestMapAsString() {
 		if (requestMapString == null) {
 			try {
-				requestMapString = new ObjectMapper().writeValueAsString(getRequestMap());
+				requestMapString = objectMapper.writeValueAsString(getRequestMapNode());
 			} catch (JsonProcessingException jpe) {
 				requestMapString = "";
 			}
@@ -92,13 +97,27 @@ public class Request {
 
 	public void setRequestMap(Map<String, Object> requestMap) {
 		this.requestMap = requestMap;
+		this.requestMapNode = null;
+		this.requestMapString = null;
 	}
 
+	/**
+	 * The request payload as parsed from the body. The tree is shared by the interceptors and filters of the
+	 * request, they must treat it as read only. Only the controller, which runs last, may hand it on to be changed.
+	 * @return
+	 */
 	public JsonNode getRequestMapNode() {
 		if (requestMapNode == null || requestMapNode.isNull()) {
-			requestMapNode = new ObjectMapper().valueToTree(requestMap);
+			requestMapNode = objectMapper.valueToTree(requestMap);
 		}
 		return requestMapNode;
 	}
 
+	@JsonSetter("request")
+	public void setRequestNode(JsonNode requestMapNode) {
+		this.requestMapNode = requestMapNode;
+		this.requestMap = null;
+		this.requestMapString = null;
+	}
+
 }
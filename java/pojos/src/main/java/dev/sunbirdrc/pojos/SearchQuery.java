@@ -1,5 +1,6 @@
 package dev.sunbirdrc.pojos;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class SearchQuery {
@@ -10,6 +11,9 @@ public class SearchQuery {
 	private List<String> fields;
 	private String rootLabel;
 	private List<String> entityTypes;
+	// Return the search plan and timings along with the result
+	private boolean explain;
+	private List<Aggregation> aggregations = new ArrayList<>();
 
 	public SearchQuery(String rootLabel, int offset, int limit) {
 		this.rootLabel = rootLabel;
@@ -68,5 +72,20 @@ public class SearchQuery {
     public List<String> getEntityTypes() {
         return entityTypes;
     }
-	
+
+	public boolean isExplain() {
+		return explain;
+	}
+
+	public void setExplain(boolean explain) {
+		this.explain = explain;
+	}
+
+	public List<Aggregation> getAggregations() {
+		return aggregations;
+	}
+
+	public void setAggregations(List<Aggregation> aggregations) {
+		this.aggregations = aggregations;
+	}
 }
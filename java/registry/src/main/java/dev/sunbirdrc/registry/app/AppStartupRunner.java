@@ -1,6 +1,5 @@
 package dev.sunbirdrc.registry.app;
 
-import dev.sunbirdrc.registry.util.EntityParenter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,14 +13,12 @@ public class AppStartupRunner implements ApplicationRunner {
     private static Logger logger = LoggerFactory.getLogger(AppStartupRunner.class);
 
 	@Autowired
-	EntityParenter entityParenter;
+	StartupOrchestrator startupOrchestrator;
 
 
     @Override
     public void run(ApplicationArguments args) throws Exception {
     	logger.info("On Boot starts loading: parent vertex and shard records");
-    	entityParenter.ensureKnownParenters();
-    	entityParenter.loadDefinitionIndex();
-    	entityParenter.ensureIndexExists();
+    	startupOrchestrator.start();
     }
 }
@@ -0,0 +1,133 @@
+package dev.sunbirdrc.registry.app;
+
+import dev.sunbirdrc.registry.config.SchemaLoader;
+import dev.sunbirdrc.registry.middleware.util.BackgroundTasks;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.util.EntityParenter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs the startup work of the shards in parallel, so that startup takes as long as the slowest shard.
+ * The parent vertices, definition indices and unique indices are ready before the application takes traffic,
+ * the other indices are created in the background once it is ready. The registry only reports ready on
+ * /health/readiness once all the phases completed.
+ * The time of each phase is logged and available from {@link #getPhaseTimings()}, which the health metrics report.
+ */
+@Component
+public class StartupOrchestrator {
+    private static final Logger logger = LoggerFactory.getLogger(StartupOrchestrator.class);
+
+    @Autowired
+    private EntityParenter entityParenter;
+
+    @Autowired
+    private DBConnectionInfoMgr dbConnectionInfoMgr;
+
+    @Autowired
+    private SchemaLoader schemaLoader;
+
+    @Value("${startup.parallelism:4}")
+    private int parallelism;
+
+    @Value("${startup.deferIndexCreation:true}")
+    private boolean deferIndexCreation;
+
+    private final Map<String, Long> phaseTimings = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile boolean backgroundComplete;
+    private Thread backgroundPhase;
+
+    /**
+     * Runs the phases needed before the application takes traffic
+     */
+    public void start() {
+        phaseTimings.put("schemas", schemaLoader.getLoadTime());
+        runPhase("parents", entityParenter::ensureKnownParenters);
+        runPhase("definitionIndex", dbConnectionInfo -> entityParenter.loadDefinitionIndex(dbConnectionInfo.getShardId()));
+        if (deferIndexCreation) {
+            runPhase("uniqueIndices", dbConnectionInfo -> entityParenter.ensureIndexExists(dbConnectionInfo, true));
+        } else {
+            runPhase("indices", dbConnectionInfo -> entityParenter.ensureIndexExists(dbConnectionInfo, false));
+            backgroundComplete = true;
+        }
+        logger.info("Startup phases completed: {}", phaseTimings);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackgroundPhase() {
+        if (backgroundComplete) {
+            return;
+        }
+        backgroundPhase = new Thread(() -> {
+            runPhase("indices", dbConnectionInfo -> entityParenter.ensureIndexExists(dbConnectionInfo, false));
+            backgroundComplete = true;
+            logger.info("Background startup phases completed: {}", phaseTimings);
+        }, "startup-background");
+        backgroundPhase.setDaemon(true);
+        backgroundPhase.start();
+    }
+
+    /**
+     * Whether all the phases completed, including the ones run in the background
+     */
+    public boolean isBackgroundComplete() {
+        return backgroundComplete;
+    }
+
+    /**
+     * Milliseconds taken by each phase, in the order they ran
+     */
+    public Map<String, Long> getPhaseTimings() {
+        synchronized (phaseTimings) {
+            return new LinkedHashMap<>(phaseTimings);
+        }
+    }
+
+    private void runPhase(String phase, Consumer<DBConnectionInfo> shardTask) {
+        long start = System.currentTimeMillis();
+        List<DBConnectionInfo> shards = dbConnectionInfoMgr.getConnectionInfo();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, shards.size())),
+                BackgroundTasks.daemonThreads("startup-" + phase));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (DBConnectionInfo shard : shards) {
+                futures.add(executor.submit(() -> {
+                    long shardStart = System.currentTimeMillis();
+                    shardTask.accept(shard);
+                    logger.info("Startup phase {} of shard {} took {} ms", phase, shard.getShardId(),
+                            System.currentTimeMillis() - shardStart);
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    logger.error("Startup phase {} failed for a shard", phase, e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        } finally {
+            executor.shutdown();
+            phaseTimings.put(phase, System.currentTimeMillis() - start);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package dev.sunbirdrc.registry.config;
 
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
 import com.typesafe.config.Config;
@@ -27,6 +28,8 @@ import dev.sunbirdrc.registry.sink.shard.DefaultShardAdvisor;
 import dev.sunbirdrc.registry.sink.shard.IShardAdvisor;
 import dev.sunbirdrc.registry.sink.shard.ShardAdvisor;
 import dev.sunbirdrc.registry.transform.*;
+import dev.sunbirdrc.registry.util.Definition;
+import dev.sunbirdrc.registry.util.ElasticMappingGenerator;
 import dev.sunbirdrc.registry.util.IDefinitionsManager;
 import dev.sunbirdrc.registry.util.ServiceProvider;
 import dev.sunbirdrc.validators.IValidate;
@@ -48,6 +51,7 @@ import org.springframework.core.task.TaskExecutor;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.HandlerExceptionResolver;
@@ -65,6 +69,7 @@ import java.util.Map;
 @Configuration
 @EnableRetry
 @EnableAsync
+@EnableScheduling
 public class GenericConfiguration implements WebMvcConfigurer {
 
 	private static final String DOMAIN = "sunbirdrc.dev";
@@ -149,6 +154,12 @@ public class GenericConfiguration implements WebMvcConfigurer {
 	private int httpMaxConnections;
 	@Value("${elastic.search.scheme}")
 	private String scheme;
+	@Value("${database.uuidPropertyName}")
+	private String uuidPropertyName;
+	@Value("${elastic.search.number_of_shards:1}")
+	private int elasticNumberOfShards;
+	@Value("${elastic.search.number_of_replicas:1}")
+	private int elasticNumberOfReplicas;
 	@Autowired
 	private DBConnectionInfoMgr dbConnectionInfoMgr;
 
@@ -424,7 +435,14 @@ public class GenericConfiguration implements WebMvcConfigurer {
 			elasticService.setUserName(username);
 			elasticService.setPassword(password);
 			elasticService.setScheme(scheme);
-			elasticService.init(iDefinitionsManager.getAllKnownDefinitions());
+			elasticService.setNumberOfShards(elasticNumberOfShards);
+			elasticService.setNumberOfReplicas(elasticNumberOfReplicas);
+			ElasticMappingGenerator mappingGenerator = new ElasticMappingGenerator(iDefinitionsManager, uuidPropertyName);
+			Map<String, JsonNode> indexMappings = new HashMap<>();
+			for (Definition definition : iDefinitionsManager.getAllDefinitions()) {
+				indexMappings.put(definition.getTitle(), mappingGenerator.generate(definition));
+			}
+			elasticService.init(indexMappings);
 		}
 		return elasticService;
 	}
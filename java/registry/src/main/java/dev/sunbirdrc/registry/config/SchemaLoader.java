@@ -33,13 +33,22 @@ public class SchemaLoader implements ApplicationListener<ContextRefreshedEvent>
 	@Autowired
 	private ISearchService searchService;
 
+	private long loadTime;
 
 	@Override
 	public void onApplicationEvent(@NotNull ContextRefreshedEvent contextRefreshedEvent) {
 		loadSchemasFromDB();
 	}
 
+	/**
+	 * Milliseconds taken to load the schemas at startup
+	 */
+	public long getLoadTime() {
+		return loadTime;
+	}
+
 	private void loadSchemasFromDB() {
+		long start = System.currentTimeMillis();
 		ObjectNode objectNode = JsonNodeFactory.instance.objectNode();
 		objectNode.set(ENTITY_TYPE, JsonNodeFactory.instance.arrayNode().add(Schema));
 		objectNode.set(FILTERS, JsonNodeFactory.instance.objectNode());
@@ -56,5 +65,6 @@ public class SchemaLoader implements ApplicationListener<ContextRefreshedEvent>
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
+		loadTime = System.currentTimeMillis() - start;
 	}
 }
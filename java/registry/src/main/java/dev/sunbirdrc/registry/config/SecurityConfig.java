@@ -59,9 +59,9 @@ public class SecurityConfig extends KeycloakWebSecurityConfigurerAdapter {
         HttpSecurity httpConfig = http.csrf().disable();
         if (authenticationEnabled) {
             httpConfig.authorizeRequests()
-                    .antMatchers("/**/invite", "/health", "/error",
+                    .antMatchers("/**/invite", "/health", "/health/**", "/error",
                             "/_schemas/**", "/**/templates/**", "/**/*.json", "/**/verify",
-                            "/swagger-ui", "/**/search", "/**/attestation/**",
+                            "/swagger-ui", "/**/search", "/**/search/aggregate", "/**/attestation/**",
                             "/api/docs/swagger.json","/api/docs/*.json", "/plugin/**", "/swagger-ui.html")
                     .permitAll()
                     .and()
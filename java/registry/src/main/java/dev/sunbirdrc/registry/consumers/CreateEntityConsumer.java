@@ -8,6 +8,9 @@ import dev.sunbirdrc.registry.model.dto.CreateEntityMessage;
 import dev.sunbirdrc.registry.model.dto.CreateEntityStatus;
 import dev.sunbirdrc.registry.model.dto.PostCreateEntityMessage;
 import dev.sunbirdrc.registry.model.dto.WebhookEvent;
+import dev.sunbirdrc.registry.model.OutboxEntryType;
+import dev.sunbirdrc.registry.model.dto.OutboxEntry;
+import dev.sunbirdrc.registry.service.OutboxService;
 import dev.sunbirdrc.registry.service.RegistryService;
 import dev.sunbirdrc.registry.service.WebhookService;
 import dev.sunbirdrc.registry.sink.shard.Shard;
@@ -29,6 +32,7 @@ import org.springframework.stereotype.Component;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.Collections;
 
 import static dev.sunbirdrc.registry.Constants.SUNBIRD_RC;
 import static dev.sunbirdrc.registry.Constants.createEntityGroupId;
@@ -44,6 +48,8 @@ public class CreateEntityConsumer {
     private final RegistryHelper registryHelper;
 
     private final WebhookService webhookService;
+
+    private final OutboxService outboxService;
     @Value("${kafka.postCreateEntityTopic:post_create_entity}")
     String postCreateEntityTopic;
 
@@ -52,13 +58,15 @@ public class CreateEntityConsumer {
 
     @Autowired
     public CreateEntityConsumer(ObjectMapper objectMapper, ShardManager shardManager, KafkaTemplate<String, String> kafkaTemplate,
-                                @Qualifier("sync") RegistryService registryService, RegistryHelper registryHelper, WebhookService webhookService) {
+                                @Qualifier("sync") RegistryService registryService, RegistryHelper registryHelper, WebhookService webhookService,
+                                OutboxService outboxService) {
         this.objectMapper = objectMapper;
         this.shardManager = shardManager;
         this.kafkaTemplate = kafkaTemplate;
         this.registryService = registryService;
         this.registryHelper = registryHelper;
         this.webhookService = webhookService;
+        this.outboxService = outboxService;
     }
 
     @KafkaListener(topics = "#{'${kafka.createEntityTopic}'}", groupId = createEntityGroupId, autoStartup = "${async.enabled}")
@@ -83,10 +91,16 @@ public class CreateEntityConsumer {
         } finally {
             try {
                 kafkaTemplate.send(postCreateEntityTopic, key, objectMapper.writeValueAsString(postCreateEntityMessage));
-                webhookService.postEvent(WebhookEvent.builder().event(String.format("%s-create", SUNBIRD_RC))
+                WebhookEvent webhookEvent = WebhookEvent.builder().event(String.format("%s-create", SUNBIRD_RC))
                         .data(postCreateEntityMessage)
                         .webhookUrl(webhookUrl)
-                        .timestamp(Timestamp.from(Instant.now())).build());
+                        .timestamp(Timestamp.from(Instant.now())).build();
+                if (outboxService.isEnabled()) {
+                    outboxService.append(shardManager.getDefaultShard(), Collections.singletonList(OutboxEntry.builder()
+                            .type(OutboxEntryType.WEBHOOK).webhookEvent(webhookEvent).build()));
+                } else {
+                    webhookService.postEvent(webhookEvent);
+                }
             } catch (Exception e) {
                 logger.error("Sending message to {} topic failed: {}", postCreateEntityMessage, e.getMessage(), e);
             }
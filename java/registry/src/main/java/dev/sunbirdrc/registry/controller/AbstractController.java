@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.sunbirdrc.pojos.SunbirdRCInstrumentation;
 import dev.sunbirdrc.pojos.Response;
 import dev.sunbirdrc.pojos.ResponseParams;
+import dev.sunbirdrc.registry.exception.ShardRangeMigratingException;
 import dev.sunbirdrc.registry.helper.RegistryHelper;
 import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
 import dev.sunbirdrc.registry.transform.ConfigurationHelper;
@@ -14,10 +15,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.TimeUnit;
+
 @RestController
 public abstract class AbstractController {
     private static Logger logger = LoggerFactory.getLogger(AbstractController.class);
@@ -54,6 +58,10 @@ public abstract class AbstractController {
     }
 
     ResponseEntity<Object> internalErrorResponse(ResponseParams responseParams, Response response, Exception ex) {
+        ShardRangeMigratingException migratingException = ShardRangeMigratingException.causing(ex);
+        if (migratingException != null) {
+            return retryLaterResponse(responseParams, response, migratingException);
+        }
         logger.info("Error in handling the invite", ex);
         responseParams.setStatus(Response.Status.UNSUCCESSFUL);
         responseParams.setErrmsg("Error occurred");
@@ -63,6 +71,19 @@ public abstract class AbstractController {
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * Writes to a shard key range being moved are answered with 503 and Retry-After, the client retries them
+     */
+    ResponseEntity<Object> retryLaterResponse(ResponseParams responseParams, Response response, ShardRangeMigratingException e) {
+        logger.info("Write rejected: {}", e.getMessage());
+        responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+        responseParams.setErrmsg(e.getMessage());
+        long retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(e.getRetryAfter()));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response);
+    }
+
     ResponseEntity<Object> createUnauthorizedExceptionResponse(Exception e) {
         ResponseParams responseParams = new ResponseParams();
         Response response = new Response(Response.API_ID.UPDATE, "OK", responseParams);
@@ -3,22 +3,36 @@ package dev.sunbirdrc.registry.controller;
 import dev.sunbirdrc.registry.helper.RegistryHelper;
 import dev.sunbirdrc.registry.model.dto.DocumentsResponse;
 import dev.sunbirdrc.registry.service.FileStorageService;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
 
 // TODO: Get should be viewed by both attestor and reviewer
 @Controller
 public class FileStorageController {
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageController.class);
     private final FileStorageService fileStorageService;
     private final RegistryHelper registryHelper;
 
+    @Value("${filestorage.download.presignedRedirect:false}")
+    private boolean presignedRedirect;
+
     FileStorageController(FileStorageService fileStorageService, RegistryHelper registryHelper) {
         this.fileStorageService = fileStorageService;
         this.registryHelper = registryHelper;
@@ -71,12 +85,21 @@ public class FileStorageController {
         return fileStorageService.deleteDocument(httpServletRequest.getRequestURI());
     }
 
+    /**
+     * Streams the document, honouring Range, If-Range and If-None-Match against the object ETag,
+     * or redirects to a presigned url when filestorage.download.presignedRedirect is set.
+     * Documents are uploaded by users, so they are always served as an application/octet-stream attachment
+     * and never with their stored content type, which browsers could render inline.
+     */
     @GetMapping(value = "/api/v1/{entity}/{entityId}/{property}/documents/{documentId}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public ResponseEntity<byte[]> get(@PathVariable String entity,
-                                      @PathVariable String entityId,
-                                      @PathVariable String property,
-                                      @PathVariable String documentId,
-                                      HttpServletRequest httpServletRequest) {
+    public ResponseEntity<StreamingResponseBody> get(@PathVariable String entity,
+                                                     @PathVariable String entityId,
+                                                     @PathVariable String property,
+                                                     @PathVariable String documentId,
+                                                     @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                     @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                     HttpServletRequest httpServletRequest) {
         try {
             registryHelper.authorize(entity, entityId, httpServletRequest);
         } catch (Exception e) {
@@ -86,7 +109,68 @@ public class FileStorageController {
                 return new ResponseEntity<>(HttpStatus.FORBIDDEN);
             }
         }
-        byte[] document = fileStorageService.getDocument(httpServletRequest.getRequestURI());
-        return ResponseEntity.ok().body(document);
+        String requestedURI = httpServletRequest.getRequestURI();
+        ContentDisposition contentDisposition = ContentDisposition.builder("attachment")
+                .filename(documentId, StandardCharsets.UTF_8).build();
+        try {
+            if (presignedRedirect) {
+                return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(
+                        fileStorageService.getDocumentSignedUrl(requestedURI, contentDisposition.toString()))).build();
+            }
+            StatObjectResponse stat = fileStorageService.statDocument(requestedURI);
+            String eTag = "\"" + stat.etag() + "\"";
+            if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(eTag))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            long size = stat.size();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setETag(eTag);
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+            headers.setContentDisposition(contentDisposition);
+            headers.set("X-Content-Type-Options", "nosniff");
+
+            List<HttpRange> ranges = range == null || (ifRange != null && !ifRange.equals(eTag)) ?
+                    Collections.emptyList() : HttpRange.parseRanges(range);
+            // Multiple ranges are served as the whole document
+            if (ranges.size() != 1) {
+                headers.setContentLength(size);
+                return new ResponseEntity<>(stream(requestedURI, 0, null), headers, HttpStatus.OK);
+            }
+            long start = ranges.get(0).getRangeStart(size);
+            long end = ranges.get(0).getRangeEnd(size);
+            // HttpRange does not check the range against the size, a range starting past the end is unsatisfiable
+            if (start >= size || start > end) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return new ResponseEntity<>(headers, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            }
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            headers.setContentLength(end - start + 1);
+            return new ResponseEntity<>(stream(requestedURI, start, end - start + 1), headers, HttpStatus.PARTIAL_CONTENT);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid range {} for the document {}", range, requestedURI);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (ErrorResponseException e) {
+            logger.error("Error has occurred while fetching the document {} {}", requestedURI, e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            logger.error("Error has occurred while fetching the document {}", requestedURI, e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Copies the object to the response as it is read, so only a buffer is held in memory whatever the size
+     */
+    private StreamingResponseBody stream(String requestedURI, long offset, Long length) {
+        return outputStream -> {
+            try (InputStream inputStream = fileStorageService.getDocumentStream(requestedURI, offset, length)) {
+                StreamUtils.copy(inputStream, outputStream);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Can't read the document " + requestedURI, e);
+            }
+        };
     }
 }
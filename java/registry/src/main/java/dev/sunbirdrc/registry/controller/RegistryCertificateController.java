@@ -3,6 +3,7 @@ package dev.sunbirdrc.registry.controller;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import dev.sunbirdrc.registry.entities.VerificationRequest;
 import dev.sunbirdrc.registry.helper.RegistryHelper;
+import dev.sunbirdrc.registry.util.OutboundHttpClients;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,9 +24,9 @@ public class RegistryCertificateController {
 
     private final RegistryHelper registryHelper;
 
-    public RegistryCertificateController(RestTemplate restTemplate, @Value("${signature.verifyURL}") String verifyURL,
+    public RegistryCertificateController(OutboundHttpClients outboundHttpClients, @Value("${signature.verifyURL}") String verifyURL,
                                          RegistryHelper registryHelper) {
-        this.restTemplate = restTemplate;
+        this.restTemplate = outboundHttpClients.getRestTemplate(OutboundHttpClients.SIGNATURE);
         this.verifyURL = verifyURL;
         this.registryHelper = registryHelper;
     }
@@ -77,8 +77,7 @@ public class RegistryController extends AbstractController {
             String entityType = apiMessage.getRequest().getEntityType();
             String entityId = apiMessage.getRequest().getRequestMapNode().get(entityType).get(dbConnectionInfoMgr.getUuidPropertyName()).asText();
             RecordIdentifier recordId = RecordIdentifier.parse(entityId);
-            String shardId = dbConnectionInfoMgr.getShardId(recordId.getShardLabel());
-            Shard shard = shardManager.activateShard(shardId);
+            Shard shard = shardManager.getShardByRecord(recordId);
             registryService.deleteEntityById(shard, entityType, apiMessage.getUserID(), recordId.getUuid());
             responseParams.setErrmsg("");
             responseParams.setStatus(Response.Status.SUCCESSFUL);
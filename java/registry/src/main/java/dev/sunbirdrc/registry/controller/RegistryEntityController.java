@@ -5,15 +5,18 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flipkart.zjsonpatch.JsonPatchApplicationException;
 import dev.sunbirdrc.keycloak.OwnerCreationException;
 import dev.sunbirdrc.pojos.AsyncRequest;
 import dev.sunbirdrc.pojos.PluginResponseMessage;
 import dev.sunbirdrc.pojos.Response;
 import dev.sunbirdrc.pojos.ResponseParams;
+import dev.sunbirdrc.registry.dao.SearchDao;
 import dev.sunbirdrc.registry.entities.AttestationPolicy;
 import dev.sunbirdrc.registry.exception.AttestationNotFoundException;
 import dev.sunbirdrc.registry.exception.ErrorMessages;
 import dev.sunbirdrc.registry.exception.RecordNotFoundException;
+import dev.sunbirdrc.registry.exception.ShardRangeMigratingException;
 import dev.sunbirdrc.registry.exception.UnAuthorizedException;
 import dev.sunbirdrc.registry.middleware.MiddlewareHaltException;
 import dev.sunbirdrc.registry.middleware.util.Constants;
@@ -24,6 +27,8 @@ import dev.sunbirdrc.registry.service.ICertificateService;
 import dev.sunbirdrc.registry.transform.Configuration;
 import dev.sunbirdrc.registry.transform.Data;
 import dev.sunbirdrc.registry.transform.ITransformer;
+import dev.sunbirdrc.registry.util.EntityPatch;
+import dev.sunbirdrc.registry.util.FieldProjection;
 import dev.sunbirdrc.registry.util.ViewTemplateManager;
 import dev.sunbirdrc.validators.ValidationException;
 import org.agrona.Strings;
@@ -81,7 +86,7 @@ public class RegistryEntityController extends AbstractController {
             HttpServletRequest request
     ) {
         final String TAG = "RegistryController:invite";
-        logger.info("Inviting entity {}", rootNode);
+        logger.debug("Inviting entity {}", rootNode);
         ResponseParams responseParams = new ResponseParams();
         Response response = new Response(Response.API_ID.INVITE, "OK", responseParams);
         Map<String, Object> result = new HashMap<>();
@@ -180,7 +185,8 @@ public class RegistryEntityController extends AbstractController {
     }
 
     @RequestMapping(value = "/api/v1/{entityName}/search", method = RequestMethod.POST)
-    public ResponseEntity<Object> searchEntity(@PathVariable String entityName, @RequestHeader HttpHeaders header, @RequestBody ObjectNode searchNode) {
+    public ResponseEntity<Object> searchEntity(@PathVariable String entityName, @RequestHeader HttpHeaders header, @RequestBody ObjectNode searchNode,
+                                               @RequestParam(required = false) String fields) {
 
         ResponseParams responseParams = new ResponseParams();
         Response response = new Response(Response.API_ID.SEARCH, "OK", responseParams);
@@ -190,10 +196,19 @@ public class RegistryEntityController extends AbstractController {
             ArrayNode entity = JsonNodeFactory.instance.arrayNode();
             entity.add(entityName);
             searchNode.set(ENTITY_TYPE, entity);
+            if (fields != null) {
+                searchNode.put(Constants.FIELDS, fields);
+            }
             checkEntityNameInDefinitionManager(entityName);
             if (definitionsManager.getDefinition(entityName).getOsSchemaConfiguration().getEnableSearch()) {
                 JsonNode result = registryHelper.searchEntity(searchNode);
                 watch.stop("RegistryController.searchEntity");
+                if (result.has(SearchDao.EXPLAIN)) {
+                    ObjectNode explained = JsonNodeFactory.instance.objectNode();
+                    explained.set(entityName, result.get(entityName));
+                    explained.set(SearchDao.EXPLAIN, result.get(SearchDao.EXPLAIN));
+                    return new ResponseEntity<>(explained, HttpStatus.OK);
+                }
                 return new ResponseEntity<>(result.get(entityName), HttpStatus.OK);
             } else {
                 watch.stop("RegistryController.searchEntity");
@@ -215,6 +230,82 @@ public class RegistryEntityController extends AbstractController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @RequestMapping(value = "/api/v1/{entityName}/_mget", method = RequestMethod.POST)
+    public ResponseEntity<Object> getEntities(@PathVariable String entityName, @RequestBody JsonNode idsNode,
+                                              HttpServletRequest request,
+                                              @RequestHeader(required = false) String viewTemplateId,
+                                              @RequestParam(required = false) String fields) {
+        ResponseParams responseParams = new ResponseParams();
+        Response response = new Response(Response.API_ID.READ, "OK", responseParams);
+        try {
+            checkEntityNameInDefinitionManager(entityName);
+        } catch (RecordNotFoundException e) {
+            createSchemaNotFoundResponse(e.getMessage(), responseParams);
+            return new ResponseEntity<>(new Response(Response.API_ID.READ, "ERROR", responseParams), HttpStatus.NOT_FOUND);
+        }
+        try {
+            registryHelper.getUserId(request, entityName);
+        } catch (Exception e) {
+            return createUnauthorizedExceptionResponse(e);
+        }
+        JsonNode ids = idsNode.isArray() ? idsNode : idsNode.get("ids");
+        if (ids == null || !ids.isArray()) {
+            return badRequestException(responseParams, response, "ids must be an array");
+        }
+        try {
+            watch.start("RegistryController.getEntities");
+            List<String> entityIds = new ArrayList<>();
+            ids.forEach(id -> entityIds.add(id.asText()));
+            ArrayNode results = registryHelper.readEntities(request, entityName, entityIds,
+                    viewTemplateManager.getViewTemplateById(viewTemplateId), FieldProjection.parse(fields));
+            watch.stop("RegistryController.getEntities");
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return badRequestException(responseParams, response, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Exception in controller while reading entities !", e);
+            responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+            responseParams.setErrmsg(e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @RequestMapping(value = "/api/v1/{entityName}/search/aggregate", method = RequestMethod.POST)
+    public ResponseEntity<Object> aggregateEntity(@PathVariable String entityName, @RequestBody ObjectNode aggregateNode) {
+
+        ResponseParams responseParams = new ResponseParams();
+        Response response = new Response(Response.API_ID.SEARCH, "OK", responseParams);
+
+        try {
+            watch.start("RegistryController.aggregateEntity");
+            ArrayNode entity = JsonNodeFactory.instance.arrayNode();
+            entity.add(entityName);
+            aggregateNode.set(ENTITY_TYPE, entity);
+            checkEntityNameInDefinitionManager(entityName);
+            if (definitionsManager.getDefinition(entityName).getOsSchemaConfiguration().getEnableSearch()) {
+                JsonNode result = registryHelper.aggregateEntity(aggregateNode);
+                watch.stop("RegistryController.aggregateEntity");
+                return new ResponseEntity<>(result.get(entityName), HttpStatus.OK);
+            } else {
+                watch.stop("RegistryController.aggregateEntity");
+                logger.error("Searching on entity {} not allowed", entityName);
+                response.setResult("");
+                responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+                responseParams.setErrmsg(String.format("Searching on entity %s not allowed", entityName));
+            }
+        } catch (RecordNotFoundException e) {
+            createSchemaNotFoundResponse(e.getMessage(), responseParams);
+            response = new Response(Response.API_ID.SEARCH, "ERROR", responseParams);
+            return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            logger.error("Exception in controller while aggregating entities !", e);
+            response.setResult("");
+            responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+            responseParams.setErrmsg(e.getMessage());
+        }
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @RequestMapping(value = "/api/v1/{entityName}/{entityId}", method = RequestMethod.PUT)
     public ResponseEntity<Object> putEntity(
             @PathVariable String entityName,
@@ -222,7 +313,7 @@ public class RegistryEntityController extends AbstractController {
             @RequestBody JsonNode rootNode,
             HttpServletRequest request) {
 
-        logger.info("Updating entityType {} request body {}", entityName, rootNode);
+        logger.debug("Updating entityType {} request body {}", entityName, rootNode);
         String userId = USER_ANONYMOUS;
         if (registryHelper.doesEntityOperationRequireAuthorization(entityName)) {
             try {
@@ -270,6 +361,53 @@ public class RegistryEntityController extends AbstractController {
     }
 
 
+    @RequestMapping(value = "/api/v1/{entityName}/{entityId}", method = RequestMethod.PATCH,
+            consumes = {EntityPatch.JSON_PATCH_TYPE, EntityPatch.MERGE_PATCH_TYPE})
+    public ResponseEntity<Object> patchEntity(
+            @PathVariable String entityName,
+            @PathVariable String entityId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestBody JsonNode patchNode,
+            HttpServletRequest request) {
+
+        logger.debug("Patching entityType {} request body {}", entityName, patchNode);
+        String userId = USER_ANONYMOUS;
+        if (registryHelper.doesEntityOperationRequireAuthorization(entityName)) {
+            try {
+                userId = registryHelper.authorize(entityName, entityId, request);
+            } catch (Exception e) {
+                return createUnauthorizedExceptionResponse(e);
+            }
+        }
+        ResponseParams responseParams = new ResponseParams();
+        Response response = new Response(Response.API_ID.PATCH, "OK", responseParams);
+        try {
+            checkEntityNameInDefinitionManager(entityName);
+            String tag = "RegistryController.patch " + entityName;
+            watch.start(tag);
+            EntityPatch patch = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(EntityPatch.MERGE_PATCH_TYPE))
+                    ? EntityPatch.mergePatch(patchNode) : EntityPatch.jsonPatch(patchNode);
+            String emailId = registryHelper.fetchEmailIdFromToken(request, entityName);
+            registryHelper.patchEntity(entityName, entityId, patch, userId, emailId);
+            responseParams.setErrmsg("");
+            responseParams.setStatus(Response.Status.SUCCESSFUL);
+            watch.stop(tag);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (RecordNotFoundException e) {
+            createSchemaNotFoundResponse(e.getMessage(), responseParams);
+            response = new Response(Response.API_ID.PATCH, "ERROR", responseParams);
+            return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException | UnsupportedOperationException | JsonPatchApplicationException
+                | MiddlewareHaltException | ValidationException e) {
+            return badRequestException(responseParams, response, e.getMessage());
+        } catch (Exception e) {
+            logger.error("RegistryController: Exception while patching entity {}!", entityId, e);
+            responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+            responseParams.setErrmsg(e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @RequestMapping(value = "/api/v1/{entityName}", method = RequestMethod.POST)
     public ResponseEntity<Object> postEntity(
             @PathVariable String entityName,
@@ -282,7 +420,7 @@ public class RegistryEntityController extends AbstractController {
 
         logger.info("MODE: {}", asyncRequest.isEnabled());
         logger.info("MODE: {}", asyncRequest.getWebhookUrl());
-        logger.info("Adding entity {}", rootNode);
+        logger.debug("Adding entity {}", rootNode);
         ResponseParams responseParams = new ResponseParams();
         Response response = new Response(Response.API_ID.POST, "OK", responseParams);
         Map<String, Object> result = new HashMap<>();
@@ -315,6 +453,10 @@ public class RegistryEntityController extends AbstractController {
             logger.info("Error in validating the request");
             return badRequestException(responseParams, response, e.getMessage());
         } catch (Exception e) {
+            ShardRangeMigratingException migratingException = ShardRangeMigratingException.causing(e);
+            if (migratingException != null) {
+                return retryLaterResponse(responseParams, response, migratingException);
+            }
             logger.error("Exception in controller while adding entity !", e);
             response.setResult(result);
             responseParams.setStatus(Response.Status.UNSUCCESSFUL);
@@ -525,14 +667,21 @@ public class RegistryEntityController extends AbstractController {
             JsonNode node = registryHelper.readEntity(readerUserId, entityName, entityId, false,
                             viewTemplateManager.getViewTemplateById(viewTemplateId), false)
                     .get(entityName);
+            String templateUrl = getTemplateUrlFromRequest(request, entityName);
+            String version = certificateService.getCertificateVersion(entityId, getUpdatedAt(node), entityName,
+                    getTemplateIdFromRequest(request) + ":" + viewTemplateId, templateUrl, request.getHeader(HttpHeaders.ACCEPT));
+            if (isNotModified(request, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version).build();
+            }
             JsonNode signedNode = objectMapper.readTree(node.get(OSSystemFields._osSignedData.name()).asText());
-            return new ResponseEntity<>(certificateService.getCertificate(signedNode,
+            return certificateResponse(version, certificateService.getCertificate(signedNode,
                     entityName,
                     entityId,
                     request.getHeader(HttpHeaders.ACCEPT),
-                    getTemplateUrlFromRequest(request, entityName),
-                    JSONUtil.removeNodesByPath(node, definitionsManager.getExcludingFieldsForEntity(entityName))
-            ), HttpStatus.OK);
+                    templateUrl,
+                    JSONUtil.removeNodesByPath(node, definitionsManager.getExcludingFieldsForEntity(entityName)),
+                    version
+            ));
         } catch (Exception exception) {
             exception.printStackTrace();
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
@@ -540,6 +689,35 @@ public class RegistryEntityController extends AbstractController {
     }
 
 
+    private static String getUpdatedAt(JsonNode node) {
+        JsonNode updatedAt = node.get(OSSystemFields.osUpdatedAt.name());
+        return updatedAt != null ? updatedAt.asText() : null;
+    }
+
+    /**
+     * The template a certificate is rendered with, as requested. Unlike the template url, it does not change
+     * from one request to another for stored templates.
+     */
+    private String getTemplateIdFromRequest(HttpServletRequest request) {
+        if (externalTemplatesEnabled && !StringUtils.isEmpty(request.getHeader(Template))) {
+            return request.getHeader(Template);
+        }
+        return request.getHeader(TemplateKey);
+    }
+
+    private static boolean isNotModified(HttpServletRequest request, String version) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        return version != null && ifNoneMatch != null && ifNoneMatch.contains("\"" + version + "\"");
+    }
+
+    private static ResponseEntity<Object> certificateResponse(String version, Object certificate) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null && certificate != null) {
+            builder.eTag(version);
+        }
+        return builder.body(certificate);
+    }
+
     private String getTemplateUrlFromRequest(HttpServletRequest request, String entityName) {
         if (externalTemplatesEnabled && !StringUtils.isEmpty(request.getHeader(Template))) {
             return request.getHeader(Template);
@@ -568,7 +746,8 @@ public class RegistryEntityController extends AbstractController {
             @PathVariable String entityName,
             @PathVariable String entityId,
             @RequestHeader HttpHeaders header, HttpServletRequest request,
-            @RequestHeader(required = false) String viewTemplateId) {
+            @RequestHeader(required = false) String viewTemplateId,
+            @RequestParam(required = false) String fields) {
         boolean requireLDResponse = false;
         boolean requireVCResponse = false;
         for (MediaType t : header.getAccept()) {
@@ -595,7 +774,9 @@ public class RegistryEntityController extends AbstractController {
         try {
             checkEntityNameInDefinitionManager(entityName);
             String readerUserId = getUserId(entityName, request);
-            JsonNode node = getEntityJsonNode(entityName, entityId, requireLDResponse, readerUserId, viewTemplateId);
+            // Verifiable credentials are the signed data of the entity, not its fields
+            FieldProjection projection = requireVCResponse ? null : FieldProjection.parse(fields);
+            JsonNode node = getEntityJsonNode(entityName, entityId, requireLDResponse, readerUserId, viewTemplateId, projection);
             if (requireLDResponse) {
                 addJsonLDSpec(node);
             } else if (requireVCResponse) {
@@ -626,8 +807,13 @@ public class RegistryEntityController extends AbstractController {
 
     private JsonNode getEntityJsonNode(@PathVariable String entityName, @PathVariable String entityId,
                                        boolean requireLDResponse, String userId, String viewTemplateId) throws Exception {
+        return getEntityJsonNode(entityName, entityId, requireLDResponse, userId, viewTemplateId, null);
+    }
+
+    private JsonNode getEntityJsonNode(String entityName, String entityId, boolean requireLDResponse, String userId,
+                                       String viewTemplateId, FieldProjection projection) throws Exception {
         JsonNode resultNode = registryHelper.readEntity(userId, entityName, entityId, false,
-                viewTemplateManager.getViewTemplateById(viewTemplateId), false);
+                viewTemplateManager.getViewTemplateById(viewTemplateId), false, projection);
         Data<Object> data = new Data<>(resultNode);
         Configuration config = configurationHelper.getResponseConfiguration(requireLDResponse);
         ITransformer<Object> responseTransformer = transformer.getInstance(config);
@@ -643,14 +829,15 @@ public class RegistryEntityController extends AbstractController {
 
     @RequestMapping(value = "/api/v1/{entityName}", method = RequestMethod.GET)
     public ResponseEntity<Object> getEntityByToken(@PathVariable String entityName, HttpServletRequest request,
-                                                   @RequestHeader(required = false) String viewTemplateId) throws RecordNotFoundException {
+                                                   @RequestHeader(required = false) String viewTemplateId,
+                                                   @RequestParam(required = false) String fields) throws RecordNotFoundException {
         ResponseParams responseParams = new ResponseParams();
         Response response = new Response(Response.API_ID.GET, "OK", responseParams);
         try {
             checkEntityNameInDefinitionManager(entityName);
             String userId = registryHelper.getUserId(request, entityName);
             if (!Strings.isEmpty(userId)) {
-                JsonNode responseFromDb = registryHelper.searchEntitiesByUserId(entityName, userId, viewTemplateId);
+                JsonNode responseFromDb = registryHelper.searchEntitiesByUserId(entityName, userId, viewTemplateId, fields);
                 JsonNode entities = responseFromDb.get(entityName);
                 if (entities.size() > 0) {
                     return new ResponseEntity<>(entities, HttpStatus.OK);
@@ -779,7 +966,7 @@ public class RegistryEntityController extends AbstractController {
         ResponseParams responseParams = new ResponseParams();
         newRootNode.set(property, requestBody);
         try {
-            logger.info("updateAttestationProperty: {}", requestBody);
+            logger.debug("updateAttestationProperty: {}", requestBody);
             PluginResponseMessage pluginResponseMessage = objectMapper.convertValue(requestBody, PluginResponseMessage.class);
             registryHelper.updateState(pluginResponseMessage);
             responseParams.setStatus(Response.Status.SUCCESSFUL);
@@ -831,16 +1018,24 @@ public class RegistryEntityController extends AbstractController {
         try {
             checkEntityNameInDefinitionManager(entityName);
             String readerUserId = getUserId(entityName, request);
-            JsonNode node = registryHelper.readEntity(readerUserId, entityName, entityId, false, null, false)
-                    .get(entityName).get(attestationName);
+            JsonNode entityNode = registryHelper.readEntity(readerUserId, entityName, entityId, false, null, false)
+                    .get(entityName);
+            JsonNode node = entityNode.get(attestationName);
             JsonNode attestationNode = getAttestationSignedData(attestationId, node);
-            return new ResponseEntity<>(certificateService.getCertificate(attestationNode,
+            String templateUrl = getTemplateUrlFromRequest(request, entityName);
+            String version = certificateService.getCertificateVersion(entityId + "/" + attestationId, getUpdatedAt(entityNode),
+                    entityName, getTemplateIdFromRequest(request), templateUrl, request.getHeader(HttpHeaders.ACCEPT));
+            if (isNotModified(request, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version).build();
+            }
+            return certificateResponse(version, certificateService.getCertificate(attestationNode,
                     entityName,
                     entityId,
                     request.getHeader(HttpHeaders.ACCEPT),
-                    getTemplateUrlFromRequest(request, entityName),
-                    getAttestationNode(attestationId, node)
-            ), HttpStatus.OK);
+                    templateUrl,
+                    getAttestationNode(attestationId, node),
+                    version
+            ));
 
         } catch (RecordNotFoundException re) {
             createSchemaNotFoundResponse(re.getMessage(), responseParams);
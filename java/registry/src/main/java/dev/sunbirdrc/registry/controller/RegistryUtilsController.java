@@ -7,6 +7,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
+import dev.sunbirdrc.keycloak.OwnerProvisioningService;
 import dev.sunbirdrc.pojos.APIMessage;
 import dev.sunbirdrc.pojos.Entity;
 import dev.sunbirdrc.pojos.HealthCheckResponse;
@@ -16,10 +17,18 @@ import dev.sunbirdrc.pojos.ResponseParams;
 import dev.sunbirdrc.registry.helper.RegistryHelper;
 import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
+import dev.sunbirdrc.registry.service.HealthMonitor;
+import dev.sunbirdrc.registry.service.NotificationDispatcher;
+import dev.sunbirdrc.registry.service.OwnerProvisioningFailureStore;
+import dev.sunbirdrc.registry.service.WebhookDispatcher;
 import dev.sunbirdrc.registry.service.RegistryService;
 import dev.sunbirdrc.registry.service.SignatureService;
-import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.service.impl.ElasticBackfillJob;
+import dev.sunbirdrc.registry.sink.shard.ConsistentHashShardAdvisor;
+import dev.sunbirdrc.registry.sink.shard.IShardAdvisor;
 import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import dev.sunbirdrc.registry.sink.shard.ShardRoutingTable;
+import dev.sunbirdrc.registry.util.OutboundHttpClients;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,12 +37,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
+import org.sunbird.akka.core.ActorMetrics;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -61,12 +72,39 @@ public class RegistryUtilsController {
 	@Autowired
 	private ShardManager shardManager;
 
+	@Autowired
+	private IShardAdvisor shardAdvisor;
+
+	@Autowired
+	private ShardRoutingTable shardRoutingTable;
+
 	@Autowired
 	RegistryHelper registryHelper;
 
 	@Autowired
 	private RegistryService registryService;
 
+	@Autowired
+	private ElasticBackfillJob elasticBackfillJob;
+
+	@Autowired
+	private OutboundHttpClients outboundHttpClients;
+
+	@Autowired
+	private HealthMonitor healthMonitor;
+
+	@Autowired
+	private NotificationDispatcher notificationDispatcher;
+
+	@Autowired
+	private WebhookDispatcher webhookDispatcher;
+
+	@Autowired
+	private OwnerProvisioningFailureStore ownerProvisioningFailureStore;
+
+	@Autowired
+	private OwnerProvisioningService ownerProvisioningService;
+
 	@Value("${frame.file}")
 	private String frameFile;
 
@@ -224,6 +262,214 @@ public class RegistryUtilsController {
 		return new ResponseEntity<>(response, HttpStatus.OK);
 	}
 
+	@RequestMapping(value = "/utils/actors/metrics", method = RequestMethod.GET)
+	public ResponseEntity<Response> actorMetrics() {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		response.setResult(ActorMetrics.snapshot());
+		responseParams.setErrmsg("");
+		responseParams.setStatus(Response.Status.SUCCESSFUL);
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@RequestMapping(value = "/utils/health/metrics", method = RequestMethod.GET)
+	public ResponseEntity<Response> healthMetrics() {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		response.setResult(healthMonitor.getMetrics());
+		responseParams.setErrmsg("");
+		responseParams.setStatus(Response.Status.SUCCESSFUL);
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@RequestMapping(value = "/utils/outbound/metrics", method = RequestMethod.GET)
+	public ResponseEntity<Response> outboundMetrics() {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		response.setResult(outboundHttpClients.getMetrics());
+		responseParams.setErrmsg("");
+		responseParams.setStatus(Response.Status.SUCCESSFUL);
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@RequestMapping(value = "/utils/notifications/metrics", method = RequestMethod.GET)
+	public ResponseEntity<Response> notificationMetrics() {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		response.setResult(notificationDispatcher.getMetrics());
+		responseParams.setErrmsg("");
+		responseParams.setStatus(Response.Status.SUCCESSFUL);
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@RequestMapping(value = "/utils/webhooks/metrics", method = RequestMethod.GET)
+	public ResponseEntity<Response> webhookMetrics() {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		response.setResult(webhookDispatcher.getMetrics());
+		responseParams.setErrmsg("");
+		responseParams.setStatus(Response.Status.SUCCESSFUL);
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@RequestMapping(value = "/utils/webhooks/deadLetters", method = RequestMethod.GET)
+	public ResponseEntity<Response> webhookDeadLetters(@RequestParam(value = "limit", defaultValue = "100") int limit,
+													   HttpServletRequest request) {
+		try {
+			registryHelper.authorizeAdmin(request);
+		} catch (Exception e) {
+			return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+		}
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		try {
+			response.setResult(webhookDispatcher.getDeadLetters(limit));
+			responseParams.setErrmsg("");
+			responseParams.setStatus(Response.Status.SUCCESSFUL);
+			return new ResponseEntity<>(response, HttpStatus.OK);
+		} catch (Exception e) {
+			logger.error("Can't read the webhook dead letters", e);
+			responseParams.setErrmsg(e.getMessage());
+			responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+			return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+	}
+
+	@RequestMapping(value = "/utils/webhooks/deadLetters/replay", method = RequestMethod.POST)
+	public ResponseEntity<Response> replayWebhookDeadLetters(@RequestBody List<String> ids, HttpServletRequest request) {
+		try {
+			registryHelper.authorizeAdmin(request);
+		} catch (Exception e) {
+			return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+		}
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		try {
+			webhookDispatcher.replay(ids);
+			responseParams.setErrmsg("");
+			responseParams.setStatus(Response.Status.SUCCESSFUL);
+			return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+		} catch (Exception e) {
+			logger.error("Can't replay the webhook dead letters", e);
+			responseParams.setErrmsg(e.getMessage());
+			responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+			return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+	}
+
+	@RequestMapping(value = "/utils/owners/metrics", method = RequestMethod.GET)
+	public ResponseEntity<Response> ownerProvisioningMetrics() {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		response.setResult(ownerProvisioningService.getMetrics());
+		responseParams.setErrmsg("");
+		responseParams.setStatus(Response.Status.SUCCESSFUL);
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@RequestMapping(value = "/utils/owners/failures", method = RequestMethod.GET)
+	public ResponseEntity<Response> ownerProvisioningFailures(@RequestParam(value = "limit", defaultValue = "100") int limit,
+															 HttpServletRequest request) {
+		try {
+			registryHelper.authorizeAdmin(request);
+		} catch (Exception e) {
+			return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+		}
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		try {
+			response.setResult(ownerProvisioningFailureStore.getFailures(limit));
+			responseParams.setErrmsg("");
+			responseParams.setStatus(Response.Status.SUCCESSFUL);
+			return new ResponseEntity<>(response, HttpStatus.OK);
+		} catch (Exception e) {
+			logger.error("Can't read the owner provisioning failures", e);
+			responseParams.setErrmsg(e.getMessage());
+			responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+			return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+	}
+
+	@RequestMapping(value = "/utils/owners/failures", method = RequestMethod.DELETE)
+	public ResponseEntity<Response> deleteOwnerProvisioningFailures(@RequestBody List<String> ids, HttpServletRequest request) {
+		try {
+			registryHelper.authorizeAdmin(request);
+		} catch (Exception e) {
+			return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+		}
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		try {
+			response.setResult(Collections.singletonMap("deleted", ownerProvisioningFailureStore.delete(ids)));
+			responseParams.setErrmsg("");
+			responseParams.setStatus(Response.Status.SUCCESSFUL);
+			return new ResponseEntity<>(response, HttpStatus.OK);
+		} catch (Exception e) {
+			logger.error("Can't delete the owner provisioning failures", e);
+			responseParams.setErrmsg(e.getMessage());
+			responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+			return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+	}
+
+	@RequestMapping(value = "/utils/shards/routing", method = RequestMethod.GET)
+	public ResponseEntity<Response> shardRouting() {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		if (shardAdvisor instanceof ConsistentHashShardAdvisor) {
+			response.setResult(shardRoutingTable.describe());
+		} else {
+			response.setResult(Collections.singletonMap("shardAdvisor", shardAdvisor.getClass().getName()));
+		}
+		responseParams.setErrmsg("");
+		responseParams.setStatus(Response.Status.SUCCESSFUL);
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@RequestMapping(value = "/utils/elastic/backfill", method = RequestMethod.POST)
+	public ResponseEntity<Response> startElasticBackfill(@RequestParam(value = "mode", defaultValue = "backfill") ElasticBackfillJob.Mode mode,
+														 @RequestParam(value = "entityType", required = false) List<String> entityTypes,
+														 @RequestParam(value = "restart", defaultValue = "false") boolean restart,
+														 HttpServletRequest request) {
+		try {
+			registryHelper.authorizeAdmin(request);
+		} catch (Exception e) {
+			return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+		}
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		try {
+			if (!elasticBackfillJob.start(mode, entityTypes, restart)) {
+				responseParams.setErrmsg("An elastic search backfill is already running");
+				responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+				return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+			}
+			response.setResult(elasticBackfillJob.getStatus());
+			responseParams.setErrmsg("");
+			responseParams.setStatus(Response.Status.SUCCESSFUL);
+			return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+		} catch (IllegalArgumentException | IllegalStateException e) {
+			responseParams.setErrmsg(e.getMessage());
+			responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+			return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+		} catch (Exception e) {
+			logger.error("Can't start the elastic search backfill", e);
+			responseParams.setErrmsg(e.getMessage());
+			responseParams.setStatus(Response.Status.UNSUCCESSFUL);
+			return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+	}
+
+	@RequestMapping(value = "/utils/elastic/backfill", method = RequestMethod.GET)
+	public ResponseEntity<Response> elasticBackfillStatus() {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		response.setResult(elasticBackfillJob.getStatus());
+		responseParams.setErrmsg("");
+		responseParams.setStatus(Response.Status.SUCCESSFUL);
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
 	@GetMapping("/swagger-ui")
 	public ModelAndView login() {
 		ModelAndView modelAndView = new ModelAndView();
@@ -238,8 +484,7 @@ public class RegistryUtilsController {
 		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
 
 		try {
-			Shard shard = shardManager.getDefaultShard();
-			HealthCheckResponse healthCheckResult = registryService.health(shard);
+			HealthCheckResponse healthCheckResult = healthMonitor.getHealth();
 			response.setResult(JSONUtil.convertObjectJsonMap(healthCheckResult));
 			responseParams.setErrmsg("");
 			responseParams.setStatus(Response.Status.SUCCESSFUL);
@@ -255,6 +500,25 @@ public class RegistryUtilsController {
 		return new ResponseEntity<>(response, HttpStatus.OK);
 	}
 
+	@RequestMapping(value = "/health/liveness", method = RequestMethod.GET)
+	public ResponseEntity<Response> liveness() {
+		return probeResponse(healthMonitor.getLiveness());
+	}
+
+	@RequestMapping(value = "/health/readiness", method = RequestMethod.GET)
+	public ResponseEntity<Response> readiness() {
+		return probeResponse(healthMonitor.getReadiness());
+	}
+
+	private ResponseEntity<Response> probeResponse(HealthCheckResponse healthCheckResult) {
+		ResponseParams responseParams = new ResponseParams();
+		Response response = new Response(Response.API_ID.HEALTH, "OK", responseParams);
+		response.setResult(JSONUtil.convertObjectJsonMap(healthCheckResult));
+		responseParams.setErrmsg("");
+		responseParams.setStatus(healthCheckResult.isHealthy() ? Response.Status.SUCCESSFUL : Response.Status.UNSUCCESSFUL);
+		return new ResponseEntity<>(response, healthCheckResult.isHealthy() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE);
+	}
+
 	@ResponseBody
 	@RequestMapping(value = "/audit", method = RequestMethod.POST)
 	public ResponseEntity<Response> fetchAudit() {
@@ -74,7 +74,8 @@ public class RegistryDaoImpl implements IRegistryDao {
     public JsonNode getEntity(Graph graph, Vertex vertex, ReadConfigurator readConfigurator, boolean expandInternal) throws Exception {
 
         VertexReader vr = new VertexReader(getDatabaseProvider(), graph, readConfigurator, uuidPropertyName, definitionsManager);
-        ObjectNode constructObject = vr.constructObject(vertex);
+        ObjectNode constructObject = readConfigurator.getProjection() != null
+                ? vr.constructObject(vertex, readConfigurator.getProjection()) : vr.constructObject(vertex);
         if (expandInternal) {
             String entityType = (String) ValueType.getValue(constructObject.get(TypePropertyHelper.getTypeName()));
             return vr.readInternal(vertex).get(entityType);
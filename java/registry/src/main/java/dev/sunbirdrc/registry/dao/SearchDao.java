@@ -6,7 +6,17 @@ import org.apache.tinkerpop.gremlin.structure.Graph;
 
 
 public interface SearchDao {
+    /**
+     * Key of the search plan and timings in the result, present when the query asks for explain
+     */
+    String EXPLAIN = "_explain";
 
     JsonNode search(Graph graphFromStore, SearchQuery searchQuery, boolean expandInternal);
 
+    /**
+     * Counts the matching records and computes the aggregations of the query in the database,
+     * without reading the records
+     */
+    JsonNode aggregate(Graph graphFromStore, SearchQuery searchQuery);
+
 }
@@ -1,31 +1,54 @@
 package dev.sunbirdrc.registry.dao;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.sunbirdrc.pojos.Aggregation;
 import dev.sunbirdrc.pojos.Filter;
-import dev.sunbirdrc.pojos.FilterOperators;
 import dev.sunbirdrc.pojos.SearchQuery;
 import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.util.FieldProjection;
 import dev.sunbirdrc.registry.util.ReadConfigurator;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.function.BiPredicate;
-import org.apache.tinkerpop.gremlin.process.traversal.P;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Scope;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+import org.apache.tinkerpop.gremlin.structure.Column;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
-import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.has;
-import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.hasNot;
-
 public class SearchDaoImpl implements SearchDao {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    // Dates are stored as ISO-8601 strings, a histogram bucket is a prefix of them
+    private static final Map<String, Integer> DATE_PREFIX_LENGTHS = new HashMap<>();
+    static {
+        DATE_PREFIX_LENGTHS.put("year", 4);
+        DATE_PREFIX_LENGTHS.put("month", 7);
+        DATE_PREFIX_LENGTHS.put("day", 10);
+    }
+
     private IRegistryDao registryDao;
+    private SearchPlanner searchPlanner;
 
     public SearchDaoImpl(IRegistryDao registryDaoImpl) {
+        this(registryDaoImpl, new SearchPlanner());
+    }
+
+    public SearchDaoImpl(IRegistryDao registryDaoImpl, SearchPlanner searchPlanner) {
         registryDao = registryDaoImpl;
+        this.searchPlanner = searchPlanner;
     }
 
     public JsonNode search(Graph graphFromStore, SearchQuery searchQuery, boolean expandInternal) {
@@ -34,106 +57,122 @@ public class SearchDaoImpl implements SearchDao {
         List<Filter> filterList = searchQuery.getFilters();
         int offset = searchQuery.getOffset();
         ObjectNode resultNode = JsonNodeFactory.instance.objectNode();
+        ObjectNode explainNode = JsonNodeFactory.instance.objectNode();
+        FieldProjection projection = searchQuery.getFields() != null ? FieldProjection.of(searchQuery.getFields()) : null;
         for (String entity : searchQuery.getEntityTypes()) {
-            GraphTraversal<Vertex, Vertex> resultGraphTraversal = dbGraphTraversalSource.V().hasLabel(entity);
-
-            GraphTraversal<Vertex, Vertex> parentTraversal = resultGraphTraversal.asAdmin();
-
-            resultGraphTraversal = getFilteredResultTraversal(resultGraphTraversal, filterList)
-                    .or(hasNot(Constants.STATUS_KEYWORD), has(Constants.STATUS_KEYWORD, Constants.STATUS_ACTIVE))
-                    .range(offset, offset + searchQuery.getLimit()).limit(searchQuery.getLimit());
-            JsonNode result = getResult(graphFromStore, resultGraphTraversal, parentTraversal, expandInternal);
+            long start = System.nanoTime();
+            SearchPlanner.SearchPlan plan = searchPlanner.plan(entity, filterList, registryDao.getDatabaseProvider());
+            long planned = System.nanoTime();
+
+            List<Vertex> vertices = plan.build(dbGraphTraversalSource)
+                    .range(offset, offset + searchQuery.getLimit()).limit(searchQuery.getLimit()).toList();
+            long queried = System.nanoTime();
+            JsonNode result = getResult(graphFromStore, vertices, expandInternal, projection);
             resultNode.set(entity, result);
+
+            if (searchQuery.isExplain()) {
+                ObjectNode explain = plan.toJson();
+                ObjectNode timings = explain.putObject("timings");
+                timings.put("planMillis", TimeUnit.NANOSECONDS.toMillis(planned - start));
+                timings.put("queryMillis", TimeUnit.NANOSECONDS.toMillis(queried - planned));
+                timings.put("readMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queried));
+                explain.set("profile", profile(plan.build(dbGraphTraversalSource)
+                        .range(offset, offset + searchQuery.getLimit()).limit(searchQuery.getLimit())));
+                explainNode.set(entity, explain);
+            }
+        }
+        if (searchQuery.isExplain()) {
+            resultNode.set(EXPLAIN, explainNode);
         }
 
         return resultNode;
     }
-    
-    private GraphTraversal<Vertex, Vertex> getFilteredResultTraversal(
-            GraphTraversal<Vertex, Vertex> resultGraphTraversal, List<Filter> filterList) {
-
-        BiPredicate<String, String> condition = null;
-        // Ensure the root label is correct
-        if (filterList != null) {
-            for (Filter filter : filterList) {
-                String property = filter.getProperty();
-                Object genericValue = filter.getValue();
-
-                FilterOperators operator = filter.getOperator();
-                String path = filter.getPath();
-                if (path != null) {
-                    resultGraphTraversal = resultGraphTraversal.outE(path).inV();
-                }
 
-                switch (operator) {
-                case eq:
-                    resultGraphTraversal = resultGraphTraversal.has(property, P.eq(genericValue));
-                    break;
-                case neq:
-                    resultGraphTraversal = resultGraphTraversal.has(property, P.neq(genericValue));
-                    break;
-                case gt:
-                    resultGraphTraversal = resultGraphTraversal.has(property, P.gt(genericValue));
-                    break;
-                case lt:
-                    resultGraphTraversal = resultGraphTraversal.has(property, P.lt(genericValue));
-                    break;
-                case gte:
-                    resultGraphTraversal = resultGraphTraversal.has(property, P.gte(genericValue));
-                    break;
-                case lte:
-                    resultGraphTraversal = resultGraphTraversal.has(property, P.lte(genericValue));
-                    break;
-                case between:
-                    List<Object> objects = (List<Object>) genericValue;
-                    resultGraphTraversal = resultGraphTraversal.has(property,
-                            P.between(objects.get(0), objects.get(objects.size() - 1)));
-                    break;
-                case or:
-                    List<Object> values = (List<Object>) genericValue;
-                    resultGraphTraversal = resultGraphTraversal.has(property, P.within(values));
-                    break;
-
-                case contains:
-                    condition = (s1, s2) -> (s1.contains(s2));
-                    resultGraphTraversal = resultGraphTraversal.has(property,
-                            new P<String>(condition, genericValue.toString()));
-                    break;
-                case startsWith:
-                    condition = (s1, s2) -> (s1.startsWith(s2));
-                    resultGraphTraversal = resultGraphTraversal.has(property,
-                            new P<String>(condition, genericValue.toString()));
-                    break;
-                case endsWith:
-                    condition = (s1, s2) -> (s1.endsWith(s2));
-                    resultGraphTraversal = resultGraphTraversal.has(property,
-                            new P<String>(condition, genericValue.toString()));
-                    break;
-                case notContains:
-                    condition = (s1, s2) -> (s1.contains(s2));
-                    resultGraphTraversal = resultGraphTraversal.has(property,
-                            new P<String>(condition, genericValue.toString()));
-                    break;
-                case notStartsWith:
-                    condition = (s1, s2) -> (!s1.startsWith(s2));
-                    resultGraphTraversal = resultGraphTraversal.has(property,
-                            new P<String>(condition, genericValue.toString()));
-                    break;
-                case notEndsWith:
-                    condition = (s1, s2) -> (!s1.endsWith(s2));
-                    resultGraphTraversal = resultGraphTraversal.has(property,
-                            new P<String>(condition, genericValue.toString()));
-                    break;
-                case queryString:
-                    throw new IllegalArgumentException("queryString not supported for native search!");
-                default:
-                    resultGraphTraversal = resultGraphTraversal.has(property, P.eq(genericValue));
-                    break;
+    @Override
+    public JsonNode aggregate(Graph graphFromStore, SearchQuery searchQuery) {
+        GraphTraversalSource dbGraphTraversalSource = graphFromStore.traversal().clone();
+        ObjectNode resultNode = JsonNodeFactory.instance.objectNode();
+        for (String entity : searchQuery.getEntityTypes()) {
+            SearchPlanner.SearchPlan plan = searchPlanner.plan(entity, searchQuery.getFilters(),
+                    registryDao.getDatabaseProvider());
+            ObjectNode entityNode = resultNode.putObject(entity);
+            entityNode.put(Aggregation.COUNT, plan.build(dbGraphTraversalSource).count().next());
+            ObjectNode aggregationsNode = entityNode.putObject(Aggregation.AGGREGATIONS);
+            for (Aggregation aggregation : searchQuery.getAggregations()) {
+                GraphTraversal<Vertex, Object> values = valuesOf(plan.build(dbGraphTraversalSource), aggregation);
+                switch (aggregation.getType()) {
+                    case terms:
+                        // Only the most frequent values leave the shard, the merge keeps the top size of all shards
+                        Map<Object, Long> topCounts = values.groupCount()
+                                .order(Scope.local).by(Column.values, Order.decr)
+                                .limit(Scope.local, aggregation.getShardSize()).next();
+                        aggregationsNode.set(aggregation.getName(), toBuckets(topCounts));
+                        break;
+                    case dateHistogram:
+                        Map<Object, Long> counts = values.groupCount().next();
+                        Map<Object, Long> histogram = new TreeMap<>();
+                        int length = DATE_PREFIX_LENGTHS.get(aggregation.getInterval());
+                        counts.forEach((value, count) -> {
+                            String date = value.toString();
+                            histogram.merge(date.length() > length ? date.substring(0, length) : date, count, Long::sum);
+                        });
+                        aggregationsNode.set(aggregation.getName(), toBuckets(histogram));
+                        break;
+                    case min:
+                        aggregationsNode.putObject(aggregation.getName())
+                                .set(Aggregation.VALUE, toJson(values.order().by(Order.incr).limit(1).tryNext().orElse(null)));
+                        break;
+                    case max:
+                        aggregationsNode.putObject(aggregation.getName())
+                                .set(Aggregation.VALUE, toJson(values.order().by(Order.decr).limit(1).tryNext().orElse(null)));
+                        break;
                 }
-
             }
         }
-        return resultGraphTraversal;
+        return resultNode;
+    }
+
+    /**
+     * The values of the aggregated property, on the root or on its nested objects and array items
+     */
+    private static GraphTraversal<Vertex, Object> valuesOf(GraphTraversal<Vertex, Vertex> roots, Aggregation aggregation) {
+        if (aggregation.getPath() == null) {
+            return roots.values(aggregation.getProperty());
+        }
+        return roots.out(aggregation.getPath())
+                .union(__.<Vertex>identity(), __.<Vertex>out(aggregation.getPath() + Constants.ARRAY_ITEM))
+                .values(aggregation.getProperty());
+    }
+
+    private static ObjectNode toBuckets(Map<Object, Long> counts) {
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        ArrayNode buckets = node.putArray(Aggregation.BUCKETS);
+        counts.forEach((key, count) -> {
+            ObjectNode bucket = buckets.addObject();
+            bucket.set(Aggregation.KEY, toJson(key));
+            bucket.put(Aggregation.COUNT, count);
+        });
+        return node;
+    }
+
+    private static JsonNode toJson(Object value) {
+        return value == null ? JsonNodeFactory.instance.nullNode() : objectMapper.valueToTree(value);
+    }
+
+    /**
+     * Runs the traversal once more with the profile step, for the time spent in each of its steps
+     */
+    private ArrayNode profile(GraphTraversal<Vertex, Vertex> traversal) {
+        ArrayNode steps = JsonNodeFactory.instance.arrayNode();
+        TraversalMetrics metrics = traversal.profile().next();
+        for (Metrics metric : metrics.getMetrics()) {
+            ObjectNode step = steps.addObject();
+            step.put("step", metric.getName());
+            Long count = metric.getCount(TraversalMetrics.ELEMENT_COUNT_ID);
+            step.put("count", count != null ? count : 0);
+            step.put("durationMillis", metric.getDuration(TimeUnit.MICROSECONDS) / 1000.0);
+        }
+        return steps;
     }
 
 	private void updateValueList(Object value, List valueList) {
@@ -152,27 +191,24 @@ public class SearchDaoImpl implements SearchDao {
 		return valueList;
 	}
 
-	private JsonNode getResult(Graph graph, GraphTraversal resultTraversal, GraphTraversal parentTraversal, boolean expandInternal) {
+	private JsonNode getResult(Graph graph, List<Vertex> vertices, boolean expandInternal, FieldProjection projection) {
 		ArrayNode result = JsonNodeFactory.instance.arrayNode();
-		if (resultTraversal != null) {
-            //parentTraversal.map(resultTraversal);
-			while (resultTraversal.hasNext()) {
-				Vertex v = (Vertex) resultTraversal.next();
-				if ((!v.property(Constants.STATUS_KEYWORD).isPresent() ||
-					Constants.STATUS_ACTIVE.equals(v.value(Constants.STATUS_KEYWORD)))) {
-
-					ReadConfigurator configurator = new ReadConfigurator();
-					configurator.setIncludeSignatures(false);
-					configurator.setIncludeTypeAttributes(false);
-
-					JsonNode answer = null;
-					try {
-						answer = registryDao.getEntity(graph, v, configurator, expandInternal);
-					} catch (Exception e) {
-						e.printStackTrace();
-					}
-					result.add(answer);
+		for (Vertex v : vertices) {
+			if ((!v.property(Constants.STATUS_KEYWORD).isPresent() ||
+				Constants.STATUS_ACTIVE.equals(v.value(Constants.STATUS_KEYWORD)))) {
+
+				ReadConfigurator configurator = new ReadConfigurator();
+				configurator.setIncludeSignatures(false);
+				configurator.setIncludeTypeAttributes(false);
+				configurator.setProjection(projection);
+
+				JsonNode answer = null;
+				try {
+					answer = registryDao.getEntity(graph, v, configurator, expandInternal);
+				} catch (Exception e) {
+					e.printStackTrace();
 				}
+				result.add(answer);
 			}
 		}
 		return result;
@@ -0,0 +1,247 @@
+package dev.sunbirdrc.registry.dao;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.sunbirdrc.pojos.Filter;
+import dev.sunbirdrc.pojos.FilterOperators;
+import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.util.Definition;
+import dev.sunbirdrc.registry.util.IDefinitionsManager;
+import dev.sunbirdrc.registry.util.IndexHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Plans a native search over one entity type:
+ * <ul>
+ *     <li>filters on the root are ordered by estimated cost - indexed and selective ones first</li>
+ *     <li>the soft delete check follows the root filters</li>
+ *     <li>filters on a nested object or array are grouped per path into a where() sub-traversal,
+ *     so the traversal stays on the root vertex</li>
+ * </ul>
+ * Costs come from the schema index fields and the operators, they don't need a query. The record count
+ * of the label would scale every filter alike and leave the order unchanged.
+ */
+@Component
+public class SearchPlanner {
+    private static final double RANGE_SELECTIVITY = 0.25;
+    private static final double EQ_SELECTIVITY = 0.01;
+    private static final double PREFIX_SELECTIVITY = 0.05;
+    private static final double TEXT_SELECTIVITY = 0.1;
+    private static final double NEGATION_SELECTIVITY = 0.9;
+
+    @Autowired(required = false)
+    private IDefinitionsManager definitionsManager;
+
+    public SearchPlan plan(String entityType, List<Filter> filters, DatabaseProvider databaseProvider) {
+        Set<String> indexFields = new HashSet<>();
+        Set<String> uniqueIndexFields = new HashSet<>();
+        loadIndexFields(entityType, indexFields, uniqueIndexFields);
+
+        List<PlanStep> rootSteps = new ArrayList<>();
+        Map<String, PlanStep> nestedSteps = new LinkedHashMap<>();
+        if (filters != null) {
+            for (Filter filter : filters) {
+                if (filter.getOperator() == FilterOperators.queryString) {
+                    throw new IllegalArgumentException("queryString not supported for native search!");
+                }
+                String field = filter.getPath() == null ? filter.getProperty() : filter.getPath() + "." + filter.getProperty();
+                boolean unique = uniqueIndexFields.contains(field);
+                boolean indexed = (unique || indexFields.contains(field)) && isIndexable(filter.getOperator());
+                double selectivity = selectivity(filter, unique);
+                if (filter.getPath() == null) {
+                    rootSteps.add(new PlanStep(null, Collections.singletonList(filter), indexed, selectivity));
+                } else {
+                    PlanStep step = nestedSteps.get(filter.getPath());
+                    if (step == null) {
+                        nestedSteps.put(filter.getPath(), new PlanStep(filter.getPath(),
+                                new ArrayList<>(Collections.singletonList(filter)), indexed, selectivity));
+                    } else {
+                        step.filters.add(filter);
+                        step.selectivity = Math.min(step.selectivity, selectivity);
+                    }
+                }
+            }
+        }
+        Comparator<PlanStep> byCost = Comparator.comparing((PlanStep step) -> !step.indexed)
+                .thenComparingDouble(step -> step.selectivity);
+        rootSteps.sort(byCost);
+        List<PlanStep> nested = new ArrayList<>(nestedSteps.values());
+        nested.sort(byCost);
+        return new SearchPlan(entityType, rootSteps, nested, databaseProvider);
+    }
+
+    private void loadIndexFields(String entityType, Set<String> indexFields, Set<String> uniqueIndexFields) {
+        Definition definition = definitionsManager != null ? definitionsManager.getDefinition(entityType) : null;
+        if (definition == null || definition.getOsSchemaConfiguration() == null) {
+            return;
+        }
+        indexFields.addAll(IndexHelper.getSingleIndexFields(definition.getOsSchemaConfiguration().getIndexFields()));
+        uniqueIndexFields.addAll(IndexHelper.getSingleIndexFields(definition.getOsSchemaConfiguration().getUniqueIndexFields()));
+        // A composite index serves its leading field
+        List<String> composite = IndexHelper.getCompositeIndexFields(definition.getOsSchemaConfiguration().getIndexFields());
+        if (!composite.isEmpty()) {
+            indexFields.add(composite.get(0));
+        }
+    }
+
+    private static boolean isIndexable(FilterOperators operator) {
+        switch (operator) {
+            case neq:
+            case notContains:
+            case notStartsWith:
+            case notEndsWith:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private static double selectivity(Filter filter, boolean unique) {
+        switch (filter.getOperator()) {
+            case eq:
+                return unique ? 0 : EQ_SELECTIVITY;
+            case or:
+                int values = filter.getValue() instanceof List ? ((List) filter.getValue()).size() : 1;
+                return Math.min(1, EQ_SELECTIVITY * values);
+            case gt:
+            case lt:
+            case gte:
+            case lte:
+            case between:
+                return RANGE_SELECTIVITY;
+            case startsWith:
+                return PREFIX_SELECTIVITY;
+            case contains:
+            case endsWith:
+                return TEXT_SELECTIVITY;
+            default:
+                return NEGATION_SELECTIVITY;
+        }
+    }
+
+    public static class PlanStep {
+        private final String path;
+        private final List<Filter> filters;
+        private final boolean indexed;
+        private double selectivity;
+
+        private PlanStep(String path, List<Filter> filters, boolean indexed, double selectivity) {
+            this.path = path;
+            this.filters = filters;
+            this.indexed = indexed;
+            this.selectivity = selectivity;
+        }
+    }
+
+    public static class SearchPlan {
+        private final String entityType;
+        private final List<PlanStep> rootSteps;
+        private final List<PlanStep> nestedSteps;
+        private final DatabaseProvider databaseProvider;
+
+        private SearchPlan(String entityType, List<PlanStep> rootSteps, List<PlanStep> nestedSteps,
+                           DatabaseProvider databaseProvider) {
+            this.entityType = entityType;
+            this.rootSteps = rootSteps;
+            this.nestedSteps = nestedSteps;
+            this.databaseProvider = databaseProvider;
+        }
+
+        /**
+         * Builds the traversal returning the matching, not deleted, root vertices
+         */
+        public GraphTraversal<Vertex, Vertex> build(GraphTraversalSource traversalSource) {
+            GraphTraversal<Vertex, Vertex> traversal = traversalSource.V().hasLabel(entityType);
+            for (PlanStep step : rootSteps) {
+                traversal = applyFilters(traversal, step.filters);
+            }
+            // Only soft deleted records carry _status=false, so this needs no lookup of active ones
+            traversal = traversal.not(__.has(Constants.STATUS_KEYWORD, Constants.STATUS_INACTIVE));
+            for (PlanStep step : nestedSteps) {
+                // The path leads to a nested object or to the blank node of an array of objects
+                GraphTraversal<Vertex, Vertex> child = __.<Vertex>out(step.path)
+                        .union(__.<Vertex>identity(), __.<Vertex>out(step.path + Constants.ARRAY_ITEM));
+                traversal = traversal.where(applyFilters(child, step.filters));
+            }
+            return traversal;
+        }
+
+        private GraphTraversal<Vertex, Vertex> applyFilters(GraphTraversal<Vertex, Vertex> traversal, List<Filter> filters) {
+            for (Filter filter : filters) {
+                traversal = traversal.has(filter.getProperty(), getPredicate(filter));
+            }
+            return traversal;
+        }
+
+        private P<?> getPredicate(Filter filter) {
+            Object value = filter.getValue();
+            switch (filter.getOperator()) {
+                case neq:
+                    return P.neq(value);
+                case gt:
+                    return P.gt(value);
+                case lt:
+                    return P.lt(value);
+                case gte:
+                    return P.gte(value);
+                case lte:
+                    return P.lte(value);
+                case between:
+                    List<Object> objects = (List<Object>) value;
+                    return P.between(objects.get(0), objects.get(objects.size() - 1));
+                case or:
+                    return P.within((List<Object>) value);
+                case contains:
+                case startsWith:
+                case endsWith:
+                case notContains:
+                case notStartsWith:
+                case notEndsWith:
+                    return databaseProvider.getTextPredicate(filter.getOperator(), value.toString());
+                default:
+                    return P.eq(value);
+            }
+        }
+
+        public ObjectNode toJson() {
+            ObjectNode plan = JsonNodeFactory.instance.objectNode();
+            plan.put("entityType", entityType);
+            ArrayNode steps = plan.putArray("steps");
+            for (PlanStep step : rootSteps) {
+                steps.add(toJson(step));
+            }
+            steps.addObject().put("step", "not(has(" + Constants.STATUS_KEYWORD + ", " + Constants.STATUS_INACTIVE + "))");
+            for (PlanStep step : nestedSteps) {
+                steps.add(toJson(step));
+            }
+            return plan;
+        }
+
+        private static ObjectNode toJson(PlanStep step) {
+            ObjectNode node = JsonNodeFactory.instance.objectNode();
+            StringBuilder description = new StringBuilder();
+            for (Filter filter : step.filters) {
+                if (description.length() > 0) {
+                    description.append(" and ");
+                }
+                description.append(filter.getProperty()).append(' ').append(filter.getOperator()).append(' ')
+                        .append(filter.getValue());
+            }
+            node.put("step", step.path == null ? description.toString() :
+                    "where(out(" + step.path + ") " + description + ")");
+            node.put("indexed", step.indexed);
+            node.put("selectivity", step.selectivity);
+            return node;
+        }
+    }
+}
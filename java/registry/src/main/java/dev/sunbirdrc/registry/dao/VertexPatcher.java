@@ -0,0 +1,191 @@
+package dev.sunbirdrc.registry.dao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.util.ArrayHelper;
+import dev.sunbirdrc.registry.util.EntityPatch;
+import dev.sunbirdrc.registry.util.RefLabelHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Resolves the operations of a patch to the vertex properties they change, following the edges from the root
+ * vertex to the nested objects instead of reading the entity. Only value and value array properties of the
+ * root and its nested objects are patched this way, anything else needs the entity to be read and merged.
+ */
+public class VertexPatcher {
+    private final DatabaseProvider databaseProvider;
+    private final String uuidPropertyName;
+
+    public VertexPatcher(DatabaseProvider databaseProvider, String uuidPropertyName) {
+        this.databaseProvider = databaseProvider;
+        this.uuidPropertyName = uuidPropertyName;
+    }
+
+    /**
+     * The property changes of the patch, or null when one of its operations can't be applied to a property
+     *
+     * @param rootVertex - vertex of the entity
+     * @param patch
+     * @param valueNode  - entity node with the values to write, at their paths
+     * @return
+     */
+    public List<PropertyChange> resolve(Vertex rootVertex, EntityPatch patch, JsonNode valueNode) {
+        List<PropertyChange> changes = new ArrayList<>();
+        for (EntityPatch.Operation operation : patch.getOperations()) {
+            List<String> tokens = operation.getTokens();
+            if (tokens.isEmpty()) {
+                return null;
+            }
+            Vertex vertex = rootVertex;
+            for (String token : tokens.subList(0, tokens.size() - 1)) {
+                vertex = getChildVertex(vertex, token);
+                if (vertex == null) {
+                    return null;
+                }
+            }
+            String property = operation.getProperty();
+            if (!isValueProperty(vertex, property)) {
+                return null;
+            }
+            VertexProperty<Object> current = vertex.property(property);
+            if (operation.isSet()) {
+                Object value = toPropertyValue(valueNode.at(operation.getPath()));
+                if (value == null || (EntityPatch.REPLACE.equals(operation.getOp()) && !current.isPresent())) {
+                    return null;
+                }
+                changes.add(new PropertyChange(vertex, tokens, property, value));
+            } else if (operation.isRemove()) {
+                if (current.isPresent()) {
+                    changes.add(new PropertyChange(vertex, tokens, property, null));
+                } else if (!patch.isMergePatch()) {
+                    return null;
+                }
+            } else if (operation.isTest()) {
+                // Tests after changes in the same patch see the changed entity, these are left to the full update
+                if (!changes.isEmpty() || !current.isPresent() || !operation.getValue().isValueNode()
+                        || !Objects.equals(ValueType.getValue(operation.getValue()), current.value())) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * The change appending the values missing from the value array property of the vertex, read in the transaction
+     * of the caller, or null when none are missing
+     */
+    public PropertyChange append(Vertex vertex, String property, List<String> values) {
+        VertexProperty<Object> current = vertex.property(property);
+        List<Object> items = new ArrayList<>();
+        if (current.isPresent()) {
+            ArrayHelper.constructArrayNode(current.value().toString()).forEach(item -> items.add(item.asText()));
+        }
+        int size = items.size();
+        values.stream().filter(value -> !items.contains(value)).distinct().forEach(items::add);
+        return items.size() == size ? null
+                : new PropertyChange(vertex, Collections.singletonList(property), property, ArrayHelper.formatToString(items));
+    }
+
+    private Vertex getChildVertex(Vertex vertex, String property) {
+        VertexProperty<Object> reference = vertex.property(RefLabelHelper.getLabel(property, uuidPropertyName));
+        if (!reference.isPresent()) {
+            return null;
+        }
+        Iterator<Vertex> children = vertex.vertices(Direction.OUT, property);
+        while (children.hasNext()) {
+            Vertex child = children.next();
+            if (reference.value().toString().equals(databaseProvider.getId(child)) && !isInactive(child)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private boolean isInactive(Vertex vertex) {
+        VertexProperty<Object> status = vertex.property(Constants.STATUS_KEYWORD);
+        return status.isPresent() && Constants.STATUS_INACTIVE.equals(status.value());
+    }
+
+    private boolean isValueProperty(Vertex vertex, String property) {
+        return !property.isEmpty() && !property.startsWith("_") && !property.equals(uuidPropertyName)
+                && !property.equals(Constants.TYPE_STR_JSON_LD)
+                && !vertex.property(RefLabelHelper.getLabel(property, uuidPropertyName)).isPresent()
+                && !vertex.property(RefLabelHelper.getArrayLabel(property, uuidPropertyName)).isPresent();
+    }
+
+    /**
+     * The value stored for a value node, or for an array of value nodes as written by {@link VertexWriter}
+     */
+    private Object toPropertyValue(JsonNode value) {
+        if (value.isValueNode()) {
+            return value.isNull() ? null : ValueType.getValue(value);
+        }
+        if (value.isArray()) {
+            List<Object> items = new ArrayList<>();
+            for (JsonNode item : value) {
+                if (!item.isValueNode() || item.isNull()) {
+                    return null;
+                }
+                items.add(ValueType.getValue(item));
+            }
+            return ArrayHelper.formatToString(items);
+        }
+        return null;
+    }
+
+    public static class PropertyChange {
+        private final Vertex vertex;
+        private final List<String> tokens;
+        private final String property;
+        private final Object value;
+
+        private PropertyChange(Vertex vertex, List<String> tokens, String property, Object value) {
+            this.vertex = vertex;
+            this.tokens = tokens;
+            this.property = property;
+            this.value = value;
+        }
+
+        public void apply() {
+            if (value == null) {
+                vertex.property(property).remove();
+            } else {
+                vertex.property(property, value);
+            }
+        }
+
+        /**
+         * Path of the property in the entity
+         */
+        public List<String> getTokens() {
+            return tokens;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        /**
+         * Whether the change removes the property
+         */
+        public boolean isRemoval() {
+            return value == null;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+    }
+}
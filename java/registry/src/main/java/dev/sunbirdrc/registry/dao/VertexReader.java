@@ -10,12 +10,14 @@ import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.sink.DatabaseProvider;
 import dev.sunbirdrc.registry.util.ArrayHelper;
 import dev.sunbirdrc.registry.util.Definition;
+import dev.sunbirdrc.registry.util.FieldProjection;
 import dev.sunbirdrc.registry.util.IDefinitionsManager;
 import dev.sunbirdrc.registry.util.ReadConfigurator;
 import dev.sunbirdrc.registry.util.RefLabelHelper;
 import dev.sunbirdrc.registry.util.TypePropertyHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
@@ -80,6 +82,8 @@ public class VertexReader {
         boolean canAdd = true;
         if (key.equals(Constants.ROOT_KEYWORD)) {
             canAdd &= configurator.isIncludeRootIdentifiers();
+        } else if (key.equals(Constants.SHARD_HASH_KEYWORD)) {
+            canAdd = false;
         } else if (key.equals(uuidPropertyName)){
             canAdd &= configurator.isIncludeIdentifiers();
         }
@@ -95,6 +99,18 @@ public class VertexReader {
      * @return
      */
     public ObjectNode constructObject(Vertex currVertex) {
+        return constructObject(currVertex, FieldProjection.ALL);
+    }
+
+    /**
+     * For the given vertex, constructs the json ObjectNode with only the
+     * properties of the projection. The identifier and type are always added.
+     *
+     * @param currVertex
+     * @param projection
+     * @return
+     */
+    public ObjectNode constructObject(Vertex currVertex, FieldProjection projection) {
 
         ObjectNode contentNode = JsonNodeFactory.instance.objectNode();
         Iterator<VertexProperty<Object>> properties = currVertex.properties();
@@ -109,6 +125,9 @@ public class VertexReader {
                     // otherwise.
 
                     String refEntityName = RefLabelHelper.getRefEntityName(prop.key());
+                    if (!projection.includes(refEntityName)) {
+                        continue;
+                    }
                     String[] valueArr = propValue.split("\\s*,\\s*");
                     boolean isObjectNode = valueArr.length == 1;
 
@@ -125,7 +144,7 @@ public class VertexReader {
                     }
                 } else {
                     logger.debug("{} is a simple value", prop.key());
-                    if (canAdd(prop.key())) {
+                    if (canAdd(prop.key()) && (projection.includes(prop.key()) || isProjectionExempt(prop.key()))) {
                         if (isArrayType) {
                             ArrayNode arrayNode = ArrayHelper.constructArrayNode(prop.value().toString());
                             contentNode.set(prop.key(), arrayNode);
@@ -148,6 +167,15 @@ public class VertexReader {
         return contentNode;
     }
 
+    private boolean isProjectionExempt(String key) {
+        return key.equals(uuidPropertyName) || key.equals(Constants.TYPE_STR_JSON_LD)
+                || key.equals(Constants.INTERNAL_TYPE_KEYWORD);
+    }
+
+    private FieldProjection getProjection() {
+        return configurator.getProjection() != null ? configurator.getProjection() : FieldProjection.ALL;
+    }
+
     /**
      * Loads the signature vertices
      *
@@ -209,20 +237,27 @@ public class VertexReader {
     }
 
     /**
-     * Loads the OUT edge vertices of the given vertex
+     * Loads the OUT edge vertices of the given vertex, of the fields in the projection
      *
      * @param vertex
      * @param currLevel
+     * @param projection - projection of the fields of the vertex
      */
-    private void loadOtherVertices(Vertex vertex, int currLevel) {
-        // NOTE: We can load selective vertices, but we don't know the labels
-        // here.
-        // So in the process, we will have loaded signature nodes as well here
-        Iterator<Vertex> otherVertices = vertex.vertices(Direction.OUT);
+    private void loadOtherVertices(Vertex vertex, int currLevel, FieldProjection projection) {
+        // The edges are labelled with the field names, items of arrays are reached
+        // through the field name with the array item suffix.
+        // Signature nodes are loaded as well here and skipped below
+        Iterator<Edge> otherEdges = vertex.edges(Direction.OUT);
 
         int tempCurrLevel = currLevel;
-        while (otherVertices.hasNext()) {
-            Vertex currVertex = otherVertices.next();
+        while (otherEdges.hasNext()) {
+            Edge edge = otherEdges.next();
+            FieldProjection childProjection = edge.label().endsWith(Constants.ARRAY_ITEM) ? projection
+                    : projection.child(edge.label());
+            if (childProjection == null) {
+                continue;
+            }
+            Vertex currVertex = edge.inVertex();
             if(currVertex.property(Constants.STATUS_KEYWORD).isPresent() &&
                     currVertex.property(Constants.STATUS_KEYWORD).value().equals(Constants.STATUS_INACTIVE)){
                 continue;
@@ -235,7 +270,8 @@ public class VertexReader {
             if (!currVertex.label().equals(entityType) && !internalType.equals(Constants.SIGNATURES_STR)) {
                 logger.debug("Reading vertex label {} and internal type {}", currVertex.label(), internalType);
 
-                ObjectNode node = constructObject(currVertex);
+                boolean isArrayNode = currVertex.property(Constants.TYPE_STR_JSON_LD).value().equals(Constants.ARRAY_NODE_KEYWORD);
+                ObjectNode node = constructObject(currVertex, isArrayNode ? FieldProjection.ALL : childProjection);
                 populateMaps(node, currVertex);
 
                 // Load any signatures within child entity
@@ -244,16 +280,16 @@ public class VertexReader {
                     node.set(Constants.SIGNATURES_STR, signatureNode);
                 }
 
-                if (currVertex.property(Constants.TYPE_STR_JSON_LD).value().equals(Constants.ARRAY_NODE_KEYWORD)) {
+                if (isArrayNode) {
                     // Not incrementing levels here, because it is we who
                     // inserted a blank array_node
                     // for data modelling.
-                    loadOtherVertices(currVertex, tempCurrLevel);
+                    loadOtherVertices(currVertex, tempCurrLevel, childProjection);
                 }
 
                 if (canLoadVertex(++tempCurrLevel, configurator.getDepth())) {
                     logger.debug("Going to load children of {}", currVertex.label());
-                    loadOtherVertices(currVertex, tempCurrLevel);
+                    loadOtherVertices(currVertex, tempCurrLevel, childProjection);
                     logger.debug("End load children of {}", currVertex.label());
                     tempCurrLevel = currLevel;
                 }
@@ -459,7 +495,8 @@ public class VertexReader {
                 && rootVertex.property(Constants.STATUS_KEYWORD).value().equals(Constants.STATUS_INACTIVE)) {
             throw new RecordNotFoundException("entity status is inactive");
         }
-        ObjectNode rootNode = constructObject(rootVertex);
+        FieldProjection projection = getProjection();
+        ObjectNode rootNode = constructObject(rootVertex, projection);
         entityType = (String) ValueType.getValue(rootNode.get(TypePropertyHelper.getTypeName()));
 
         // Set the type for the root node, so as to wrap.
@@ -473,7 +510,7 @@ public class VertexReader {
         }
 
         if (configurator.getDepth() > 0) {
-            loadOtherVertices(rootVertex, currLevel);
+            loadOtherVertices(rootVertex, currLevel, projection);
         }
 
         printUuidNodeMap();
@@ -0,0 +1,21 @@
+package dev.sunbirdrc.registry.exception;
+
+import dev.sunbirdrc.pojos.NotificationMessage;
+
+import java.util.List;
+
+/**
+ * A batch of notifications which was only partly sent, the unsent messages can be retried on their own
+ */
+public class NotificationBatchException extends Exception {
+	private final List<NotificationMessage> unsent;
+
+	public NotificationBatchException(List<NotificationMessage> unsent, Throwable cause) {
+		super(unsent.size() + " notifications of the batch not sent: " + cause.getMessage(), cause);
+		this.unsent = unsent;
+	}
+
+	public List<NotificationMessage> getUnsent() {
+		return unsent;
+	}
+}
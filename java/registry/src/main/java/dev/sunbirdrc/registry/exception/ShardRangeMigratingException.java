@@ -0,0 +1,32 @@
+package dev.sunbirdrc.registry.exception;
+
+/**
+ * A write to a shard key range which is being moved to another shard, it can be retried once the move is done
+ */
+public class ShardRangeMigratingException extends RuntimeException {
+	private final long retryAfter;
+
+	/**
+	 * @param retryAfter - milliseconds after which the write can be retried
+	 */
+	public ShardRangeMigratingException(long retryAfter) {
+		super("Shard key range is being migrated, try again later");
+		this.retryAfter = retryAfter;
+	}
+
+	public long getRetryAfter() {
+		return retryAfter;
+	}
+
+	/**
+	 * Returns the exception when it caused the given one, null otherwise
+	 */
+	public static ShardRangeMigratingException causing(Throwable throwable) {
+		for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ShardRangeMigratingException) {
+				return (ShardRangeMigratingException) cause;
+			}
+		}
+		return null;
+	}
+}
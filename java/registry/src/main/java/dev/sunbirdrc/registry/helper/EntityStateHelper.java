@@ -3,6 +3,7 @@ package dev.sunbirdrc.registry.helper;
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import dev.sunbirdrc.pojos.OwnershipsAttributes;
@@ -10,6 +11,7 @@ import dev.sunbirdrc.pojos.attestation.Action;
 import dev.sunbirdrc.registry.entities.AttestationPolicy;
 import dev.sunbirdrc.registry.middleware.service.ConditionResolverService;
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
+import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
 import dev.sunbirdrc.registry.model.attestation.AttestationPath;
 import dev.sunbirdrc.registry.model.attestation.EntityPropertyURI;
 import dev.sunbirdrc.registry.util.ClaimRequestClient;
@@ -26,6 +28,7 @@ import org.springframework.stereotype.Component;
 import javax.validation.constraints.NotEmpty;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static dev.sunbirdrc.registry.middleware.util.Constants.*;
 
@@ -56,6 +59,23 @@ public class EntityStateHelper {
     }
 
     JsonNode applyWorkflowTransitions(JsonNode existing, JsonNode updated, List<AttestationPolicy> attestationPolicies) throws IOException {
+        List<CompletableFuture<String>> pendingOwners = new ArrayList<>();
+        updated = applyWorkflowTransitions(existing, updated, attestationPolicies, pendingOwners);
+        List<String> owners = new ArrayList<>();
+        for (CompletableFuture<String> pendingOwner : pendingOwners) {
+            owners.add(pendingOwner.join());
+        }
+        String entityName = updated.fields().next().getKey();
+        addOwners((ObjectNode) updated.get(entityName), owners);
+        return updated;
+    }
+
+    /**
+     * Applies the transitions, owners provisioned in the background are left in pendingOwners for the caller
+     * to add to the record once their accounts exist
+     */
+    JsonNode applyWorkflowTransitions(JsonNode existing, JsonNode updated, List<AttestationPolicy> attestationPolicies,
+                                      List<CompletableFuture<String>> pendingOwners) throws IOException {
         String entityName = updated.fields().next().getKey();
         JsonNode modified = updated.get(entityName);
         logger.info("Detecting state changes by comparing attestation paths in existing and the updated nodes");
@@ -64,7 +84,7 @@ public class EntityStateHelper {
         ruleEngineService.doTransition(allContexts);
         allContexts = new ArrayList<>();
         addAttestationStateTransitions(existing, entityName, modified, allContexts, attestationPolicies);
-        addOwnershipStateTransitions(existing, entityName, updated, allContexts);
+        addOwnershipStateTransitions(existing, entityName, updated, allContexts, pendingOwners);
         ruleEngineService.doTransition(allContexts);
         updated = removePasswordFields(entityName, updated);
         return updated;
@@ -95,6 +115,15 @@ public class EntityStateHelper {
         allContexts.add(stateContext);
     }
 
+    void addOwners(ObjectNode entityNode, List<String> owners) {
+        if (owners.isEmpty()) {
+            return;
+        }
+        JsonNode ownerNode = entityNode.get(OSSystemFields.osOwner.toString());
+        ArrayNode ownersNode = ownerNode instanceof ArrayNode ? (ArrayNode) ownerNode : entityNode.putArray(OSSystemFields.osOwner.toString());
+        owners.forEach(ownersNode::add);
+    }
+
     public List<ObjectNode> getOwnersData(JsonNode jsonNode, String entityName) {
         List<ObjectNode> owners = new ArrayList<>();
         List<OwnershipsAttributes> ownershipAttributes = definitionsManager.getOwnershipAttributes(entityName);
@@ -105,7 +134,8 @@ public class EntityStateHelper {
         return owners;
     }
 
-    private void addOwnershipStateTransitions(JsonNode existing, String entityName, JsonNode modified, List<StateContext> allContexts) {
+    private void addOwnershipStateTransitions(JsonNode existing, String entityName, JsonNode modified, List<StateContext> allContexts,
+                                              List<CompletableFuture<String>> pendingOwners) {
         List<OwnershipsAttributes> ownershipAttributes = definitionsManager.getOwnershipAttributes(entityName);
         for (OwnershipsAttributes ownershipAttribute : ownershipAttributes) {
             ObjectNode existingNode = createOwnershipNode(existing, entityName, ownershipAttribute);
@@ -117,6 +147,7 @@ public class EntityStateHelper {
                     .metadataNode((ObjectNode) modified.get(entityName))
                     .ownershipAttribute(ownershipAttribute)
                     .loginEnabled(definitionsManager.getDefinition(entityName).getOsSchemaConfiguration().getEnableLogin())
+                    .pendingOwners(pendingOwners)
                     .build();
             allContexts.add(stateContext);
         }
@@ -12,6 +12,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.flipkart.zjsonpatch.JsonPatch;
 import com.jayway.jsonpath.PathNotFoundException;
 import dev.sunbirdrc.actors.factory.PluginRouter;
+import dev.sunbirdrc.keycloak.OwnerProvisioningService;
 import dev.sunbirdrc.pojos.*;
 import dev.sunbirdrc.pojos.attestation.Action;
 import dev.sunbirdrc.pojos.attestation.States;
@@ -66,6 +67,10 @@ import java.io.IOException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import static dev.sunbirdrc.pojos.attestation.Action.GRANT_CLAIM;
 import static dev.sunbirdrc.registry.Constants.*;
@@ -106,6 +111,9 @@ public class RegistryHelper {
     @Autowired
     IReadService readService;
 
+    @Autowired
+    private NativeReadService nativeReadService;
+
     @Autowired
     IValidate validationService;
 
@@ -139,6 +147,9 @@ public class RegistryHelper {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private OwnerProvisioningFailureStore ownerProvisioningFailureStore;
+
     @Value("${database.uuidPropertyName}")
     public String uuidPropertyName;
 
@@ -164,6 +175,12 @@ public class RegistryHelper {
     @Value("${view_template.decrypt_private_fields:false}")
     private boolean viewTemplateDecryptPrivateFields;
 
+    @Value("${read.mget.maxIds:500}")
+    private int mgetMaxIds;
+
+    @Value("${registry.adminRoles:admin}")
+    private List<String> adminRoles;
+
     @Autowired
     private EntityTypeHandler entityTypeHandler;
 
@@ -216,11 +233,15 @@ public class RegistryHelper {
 
     private String addEntityHandler(JsonNode inputJson, String userId, boolean skipRequiredValidation, boolean skipSignature) throws Exception {
         String entityType = inputJson.fields().next().getKey();
-        validationService.validate(entityType, objectMapper.writeValueAsString(inputJson), skipRequiredValidation);
+        validationService.validate(entityType, inputJson, skipRequiredValidation);
         String entityName = inputJson.fields().next().getKey();
+        List<CompletableFuture<String>> pendingOwners = new ArrayList<>();
         if (workflowEnabled) {
             List<AttestationPolicy> attestationPolicies = getAttestationPolicies(entityName);
-            inputJson = entityStateHelper.applyWorkflowTransitions(JSONUtil.convertStringJsonNode("{}"), inputJson, attestationPolicies);
+            // Async requests don't return the record id, so their owners are provisioned with the record
+            inputJson = asyncRequest.isEnabled()
+                    ? entityStateHelper.applyWorkflowTransitions(JSONUtil.convertStringJsonNode("{}"), inputJson, attestationPolicies)
+                    : entityStateHelper.applyWorkflowTransitions(JSONUtil.convertStringJsonNode("{}"), inputJson, attestationPolicies, pendingOwners);
         }
         if (!StringUtils.isEmpty(userId)) {
             ArrayNode jsonNode = (ArrayNode) inputJson.get(entityName).get(osOwner.toString());
@@ -230,7 +251,60 @@ public class RegistryHelper {
             }
             jsonNode.add(userId);
         }
-        return addEntity(inputJson, userId, entityType, skipSignature);
+        String entityId = addEntity(inputJson, userId, entityType, skipSignature);
+        addOwnersOnceProvisioned(entityName, entityId, userId, pendingOwners);
+        return entityId;
+    }
+
+    /**
+     * Adds the owners provisioned in the background to the record once all of them are done. Owners whose
+     * provisioning failed, and owners which couldn't be added to the record, are kept in the
+     * {@link OwnerProvisioningFailureStore}.
+     */
+    private void addOwnersOnceProvisioned(String entityName, String entityId, String userId, List<CompletableFuture<String>> pendingOwners) {
+        if (pendingOwners.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<String>> settledOwners = pendingOwners.stream()
+                .map(pendingOwner -> pendingOwner.exceptionally(e -> {
+                    recordFailedOwner(entityName, entityId, e instanceof CompletionException ? e.getCause() : e);
+                    return null;
+                }))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(settledOwners.toArray(new CompletableFuture[0])).thenRun(() -> {
+            List<String> owners = settledOwners.stream().map(CompletableFuture::join).filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            if (owners.isEmpty()) {
+                return;
+            }
+            try {
+                RecordIdentifier recordId = RecordIdentifier.parse(entityId);
+                registryService.addOwners(shardManager.getShardByRecord(recordId), userId, entityName, recordId.getUuid(), owners);
+                logger.info("Added owners {} to {} {}", owners, entityName, entityId);
+            } catch (Exception e) {
+                logger.error("Failed adding owners {} to {} {}", owners, entityName, entityId, e);
+                for (String owner : owners) {
+                    recordFailure(new OwnerProvisioningFailureStore.Failure(entityName, entityId, null, owner,
+                            "Adding the owner to the record failed: " + e.getMessage(), System.currentTimeMillis()));
+                }
+            }
+        });
+    }
+
+    private void recordFailedOwner(String entityName, String entityId, Throwable error) {
+        String userName = error instanceof OwnerProvisioningService.ProvisioningFailedException
+                ? ((OwnerProvisioningService.ProvisioningFailedException) error).getOwner().getUserName() : null;
+        recordFailure(new OwnerProvisioningFailureStore.Failure(entityName, entityId, userName, null, error.getMessage(),
+                System.currentTimeMillis()));
+    }
+
+    private void recordFailure(OwnerProvisioningFailureStore.Failure failure) {
+        try {
+            ownerProvisioningFailureStore.record(failure);
+        } catch (IOException e) {
+            logger.error("Failed recording the provisioning failure of owner {} of {} {}", failure.getUserName() != null
+                    ? failure.getUserName() : failure.getOwnerId(), failure.getEntityType(), failure.getEntityId(), e);
+        }
     }
 
     private String addEntity(JsonNode inputJson, String userId, String entityType, boolean skipSignature) throws Exception {
@@ -275,11 +349,21 @@ public class RegistryHelper {
 
     public JsonNode readEntity(String userId, String entityType, String label, boolean includeSignatures,
                                ViewTemplate viewTemplate, boolean requireLDResponse) throws Exception {
+        return readEntity(userId, entityType, label, includeSignatures, viewTemplate, requireLDResponse, null);
+    }
+
+    /**
+     * Get entity details from the DB with only the requested fields, and modifies data according to view template.
+     * Without requested fields, the fields referenced by the view template are read.
+     *
+     * @param projection fields to read, all when null and there's no view template
+     */
+    public JsonNode readEntity(String userId, String entityType, String label, boolean includeSignatures,
+                               ViewTemplate viewTemplate, boolean requireLDResponse, FieldProjection projection) throws Exception {
         boolean includePrivateFields = false;
         JsonNode resultNode = null;
         RecordIdentifier recordId = RecordIdentifier.parse(label);
-        String shardId = dbConnectionInfoMgr.getShardId(recordId.getShardLabel());
-        Shard shard = shardManager.activateShard(shardId);
+        Shard shard = shardManager.getShardByRecord(recordId);
         logger.info("Read Api: shard id: " + recordId.getShardLabel() + " for label: " + label);
         ReadConfigurator configurator = ReadConfiguratorFactory.getOne(includeSignatures);
         configurator.setIncludeTypeAttributes(requireLDResponse);
@@ -287,6 +371,10 @@ public class RegistryHelper {
             includePrivateFields = viewTemplateManager.isPrivateFieldEnabled(viewTemplate, entityType);
         }
         configurator.setIncludeEncryptedProp(includePrivateFields);
+        if (projection == null && viewTemplate != null) {
+            projection = viewTemplateManager.getProjection(viewTemplate);
+        }
+        configurator.setProjection(projection);
         resultNode = readService.getEntity(shard, userId, recordId.getUuid(), entityType, configurator);
         if (!isOwner(resultNode.get(entityType), userId)) {
 //            throw new Exception("Unauthorized");
@@ -333,10 +421,28 @@ public class RegistryHelper {
         return searchEntity(inputJson, searchService);
     }
 
+    /**
+     * Counts and aggregates the entities matching the input, without reading them
+     *
+     * @param inputJson entityType, filters and aggregations
+     * @return count and aggregations keyed by entity type
+     * @throws Exception
+     */
+    public JsonNode aggregateEntity(JsonNode inputJson) throws Exception {
+        return searchService.aggregate(inputJson);
+    }
+
     private JsonNode searchEntity(JsonNode inputJson, ISearchService service) throws Exception {
         logger.debug("searchEntity starts");
-        JsonNode resultNode = service.search(inputJson);
         ViewTemplate viewTemplate = viewTemplateManager.getViewTemplate(inputJson);
+        FieldProjection projection = viewTemplate != null ? viewTemplateManager.getProjection(viewTemplate) : null;
+        if (!inputJson.has(FIELDS) && projection != null) {
+            // Read only the fields the view template shows
+            ObjectNode query = inputJson.deepCopy();
+            projection.toPaths().forEach(query.putArray(FIELDS)::add);
+            inputJson = query;
+        }
+        JsonNode resultNode = service.search(inputJson);
         if (viewTemplate != null) {
             ViewTransformer vTransformer = new ViewTransformer();
             resultNode = vTransformer.transform(viewTemplate, resultNode);
@@ -354,41 +460,153 @@ public class RegistryHelper {
      * @throws Exception
      */
     private void updateEntity(JsonNode inputJson, String userId) throws Exception {
+        updateEntity(inputJson, userId, null);
+    }
+
+    private void updateEntity(JsonNode inputJson, String userId, EntityPatch removals) throws Exception {
         logger.debug("updateEntity starts");
         String entityType = inputJson.fields().next().getKey();
-        String jsonString = objectMapper.writeValueAsString(inputJson);
-        validationService.validate(entityType, jsonString, true);
+        validationService.validate(entityType, inputJson, true);
         Shard shard = shardManager.getShard(inputJson.get(entityType).get(shardManager.getShardProperty()));
         String label = inputJson.get(entityType).get(dbConnectionInfoMgr.getUuidPropertyName()).asText();
         RecordIdentifier recordId = RecordIdentifier.parse(label);
         logger.info("Update Api: shard id: " + recordId.getShardLabel() + " for uuid: " + recordId.getUuid());
-        registryService.updateEntity(shard, userId, recordId.getUuid(), jsonString, false);
+        if (removals == null) {
+            registryService.updateEntity(shard, userId, recordId.getUuid(), inputJson, false);
+        } else {
+            registryService.updateEntity(shard, userId, recordId.getUuid(), inputJson, false, removals);
+        }
         logger.debug("updateEntity ends");
     }
 
     public String updateProperty(JsonNode inputJson, String userId) throws Exception {
         logger.debug("updateEntity starts");
         String entityType = inputJson.fields().next().getKey();
-        String jsonString = objectMapper.writeValueAsString(inputJson);
         Shard shard = shardManager.getShard(inputJson.get(entityType).get(shardManager.getShardProperty()));
         String label = inputJson.get(entityType).get(dbConnectionInfoMgr.getUuidPropertyName()).asText();
         RecordIdentifier recordId = RecordIdentifier.parse(label);
         logger.info("Update Api: shard id: " + recordId.getShardLabel() + " for uuid: " + recordId.getUuid());
-        registryService.updateEntity(shard, userId, recordId.getUuid(), jsonString, false);
+        registryService.updateEntity(shard, userId, recordId.getUuid(), inputJson, false);
         notificationHelper.sendNotification(inputJson, UPDATE);
         return "SUCCESS";
     }
 
     public void updateEntityAndState(JsonNode existingNode, JsonNode updatedNode, String userId) throws Exception {
+        updateEntityAndState(existingNode, updatedNode, userId, null);
+    }
+
+    /**
+     * @param removals - merge patch of the value properties the update removes, or null
+     */
+    private void updateEntityAndState(JsonNode existingNode, JsonNode updatedNode, String userId, EntityPatch removals) throws Exception {
+        List<CompletableFuture<String>> pendingOwners = new ArrayList<>();
         if (workflowEnabled) {
             String entityName = updatedNode.fields().next().getKey();
             List<AttestationPolicy> attestationPolicies = getAttestationPolicies(entityName);
-            updatedNode = entityStateHelper.applyWorkflowTransitions(existingNode, updatedNode, attestationPolicies);
+            updatedNode = entityStateHelper.applyWorkflowTransitions(existingNode, updatedNode, attestationPolicies, pendingOwners);
         }
-        updateEntity(updatedNode, userId);
+        updateEntity(updatedNode, userId, removals);
+        String entityName = updatedNode.fields().next().getKey();
+        addOwnersOnceProvisioned(entityName, updatedNode.get(entityName).get(dbConnectionInfoMgr.getUuidPropertyName()).asText(),
+                userId, pendingOwners);
         notificationHelper.sendNotification(updatedNode, UPDATE);
     }
 
+    /**
+     * Applies a JSON patch or merge patch to the entity. Patches which only set or remove value properties of the
+     * entity and its nested objects are written to those properties directly, validating only the patched values.
+     * Patches of system fields, owner details, schemas and of entities which are signed or attested take the full
+     * update, like PUT.
+     */
+    public void patchEntity(String entityName, String entityId, EntityPatch patch, String userId, String emailId) throws Exception {
+        RecordIdentifier recordId = RecordIdentifier.parse(entityId);
+        Shard shard = shardManager.getShardByRecord(recordId);
+        if (canPatchDirectly(entityName, patch)) {
+            ObjectNode partialNode = patch.toPartialNode(entityName);
+            validationService.validate(entityName, partialNode, true);
+            if (registryService.patchEntity(shard, userId, entityName, recordId.getUuid(), patch, partialNode)) {
+                if (notificationHelper.hasNotifications(entityName, UPDATE)) {
+                    notificationHelper.sendNotification(readEntity(userId, entityName, entityId, false, null, false), UPDATE);
+                }
+                return;
+            }
+        }
+
+        JsonNode existingNode = readEntity(userId, entityName, entityId, false, null, false);
+        ObjectNode patchedEntity = (ObjectNode) patch.applyTo(existingNode.get(entityName));
+        patchedEntity.put(uuidPropertyName, entityId);
+        ObjectNode newRootNode = objectMapper.createObjectNode();
+        newRootNode.set(entityName, patchedEntity);
+        // Updates merge into the entity, value properties removed by the patch are removed with it
+        ObjectNode removals = getRemovedValueProperties(entityName, existingNode.get(entityName), patchedEntity, patch);
+        updateEntityAndState(existingNode, newRootNode, userId, removals.size() > 0 ? EntityPatch.mergePatch(removals) : null);
+        if (existingNode.get(entityName).has(OSSystemFields._osSignedData.name())) {
+            revokeExistingCredentials(entityName, entityId, userId,
+                    existingNode.get(entityName).get(OSSystemFields._osSignedData.name()).asText(""));
+        }
+        invalidateAttestation(entityName, entityId, userId, null);
+        autoRaiseClaim(entityName, entityId, userId, existingNode, newRootNode, emailId);
+    }
+
+    private boolean canPatchDirectly(String entityName, EntityPatch patch) {
+        if (entityName.equals(Schema) || (signatureEnabled && definitionsManager.getCredentialTemplate(entityName) != null)) {
+            return false;
+        }
+        if (workflowEnabled && !getAttestationPolicies(entityName).isEmpty()) {
+            return false;
+        }
+        List<String> ownerPaths = new ArrayList<>();
+        if (workflowEnabled) {
+            for (OwnershipsAttributes ownershipAttribute : definitionsManager.getOwnershipAttributes(entityName)) {
+                Collections.addAll(ownerPaths, ownershipAttribute.getUserId(), ownershipAttribute.getEmail(),
+                        ownershipAttribute.getMobile(), ownershipAttribute.getPassword());
+            }
+        }
+        for (EntityPatch.Operation operation : patch.getOperations()) {
+            if (operation.getTokens().isEmpty() || operation.getTokens().stream().anyMatch(this::isSystemField)) {
+                return false;
+            }
+            String path = operation.getPath();
+            if (ownerPaths.stream().anyMatch(ownerPath -> ownerPath != null && (ownerPath.startsWith(path) || path.startsWith(ownerPath)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isSystemField(String property) {
+        return Arrays.stream(OSSystemFields.values()).anyMatch(field -> field.name().equals(property));
+    }
+
+    /**
+     * The value properties the patch removed from objects of the entity, as a merge patch. Array items removed by the
+     * patch are removed by the update, removing whole objects isn't supported.
+     */
+    private ObjectNode getRemovedValueProperties(String entityName, JsonNode existingEntity, JsonNode patchedEntity, EntityPatch patch) {
+        ObjectNode removals = objectMapper.createObjectNode();
+        for (EntityPatch.Operation operation : patch.getOperations()) {
+            String path = operation.getPath();
+            if (!operation.isRemove() || !patchedEntity.at(path).isMissingNode()) {
+                continue;
+            }
+            JsonNode removed = existingEntity.at(path);
+            JsonNode parent = existingEntity.at(path.substring(0, path.lastIndexOf('/')));
+            if (removed.isMissingNode() || parent.isArray()) {
+                continue;
+            }
+            if (removed.isObject() || (removed.isArray() && removed.size() > 0 && removed.get(0).isObject())) {
+                throw new UnsupportedOperationException("Removing " + path + " of " + entityName + " is not supported, remove its properties instead");
+            }
+            ObjectNode removalParent = removals;
+            List<String> tokens = operation.getTokens();
+            for (String token : tokens.subList(0, tokens.size() - 1)) {
+                removalParent = removalParent.has(token) ? (ObjectNode) removalParent.get(token) : removalParent.putObject(token);
+            }
+            removalParent.putNull(operation.getProperty());
+        }
+        return removals;
+    }
+
     public void addEntityProperty(String entityName, String entityId, JsonNode inputJson, HttpServletRequest request) throws Exception {
         String propertyURI = getPropertyURI(entityId, request);
         JsonNode existingNode = readEntity("", entityName, entityId, false, null, false);
@@ -483,7 +701,7 @@ public class RegistryHelper {
         ArrayNode newPropertyNode = objectMapper.createArrayNode().add(inputJson);
         parentNode.set(propertyName, newPropertyNode);
         try {
-            validationService.validate(entityName, objectMapper.writeValueAsString(updateNode), false);
+            validationService.validate(entityName, updateNode, false);
         } catch (MiddlewareHaltException me) {
             // try a field node since array validation failed
             parentNode.set(propertyName, inputJson);
@@ -825,13 +1043,12 @@ public class RegistryHelper {
         List<String> fieldsToRemove = getFieldsToRemove(entityName);
         if (jsonNode.isArray()) {
             ArrayNode arrayNode = (ArrayNode) jsonNode;
+            JsonNode requestBodyWithoutSystemFields = requestBody.deepCopy();
+            JSONUtil.removeNodes(requestBodyWithoutSystemFields, fieldsToRemove);
             for (JsonNode next : arrayNode) {
                 JsonNode existingProperty = next.deepCopy();
                 JSONUtil.removeNodes(existingProperty, fieldsToRemove);
 
-                JsonNode requestBodyWithoutSystemFields = requestBody.deepCopy();
-                JSONUtil.removeNodes(requestBodyWithoutSystemFields, fieldsToRemove);
-
                 if (existingProperty.equals(requestBodyWithoutSystemFields)) {
                     return next.get(uuidPropertyName).asText();
                 }
@@ -853,19 +1070,186 @@ public class RegistryHelper {
         return fieldsToRemove;
     }
 
+    /**
+     * Reads the records of the elastic search hits from the database, with one read per shard, the shards in parallel.
+     * The records keep the order of the hits, the ones deleted since they were indexed are left out.
+     */
     public ArrayNode fetchFromDBUsingEsResponse(String entity, ArrayNode esSearchResponse) throws Exception {
+        Map<String, Shard> shards = new HashMap<>();
+        Map<String, List<String>> idsByShard = new HashMap<>();
+        for (JsonNode value : esSearchResponse) {
+            RecordIdentifier recordId = RecordIdentifier.parse(value.get(uuidPropertyName).asText());
+            Shard shard = shardManager.getShardByRecord(recordId);
+            shards.putIfAbsent(shard.getShardId(), shard);
+            idsByShard.computeIfAbsent(shard.getShardId(), shardId -> new ArrayList<>()).add(recordId.getUuid());
+        }
+        ReadConfigurator configurator = ReadConfiguratorFactory.getOne(false);
+        configurator.setIncludeTypeAttributes(false);
+        configurator.setIncludeEncryptedProp(false);
+        Map<String, JsonNode> records = new ConcurrentHashMap<>();
+        idsByShard.entrySet().parallelStream().forEach(shardIds -> {
+            try {
+                records.putAll(nativeReadService.getEntities(shards.get(shardIds.getKey()), "", shardIds.getValue(), entity, configurator));
+            } catch (Exception e) {
+                throw new IllegalStateException("Can't read " + entity + " records from shard " + shardIds.getKey(), e);
+            }
+        });
+
         ArrayNode result = objectMapper.createArrayNode();
         for (JsonNode value : esSearchResponse) {
-            JsonNode dbResponse = readEntity("", entity, value.get(uuidPropertyName).asText(), false, null, false);
+            String label = value.get(uuidPropertyName).asText();
+            JsonNode dbResponse = records.get(RecordIdentifier.parse(label).getUuid());
+            if (dbResponse == null) {
+                continue;
+            }
             result.add(dbResponse.get(entity));
+            if (isEventsEnabled) {
+                registryService.maskAndEmitEvent(dbResponse.get(entity), entity, EventType.READ, "", label);
+            }
         }
         return result;
     }
+    /**
+     * Reads the records of the ids with one read per shard, the shards in parallel. The owner, view template and
+     * decryption rules of single reads are applied to all the records at once.
+     *
+     * @return the result of each id in the order of the ids, with the id, the http status and the record or an error
+     */
+    public ArrayNode readEntities(HttpServletRequest request, String entityName, List<String> entityIds,
+                                  ViewTemplate viewTemplate, FieldProjection projection) throws Exception {
+        Set<String> labels = new LinkedHashSet<>(entityIds);
+        if (labels.size() > mgetMaxIds) {
+            throw new IllegalArgumentException("At most " + mgetMaxIds + " ids can be read at once");
+        }
+        String userId = getUserId(request, entityName);
+        boolean checkOwners = doesEntityOperationRequireAuthorization(entityName) && securityEnabled
+                && !isAuthorizedForAllRecords(request, entityName);
+
+        boolean includePrivateFields = viewTemplate != null && viewTemplateManager.isPrivateFieldEnabled(viewTemplate, entityName);
+        if (projection == null && viewTemplate != null) {
+            projection = viewTemplateManager.getProjection(viewTemplate);
+        }
+        String osOwner = OSSystemFields.osOwner.toString();
+        // The owners are read for the check even when they aren't requested
+        boolean removeOwners = checkOwners && projection != null && !projection.includes(osOwner);
+        ReadConfigurator configurator = ReadConfiguratorFactory.getOne(false);
+        configurator.setIncludeTypeAttributes(false);
+        configurator.setIncludeEncryptedProp(includePrivateFields);
+        if (removeOwners) {
+            List<String> paths = projection.toPaths();
+            paths.add(osOwner);
+            configurator.setProjection(FieldProjection.of(paths));
+        } else {
+            configurator.setProjection(projection);
+        }
+
+        Map<String, Shard> shards = new HashMap<>();
+        Map<String, List<String>> idsByShard = new HashMap<>();
+        Map<String, String> shardIds = new HashMap<>();
+        for (String label : labels) {
+            try {
+                RecordIdentifier recordId = RecordIdentifier.parse(label);
+                Shard shard = shardManager.getShardByRecord(recordId);
+                shards.putIfAbsent(shard.getShardId(), shard);
+                shardIds.put(label, shard.getShardId());
+                idsByShard.computeIfAbsent(shard.getShardId(), shardId -> new ArrayList<>()).add(recordId.getUuid());
+            } catch (Exception e) {
+                logger.error("Invalid id {} of {}", label, entityName, e);
+            }
+        }
+        Map<String, JsonNode> records = new ConcurrentHashMap<>();
+        Map<String, String> failedShards = Collections.synchronizedMap(new HashMap<>());
+        idsByShard.entrySet().parallelStream().forEach(shardIds -> {
+            try {
+                records.putAll(nativeReadService.getEntities(shards.get(shardIds.getKey()), userId, shardIds.getValue(), entityName, configurator));
+            } catch (Exception e) {
+                logger.error("Can't read {} records from shard {}", entityName, shardIds.getKey(), e);
+                failedShards.put(shardIds.getKey(), String.valueOf(e.getMessage()));
+            }
+        });
+
+        ArrayNode results = objectMapper.createArrayNode();
+        ArrayNode entities = objectMapper.createArrayNode();
+        for (String label : labels) {
+            ObjectNode result = results.addObject();
+            result.put("id", label);
+            if (!shardIds.containsKey(label)) {
+                result.put("status", 400).put("error", INVALID_ID_MESSAGE);
+                continue;
+            }
+            String failedShard = failedShards.get(shardIds.get(label));
+            JsonNode record = records.get(RecordIdentifier.parse(label).getUuid());
+            if (failedShard != null) {
+                result.put("status", 500).put("error", failedShard);
+            } else if (record == null) {
+                result.put("status", 404).put("error", "Record not found");
+            } else if (checkOwners && !isOwner(record.get(entityName), userId)) {
+                result.put("status", 403).put("error", UNAUTHORIZED_OPERATION_MESSAGE);
+            } else {
+                if (removeOwners) {
+                    ((ObjectNode) record.get(entityName)).remove(osOwner);
+                }
+                result.put("status", 200);
+                entities.add(record.get(entityName));
+            }
+        }
+
+        if (entities.size() > 0 && viewTemplate != null) {
+            if (viewTemplateDecryptPrivateFields && includePrivateFields) {
+                decryptionHelper.getDecryptedJson(entityName, entities);
+            }
+            JsonNode transformed = new ViewTransformer().transform(viewTemplate,
+                    objectMapper.createObjectNode().set(entityName, entities)).get(entityName);
+            entities = (ArrayNode) transformed;
+        }
+        Iterator<JsonNode> entityIterator = entities.iterator();
+        for (JsonNode result : results) {
+            if (result.get("status").asInt() == 200) {
+                JsonNode entity = entityIterator.next();
+                ((ObjectNode) result).set("result", entity);
+                if (isEventsEnabled) {
+                    registryService.maskAndEmitEvent(entity, entityName, EventType.READ, userId, result.get("id").asText());
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Whether the user can read every record of the entity, by role or as an attestor, instead of only their own
+     */
+    private boolean isAuthorizedForAllRecords(HttpServletRequest request, String entityName) {
+        if (!doesEntityContainOwnershipAttributes(entityName)) {
+            return true;
+        }
+        if (getManageRoles(entityName).size() > 0) {
+            try {
+                authorizeManageEntity(request, entityName);
+                return true;
+            } catch (Exception e) {
+                logger.debug("User can't manage {}: {}", entityName, e.getMessage());
+            }
+        }
+        try {
+            authorizeAttestor(entityName, request);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     public JsonNode searchEntitiesByUserId(String entity, String userId, String viewTemplateId) throws Exception {
+        return searchEntitiesByUserId(entity, userId, viewTemplateId, null);
+    }
+
+    public JsonNode searchEntitiesByUserId(String entity, String userId, String viewTemplateId, String fields) throws Exception {
         ObjectNode searchByOwnerQuery = getSearchByOwnerQuery(entity, userId);
         if (!Strings.isEmpty(viewTemplateId)) {
             searchByOwnerQuery.put(VIEW_TEMPLATE_ID, viewTemplateId);
         }
+        if (!Strings.isEmpty(fields)) {
+            searchByOwnerQuery.put(FIELDS, fields);
+        }
         return searchEntity(searchByOwnerQuery, nativeSearchService);
     }
 
@@ -934,6 +1318,20 @@ public class RegistryHelper {
         }
     }
 
+    /**
+     * Allows the operational endpoints, like the elastic search backfill, the webhook dead letters or the owner
+     * provisioning failures, only to users with one of registry.adminRoles. Nothing is checked when authentication is disabled.
+     */
+    public void authorizeAdmin(HttpServletRequest request) {
+        if (!securityEnabled) {
+            return;
+        }
+        Set<String> userRoles = getUserRolesFromRequest(request);
+        if (adminRoles.stream().noneMatch(userRoles::contains)) {
+            throw new UnAuthorizedException(UNAUTHORIZED_OPERATION_MESSAGE);
+        }
+    }
+
     public void authorizeAttestor(String entity, HttpServletRequest request) throws Exception {
         List<String> keyCloakEntities = getUserEntities(request);
         Set<String> allTheAttestorEntities = definitionsManager.getDefinition(entity)
@@ -1018,8 +1416,7 @@ public class RegistryHelper {
 
     public Vertex deleteEntity(String entityName, String entityId, String userId) throws Exception {
         RecordIdentifier recordId = RecordIdentifier.parse(entityId);
-        String shardId = dbConnectionInfoMgr.getShardId(recordId.getShardLabel());
-        Shard shard = shardManager.activateShard(shardId);
+        Shard shard = shardManager.getShardByRecord(recordId);
         ReadConfigurator configurator = ReadConfiguratorFactory.getOne(false);
         Vertex vertex = registryService.deleteEntityById(shard, entityName, userId, recordId.getUuid());
         VertexReader vertexReader = new VertexReader(shard.getDatabaseProvider(), vertex.graph(), configurator, uuidPropertyName, definitionsManager);
@@ -1030,13 +1427,11 @@ public class RegistryHelper {
 
     public JsonNode revokeAnEntity (String entityName, String entityId, String userId, JsonNode currentJsonNode) throws Exception {
         RecordIdentifier recordId = RecordIdentifier.parse(entityId);
-        String shardId = dbConnectionInfoMgr.getShardId(recordId.getShardLabel());
-        Shard shard = shardManager.activateShard(shardId);
+        Shard shard = shardManager.getShardByRecord(recordId);
         ((ObjectNode) currentJsonNode).put(OSSystemFields._osSignedData.name(), "");
         ObjectNode newRootNode = objectMapper.createObjectNode();
-        newRootNode.set(entityName, JSONUtil.convertObjectJsonNode(currentJsonNode));
-        String jsonString = objectMapper.writeValueAsString(newRootNode);
-        registryService.updateEntity(shard, userId, recordId.getUuid(),jsonString, true);
+        newRootNode.set(entityName, currentJsonNode);
+        registryService.updateEntity(shard, userId, recordId.getUuid(), newRootNode, true);
         return currentJsonNode;
     }
 
@@ -9,6 +9,8 @@ public class DBConnectionInfo {
 	private String password;
 	private int maxPoolSize;
 	private boolean profilerEnabled = false;
+	// Share of the keys given to the shard by ConsistentHashShardAdvisor, 0 drains the shard
+	private int weight = 1;
 
 	public String getShardId() {
 		return shardId;
@@ -65,4 +67,12 @@ public class DBConnectionInfo {
 	public void setMaxPoolSize(int maxPoolSize) {
 		this.maxPoolSize = maxPoolSize;
 	}
+
+	public int getWeight() {
+		return weight;
+	}
+
+	public void setWeight(int weight) {
+		this.weight = weight;
+	}
 }
@@ -7,9 +7,9 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.PostConstruct;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component("dbConnectionInfoMgr")
 @ConfigurationProperties(prefix = "database")
@@ -36,18 +36,18 @@ public class DBConnectionInfoMgr {
 	/**
 	 * Each DBConnectionInfo is a shard connection information.
 	 */
-	private List<DBConnectionInfo> connectionInfo = new ArrayList<>();
+	private volatile List<DBConnectionInfo> connectionInfo = new ArrayList<>();
 	/**
 	 * Instructs which advisor to pick up across each connectionInfo Only one
 	 * advisor allowed
 	 */
 	private String shardAdvisorClassName;
-	private Map<String, String> shardLabelIdMap = new HashMap<>();
+	private Map<String, String> shardLabelIdMap = new ConcurrentHashMap<>();
 
 	@PostConstruct
 	public void init() {
 		for (DBConnectionInfo connInfo : connectionInfo) {
-			shardLabelIdMap.putIfAbsent(connInfo.getShardLabel(), connInfo.getShardId());
+			addShardLabel(connInfo);
 		}
 	}
 
@@ -55,6 +55,25 @@ public class DBConnectionInfoMgr {
 		return connectionInfo;
 	}
 
+	/**
+	 * Adds a shard connection to a running registry. The list is replaced rather than
+	 * modified so that callers iterating the connections are not disturbed.
+	 *
+	 * @param connInfo
+	 */
+	public synchronized void addConnectionInfo(DBConnectionInfo connInfo) {
+		List<DBConnectionInfo> connections = new ArrayList<>(connectionInfo);
+		connections.add(connInfo);
+		connectionInfo = connections;
+		addShardLabel(connInfo);
+	}
+
+	private void addShardLabel(DBConnectionInfo connInfo) {
+		if (connInfo.getShardLabel() != null) {
+			shardLabelIdMap.putIfAbsent(connInfo.getShardLabel(), connInfo.getShardId());
+		}
+	}
+
 	/**
 	 * To provide a connection info on based of a shard identifier(name)
 	 *
@@ -105,7 +124,21 @@ public class DBConnectionInfoMgr {
 		this.shardAdvisorClassName = shardAdvisorClassName;
 	}
 
+	/**
+	 * Returns the shardId of the label, for a null label (identifiers without a label) the first
+	 * shard configured without one
+	 *
+	 * @param shardLabel
+	 * @return
+	 */
 	public String getShardId(String shardLabel) {
-		return shardLabelIdMap.getOrDefault(shardLabel, null);
+		if (shardLabel == null) {
+			for (DBConnectionInfo con : connectionInfo) {
+				if (con.getShardLabel() == null)
+					return con.getShardId();
+			}
+			return null;
+		}
+		return shardLabelIdMap.get(shardLabel);
 	}
 }
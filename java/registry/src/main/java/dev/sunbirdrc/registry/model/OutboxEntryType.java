@@ -0,0 +1,8 @@
+package dev.sunbirdrc.registry.model;
+
+/**
+ * Kinds of side effects which are recorded in the outbox along with the entity write
+ */
+public enum OutboxEntryType {
+    ELASTIC_SEARCH, AUDIT, EVENT, WEBHOOK
+}
@@ -0,0 +1,24 @@
+package dev.sunbirdrc.registry.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import dev.sunbirdrc.registry.model.OutboxEntryType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEntry {
+    private OutboxEntryType type;
+    private String operation;
+    private String entityType;
+    private String entityId;
+    private String userId;
+    private String transactionId;
+    private JsonNode payload;
+    private JsonNode previousPayload;
+    private WebhookEvent webhookEvent;
+}
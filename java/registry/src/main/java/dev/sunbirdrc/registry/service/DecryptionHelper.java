@@ -2,9 +2,13 @@ package dev.sunbirdrc.registry.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import dev.sunbirdrc.registry.exception.EncryptionException;
+import dev.sunbirdrc.registry.util.IDefinitionsManager;
 import dev.sunbirdrc.registry.util.PrivateField;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -16,7 +20,64 @@ public class DecryptionHelper extends PrivateField {
         return rootNode;
     }
 
+    /**
+     * Decrypts the private fields of several entities of the type with a single call to the encryption service
+     */
+    public void getDecryptedJson(String entityType, Iterable<JsonNode> entityNodes) throws EncryptionException {
+        PrivateFieldCollector collector = new PrivateFieldCollector(definitionsManager);
+        for (JsonNode entityNode : entityNodes) {
+            collector.collect(entityNode, entityType);
+        }
+        if (!collector.plainValues.isEmpty()) {
+            collector.replace(encryptionService.decrypt(collector.plainValues));
+        }
+    }
+
     protected Map<String, Object> performOperation(Map<String, Object> plainMap) throws EncryptionException {
         return encryptionService.decrypt(plainMap);
     }
+
+    /**
+     * Collects the private fields of the objects it processes, keyed by the object, so that they can be decrypted at once
+     */
+    private static class PrivateFieldCollector extends PrivateField {
+        private final Map<String, Object> plainValues = new HashMap<>();
+        private final List<JsonNode> elements = new ArrayList<>();
+        private final List<List<String>> privateProperties = new ArrayList<>();
+
+        PrivateFieldCollector(IDefinitionsManager definitionsManager) {
+            this.definitionsManager = definitionsManager;
+        }
+
+        void collect(JsonNode entityNode, String entityType) throws EncryptionException {
+            process(entityNode, entityType, null);
+        }
+
+        @Override
+        protected Map<String, Object> performOperation(Map<String, Object> plainMap) {
+            return plainMap;
+        }
+
+        @Override
+        public JsonNode replacePrivateFields(JsonNode rootNode, List<String> privatePropertyLst, Map<String, Object> privateFieldMap) {
+            String prefix = elements.size() + ".";
+            privateFieldMap.forEach((key, value) -> plainValues.put(prefix + key, value));
+            elements.add(rootNode);
+            privateProperties.add(privatePropertyLst);
+            return rootNode;
+        }
+
+        void replace(Map<String, Object> decryptedValues) {
+            for (int i = 0; i < elements.size(); i++) {
+                String prefix = i + ".";
+                Map<String, Object> elementValues = new HashMap<>();
+                decryptedValues.forEach((key, value) -> {
+                    if (key.startsWith(prefix)) {
+                        elementValues.put(key.substring(prefix.length()), value);
+                    }
+                });
+                super.replacePrivateFields(elements.get(i), privateProperties.get(i), elementValues);
+            }
+        }
+    }
 }
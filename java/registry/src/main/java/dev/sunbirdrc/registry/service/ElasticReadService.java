@@ -23,6 +23,7 @@ import dev.sunbirdrc.registry.exception.RecordNotFoundException;
 import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.util.FieldProjection;
 import dev.sunbirdrc.registry.util.ReadConfigurator;
 
 /**
@@ -46,6 +47,10 @@ public class ElasticReadService implements IReadService {
 
     @Value("${audit.enabled}")
     private boolean auditEnabled;
+
+    @Value("${database.uuidPropertyName}")
+    private String uuidPropertyName;
+
     /**
      * This method interacts with the Elasticsearch and reads the record
      *
@@ -60,7 +65,7 @@ public class ElasticReadService implements IReadService {
         JsonNode result = null;
         Map<String, Object> response = null;
         try {
-            response = elasticService.readEntity(entityType.toLowerCase(), id);
+            response = elasticService.readEntity(entityType.toLowerCase(), id, getSourceFields(configurator));
         } catch (IOException e) {
             logger.error("Exception in reading a record to ElasticSearch", e);
         }
@@ -81,6 +86,23 @@ public class ElasticReadService implements IReadService {
         resultNode.set(entityType, result);
         return resultNode;
     }
+
+    /**
+     * The source fields of the projection, with the identifier and status of the document
+     */
+    private String[] getSourceFields(ReadConfigurator configurator) {
+        FieldProjection projection = configurator.getProjection();
+        if (projection == null) {
+            return null;
+        }
+        List<String> fields = projection.toPaths();
+        fields.add(uuidPropertyName);
+        fields.add(Constants.STATUS_KEYWORD);
+        if (configurator.isIncludeSignatures()) {
+            fields.add(Constants.SIGNATURES_STR);
+        }
+        return fields.toArray(new String[0]);
+    }
     
     
 
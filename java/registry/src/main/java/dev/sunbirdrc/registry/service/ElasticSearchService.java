@@ -21,6 +21,7 @@ import dev.sunbirdrc.pojos.Filter;
 import dev.sunbirdrc.pojos.FilterOperators;
 import dev.sunbirdrc.pojos.SearchQuery;
 import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.util.FieldProjection;
 import dev.sunbirdrc.registry.util.RecordIdentifier;
 
 /**
@@ -67,6 +68,14 @@ public class ElasticSearchService implements ISearchService {
         // Fetch only Active records
         updateStatusFilter(searchQuery);
         
+        if (searchQuery.getFields() != null) {
+            // Read only the requested fields of the documents, with what the results are filtered on
+            List<String> sourceIncludes = FieldProjection.of(searchQuery.getFields()).toPaths();
+            sourceIncludes.add(uuidPropertyName);
+            sourceIncludes.add(Constants.STATUS_KEYWORD);
+            searchQuery.setFields(sourceIncludes);
+        }
+
         boolean isSpecificSearch = (uuidFilter != null);
         if (isSpecificSearch) {
             RecordIdentifier recordIdentifier = RecordIdentifier.parse(uuidFilter.getValue().toString());
@@ -99,6 +108,20 @@ public class ElasticSearchService implements ISearchService {
 
     }
 
+    @Override
+    public JsonNode aggregate(JsonNode inputQueryNode) throws IOException {
+        SearchQuery searchQuery = getAggregateQuery(inputQueryNode);
+        // Fetch only Active records
+        updateStatusFilter(searchQuery);
+
+        ObjectNode resultNode = JsonNodeFactory.instance.objectNode();
+        for (String indexName : searchQuery.getEntityTypes()) {
+            // Non public fields are not indexed, so they cannot be aggregated
+            resultNode.set(indexName, elasticService.aggregate(indexName.toLowerCase(), searchQuery));
+        }
+        return resultNode;
+    }
+
 	private void updateStatusFilter(SearchQuery searchQuery) {		
         List<Filter> filterList = searchQuery.getFilters();
         Filter filter = new Filter(Constants.STATUS_KEYWORD, FilterOperators.neq, Constants.STATUS_INACTIVE);
@@ -9,22 +9,35 @@ import io.minio.http.Method;
 import io.minio.messages.Bucket;
 import io.minio.messages.DeleteError;
 import io.minio.messages.DeleteObject;
-import org.apache.poi.util.IOUtils;
+import io.minio.messages.Expiration;
+import io.minio.messages.LifecycleConfiguration;
+import io.minio.messages.LifecycleRule;
+import io.minio.messages.RuleFilter;
+import io.minio.messages.Status;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -36,33 +49,67 @@ public class FileStorageService implements HealthIndicator {
 	private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
 	private final MinioClient minioClient;
 	private final String bucketName;
+	private final long partSize;
+	private final ExecutorService uploadExecutor;
 	private static final String CONTENT_TYPE_TEXT = "text/plain";
 
-	public FileStorageService(MinioClient minioClient, @Value("${filestorage.bucketname}") String bucketName) {
+	public FileStorageService(MinioClient minioClient, @Value("${filestorage.bucketname}") String bucketName,
+							  @Value("${filestorage.upload.parallelism:4}") int uploadParallelism,
+							  @Value("${filestorage.upload.partSize:10485760}") long partSize) {
 		this.bucketName = bucketName;
 		this.minioClient = minioClient;
+		this.partSize = partSize;
+		this.uploadExecutor = Executors.newFixedThreadPool(uploadParallelism, runnable -> {
+			Thread thread = new Thread(runnable, "file-storage-upload");
+			thread.setDaemon(true);
+			return thread;
+		});
 	}
 
 	public void save(InputStream inputStream, String objectName) throws Exception {
+		save(inputStream, -1, null, objectName);
+	}
+
+	/**
+	 * Saves the stream, objects larger than the part size are uploaded in parts
+	 *
+	 * @param size - size of the stream, -1 when not known
+	 * @param contentType - null for application/octet-stream
+	 */
+	public void save(InputStream inputStream, long size, String contentType, String objectName) throws Exception {
 		logger.info("Saving the file in the location {}", objectName);
-		minioClient.putObject(PutObjectArgs.builder().bucket(bucketName).object(objectName).stream(inputStream, -1, 10485760).build());
+		PutObjectArgs.Builder builder = PutObjectArgs.builder().bucket(bucketName).object(objectName)
+				.stream(inputStream, size, partSize);
+		if (contentType != null) {
+			builder.contentType(contentType);
+		}
+		minioClient.putObject(builder.build());
 		logger.info("File has successfully saved");
 	}
 
+	/**
+	 * Saves the files in parallel, at most filestorage.upload.parallelism of them at once across requests
+	 */
 	public DocumentsResponse saveAndFetchFileNames(MultipartFile[] files, String requestedURI) {
 		String objectPath = getDirectoryPath(requestedURI);
 
-		DocumentsResponse documentsResponse = new DocumentsResponse();
+		List<Future<String>> uploads = new ArrayList<>();
 		for (MultipartFile file : files) {
-			String fileName = getFileName(file.getOriginalFilename());
+			String objectName = objectPath + "/" + getFileName(file.getOriginalFilename());
+			uploads.add(uploadExecutor.submit(() -> {
+				try (InputStream inputStream = file.getInputStream()) {
+					save(inputStream, file.getSize(), file.getContentType(), objectName);
+				}
+				return objectName;
+			}));
+		}
+		DocumentsResponse documentsResponse = new DocumentsResponse();
+		for (int i = 0; i < files.length; i++) {
 			try {
-				String objectName = objectPath + "/" + fileName;
-				save(file.getInputStream(), objectName);
-				documentsResponse.addDocumentLocation(objectName);
+				documentsResponse.addDocumentLocation(uploads.get(i).get());
 			} catch (Exception e) {
-				documentsResponse.addError(file.getOriginalFilename());
-				logger.error("Error has occurred while trying to save the file {}", fileName);
-				e.printStackTrace();
+				documentsResponse.addError(files[i].getOriginalFilename());
+				logger.error("Error has occurred while trying to save the file {}", files[i].getOriginalFilename(), e);
 			}
 		}
 		return documentsResponse;
@@ -99,17 +146,73 @@ public class FileStorageService implements HealthIndicator {
 		return minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder().method(Method.GET).bucket(bucketName).object(objectName).expiry(2, TimeUnit.HOURS).build());
 	}
 
-	public byte[] getDocument(String requestedURI) {
-		String objectName = getDirectoryPath(requestedURI);
-		byte[] bytes = new byte[0];
-		try {
-			InputStream inputStream = minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(objectName).build());
-			bytes = IOUtils.toByteArray(inputStream);
-		} catch (Exception e) {
-			logger.error("Error has occurred while fetching the document {} {}", objectName, e.getMessage());
-			e.printStackTrace();
+	/**
+	 * Reads a small object fully, documents are streamed with getDocumentStream
+	 */
+	public byte[] read(String objectName) throws Exception {
+		try (InputStream inputStream = minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(objectName).build())) {
+			return StreamUtils.copyToByteArray(inputStream);
+		}
+	}
+
+	/**
+	 * Reads a small object fully if it was written less than maxAge milliseconds ago
+	 *
+	 * @return null if the object is older
+	 */
+	public byte[] read(String objectName, long maxAge) throws Exception {
+		StatObjectResponse stat = minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(objectName).build());
+		if (stat.lastModified().isBefore(ZonedDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(maxAge)))) {
+			return null;
+		}
+		return read(objectName);
+	}
+
+	/**
+	 * Has the objects under the prefix removed by the bucket once they are older than the given days. The rule
+	 * replaces the one set earlier for the prefix, the other lifecycle rules of the bucket are kept.
+	 */
+	public void expireObjects(String prefix, int days) throws Exception {
+		String ruleId = "expire-" + prefix;
+		LifecycleConfiguration existing = minioClient.getBucketLifecycle(GetBucketLifecycleArgs.builder().bucket(bucketName).build());
+		List<LifecycleRule> rules = new ArrayList<>();
+		if (existing != null) {
+			existing.rules().stream().filter(rule -> !ruleId.equals(rule.id())).forEach(rules::add);
+		}
+		rules.add(new LifecycleRule(Status.ENABLED, null, new Expiration((ZonedDateTime) null, days, null),
+				new RuleFilter(prefix), ruleId, null, null, null));
+		minioClient.setBucketLifecycle(SetBucketLifecycleArgs.builder().bucket(bucketName)
+				.config(new LifecycleConfiguration(rules)).build());
+	}
+
+	public StatObjectResponse statDocument(String requestedURI) throws Exception {
+		return minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(getDirectoryPath(requestedURI)).build());
+	}
+
+	/**
+	 * Opens a stream on the document or on a range of it, the caller closes it
+	 *
+	 * @param offset - first byte
+	 * @param length - number of bytes, null up to the end
+	 */
+	public InputStream getDocumentStream(String requestedURI, long offset, Long length) throws Exception {
+		GetObjectArgs.Builder builder = GetObjectArgs.builder().bucket(bucketName).object(getDirectoryPath(requestedURI)).offset(offset);
+		if (length != null) {
+			builder.length(length);
 		}
-		return bytes;
+		return minioClient.getObject(builder.build());
+	}
+
+	/**
+	 * Presigned url of the document, which the object store serves as application/octet-stream with the given
+	 * Content-Disposition whatever content type the object was stored with
+	 */
+	public String getDocumentSignedUrl(String requestedURI, String contentDisposition) throws Exception {
+		Map<String, String> responseOverrides = new HashMap<>();
+		responseOverrides.put("response-content-type", MediaType.APPLICATION_OCTET_STREAM_VALUE);
+		responseOverrides.put("response-content-disposition", contentDisposition);
+		return minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder().method(Method.GET).bucket(bucketName)
+				.object(getDirectoryPath(requestedURI)).expiry(2, TimeUnit.HOURS).extraQueryParams(responseOverrides).build());
 	}
 
 	public ResponseEntity deleteDocument(String requestedURI) {
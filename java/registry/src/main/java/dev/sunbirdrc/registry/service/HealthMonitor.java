@@ -0,0 +1,280 @@
+package dev.sunbirdrc.registry.service;
+
+import dev.sunbirdrc.pojos.ComponentHealthInfo;
+import dev.sunbirdrc.pojos.HealthCheckResponse;
+import dev.sunbirdrc.pojos.HealthIndicator;
+import dev.sunbirdrc.registry.app.StartupOrchestrator;
+import dev.sunbirdrc.registry.middleware.util.BackgroundTasks;
+import dev.sunbirdrc.registry.middleware.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks the health of each component in the background, on its own schedule and with its own timeout, and keeps
+ * the latest result so that health requests are answered from memory. Results older than
+ * health.staleAfterIntervals refresh intervals count as unhealthy, as do checks still running from the previous round.
+ * A check which times out is interrupted, but counts as running until it really returns, so a hanging component
+ * holds at most one thread.
+ * Readiness only depends on the critical components: the database, and elastic search when it serves the searches.
+ * The defaults under health can be overridden per component under health.services.&lt;service name&gt;.
+ */
+@Component
+public class HealthMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(HealthMonitor.class);
+    private static final String STARTUP = "startup";
+    private static final String ELASTIC_SEARCH_PROVIDER = "dev.sunbirdrc.registry.service.ElasticSearchService";
+
+    @Autowired
+    private List<HealthIndicator> healthIndicators;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired(required = false)
+    private StartupOrchestrator startupOrchestrator;
+
+    @Value("${health.refreshInterval:15000}")
+    private long refreshInterval;
+    @Value("${health.timeout:5000}")
+    private long timeout;
+    @Value("${health.staleAfterIntervals:3}")
+    private int staleAfterIntervals;
+    @Value("${search.providerName:}")
+    private String searchProvider;
+
+    private final Map<String, ComponentStatus> statuses = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService checkExecutor;
+
+    @PostConstruct
+    public void start() {
+        ThreadFactory threadFactory = BackgroundTasks.daemonThreads("health");
+        scheduler = Executors.newScheduledThreadPool(Math.max(1, Math.min(4, healthIndicators.size())), threadFactory);
+        // Each component runs one check at a time
+        checkExecutor = Executors.newFixedThreadPool(Math.max(1, healthIndicators.size()), threadFactory);
+        for (HealthIndicator healthIndicator : healthIndicators) {
+            ComponentStatus status = new ComponentStatus(healthIndicator);
+            statuses.put(healthIndicator.getServiceName(), status);
+            scheduler.scheduleWithFixedDelay(() -> refresh(status), 0, status.refreshInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        checkExecutor.shutdownNow();
+    }
+
+    /**
+     * The latest health of every component
+     */
+    public HealthCheckResponse getHealth() {
+        long now = System.currentTimeMillis();
+        List<ComponentHealthInfo> checks = new ArrayList<>();
+        boolean healthy = true;
+        for (ComponentStatus status : statuses.values()) {
+            ComponentHealthInfo healthInfo = status.currentHealth(now);
+            checks.add(healthInfo);
+            healthy &= healthInfo.isHealthy();
+        }
+        return new HealthCheckResponse(Constants.SUNBIRDRC_REGISTRY_API, healthy, checks);
+    }
+
+    /**
+     * Liveness only tells that the application runs and keeps checking its components, it does not depend on them
+     */
+    public HealthCheckResponse getLiveness() {
+        boolean alive = !scheduler.isShutdown();
+        return new HealthCheckResponse(Constants.SUNBIRDRC_REGISTRY_API, alive, new ArrayList<>());
+    }
+
+    /**
+     * Readiness needs the critical components healthy and the startup phases completed
+     */
+    public HealthCheckResponse getReadiness() {
+        long now = System.currentTimeMillis();
+        List<ComponentHealthInfo> checks = new ArrayList<>();
+        boolean ready = true;
+        for (ComponentStatus status : statuses.values()) {
+            if (status.critical) {
+                ComponentHealthInfo healthInfo = status.currentHealth(now);
+                checks.add(healthInfo);
+                ready &= healthInfo.isHealthy();
+            }
+        }
+        if (startupOrchestrator != null) {
+            boolean started = startupOrchestrator.isBackgroundComplete();
+            checks.add(started ? new ComponentHealthInfo(STARTUP, true) :
+                    new ComponentHealthInfo(STARTUP, false, "", "Startup phases still running"));
+            ready &= started;
+        }
+        return new HealthCheckResponse(Constants.SUNBIRDRC_REGISTRY_API, ready, checks);
+    }
+
+    /**
+     * Check counts and latencies of each component, and the milliseconds taken by each startup phase
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new TreeMap<>();
+        statuses.forEach((name, status) -> metrics.put(name, status.snapshot()));
+        if (startupOrchestrator != null) {
+            metrics.put(STARTUP, startupOrchestrator.getPhaseTimings());
+        }
+        return metrics;
+    }
+
+    void refresh(ComponentStatus status) {
+        Future<?> previous = status.running;
+        if (previous != null && !previous.isDone()) {
+            status.record(new ComponentHealthInfo(status.name, false, "", "Previous health check still running"), 0);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        ComponentHealthInfo healthInfo;
+        // Completes when the check returns, unlike a cancelled future which is done at once
+        CompletableFuture<ComponentHealthInfo> check = new CompletableFuture<>();
+        status.running = check;
+        try {
+            checkExecutor.execute(() -> status.check(check));
+            healthInfo = check.get(status.timeout, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            check.completeExceptionally(e);
+            return;
+        } catch (TimeoutException e) {
+            status.interruptCheck();
+            healthInfo = new ComponentHealthInfo(status.name, false, "", "Health check timed out after " + status.timeout + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            healthInfo = new ComponentHealthInfo(status.name, false, "", String.valueOf(cause.getMessage()));
+        }
+        if (healthInfo == null) {
+            healthInfo = new ComponentHealthInfo(status.name, false, "", "No health information");
+        }
+        status.record(healthInfo, System.currentTimeMillis() - start);
+        if (!healthInfo.isHealthy()) {
+            logger.warn("Health check of {} failed: {}", status.name, healthInfo.getErrmsg());
+        }
+    }
+
+    ComponentStatus getStatus(String serviceName) {
+        return statuses.get(serviceName);
+    }
+
+    private <T> T getSetting(String service, String setting, Class<T> type, T defaultValue) {
+        return environment.getProperty("health.services." + service + "." + setting, type, defaultValue);
+    }
+
+    class ComponentStatus {
+        private final String name;
+        private final HealthIndicator healthIndicator;
+        private final long refreshInterval;
+        private final long timeout;
+        private final boolean critical;
+        private volatile ComponentHealthInfo lastHealth;
+        private volatile long checkedAt;
+        private volatile Future<?> running;
+        private Thread checkThread;
+        private final CountDownLatch checked = new CountDownLatch(1);
+
+        private final LongAdder checks = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalLatency = new LongAdder();
+        private final AtomicLong maxLatency = new AtomicLong();
+        private volatile long lastLatency;
+
+        private ComponentStatus(HealthIndicator healthIndicator) {
+            this.name = healthIndicator.getServiceName();
+            this.healthIndicator = healthIndicator;
+            this.refreshInterval = getSetting(name, "refreshInterval", Long.class, HealthMonitor.this.refreshInterval);
+            this.timeout = getSetting(name, "timeout", Long.class, HealthMonitor.this.timeout);
+            this.critical = getSetting(name, "critical", Boolean.class, Constants.SUNBIRDRC_DATABASE_NAME.equals(name) ||
+                    (Constants.SUNBIRD_ELASTIC_SERVICE_NAME.equals(name) && ELASTIC_SEARCH_PROVIDER.equals(searchProvider)));
+        }
+
+        private void check(CompletableFuture<ComponentHealthInfo> check) {
+            synchronized (this) {
+                checkThread = Thread.currentThread();
+            }
+            try {
+                check.complete(healthIndicator.getHealthInfo());
+            } catch (Throwable e) {
+                check.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    checkThread = null;
+                    // an interrupt of a check which timed out must not reach the next check run by the thread
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private synchronized void interruptCheck() {
+            if (checkThread != null) {
+                checkThread.interrupt();
+            }
+        }
+
+        /**
+         * Waits for the first result of the component
+         */
+        boolean awaitChecked(long timeout, TimeUnit unit) throws InterruptedException {
+            return checked.await(timeout, unit);
+        }
+
+        private void record(ComponentHealthInfo healthInfo, long latency) {
+            lastHealth = healthInfo;
+            checkedAt = System.currentTimeMillis();
+            lastLatency = latency;
+            checks.increment();
+            if (!healthInfo.isHealthy()) {
+                failures.increment();
+            }
+            totalLatency.add(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+            checked.countDown();
+        }
+
+        ComponentHealthInfo currentHealth(long now) {
+            ComponentHealthInfo healthInfo = lastHealth;
+            if (healthInfo == null) {
+                return new ComponentHealthInfo(name, false, "", "Not checked yet");
+            }
+            if (now - checkedAt > refreshInterval * staleAfterIntervals) {
+                return new ComponentHealthInfo(name, false, "", "Last checked " + (now - checkedAt) + " ms ago");
+            }
+            return healthInfo;
+        }
+
+        private Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            long count = checks.sum();
+            ComponentHealthInfo healthInfo = lastHealth;
+            snapshot.put("healthy", healthInfo != null && healthInfo.isHealthy());
+            snapshot.put("checkedAt", checkedAt);
+            snapshot.put("checks", count);
+            snapshot.put("failures", failures.sum());
+            snapshot.put("lastLatency", lastLatency);
+            snapshot.put("averageLatency", count == 0 ? 0 : totalLatency.sum() / count);
+            snapshot.put("maxLatency", maxLatency.get());
+            return snapshot;
+        }
+    }
+}
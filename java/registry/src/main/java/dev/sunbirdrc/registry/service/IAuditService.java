@@ -83,6 +83,18 @@ public interface IAuditService {
 		}
 	}
 	
+	/**
+	 * Audits an update from the operations of its patch, instead of diffing the entity before and after the update
+	 */
+	default void auditPatch(AuditRecord auditRecord, Shard shard, JsonNode patchedNode, JsonNode patch){
+		if(shouldAudit(auditRecord.getEntityType())) {
+			auditRecord.setAction(Constants.AUDIT_ACTION_UPDATE);
+			auditRecord.setAuditInfo(createAuditInfoWithJson(auditRecord.getAction(), patch, auditRecord.getEntityType()));
+
+			doAudit(auditRecord, patchedNode, shard);
+		}
+	}
+
 	default void auditDelete(AuditRecord auditRecord, Shard shard) {
 		if(shouldAudit(auditRecord.getEntityType())) {
 			auditRecord.setAction(Constants.AUDIT_ACTION_DELETE);
@@ -5,4 +5,24 @@ import dev.sunbirdrc.pojos.HealthIndicator;
 
 public interface ICertificateService extends HealthIndicator {
     Object getCertificate(JsonNode certificateData, String entityName, String entityId, String mediaType, String templateUrl, JsonNode entity);
+
+    /**
+     * Renders the certificate once per version, later calls with the same version are served from the cache
+     *
+     * @param version - from {@link #getCertificateVersion}, null to render without caching
+     */
+    Object getCertificate(JsonNode certificateData, String entityName, String entityId, String mediaType, String templateUrl, JsonNode entity, String version);
+
+    /**
+     * Identifies the rendered certificate, it changes whenever the record, the template or the media type does
+     *
+     * @param recordId - osid of the record, followed by the attestation id for attestation certificates
+     * @param updatedAt - osUpdatedAt of the record, null if not known
+     * @param entityName - entity the default template is inferred from
+     * @param templateId - template key or url and view template the certificate is rendered with
+     * @param templateUrl - url the template is read from, null for the default template of the entity
+     * @return the version, null if the record has no osUpdatedAt or the template can't be read
+     */
+    String getCertificateVersion(String recordId, String updatedAt, String entityName, String templateId,
+                                 String templateUrl, String mediaType);
 }
@@ -2,12 +2,16 @@ package dev.sunbirdrc.registry.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.sunbirdrc.pojos.Aggregation;
+import dev.sunbirdrc.pojos.AggregationType;
 import dev.sunbirdrc.pojos.Filter;
 import dev.sunbirdrc.pojos.FilterOperators;
 import dev.sunbirdrc.pojos.SearchQuery;
 import dev.sunbirdrc.registry.dao.ValueType;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static dev.sunbirdrc.registry.middleware.util.Constants.ENTITY_TYPE;
+import static dev.sunbirdrc.registry.middleware.util.Constants.FIELDS;
 import static dev.sunbirdrc.registry.middleware.util.Constants.FILTERS;
 
 
@@ -23,7 +28,17 @@ public interface ISearchService {
 
     static Logger logger = LoggerFactory.getLogger(ISearchService.class);
 
+    List<String> DATE_HISTOGRAM_INTERVALS = Arrays.asList("year", "month", "day");
+
     JsonNode search(JsonNode inputQueryNode) throws IOException;
+
+    /**
+     * Counts the records matching the filters of the input and computes the requested aggregations,
+     * without reading the records
+     * @param inputQueryNode          request json with entityType, optional filters and aggregations
+     * @return the count and the aggregations keyed by entity type
+     */
+    JsonNode aggregate(JsonNode inputQueryNode) throws IOException;
     
     /**
      * Building SearchQuery from given input search json
@@ -69,10 +84,88 @@ public interface ISearchService {
             logger.warn("Populates SearchQuery for limit/offset(optional): {}", e.getMessage());
         }
 
+        if (inputQueryNode.has("explain")) {
+            searchQuery.setExplain(inputQueryNode.get("explain").asBoolean());
+        }
+        searchQuery.setFields(getFields(inputQueryNode.get(FIELDS)));
         searchQuery.setFilters(filterList);
         return searchQuery;
     }
 
+    /**
+     * The fields to return of each record, given as an array or a comma separated string of dotted paths
+     * @param fieldsNode              fields of the search request
+     * @return the fields, null for all the fields
+     */
+    default List<String> getFields(JsonNode fieldsNode) {
+        if (fieldsNode == null || fieldsNode.isNull()) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        if (fieldsNode.isArray()) {
+            fieldsNode.forEach(field -> fields.add(field.asText()));
+        } else if (fieldsNode.isTextual()) {
+            fields.addAll(Arrays.asList(fieldsNode.asText().split(",")));
+        } else {
+            throw new IllegalArgumentException("fields must be an array or a comma separated string!");
+        }
+        fields.replaceAll(String::trim);
+        fields.removeIf(String::isEmpty);
+        return fields.isEmpty() ? null : fields;
+    }
+
+    /**
+     * Building SearchQuery for an aggregation from given input json. Filters are optional.
+     * Aggregations are given as {"name": {"terms": {"field": "address.state", "size": 10}}},
+     * with the types terms, dateHistogram (interval year, month or day), min and max.
+     */
+    default SearchQuery getAggregateQuery(JsonNode inputQueryNode) {
+        ObjectNode queryNode = inputQueryNode.deepCopy();
+        if (!queryNode.has(FILTERS) && !queryNode.has("queries")) {
+            queryNode.putObject(FILTERS);
+        }
+        SearchQuery searchQuery = getSearchQuery(queryNode, 0, 0);
+        List<Aggregation> aggregations = new ArrayList<>();
+        JsonNode aggregationsNode = inputQueryNode.get(Aggregation.AGGREGATIONS);
+        if (aggregationsNode != null) {
+            if (!aggregationsNode.isObject()) {
+                throw new IllegalArgumentException("aggregations must be an object!");
+            }
+            Iterator<Map.Entry<String, JsonNode>> entries = aggregationsNode.fields();
+            while (entries.hasNext()) {
+                Map.Entry<String, JsonNode> entry = entries.next();
+                if (!entry.getValue().isObject() || entry.getValue().size() != 1) {
+                    throw new IllegalArgumentException("Aggregation " + entry.getKey() + " needs exactly one type!");
+                }
+                Map.Entry<String, JsonNode> typeEntry = entry.getValue().fields().next();
+                AggregationType type = AggregationType.get(typeEntry.getKey());
+                JsonNode fieldNode = typeEntry.getValue().get("field");
+                if (type == null || fieldNode == null || !fieldNode.isTextual()) {
+                    throw new IllegalArgumentException("Aggregation " + entry.getKey() + " is invalid!");
+                }
+                String field = fieldNode.asText();
+                int separator = field.lastIndexOf('.');
+                Aggregation aggregation = new Aggregation(entry.getKey(), type, field.substring(separator + 1));
+                if (separator > 0) {
+                    aggregation.setPath(field.substring(0, separator));
+                }
+                if (typeEntry.getValue().has("size")) {
+                    aggregation.setSize(typeEntry.getValue().get("size").asInt());
+                }
+                if (type == AggregationType.dateHistogram) {
+                    String interval = typeEntry.getValue().path("interval").asText("day");
+                    if (!DATE_HISTOGRAM_INTERVALS.contains(interval)) {
+                        throw new IllegalArgumentException("Date histogram interval must be one of " + DATE_HISTOGRAM_INTERVALS);
+                    }
+                    aggregation.setInterval(interval);
+                }
+                aggregations.add(aggregation);
+            }
+        }
+        searchQuery.setAggregations(aggregations);
+        return searchQuery;
+    }
+
     /**
      * For a given path filter, iterate through the fields given and set the filterList
      * @param path
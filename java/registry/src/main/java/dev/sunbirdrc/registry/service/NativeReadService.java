@@ -2,9 +2,15 @@ package dev.sunbirdrc.registry.service;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +22,8 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import dev.sunbirdrc.registry.dao.IRegistryDao;
 import dev.sunbirdrc.registry.dao.RegistryDaoImpl;
+import dev.sunbirdrc.registry.dao.VertexReader;
+import dev.sunbirdrc.registry.middleware.util.Constants;
 
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.sink.DatabaseProvider;
@@ -80,4 +88,48 @@ public class NativeReadService implements IReadService {
 		}
 	}
 
+	/**
+	 * Reads several records of the shard in one transaction, loading their root vertices with a single lookup
+	 *
+	 * @param ids          - osids, without the shard label
+	 * @param entityType
+	 * @param configurator
+	 * @return the records keyed by osid, the ones not found or deleted are left out
+	 * @throws Exception
+	 */
+	public Map<String, JsonNode> getEntities(Shard shard, String userId, List<String> ids, String entityType, ReadConfigurator configurator) throws Exception {
+		Map<String, JsonNode> results = new HashMap<>();
+		if (ids.isEmpty()) {
+			return results;
+		}
+		DatabaseProvider dbProvider = shard.getDatabaseProvider();
+		try (OSGraph osGraph = dbProvider.getOSGraph()) {
+			Graph graph = osGraph.getGraphStore();
+			try (Transaction tx = dbProvider.startTransaction(graph)) {
+				List<Vertex> vertices = graph.traversal().V().hasLabel(entityType)
+						.has(uuidPropertyName, P.within(new ArrayList<>(ids)))
+						.not(__.has(Constants.STATUS_KEYWORD, Constants.STATUS_INACTIVE))
+						.toList();
+				for (Vertex vertex : vertices) {
+					String id = vertex.value(uuidPropertyName);
+					// The reader keeps the state of one record
+					VertexReader vertexReader = new VertexReader(dbProvider, graph, configurator, uuidPropertyName, definitionsManager);
+					JsonNode result = vertexReader.readInternal(vertex);
+					if (!shard.getShardLabel().isEmpty()) {
+						String prefix = shard.getShardLabel() + RecordIdentifier.getSeparator();
+						JSONUtil.addPrefix((ObjectNode) result, prefix, new ArrayList<String>(Arrays.asList(uuidPropertyName)));
+					}
+					results.put(id, result);
+				}
+
+				dbProvider.commitTransaction(graph, tx);
+
+				for (String id : results.keySet()) {
+					auditService.auditRead(auditService.createAuditRecord(userId, id, tx, entityType), shard);
+				}
+				return results;
+			}
+		}
+	}
+
 }
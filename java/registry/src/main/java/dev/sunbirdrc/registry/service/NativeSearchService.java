@@ -2,6 +2,8 @@ package dev.sunbirdrc.registry.service;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
@@ -17,13 +19,17 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import dev.sunbirdrc.pojos.APIMessage;
+import dev.sunbirdrc.pojos.Aggregation;
+import dev.sunbirdrc.pojos.AggregationType;
 import dev.sunbirdrc.pojos.AuditRecord;
 import dev.sunbirdrc.pojos.Filter;
 import dev.sunbirdrc.pojos.FilterOperators;
 import dev.sunbirdrc.pojos.SearchQuery;
 import dev.sunbirdrc.registry.dao.IRegistryDao;
 import dev.sunbirdrc.registry.dao.RegistryDaoImpl;
+import dev.sunbirdrc.registry.dao.SearchDao;
 import dev.sunbirdrc.registry.dao.SearchDaoImpl;
+import dev.sunbirdrc.registry.dao.SearchPlanner;
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.model.DBConnectionInfo;
 import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
@@ -57,6 +63,9 @@ public class NativeSearchService implements ISearchService {
 	@Autowired
 	private APIMessage apiMessage;
 
+	@Autowired
+	private SearchPlanner searchPlanner;
+
 	@Value("${database.uuidPropertyName}")
 	public String uuidPropertyName;
 
@@ -82,6 +91,7 @@ public class NativeSearchService implements ISearchService {
 	public JsonNode search(JsonNode inputQueryNode) throws IOException {
 
 		ArrayNode result = JsonNodeFactory.instance.arrayNode();
+		ObjectNode explain = JsonNodeFactory.instance.objectNode();
 		SearchQuery searchQuery = getSearchQuery(inputQueryNode, offset, limit);
 
 		if(searchQuery.getFilters().size() == 1 && searchQuery.getFilters().get(0).getOperator() == FilterOperators.queryString)
@@ -109,11 +119,14 @@ public class NativeSearchService implements ISearchService {
 
 				Shard shard = shardManager.activateShard(dbConnection.getShardId());
 				IRegistryDao registryDao = new RegistryDaoImpl(shard.getDatabaseProvider(), definitionsManager, uuidPropertyName);
-				SearchDaoImpl searchDao = new SearchDaoImpl(registryDao);
+				SearchDaoImpl searchDao = new SearchDaoImpl(registryDao, searchPlanner);
 				try (OSGraph osGraph = shard.getDatabaseProvider().getOSGraph()) {
 					Graph graph = osGraph.getGraphStore();
 					try (Transaction tx = shard.getDatabaseProvider().startTransaction(graph)) {
 						ObjectNode shardResult = (ObjectNode) searchDao.search(graph, searchQuery, expandInternal);
+						if (searchQuery.isExplain()) {
+							explain.set(shard.getShardId(), shardResult.remove(SearchDao.EXPLAIN));
+						}
 						if (!shard.getShardLabel().isEmpty()) {
 							// Replace osid with shard details
 							String prefix = shard.getShardLabel() + RecordIdentifier.getSeparator();
@@ -142,7 +155,127 @@ public class NativeSearchService implements ISearchService {
 		 	}
 		}
 
-		return buildResultNode(searchQuery, result);
+		ObjectNode resultNode = (ObjectNode) buildResultNode(searchQuery, result);
+		if (searchQuery.isExplain()) {
+			resultNode.set(SearchDao.EXPLAIN, explain);
+		}
+		return resultNode;
+	}
+
+	@Override
+	public JsonNode aggregate(JsonNode inputQueryNode) throws IOException {
+		SearchQuery searchQuery = getAggregateQuery(inputQueryNode);
+		if (removeNonPublicFieldsForNativeSearch) {
+			checkPublicFields(searchQuery);
+		}
+		// Scatter the aggregation to all shards and gather the partial results
+		List<JsonNode> shardResults = dbConnectionInfoMgr.getConnectionInfo().parallelStream()
+				.map(dbConnection -> aggregate(shardManager.activateShard(dbConnection.getShardId()), searchQuery))
+				.collect(Collectors.toList());
+
+		ObjectNode resultNode = JsonNodeFactory.instance.objectNode();
+		for (String entityType : searchQuery.getEntityTypes()) {
+			long count = 0;
+			Map<String, JsonNode> aggregations = new HashMap<>();
+			for (JsonNode shardResult : shardResults) {
+				count += shardResult.get(entityType).get(Aggregation.COUNT).asLong();
+				shardResult.get(entityType).get(Aggregation.AGGREGATIONS).fields()
+						.forEachRemaining(entry -> aggregations.computeIfAbsent(entry.getKey(), k -> JsonNodeFactory.instance.arrayNode())
+								.add(entry.getValue()));
+			}
+			ObjectNode entityNode = resultNode.putObject(entityType);
+			entityNode.put(Aggregation.COUNT, count);
+			ObjectNode aggregationsNode = entityNode.putObject(Aggregation.AGGREGATIONS);
+			for (Aggregation aggregation : searchQuery.getAggregations()) {
+				aggregationsNode.set(aggregation.getName(), merge(aggregation, (ArrayNode) aggregations.get(aggregation.getName())));
+			}
+		}
+		return resultNode;
+	}
+
+	private JsonNode aggregate(Shard shard, SearchQuery searchQuery) {
+		IRegistryDao registryDao = new RegistryDaoImpl(shard.getDatabaseProvider(), definitionsManager, uuidPropertyName);
+		SearchDaoImpl searchDao = new SearchDaoImpl(registryDao, searchPlanner);
+		try (OSGraph osGraph = shard.getDatabaseProvider().getOSGraph()) {
+			Graph graph = osGraph.getGraphStore();
+			try (Transaction tx = shard.getDatabaseProvider().startTransaction(graph)) {
+				return searchDao.aggregate(graph, searchQuery);
+			}
+		} catch (Exception e) {
+			logger.error("aggregate operation failed on shard {}: {}", shard.getShardId(), e);
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Aggregating a private or internal field would disclose it, same as returning it in a search
+	 */
+	private void checkPublicFields(SearchQuery searchQuery) {
+		for (String entityType : searchQuery.getEntityTypes()) {
+			Set<String> excludingFields = definitionsManager.getExcludingFieldsForEntity(entityType);
+			for (Aggregation aggregation : searchQuery.getAggregations()) {
+				String fieldPath = "$." + aggregation.getField();
+				for (String excludingField : excludingFields) {
+					if (fieldPath.equals(excludingField) || fieldPath.startsWith(excludingField + ".")) {
+						throw new IllegalArgumentException("Aggregation on non public field " + aggregation.getField() + " not allowed");
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Merges the partial results of an aggregation from all the shards
+	 */
+	private JsonNode merge(Aggregation aggregation, ArrayNode shardAggregations) {
+		ObjectNode merged = JsonNodeFactory.instance.objectNode();
+		if (aggregation.getType() == AggregationType.min || aggregation.getType() == AggregationType.max) {
+			JsonNode value = JsonNodeFactory.instance.nullNode();
+			for (JsonNode shardAggregation : shardAggregations) {
+				JsonNode shardValue = shardAggregation.get(Aggregation.VALUE);
+				if (shardValue == null || shardValue.isNull()) {
+					continue;
+				}
+				int comparison = value.isNull() ? 0 : compare(shardValue, value);
+				if (value.isNull() || (aggregation.getType() == AggregationType.min ? comparison < 0 : comparison > 0)) {
+					value = shardValue;
+				}
+			}
+			merged.set(Aggregation.VALUE, value);
+			return merged;
+		}
+
+		Map<String, JsonNode> keys = new HashMap<>();
+		Map<String, Long> counts = new HashMap<>();
+		for (JsonNode shardAggregation : shardAggregations) {
+			for (JsonNode bucket : shardAggregation.get(Aggregation.BUCKETS)) {
+				String key = bucket.get(Aggregation.KEY).asText();
+				keys.putIfAbsent(key, bucket.get(Aggregation.KEY));
+				counts.merge(key, bucket.get(Aggregation.COUNT).asLong(), Long::sum);
+			}
+		}
+		Stream<Map.Entry<String, Long>> buckets = counts.entrySet().stream();
+		if (aggregation.getType() == AggregationType.terms) {
+			buckets = buckets.sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+					.thenComparing(Map.Entry.comparingByKey()))
+					.limit(aggregation.getSize());
+		} else {
+			buckets = buckets.sorted(Map.Entry.comparingByKey());
+		}
+		ArrayNode bucketsNode = merged.putArray(Aggregation.BUCKETS);
+		buckets.forEach(entry -> {
+			ObjectNode bucket = bucketsNode.addObject();
+			bucket.set(Aggregation.KEY, keys.get(entry.getKey()));
+			bucket.put(Aggregation.COUNT, entry.getValue());
+		});
+		return merged;
+	}
+
+	private static int compare(JsonNode first, JsonNode second) {
+		if (first.isNumber() && second.isNumber()) {
+			return Double.compare(first.asDouble(), second.asDouble());
+		}
+		return first.asText().compareTo(second.asText());
 	}
 
 	private ArrayNode removeNonPublicFields(SearchQuery searchQuery, ObjectNode shardResult) throws Exception {
@@ -0,0 +1,224 @@
+package dev.sunbirdrc.registry.service;
+
+import dev.sunbirdrc.pojos.NotificationMessage;
+import dev.sunbirdrc.registry.exception.NotificationBatchException;
+import dev.sunbirdrc.registry.middleware.util.BackgroundTasks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends the notifications of entity owners in batches, with a queue per channel (sms, email). Messages of a channel
+ * are coalesced until notification.dispatch.batchSize are queued or notification.dispatch.flushInterval passes, and
+ * each batch is handed over with a single {@link RegistryService#callNotificationActors(String, List)}. At most
+ * notification.dispatch.maxConcurrency batches are in flight, failed batches are retried with exponential backoff,
+ * only the unsent messages of a partly sent one.
+ * Notifications beyond the capacity of a channel queue are dropped and counted.
+ */
+@Component
+public class NotificationDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    static final String SMS = "sms";
+    static final String EMAIL = "email";
+    static final String OTHER = "other";
+
+    private final RegistryService registryService;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final long retryBackoff;
+    private final Semaphore permits;
+    private final ScheduledExecutorService executor;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    @Autowired
+    public NotificationDispatcher(RegistryService registryService,
+                                  @Value("${notification.dispatch.batchSize:100}") int batchSize,
+                                  @Value("${notification.dispatch.queueCapacity:10000}") int queueCapacity,
+                                  @Value("${notification.dispatch.flushInterval:200}") long flushInterval,
+                                  @Value("${notification.dispatch.maxConcurrency:4}") int maxConcurrency,
+                                  @Value("${notification.dispatch.maxAttempts:3}") int maxAttempts,
+                                  @Value("${notification.dispatch.retryBackoff:1000}") long retryBackoff) {
+        this.registryService = registryService;
+        this.batchSize = Math.max(1, batchSize);
+        this.queueCapacity = Math.max(this.batchSize, queueCapacity);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+        this.executor = Executors.newScheduledThreadPool(Math.max(1, maxConcurrency),
+                BackgroundTasks.daemonThreads("notification-dispatch"));
+        this.executor.scheduleWithFixedDelay(this::flushAll, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        channels.forEach((name, channel) -> {
+            if (!channel.queue.isEmpty()) {
+                logger.warn("Discarding {} queued {} notifications on shutdown", channel.queue.size(), name);
+            }
+        });
+    }
+
+    /**
+     * Queues the notification on the channel of the recipient, a tel: or mailto: uri
+     */
+    public void dispatch(String operation, String recipient, String subject, String message) {
+        Channel channel = channels.computeIfAbsent(getChannel(recipient), Channel::new);
+        NotificationMessage notificationMessage = new NotificationMessage();
+        notificationMessage.setTo(recipient);
+        notificationMessage.setSubject(subject);
+        notificationMessage.setMessage(message);
+        if (!channel.queue.offer(new Notification(operation, notificationMessage))) {
+            channel.dropped.increment();
+            logger.error("The {} notification queue is full, dropping the notification to {}", channel.name, recipient);
+            return;
+        }
+        channel.queued.increment();
+        if (channel.queue.size() >= batchSize) {
+            try {
+                executor.execute(() -> flush(channel));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Notification dispatcher is stopped, leaving the flush to the schedule");
+            }
+        }
+    }
+
+    static String getChannel(String recipient) {
+        if (recipient.startsWith("tel:")) {
+            return SMS;
+        }
+        if (recipient.startsWith("mailto:")) {
+            return EMAIL;
+        }
+        return OTHER;
+    }
+
+    private void flushAll() {
+        channels.values().forEach(this::flush);
+    }
+
+    private void flush(Channel channel) {
+        while (!channel.queue.isEmpty() && permits.tryAcquire()) {
+            List<Notification> batch = new ArrayList<>(batchSize);
+            channel.queue.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                permits.release();
+                return;
+            }
+            channel.batches.increment();
+            // Batches are sent per operation, most batches hold a single one
+            Map<String, List<NotificationMessage>> operations = new LinkedHashMap<>();
+            batch.forEach(notification -> operations.computeIfAbsent(notification.operation, k -> new ArrayList<>())
+                    .add(notification.message));
+            executor.execute(() -> send(channel, new ArrayList<>(operations.entrySet()), 1));
+        }
+    }
+
+    /**
+     * Sends the batches of each operation in turn, holding the permit of the batch until all are sent or given up,
+     * including while waiting to retry
+     */
+    private void send(Channel channel, List<Map.Entry<String, List<NotificationMessage>>> operations, int attempt) {
+        while (!operations.isEmpty()) {
+            Map.Entry<String, List<NotificationMessage>> operation = operations.get(0);
+            int size = operation.getValue().size();
+            long start = System.nanoTime();
+            try {
+                registryService.callNotificationActors(operation.getKey(), operation.getValue());
+                channel.sent.add(size);
+                channel.sendNanos.add(System.nanoTime() - start);
+                channel.sends.increment();
+            } catch (Exception e) {
+                // Of a partly sent batch only the unsent messages are retried
+                List<NotificationMessage> unsent = e instanceof NotificationBatchException ?
+                        ((NotificationBatchException) e).getUnsent() : operation.getValue();
+                channel.sent.add(size - unsent.size());
+                size = unsent.size();
+                operations.set(0, new AbstractMap.SimpleEntry<>(operation.getKey(), unsent));
+                if (attempt < maxAttempts) {
+                    long delay = BackgroundTasks.backoff(retryBackoff, attempt);
+                    channel.retried.add(size);
+                    logger.warn("Sending {} {} notifications failed, attempt {} of {}, retrying in {} ms: {}", size, channel.name,
+                            attempt, maxAttempts, delay, e.getMessage());
+                    int nextAttempt = attempt + 1;
+                    try {
+                        executor.schedule(() -> send(channel, operations, nextAttempt), delay, TimeUnit.MILLISECONDS);
+                        return;
+                    } catch (RejectedExecutionException rejected) {
+                        logger.debug("Notification dispatcher is stopped, not retrying");
+                    }
+                }
+                logger.error("Sending {} {} notifications failed after {} attempts", size, channel.name, attempt, e);
+                channel.failed.add(size);
+            }
+            operations.remove(0);
+            attempt = 1;
+        }
+        permits.release();
+        // Full batches which found no permit while this one was sent
+        channels.values().stream().filter(pending -> pending.queue.size() >= batchSize).forEach(this::flush);
+    }
+
+    /**
+     * Counts and throughput of each channel
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new TreeMap<>();
+        channels.forEach((name, channel) -> metrics.put(name, channel.snapshot()));
+        return metrics;
+    }
+
+    private static class Notification {
+        private final String operation;
+        private final NotificationMessage message;
+
+        private Notification(String operation, NotificationMessage message) {
+            this.operation = operation;
+            this.message = message;
+        }
+    }
+
+    private class Channel {
+        private final String name;
+        private final BlockingQueue<Notification> queue = new LinkedBlockingQueue<>(queueCapacity);
+        private final long createdAt = System.currentTimeMillis();
+        private final BackgroundTasks.Counters counters = new BackgroundTasks.Counters();
+        private final LongAdder queued = counters.add("queued");
+        private final LongAdder sent = counters.add("sent");
+        private final LongAdder failed = counters.add("failed");
+        private final LongAdder retried = counters.add("retried");
+        private final LongAdder dropped = counters.add("dropped");
+        private final LongAdder batches = counters.add("batches");
+        private final LongAdder sends = new LongAdder();
+        private final LongAdder sendNanos = new LongAdder();
+
+        private Channel(String name) {
+            this.name = name;
+        }
+
+        private Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = counters.snapshot();
+            long sentCount = sent.sum();
+            long sendCount = sends.sum();
+            long elapsed = Math.max(1, System.currentTimeMillis() - createdAt);
+            snapshot.put("pending", queue.size());
+            snapshot.put("sentPerSecond", sentCount * 1000 / elapsed);
+            snapshot.put("averageBatchLatency", sendCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(sendNanos.sum() / sendCount));
+            return snapshot;
+        }
+    }
+}
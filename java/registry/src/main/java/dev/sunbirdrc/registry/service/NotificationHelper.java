@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Template;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import dev.sunbirdrc.registry.helper.EntityStateHelper;
 import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.model.NotificationTemplate;
@@ -18,6 +20,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -33,47 +37,80 @@ public class NotificationHelper {
     private EntityStateHelper entityStateHelper;
     private RegistryService registryService;
     private ObjectMapper objectMapper;
+    private NotificationDispatcher notificationDispatcher;
+    private final Handlebars handlebars = new Handlebars();
+    // Compiled templates of each entity type and operation, with the templates they were compiled from
+    private final Cache<String, CompiledTemplates> compiledTemplates = CacheBuilder.newBuilder().maximumSize(1000).build();
+
+    public NotificationHelper(boolean notificationEnabled, IDefinitionsManager definitionsManager, EntityStateHelper entityStateHelper, RegistryService registryService, ObjectMapper objectMapper) {
+        this(notificationEnabled, definitionsManager, entityStateHelper, registryService, objectMapper, null);
+    }
+
+    /**
+     * Notifications are sent in batches through the dispatcher, or one by one when there is none
+     */
     @Autowired
-    public NotificationHelper(@Value("${notification.service.enabled}") boolean notificationEnabled, IDefinitionsManager definitionsManager, EntityStateHelper entityStateHelper, RegistryService registryService, ObjectMapper objectMapper) {
+    public NotificationHelper(@Value("${notification.service.enabled}") boolean notificationEnabled, IDefinitionsManager definitionsManager, EntityStateHelper entityStateHelper, RegistryService registryService, ObjectMapper objectMapper, NotificationDispatcher notificationDispatcher) {
         this.notificationEnabled = notificationEnabled;
         this.definitionsManager = definitionsManager;
         this.entityStateHelper = entityStateHelper;
         this.registryService = registryService;
         this.objectMapper = objectMapper;
+        this.notificationDispatcher = notificationDispatcher;
     }
 
     public NotificationHelper() {
     }
 
     public void sendNotification(JsonNode inputJson, String operationType) throws Exception {
+        if (!notificationEnabled) {
+            return;
+        }
         String entityType = inputJson.fields().next().getKey();
-        List<NotificationTemplate> templates = getNotificationTemplate(entityType, operationType);
+        List<CompiledTemplate> templates = getCompiledTemplates(entityType, operationType);
+        if (templates.isEmpty()) {
+            return;
+        }
         Map<String, Object> objectNodeMap = (Map<String, Object>) JSONUtil.convertJsonNodeToMap(inputJson).get(entityType);
         objectNodeMap.put("entityType", entityType);
-        for(NotificationTemplate template: templates) {
-            String bodyTemplate = template.getBody();
-            String subjectTemplate = template.getSubject();
-            String bodyString = compileMessageFromTemplate(bodyTemplate, objectNodeMap);
-            String subjectString = compileMessageFromTemplate(subjectTemplate, objectNodeMap);
-            List<ObjectNode> owners = entityStateHelper.getOwnersData(inputJson, entityType);
+        List<ObjectNode> owners = entityStateHelper.getOwnersData(inputJson, entityType);
+        for (CompiledTemplate template : templates) {
+            String bodyString = template.body.apply(objectNodeMap);
+            String subjectString = template.subject.apply(objectNodeMap);
             sendNotificationToOwners(owners, operationType, subjectString, bodyString);
         }
     }
 
     private void sendNotificationToOwners(List<ObjectNode> owners, String operation, String subject, String message) throws Exception {
-        if (notificationEnabled) {
-            for (ObjectNode owner :owners) {
-                String ownerMobile = owner.get(MOBILE).asText("");
-                String ownerEmail = owner.get(EMAIL).asText("");
-                if (!StringUtils.isEmpty(ownerMobile)) {
-                    registryService.callNotificationActors(operation, String.format("tel:%s", ownerMobile), subject, message);
-                }
-                if (!StringUtils.isEmpty(ownerEmail)) {
-                    registryService.callNotificationActors(operation, String.format("mailto:%s", ownerEmail), subject, message);
-                }
+        for (ObjectNode owner :owners) {
+            String ownerMobile = owner.get(MOBILE).asText("");
+            String ownerEmail = owner.get(EMAIL).asText("");
+            if (!StringUtils.isEmpty(ownerMobile)) {
+                send(operation, String.format("tel:%s", ownerMobile), subject, message);
+            }
+            if (!StringUtils.isEmpty(ownerEmail)) {
+                send(operation, String.format("mailto:%s", ownerEmail), subject, message);
             }
         }
     }
+
+    private void send(String operation, String to, String subject, String message) throws Exception {
+        if (notificationDispatcher != null) {
+            notificationDispatcher.dispatch(operation, to, subject, message);
+        } else {
+            registryService.callNotificationActors(operation, to, subject, message);
+        }
+    }
+
+    /**
+     * Whether the operation on the entity type has notification templates, callers holding only part of the entity
+     * need to read it for them
+     */
+    public boolean hasNotifications(String entityType, String operationType) {
+        List<NotificationTemplate> templates = getNotificationTemplate(entityType, operationType);
+        return templates != null && !templates.isEmpty();
+    }
+
     private List<NotificationTemplate> getNotificationTemplate(String entityType, String operationType) {
         OSSchemaConfiguration osSchemaConfiguration = definitionsManager.getDefinition(entityType).getOsSchemaConfiguration();
         switch(operationType) {
@@ -91,10 +128,45 @@ public class NotificationHelper {
         return null;
     }
 
-    private String compileMessageFromTemplate(String messageBodySubject, Map<String, Object> objectNodeMap) throws IOException {
-        Handlebars handlebars = new Handlebars();
-        Template messageTemplate = handlebars.compileInline(messageBodySubject);
-        return messageTemplate.apply(objectNodeMap);
+    /**
+     * The templates of the operation compiled once, a schema change bringing other templates has them compiled again
+     */
+    private List<CompiledTemplate> getCompiledTemplates(String entityType, String operationType) throws IOException {
+        List<NotificationTemplate> templates = getNotificationTemplate(entityType, operationType);
+        if (templates == null || templates.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String key = entityType + ":" + operationType;
+        CompiledTemplates compiled = compiledTemplates.getIfPresent(key);
+        if (compiled == null || !compiled.source.equals(templates)) {
+            List<CompiledTemplate> compiledList = new ArrayList<>();
+            for (NotificationTemplate template : templates) {
+                compiledList.add(new CompiledTemplate(handlebars.compileInline(template.getSubject()),
+                        handlebars.compileInline(template.getBody())));
+            }
+            compiled = new CompiledTemplates(new ArrayList<>(templates), compiledList);
+            compiledTemplates.put(key, compiled);
+        }
+        return compiled.templates;
+    }
+
+    private static class CompiledTemplates {
+        private final List<NotificationTemplate> source;
+        private final List<CompiledTemplate> templates;
+
+        private CompiledTemplates(List<NotificationTemplate> source, List<CompiledTemplate> templates) {
+            this.source = source;
+            this.templates = templates;
+        }
     }
 
+    private static class CompiledTemplate {
+        private final Template subject;
+        private final Template body;
+
+        private CompiledTemplate(Template subject, Template body) {
+            this.subject = subject;
+            this.body = body;
+        }
+    }
 }
@@ -0,0 +1,220 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.middleware.util.BackgroundTasks;
+import dev.sunbirdrc.registry.model.dto.OutboxEntry;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.sink.VertexLeases;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Records the side effects of an entity write (elastic search indexing, audit, events and webhooks)
+ * as outbox vertices in the same graph transaction as the entity. The rows are drained by OutboxRelay,
+ * each instance leasing the entries it delivers so that replicas rarely deliver the same entries. Delivery is
+ * at-least-once, see {@link VertexLeases}: elastic search writes are versioned, audit and event consumers
+ * may see an entry twice.
+ */
+@Component
+public class OutboxService {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    public static final String OUTBOX_LABEL = "RegistryOutbox";
+    public static final String STATUS = "status";
+    public static final String ATTEMPTS = "attempts";
+    public static final String CREATED_AT = "createdAt";
+    public static final String NEXT_ATTEMPT_AT = "nextAttemptAt";
+    public static final String ENTRY = "entry";
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Value("${outbox.enabled:false}")
+    private boolean outboxEnabled;
+
+    @Value("${outbox.relay.enabled:${outbox.enabled:false}}")
+    private boolean relayEnabled;
+
+    @Value("${outbox.relay.lease:60000}")
+    private long leaseTime;
+
+    @Value("${database.uuidPropertyName}")
+    private String uuidPropertyName;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private VertexLeases leases;
+
+    @PostConstruct
+    public void init() {
+        leases = new VertexLeases(OUTBOX_LABEL, uuidPropertyName, NEXT_ATTEMPT_AT, Arrays.asList(STATUS, NEXT_ATTEMPT_AT));
+    }
+
+    public boolean isEnabled() {
+        return outboxEnabled;
+    }
+
+    /**
+     * Whether the relay drains the outbox. Besides the entries of the writes with the outbox enabled, it holds
+     * the elastic search writes deferred while the actors were saturated, which are only deferred while it runs.
+     */
+    public boolean isRelayEnabled() {
+        return outboxEnabled || relayEnabled;
+    }
+
+    /**
+     * Adds the entries to the graph. The caller owns the transaction and must commit it.
+     *
+     * @param graph   - graph on which the entity write transaction is open
+     * @param entries - side effects of the write
+     * @throws IOException
+     */
+    public void append(Graph graph, List<OutboxEntry> entries) throws IOException {
+        long now = System.currentTimeMillis();
+        for (OutboxEntry entry : entries) {
+            Vertex vertex = graph.addVertex(T.label, OUTBOX_LABEL);
+            vertex.property(uuidPropertyName, UUID.randomUUID().toString());
+            vertex.property(STATUS, STATUS_PENDING);
+            vertex.property(ATTEMPTS, 0);
+            vertex.property(CREATED_AT, now);
+            vertex.property(NEXT_ATTEMPT_AT, now);
+            vertex.property(ENTRY, objectMapper.writeValueAsString(entry));
+        }
+    }
+
+    /**
+     * Adds the entries in a transaction of its own. Used for side effects which are not tied to an entity write.
+     *
+     * @param shard   - shard whose outbox must hold the entries
+     * @param entries - side effects
+     * @throws IOException
+     */
+    public void append(Shard shard, List<OutboxEntry> entries) throws IOException {
+        DatabaseProvider databaseProvider = shard.getDatabaseProvider();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                append(graph, entries);
+                databaseProvider.commitTransaction(graph, tx);
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed writing to outbox: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Leases the oldest pending entries which are due for delivery and returns them keyed by their outbox id.
+     * Entries leased by another instance are left to it until their lease runs out. Entries which can not be
+     * read are parked as failed.
+     */
+    public Map<String, OutboxEntry> getPending(Shard shard, int limit) throws Exception {
+        Map<String, String> claimed = new LinkedHashMap<>();
+        DatabaseProvider databaseProvider = shard.getDatabaseProvider();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                long now = System.currentTimeMillis();
+                List<Vertex> vertices = graph.traversal().V().hasLabel(OUTBOX_LABEL)
+                        .has(STATUS, STATUS_PENDING)
+                        .has(NEXT_ATTEMPT_AT, P.lte(now))
+                        .order().by(CREATED_AT)
+                        .limit(limit)
+                        .toList();
+                for (Vertex vertex : leases.claim(graph, vertices, now, now + leaseTime)) {
+                    claimed.put(vertex.value(uuidPropertyName), vertex.value(ENTRY));
+                }
+                databaseProvider.commitTransaction(graph, tx);
+            }
+            if (claimed.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            leases.ensureIndex(databaseProvider);
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                Set<String> owned = leases.confirm(graph, claimed.keySet());
+                Map<String, OutboxEntry> pending = new LinkedHashMap<>();
+                List<String> unreadable = new ArrayList<>();
+                for (Map.Entry<String, String> entry : claimed.entrySet()) {
+                    if (!owned.contains(entry.getKey())) {
+                        continue;
+                    }
+                    try {
+                        pending.put(entry.getKey(), objectMapper.readValue(entry.getValue(), OutboxEntry.class));
+                    } catch (IOException e) {
+                        logger.error("Outbox entry {} can not be read, parking it", entry.getKey(), e);
+                        unreadable.add(entry.getKey());
+                    }
+                }
+                if (!unreadable.isEmpty()) {
+                    graph.traversal().V().hasLabel(OUTBOX_LABEL).has(uuidPropertyName, P.within(unreadable))
+                            .forEachRemaining(vertex -> vertex.property(STATUS, STATUS_FAILED));
+                }
+                databaseProvider.commitTransaction(graph, tx);
+                return pending;
+            }
+        }
+    }
+
+    /**
+     * Removes the delivered entries and schedules the others for another attempt. Entries whose lease ran out
+     * and were claimed by another instance meanwhile are left to it.
+     *
+     * @param shard         - shard whose outbox holds the entries
+     * @param attempted     - ids of the entries picked up by the relay
+     * @param delivered     - ids of the entries which were delivered
+     * @param maxAttempts   - attempts after which an entry is parked as failed
+     * @param backoffMillis - base delay of the exponential backoff
+     */
+    public void checkpoint(Shard shard, Collection<String> attempted, Collection<String> delivered,
+                           int maxAttempts, long backoffMillis) throws Exception {
+        DatabaseProvider databaseProvider = shard.getDatabaseProvider();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                List<Vertex> vertices = graph.traversal().V().hasLabel(OUTBOX_LABEL)
+                        .has(uuidPropertyName, P.within(attempted))
+                        .has(VertexLeases.OWNER, VertexLeases.getInstanceId())
+                        .toList();
+                for (Vertex vertex : vertices) {
+                    if (delivered.contains(vertex.<String>value(uuidPropertyName))) {
+                        vertex.remove();
+                    } else {
+                        markFailed(vertex, maxAttempts, backoffMillis);
+                    }
+                }
+                databaseProvider.commitTransaction(graph, tx);
+            }
+        }
+    }
+
+    /**
+     * Schedules the entry for another attempt with an exponential backoff, or parks it
+     * as failed once the attempts are exhausted.
+     */
+    private void markFailed(Vertex vertex, int maxAttempts, long backoffMillis) {
+        int attempts = ((Number) vertex.value(ATTEMPTS)).intValue() + 1;
+        vertex.property(ATTEMPTS, attempts);
+        if (attempts >= maxAttempts) {
+            logger.error("Outbox entry {} failed {} times, giving up", vertex.value(uuidPropertyName).toString(), attempts);
+            vertex.property(STATUS, STATUS_FAILED);
+        } else {
+            long delay = BackgroundTasks.backoff(backoffMillis, attempts + 1);
+            vertex.property(NEXT_ATTEMPT_AT, System.currentTimeMillis() + delay);
+        }
+    }
+}
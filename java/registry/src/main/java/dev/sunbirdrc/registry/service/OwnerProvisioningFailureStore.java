@@ -0,0 +1,186 @@
+package dev.sunbirdrc.registry.service;
+
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Owners provisioned in the background which didn't make it to their record, kept as vertices of the default
+ * shard so that they can be listed and fixed after the request which created them has returned. An owner is
+ * recorded either because its account couldn't be created, or because the account was created but adding it
+ * to the record failed, in which case the id of the account is kept as well.
+ * Failures are not retried: once the owner was invited again or added to the record, the failure is deleted,
+ * see DELETE /utils/owners/failures.
+ */
+@Component
+public class OwnerProvisioningFailureStore {
+    public static final String FAILURE_LABEL = "RegistryOwnerProvisioning";
+    public static final String ENTITY_TYPE = "entityType";
+    public static final String ENTITY_ID = "entityId";
+    public static final String USER_NAME = "userName";
+    public static final String OWNER_ID = "ownerId";
+    public static final String ERROR = "error";
+    public static final String CREATED_AT = "createdAt";
+
+    @Value("${database.uuidPropertyName}")
+    private String uuidPropertyName;
+
+    @Autowired
+    private ShardManager shardManager;
+
+    public void record(Failure failure) throws IOException {
+        Shard shard = shardManager.getDefaultShard();
+        DatabaseProvider databaseProvider = shard.getDatabaseProvider();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                Vertex vertex = graph.addVertex(T.label, FAILURE_LABEL);
+                failure.id = UUID.randomUUID().toString();
+                vertex.property(uuidPropertyName, failure.id);
+                vertex.property(ENTITY_TYPE, failure.getEntityType());
+                vertex.property(ENTITY_ID, failure.getEntityId());
+                if (failure.getUserName() != null) {
+                    vertex.property(USER_NAME, failure.getUserName());
+                }
+                if (failure.getOwnerId() != null) {
+                    vertex.property(OWNER_ID, failure.getOwnerId());
+                }
+                vertex.property(ERROR, String.valueOf(failure.getError()));
+                vertex.property(CREATED_AT, failure.getCreatedAt());
+                databaseProvider.commitTransaction(graph, tx);
+            }
+        } catch (Exception e) {
+            throw new IOException("Failed recording the owner provisioning failure: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The oldest failures
+     */
+    public List<Failure> getFailures(int limit) throws IOException {
+        Shard shard = shardManager.getDefaultShard();
+        DatabaseProvider databaseProvider = shard.getDatabaseProvider();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                List<Failure> failures = new ArrayList<>();
+                graph.traversal().V().hasLabel(FAILURE_LABEL)
+                        .order().by(CREATED_AT, Order.incr)
+                        .limit(limit)
+                        .forEachRemaining(vertex -> {
+                            Failure failure = new Failure(vertex.<String>value(ENTITY_TYPE),
+                                    vertex.<String>value(ENTITY_ID), valueOrNull(vertex, USER_NAME), valueOrNull(vertex, OWNER_ID),
+                                    vertex.<String>value(ERROR), ((Number) vertex.value(CREATED_AT)).longValue());
+                            failure.id = vertex.value(uuidPropertyName);
+                            failures.add(failure);
+                        });
+                databaseProvider.commitTransaction(graph, tx);
+                return failures;
+            }
+        } catch (Exception e) {
+            throw new IOException("Failed reading the owner provisioning failures: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Removes the failures whose owners were fixed by hand
+     *
+     * @return the number of failures removed
+     */
+    public int delete(Collection<String> ids) throws IOException {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Shard shard = shardManager.getDefaultShard();
+        DatabaseProvider databaseProvider = shard.getDatabaseProvider();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                List<Vertex> vertices = graph.traversal().V().hasLabel(FAILURE_LABEL)
+                        .has(uuidPropertyName, P.within(ids))
+                        .toList();
+                vertices.forEach(Vertex::remove);
+                databaseProvider.commitTransaction(graph, tx);
+                return vertices.size();
+            }
+        } catch (Exception e) {
+            throw new IOException("Failed deleting the owner provisioning failures: " + e.getMessage(), e);
+        }
+    }
+
+    private static String valueOrNull(Vertex vertex, String property) {
+        return vertex.property(property).isPresent() ? vertex.<String>value(property) : null;
+    }
+
+    public static class Failure {
+        private String id;
+        private final String entityType;
+        private final String entityId;
+        private final String userName;
+        private final String ownerId;
+        private final String error;
+        private final long createdAt;
+
+        public Failure(String entityType, String entityId, String userName, String ownerId, String error, long createdAt) {
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.userName = userName;
+            this.ownerId = ownerId;
+            this.error = error;
+            this.createdAt = createdAt;
+        }
+
+        /**
+         * Id to delete the failure with, null until it is recorded
+         */
+        public String getId() {
+            return id;
+        }
+
+        public String getEntityType() {
+            return entityType;
+        }
+
+        public String getEntityId() {
+            return entityId;
+        }
+
+        /**
+         * User name of the owner whose account couldn't be created
+         */
+        public String getUserName() {
+            return userName;
+        }
+
+        /**
+         * Id of the account, null when it couldn't be created
+         */
+        public String getOwnerId() {
+            return ownerId;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public long getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
@@ -3,11 +3,15 @@ package dev.sunbirdrc.registry.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import dev.sunbirdrc.pojos.HealthCheckResponse;
+import dev.sunbirdrc.pojos.NotificationMessage;
 import dev.sunbirdrc.registry.model.EventType;
 import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.util.EntityPatch;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import java.util.List;
+
 public interface RegistryService {
 
 	HealthCheckResponse health(Shard shard) throws Exception;
@@ -18,9 +22,40 @@ public interface RegistryService {
 
 	void updateEntity(Shard shard, String userId, String id, String jsonString, boolean skipSignature) throws Exception;
 
+	/**
+	 * Same as the json string variant, for callers already holding the tree. The input node is left unchanged.
+	 */
+	void updateEntity(Shard shard, String userId, String id, JsonNode inputJson, boolean skipSignature) throws Exception;
+
+	/**
+	 * Same as {@link #updateEntity(Shard, String, String, JsonNode, boolean)}, also removing the value properties
+	 * removed by the merge patch in the same transaction. Fails, having changed nothing, when they can't be removed.
+	 */
+	void updateEntity(Shard shard, String userId, String id, JsonNode inputJson, boolean skipSignature, EntityPatch removals) throws Exception;
+
+	/**
+	 * Writes the properties changed by the patch without reading and merging the entity, see {@link dev.sunbirdrc.registry.dao.VertexPatcher}.
+	 * Returns false, having changed nothing, when the patch needs the full update.
+	 *
+	 * @param partialNode - the values set by the patch, wrapped by the entity type
+	 */
+	boolean patchEntity(Shard shard, String userId, String entityType, String id, EntityPatch patch, JsonNode partialNode) throws Exception;
+
+	/**
+	 * Appends the owners to the owners of the entity in a single transaction, owners it already has are skipped
+	 */
+	void addOwners(Shard shard, String userId, String entityType, String id, List<String> ownerIds) throws Exception;
+
 	void callESActors(JsonNode rootNode, String operation, String parentEntityType, String entityRootId, Transaction tx) throws Exception;
 
 	void callNotificationActors(String operation, String to, String subject, String message) throws Exception;
+
+	/**
+	 * Sends a batch of notifications, failing as a whole when they can't be handed over. A batch which was partly
+	 * sent fails with a NotificationBatchException listing the messages which were not.
+	 */
+	void callNotificationActors(String operation, List<NotificationMessage> messages) throws Exception;
+
 	void maskAndEmitEvent(JsonNode deletedNode, String index, EventType delete, String userId, String uuid) throws JsonProcessingException;
 
 }
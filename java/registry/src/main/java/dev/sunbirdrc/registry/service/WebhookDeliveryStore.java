@@ -0,0 +1,287 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.middleware.util.BackgroundTasks;
+import dev.sunbirdrc.registry.model.dto.WebhookEvent;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.sink.VertexLeases;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Queue of the webhook events waiting for delivery, kept as vertices of the default shard so that they survive
+ * restarts. Entries picked up for delivery are leased with {@link VertexLeases}, so that the instances polling
+ * the queue normally don't send the same entry, until it is delivered, rescheduled with backoff or, once its
+ * attempts are exhausted, parked as a dead letter which can be listed and replayed. As with any webhook,
+ * delivery is at-least-once.
+ */
+@Component
+public class WebhookDeliveryStore {
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDeliveryStore.class);
+
+    public static final String WEBHOOK_LABEL = "RegistryWebhook";
+    public static final String STATUS = "status";
+    public static final String ENDPOINT = "endpoint";
+    public static final String ATTEMPTS = "attempts";
+    public static final String CREATED_AT = "createdAt";
+    public static final String NEXT_ATTEMPT_AT = "nextAttemptAt";
+    public static final String EVENT = "event";
+    public static final String LAST_ERROR = "lastError";
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_DEAD = "DEAD";
+
+    @Value("${database.uuidPropertyName}")
+    private String uuidPropertyName;
+
+    @Value("${webhook.dispatch.lease:60000}")
+    private long leaseTime;
+
+    @Autowired
+    private ShardManager shardManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private VertexLeases leases;
+
+    @PostConstruct
+    public void init() {
+        leases = new VertexLeases(WEBHOOK_LABEL, uuidPropertyName, NEXT_ATTEMPT_AT, Arrays.asList(STATUS, NEXT_ATTEMPT_AT));
+    }
+
+    /**
+     * Queues the event for delivery to its webhook url
+     */
+    public void append(WebhookEvent event) throws IOException {
+        String eventJson = objectMapper.writeValueAsString(event);
+        inTransaction(graph -> {
+            long now = System.currentTimeMillis();
+            Vertex vertex = graph.addVertex(T.label, WEBHOOK_LABEL);
+            vertex.property(uuidPropertyName, UUID.randomUUID().toString());
+            vertex.property(STATUS, STATUS_PENDING);
+            vertex.property(ENDPOINT, event.getWebhookUrl());
+            vertex.property(ATTEMPTS, 0);
+            vertex.property(CREATED_AT, now);
+            vertex.property(NEXT_ATTEMPT_AT, now);
+            vertex.property(EVENT, eventJson);
+            return null;
+        });
+    }
+
+    /**
+     * Leases the oldest pending deliveries which are due, so that the next polls of any instance skip them while
+     * they are sent. Deliveries claimed by another instance meanwhile are left to it. Deliveries whose lease runs
+     * out without an outcome, like those of a stopped instance, are picked up again.
+     *
+     * @param limit             - maximum number of deliveries
+     * @param skippedEndpoints  - endpoints whose deliveries are left pending
+     */
+    public List<Delivery> lease(int limit, Collection<String> skippedEndpoints) throws IOException {
+        List<Delivery> claimed = inTransaction(graph -> {
+            long now = System.currentTimeMillis();
+            GraphTraversal<Vertex, Vertex> traversal = graph.traversal().V().hasLabel(WEBHOOK_LABEL)
+                    .has(STATUS, STATUS_PENDING)
+                    .has(NEXT_ATTEMPT_AT, P.lte(now));
+            if (!skippedEndpoints.isEmpty()) {
+                traversal = traversal.has(ENDPOINT, P.without(skippedEndpoints));
+            }
+            List<Vertex> vertices = traversal.order().by(CREATED_AT)
+                    .limit(limit)
+                    .toList();
+            List<Delivery> deliveries = new ArrayList<>();
+            for (Vertex vertex : leases.claim(graph, vertices, now, now + leaseTime)) {
+                deliveries.add(toDelivery(vertex));
+            }
+            return deliveries;
+        });
+        if (claimed.isEmpty()) {
+            return claimed;
+        }
+        leases.ensureIndex(shardManager.getDefaultShard().getDatabaseProvider());
+        Set<String> owned = inTransaction(graph -> leases.confirm(graph,
+                claimed.stream().map(Delivery::getId).collect(Collectors.toList())));
+        return claimed.stream().filter(delivery -> owned.contains(delivery.getId())).collect(Collectors.toList());
+    }
+
+    /**
+     * Removes the delivered entries
+     */
+    public void delivered(Collection<String> ids) throws IOException {
+        update(ids, Vertex::remove);
+    }
+
+    /**
+     * Ends the lease of entries which weren't attempted, without counting an attempt
+     */
+    public void release(Collection<String> ids) throws IOException {
+        long now = System.currentTimeMillis();
+        update(ids, vertex -> vertex.property(NEXT_ATTEMPT_AT, now));
+    }
+
+    /**
+     * Schedules the entries for another attempt with an exponential backoff, or parks them as dead letters
+     * once the attempts are exhausted
+     */
+    public void failed(Collection<String> ids, String error, int maxAttempts, long backoffMillis) throws IOException {
+        update(ids, vertex -> {
+            int attempts = ((Number) vertex.value(ATTEMPTS)).intValue() + 1;
+            vertex.property(ATTEMPTS, attempts);
+            vertex.property(LAST_ERROR, String.valueOf(error));
+            if (attempts >= maxAttempts) {
+                logger.error("Webhook delivery {} to {} failed {} times, moving it to the dead letters",
+                        vertex.value(uuidPropertyName).toString(), vertex.value(ENDPOINT).toString(), attempts);
+                vertex.property(STATUS, STATUS_DEAD);
+            } else {
+                long delay = BackgroundTasks.backoff(backoffMillis, attempts);
+                vertex.property(NEXT_ATTEMPT_AT, System.currentTimeMillis() + delay);
+            }
+        });
+    }
+
+    public List<Delivery> getDeadLetters(int limit) throws IOException {
+        return inTransaction(graph -> {
+            List<Delivery> deliveries = new ArrayList<>();
+            graph.traversal().V().hasLabel(WEBHOOK_LABEL)
+                    .has(STATUS, STATUS_DEAD)
+                    .order().by(CREATED_AT)
+                    .limit(limit)
+                    .forEachRemaining(vertex -> deliveries.add(toDelivery(vertex)));
+            return deliveries;
+        });
+    }
+
+    /**
+     * Queues the dead letters again with fresh attempts
+     */
+    public void replay(Collection<String> ids) throws IOException {
+        long now = System.currentTimeMillis();
+        update(ids, vertex -> {
+            if (STATUS_DEAD.equals(vertex.value(STATUS))) {
+                vertex.property(STATUS, STATUS_PENDING);
+                vertex.property(ATTEMPTS, 0);
+                vertex.property(NEXT_ATTEMPT_AT, now);
+            }
+        });
+    }
+
+    /**
+     * Counts of the pending deliveries and dead letters, with the creation time of the oldest pending delivery
+     */
+    public Map<String, Long> getBacklog() throws IOException {
+        return inTransaction(graph -> {
+            Map<String, Long> backlog = new LinkedHashMap<>();
+            backlog.put("pending", graph.traversal().V().hasLabel(WEBHOOK_LABEL).has(STATUS, STATUS_PENDING).count().next());
+            backlog.put("deadLetters", graph.traversal().V().hasLabel(WEBHOOK_LABEL).has(STATUS, STATUS_DEAD).count().next());
+            List<Object> oldest = graph.traversal().V().hasLabel(WEBHOOK_LABEL).has(STATUS, STATUS_PENDING)
+                    .values(CREATED_AT).order().by(Order.incr).limit(1).toList();
+            backlog.put("oldestPendingAt", oldest.isEmpty() ? 0L : ((Number) oldest.get(0)).longValue());
+            return backlog;
+        });
+    }
+
+    private Delivery toDelivery(Vertex vertex) {
+        return new Delivery(vertex.<String>value(uuidPropertyName), vertex.<String>value(ENDPOINT), vertex.<String>value(EVENT),
+                ((Number) vertex.value(ATTEMPTS)).intValue(), ((Number) vertex.value(CREATED_AT)).longValue(),
+                vertex.property(LAST_ERROR).isPresent() ? vertex.<String>value(LAST_ERROR) : null);
+    }
+
+    private void update(Collection<String> ids, VertexUpdate vertexUpdate) throws IOException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        inTransaction(graph -> {
+            for (Vertex vertex : graph.traversal().V().hasLabel(WEBHOOK_LABEL).has(uuidPropertyName, P.within(ids)).toList()) {
+                vertexUpdate.apply(vertex);
+            }
+            return null;
+        });
+    }
+
+    private <T> T inTransaction(GraphWork<T> work) throws IOException {
+        Shard shard = shardManager.getDefaultShard();
+        DatabaseProvider databaseProvider = shard.getDatabaseProvider();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                T result = work.apply(graph);
+                databaseProvider.commitTransaction(graph, tx);
+                return result;
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed accessing the webhook queue: " + e.getMessage(), e);
+        }
+    }
+
+    private interface GraphWork<T> {
+        T apply(Graph graph) throws Exception;
+    }
+
+    private interface VertexUpdate {
+        void apply(Vertex vertex);
+    }
+
+    public static class Delivery {
+        private final String id;
+        private final String endpoint;
+        private final String event;
+        private final int attempts;
+        private final long createdAt;
+        private final String lastError;
+
+        public Delivery(String id, String endpoint, String event, int attempts, long createdAt, String lastError) {
+            this.id = id;
+            this.endpoint = endpoint;
+            this.event = event;
+            this.attempts = attempts;
+            this.createdAt = createdAt;
+            this.lastError = lastError;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        /**
+         * The event as the json posted to the endpoint
+         */
+        public String getEvent() {
+            return event;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public long getCreatedAt() {
+            return createdAt;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+    }
+}
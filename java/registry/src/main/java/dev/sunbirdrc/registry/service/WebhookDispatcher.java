@@ -0,0 +1,249 @@
+package dev.sunbirdrc.registry.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import dev.sunbirdrc.registry.middleware.util.BackgroundTasks;
+import dev.sunbirdrc.registry.model.dto.WebhookEvent;
+import dev.sunbirdrc.registry.util.OutboundHttpClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers webhook events in the background from the {@link WebhookDeliveryStore}, so that writes only wait for
+ * the event to be queued. Each endpoint gets at most webhook.dispatch.maxConcurrency requests in flight and
+ * webhook.dispatch.rateLimit requests per second, a slow endpoint holds back its own events only. With
+ * webhook.dispatch.batch.enabled the events of an endpoint are posted as json arrays of up to
+ * webhook.dispatch.batch.size. Failed deliveries are retried with exponential backoff and end up as dead letters.
+ * Delivery is at-least-once.
+ */
+@Component
+public class WebhookDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    private final WebhookDeliveryStore webhookDeliveryStore;
+    private final OutboundHttpClients outboundHttpClients;
+    private final boolean enabled;
+    private final boolean batchEnabled;
+    private final int batchSize;
+    private final int fetchSize;
+    private final int maxConcurrency;
+    private final double rateLimit;
+    private final int maxAttempts;
+    private final long backoff;
+    private final ExecutorService executor;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WebhookDispatcher(WebhookDeliveryStore webhookDeliveryStore, OutboundHttpClients outboundHttpClients,
+                             @Value("${webhook.enabled:false}") boolean webhookEnabled,
+                             @Value("${webhook.dispatch.enabled:true}") boolean enabled,
+                             @Value("${webhook.dispatch.batch.enabled:false}") boolean batchEnabled,
+                             @Value("${webhook.dispatch.batch.size:50}") int batchSize,
+                             @Value("${webhook.dispatch.fetchSize:200}") int fetchSize,
+                             @Value("${webhook.dispatch.threads:8}") int threads,
+                             @Value("${webhook.dispatch.maxConcurrency:2}") int maxConcurrency,
+                             @Value("${webhook.dispatch.rateLimit:0}") double rateLimit,
+                             @Value("${webhook.dispatch.maxAttempts:10}") int maxAttempts,
+                             @Value("${webhook.dispatch.backoff:1000}") long backoff) {
+        this.webhookDeliveryStore = webhookDeliveryStore;
+        this.outboundHttpClients = outboundHttpClients;
+        this.enabled = webhookEnabled && enabled;
+        this.batchEnabled = batchEnabled;
+        this.batchSize = batchEnabled ? Math.max(1, batchSize) : 1;
+        this.fetchSize = Math.max(1, fetchSize);
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.rateLimit = rateLimit;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), BackgroundTasks.daemonThreads("webhook-dispatch"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Deliveries cut short are sent again once their lease runs out
+        executor.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the event for delivery, returning once it is stored
+     */
+    public void enqueue(WebhookEvent event) throws IOException {
+        webhookDeliveryStore.append(event);
+    }
+
+    @Scheduled(fixedDelayString = "${webhook.dispatch.interval:500}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        List<WebhookDeliveryStore.Delivery> deliveries;
+        try {
+            deliveries = webhookDeliveryStore.lease(fetchSize, getSaturatedEndpoints());
+        } catch (IOException e) {
+            logger.error("Reading the webhook queue failed", e);
+            return;
+        }
+        Map<String, List<WebhookDeliveryStore.Delivery>> endpointDeliveries = deliveries.stream()
+                .collect(Collectors.groupingBy(WebhookDeliveryStore.Delivery::getEndpoint, LinkedHashMap::new, Collectors.toList()));
+        List<String> notSent = new ArrayList<>();
+        endpointDeliveries.forEach((url, pending) -> {
+            Endpoint endpoint = endpoints.computeIfAbsent(url, Endpoint::new);
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                List<WebhookDeliveryStore.Delivery> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+                if (!endpoint.tryAcquire()) {
+                    batch.forEach(delivery -> notSent.add(delivery.getId()));
+                    continue;
+                }
+                try {
+                    executor.execute(() -> send(endpoint, batch));
+                } catch (RejectedExecutionException e) {
+                    endpoint.permits.release();
+                    batch.forEach(delivery -> notSent.add(delivery.getId()));
+                }
+            }
+        });
+        if (!notSent.isEmpty()) {
+            try {
+                webhookDeliveryStore.release(notSent);
+            } catch (IOException e) {
+                logger.error("Releasing {} webhook deliveries failed, they are retried once their lease runs out", notSent.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Endpoints without a free request slot, whose events aren't leased until one of their requests completes
+     */
+    private Set<String> getSaturatedEndpoints() {
+        return endpoints.values().stream()
+                .filter(endpoint -> endpoint.permits.availablePermits() == 0)
+                .map(endpoint -> endpoint.url)
+                .collect(Collectors.toSet());
+    }
+
+    private void send(Endpoint endpoint, List<WebhookDeliveryStore.Delivery> batch) {
+        List<String> ids = batch.stream().map(WebhookDeliveryStore.Delivery::getId).collect(Collectors.toList());
+        try {
+            try {
+                post(endpoint, batch);
+            } catch (Exception e) {
+                logger.warn("Delivering {} webhook events to {} failed: {}", batch.size(), endpoint.url, e.getMessage());
+                endpoint.failed.add(batch.size());
+                batch.stream().filter(delivery -> delivery.getAttempts() + 1 >= maxAttempts).forEach(delivery -> endpoint.deadLettered.increment());
+                webhookDeliveryStore.failed(ids, e.getMessage(), maxAttempts, backoff);
+                return;
+            }
+            endpoint.delivered(batch, System.currentTimeMillis());
+            webhookDeliveryStore.delivered(ids);
+        } catch (IOException e) {
+            logger.error("Recording the outcome of {} webhook deliveries failed, they are sent again once their lease runs out", ids.size(), e);
+        } finally {
+            endpoint.permits.release();
+        }
+    }
+
+    private void post(Endpoint endpoint, List<WebhookDeliveryStore.Delivery> batch) {
+        String body = batchEnabled ? batch.stream().map(WebhookDeliveryStore.Delivery::getEvent).collect(Collectors.joining(",", "[", "]"))
+                : batch.get(0).getEvent();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        endpoint.requests.increment();
+        outboundHttpClients.getWebhookRestTemplate(endpoint.url)
+                .postForEntity(endpoint.url, new HttpEntity<>(body, headers), String.class);
+    }
+
+    /**
+     * Queue backlog and lag, with the delivery counts of each endpoint
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        try {
+            Map<String, Long> backlog = webhookDeliveryStore.getBacklog();
+            long oldestPendingAt = backlog.remove("oldestPendingAt");
+            metrics.putAll(backlog);
+            metrics.put("lag", oldestPendingAt == 0 ? 0 : System.currentTimeMillis() - oldestPendingAt);
+        } catch (IOException e) {
+            logger.error("Reading the webhook queue backlog failed", e);
+        }
+        Map<String, Object> endpointMetrics = new TreeMap<>();
+        endpoints.forEach((url, endpoint) -> endpointMetrics.put(url, endpoint.snapshot()));
+        metrics.put("endpoints", endpointMetrics);
+        return metrics;
+    }
+
+    public List<WebhookDeliveryStore.Delivery> getDeadLetters(int limit) throws IOException {
+        return webhookDeliveryStore.getDeadLetters(limit);
+    }
+
+    public void replay(Collection<String> ids) throws IOException {
+        webhookDeliveryStore.replay(ids);
+    }
+
+    private class Endpoint {
+        private final String url;
+        private final Semaphore permits = new Semaphore(maxConcurrency);
+        private final RateLimiter rateLimiter = rateLimit > 0 ? RateLimiter.create(rateLimit) : null;
+        private final BackgroundTasks.Counters counters = new BackgroundTasks.Counters();
+        private final LongAdder requests = counters.add("requests");
+        private final LongAdder delivered = counters.add("delivered");
+        private final LongAdder failed = counters.add("failed");
+        private final LongAdder deadLettered = counters.add("deadLettered");
+        // Time from queueing to delivery
+        private final LongAdder totalLag = new LongAdder();
+        private final AtomicLong maxLag = new AtomicLong();
+        private final AtomicLong lastLag = new AtomicLong();
+
+        private Endpoint(String url) {
+            this.url = url;
+        }
+
+        private boolean tryAcquire() {
+            if (!permits.tryAcquire()) {
+                return false;
+            }
+            if (rateLimiter != null && !rateLimiter.tryAcquire()) {
+                permits.release();
+                return false;
+            }
+            return true;
+        }
+
+        private void delivered(List<WebhookDeliveryStore.Delivery> batch, long now) {
+            for (WebhookDeliveryStore.Delivery delivery : batch) {
+                long lag = now - delivery.getCreatedAt();
+                totalLag.add(lag);
+                maxLag.accumulateAndGet(lag, Math::max);
+                lastLag.set(lag);
+            }
+            delivered.add(batch.size());
+        }
+
+        private Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = counters.snapshot();
+            long deliveredCount = delivered.sum();
+            snapshot.put("inFlight", maxConcurrency - permits.availablePermits());
+            snapshot.put("averageLag", deliveredCount == 0 ? 0 : totalLag.sum() / deliveredCount);
+            snapshot.put("maxLag", maxLag.get());
+            snapshot.put("lastLag", lastLag.get());
+            return snapshot;
+        }
+    }
+}
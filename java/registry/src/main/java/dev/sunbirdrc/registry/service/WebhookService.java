@@ -13,6 +13,10 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 @Service
 public class WebhookService {
@@ -23,9 +27,27 @@ public class WebhookService {
     private RetryRestTemplate retryRestTemplate;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private WebhookDispatcher webhookDispatcher;
 
+    /**
+     * Queues the event for the {@link WebhookDispatcher}, or posts it right away when the dispatcher is disabled
+     */
     public void postEvent(WebhookEvent event) {
         if (webhookEnabled) {
+            if (webhookDispatcher.isEnabled()) {
+                if (StringUtils.isEmpty(event.getWebhookUrl())) {
+                    logger.error("Webhook event {} has no url, dropping it", event.getEvent());
+                    return;
+                }
+                try {
+                    webhookDispatcher.enqueue(event);
+                } catch (IOException e) {
+                    // Like a failed post, so that the outbox keeps the event
+                    throw new UncheckedIOException("Failed queueing webhook event: " + e.getMessage(), e);
+                }
+                return;
+            }
             logger.debug("Post event {}", event);
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
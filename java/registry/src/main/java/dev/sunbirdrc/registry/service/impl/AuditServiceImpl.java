@@ -13,7 +13,7 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
 import org.sunbird.akka.core.ActorCache;
-import org.sunbird.akka.core.MessageProtos;
+import org.sunbird.akka.core.TypedMessage;
 import org.sunbird.akka.core.Router;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -114,7 +114,7 @@ public class AuditServiceImpl implements IAuditService {
     public void sendAuditToESActor(JsonNode inputNode, String entityType, String entityId) throws JsonProcessingException{
     	boolean elasticSearchEnabled = ("dev.sunbirdrc.registry.service.ElasticSearchService".equals(searchProvider));
 		
-        MessageProtos.Message message = MessageFactory.instance().createOSActorMessage(elasticSearchEnabled, "ADD",
+        TypedMessage message = MessageFactory.instance().createOSActorMessage(elasticSearchEnabled, "ADD",
                 entityType.toLowerCase(), entityId, inputNode.get(entityType), null);
         ActorCache.instance().get(Router.ROUTER_NAME).tell(message, null);
     }
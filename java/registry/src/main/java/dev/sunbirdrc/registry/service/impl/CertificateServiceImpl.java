@@ -1,12 +1,19 @@
 package dev.sunbirdrc.registry.service.impl;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import dev.sunbirdrc.pojos.ComponentHealthInfo;
 import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.service.FileStorageService;
 import dev.sunbirdrc.registry.service.ICertificateService;
+import dev.sunbirdrc.registry.util.OutboundHttpClients;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -16,10 +23,15 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayInputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static dev.sunbirdrc.registry.middleware.util.Constants.CONNECTION_FAILURE;
 import static dev.sunbirdrc.registry.middleware.util.Constants.SUNBIRD_CERTIFICATE_SERVICE_NAME;
@@ -33,19 +45,143 @@ public class CertificateServiceImpl implements ICertificateService {
 
     private boolean signatureEnabled;
     private static Logger logger = LoggerFactory.getLogger(CertificateServiceImpl.class);
+    private static final String CERTIFICATE_OBJECT_PREFIX = "certificates/";
+
+    @Value("${certificate.cache.maxSizeInBytes:104857600}")
+    private long cacheMaxSizeInBytes;
+
+    @Value("${certificate.cache.ttl:86400000}")
+    private long cacheTtl;
+
+    @Value("${certificate.cache.objectStoreEnabled:false}")
+    private boolean objectStoreEnabled;
+
+    @Value("${certificate.cache.templateTtl:60000}")
+    private long templateTtl;
+
+    @Autowired(required = false)
+    private FileStorageService fileStorageService;
+
+    private Cache<String, byte[]> renderedCertificates;
+    private Cache<String, String> templateHashes;
 
     public CertificateServiceImpl(@Value("${certificate.templateBaseUrl}") String templateBaseUrl,
                                   @Value("${certificate.apiUrl}") String certificateUrl,
                                   @Value("${signature.enabled}") boolean signatureEnabled,
                                   @Value("${certificate.healthCheckURL}") String certificateHealthCheckURL,
-                                  RestTemplate restTemplate) {
+                                  OutboundHttpClients outboundHttpClients) {
         this.templateBaseUrl = templateBaseUrl;
         this.certificateUrl = certificateUrl;
-        this.restTemplate = restTemplate;
+        this.restTemplate = outboundHttpClients.getRestTemplate(OutboundHttpClients.CERTIFICATE);
         this.certificateHealthCheckURL = certificateHealthCheckURL;
         this.signatureEnabled = signatureEnabled;
     }
 
+    @PostConstruct
+    public void init() {
+        renderedCertificates = CacheBuilder.newBuilder()
+                .maximumWeight(cacheMaxSizeInBytes)
+                .<String, byte[]>weigher((version, certificate) -> certificate.length)
+                .expireAfterWrite(cacheTtl, TimeUnit.MILLISECONDS)
+                .build();
+        templateHashes = CacheBuilder.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(templateTtl, TimeUnit.MILLISECONDS)
+                .build();
+        if (objectStoreEnabled && fileStorageService != null) {
+            try {
+                // The bucket only expires whole days, reads check the age of the stored certificate too
+                fileStorageService.expireObjects(CERTIFICATE_OBJECT_PREFIX,
+                        (int) Math.max(1, (cacheTtl + TimeUnit.DAYS.toMillis(1) - 1) / TimeUnit.DAYS.toMillis(1)));
+            } catch (Exception e) {
+                logger.warn("Can't set the expiry of the stored certificates: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public Object getCertificate(JsonNode certificateData, String entityName, String entityId, String mediaType, String templateUrl, JsonNode entity, String version) {
+        if (version == null) {
+            return getCertificate(certificateData, entityName, entityId, mediaType, templateUrl, entity);
+        }
+        try {
+            // Concurrent requests for a version not cached yet wait for a single render
+            return renderedCertificates.get(version, () -> {
+                byte[] certificate = readStoredCertificate(version);
+                if (certificate == null) {
+                    certificate = (byte[]) getCertificate(certificateData, entityName, entityId, mediaType, templateUrl, entity);
+                    if (certificate == null) {
+                        throw new IllegalStateException("Certificate of " + entityId + " not rendered");
+                    }
+                    storeCertificate(version, certificate);
+                }
+                return certificate;
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            logger.error("Get certificate failed", e.getCause());
+        }
+        return null;
+    }
+
+    @Override
+    public String getCertificateVersion(String recordId, String updatedAt, String entityName, String templateId,
+                                        String templateUrl, String mediaType) {
+        if (updatedAt == null) {
+            return null;
+        }
+        String templateHash = getTemplateHash(entityName, templateId, templateUrl, mediaType);
+        if (templateHash == null) {
+            return null;
+        }
+        String key = String.join("|", recordId, updatedAt, String.valueOf(templateId), templateHash, String.valueOf(mediaType));
+        return Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Hash of the content of the template the certificate is rendered with, so that a template edited in place
+     * renders the certificates again. It is kept for certificate.cache.templateTtl, by template id rather than
+     * url as the url of a stored template is signed anew for each request.
+     *
+     * @return null if the template can't be read
+     */
+    private String getTemplateHash(String entityName, String templateId, String templateUrl, String mediaType) {
+        String finalTemplateUrl = inferTemplateUrl(entityName, mediaType, templateUrl);
+        String key = String.join("|", entityName, String.valueOf(templateId), String.valueOf(mediaType));
+        try {
+            return templateHashes.get(key, () -> {
+                byte[] template = restTemplate.getForObject(URI.create(finalTemplateUrl), byte[].class);
+                return Hashing.sha256().hashBytes(template != null ? template : new byte[0]).toString();
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            logger.error("Can't read the template {}, the certificate is not cached", finalTemplateUrl, e.getCause());
+            return null;
+        }
+    }
+
+    private byte[] readStoredCertificate(String version) {
+        if (!objectStoreEnabled || fileStorageService == null) {
+            return null;
+        }
+        try {
+            return fileStorageService.read(CERTIFICATE_OBJECT_PREFIX + version, cacheTtl);
+        } catch (Exception e) {
+            logger.debug("Certificate {} not in the object store: {}", version, e.getMessage());
+            return null;
+        }
+    }
+
+    private void storeCertificate(String version, byte[] certificate) {
+        if (!objectStoreEnabled || fileStorageService == null) {
+            return;
+        }
+        try {
+            fileStorageService.save(new ByteArrayInputStream(certificate), certificate.length, null,
+                    CERTIFICATE_OBJECT_PREFIX + version);
+        } catch (Exception e) {
+            logger.error("Can't store the certificate {}", version, e);
+        }
+    }
+
     @Override
     public Object getCertificate(JsonNode certificateData, String entityName, String entityId, String mediaType, String templateUrl, JsonNode entity) {
         try {
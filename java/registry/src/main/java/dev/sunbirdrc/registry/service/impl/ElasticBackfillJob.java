@@ -0,0 +1,609 @@
+package dev.sunbirdrc.registry.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.sunbirdrc.elastic.ESDocument;
+import dev.sunbirdrc.elastic.ESMessage;
+import dev.sunbirdrc.elastic.IElasticService;
+import dev.sunbirdrc.registry.dao.IRegistryDao;
+import dev.sunbirdrc.registry.dao.RegistryDaoImpl;
+import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.middleware.util.JSONUtil;
+import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.sink.DBProviderFactory;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.sink.VertexLeases;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import dev.sunbirdrc.registry.util.IDefinitionsManager;
+import dev.sunbirdrc.registry.util.ReadConfiguratorFactory;
+import dev.sunbirdrc.registry.util.RecordIdentifier;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Rebuilds the elastic search indices from the graph. Every entity type of every shard is read
+ * in chunks ordered by osid and bulk indexed, several of them in parallel. The last osid of each
+ * chunk is checkpointed on the default shard, so that a job stopped by a restart resumes where it
+ * left off.
+ * In reconcile mode only the records missing from elastic search, or indexed with another
+ * osUpdatedAt or status, are indexed again, and documents left without a record are marked deleted.
+ * An index whose writes were refused during its migration is reconciled once migrated.
+ * Documents are written on condition of the sequence number they were read with, so a record written by the registry
+ * meanwhile is never overwritten with an older copy. Each instance leases the checkpoints it works on,
+ * and a restart only resumes the checkpoints whose lease ran out.
+ */
+@Component
+public class ElasticBackfillJob {
+    private static final Logger logger = LoggerFactory.getLogger(ElasticBackfillJob.class);
+
+    public enum Mode {
+        backfill, reconcile
+    }
+
+    public static final String CHECKPOINT_LABEL = "ElasticBackfillCheckpoint";
+    static final String TASK_KEY = "taskKey";
+    static final String MODE = "mode";
+    static final String ENTITY_TYPE = "entityType";
+    static final String SHARD_ID = "shardId";
+    static final String LAST_ID = "lastId";
+    static final String DONE = "done";
+    static final String LEASED_UNTIL = "leasedUntil";
+
+    @Value("${elastic.backfill.parallelism:4}")
+    private int parallelism;
+
+    @Value("${elastic.backfill.chunkSize:500}")
+    private int chunkSize;
+
+    @Value("${elastic.backfill.lease:120000}")
+    private long leaseTime;
+
+    @Value("${elastic.search.add_shard_prefix:true}")
+    private boolean addShardPrefixForESRecord;
+
+    @Value("${database.uuidPropertyName}")
+    private String uuidPropertyName;
+
+    @Value("${search.providerName}")
+    private String searchProvider;
+
+    @Autowired
+    private IElasticService elasticService;
+
+    @Autowired
+    private IDefinitionsManager definitionsManager;
+
+    @Autowired
+    private DBConnectionInfoMgr dbConnectionInfoMgr;
+
+    @Autowired
+    private DBProviderFactory dbProviderFactory;
+
+    @Autowired
+    private ShardManager shardManager;
+
+    private volatile Mode runningMode;
+    private volatile Future<?> job;
+    private final Map<String, TaskProgress> progress = new ConcurrentHashMap<>();
+    private final VertexLeases leases = new VertexLeases(CHECKPOINT_LABEL, TASK_KEY, LEASED_UNTIL,
+            Collections.singletonList(MODE));
+
+    @PostConstruct
+    public void init() {
+        if (isElasticSearchEnabled()) {
+            elasticService.setCatchUpListener(this::catchUp);
+        }
+    }
+
+    /**
+     * Reconciles the entity type of the index with the graph
+     */
+    private void catchUp(String index) {
+        try {
+            for (String entityType : definitionsManager.getAllKnownDefinitions()) {
+                if (entityType.equalsIgnoreCase(index)) {
+                    if (!start(Mode.reconcile, Collections.singleton(entityType), true)) {
+                        logger.warn("Elastic search job running, reconcile {} once it is done", entityType);
+                    }
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Can't reconcile the migrated index {}", index, e);
+        }
+    }
+
+    /**
+     * Resumes the job a restart stopped, on the checkpoints no other instance holds
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void resume() {
+        if (!isElasticSearchEnabled() || isRunning()) {
+            return;
+        }
+        try {
+            for (Mode mode : Mode.values()) {
+                List<Checkpoint> checkpoints = readCheckpoints(mode);
+                if (checkpoints.stream().anyMatch(checkpoint -> !checkpoint.done)) {
+                    checkpoints = claimCheckpoints(mode);
+                    if (checkpoints.stream().allMatch(checkpoint -> checkpoint.done)) {
+                        logger.info("Elastic search {} is resumed by another instance", mode);
+                    } else {
+                        logger.info("Resuming elastic search {}", mode);
+                        run(mode, checkpoints);
+                    }
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Can't resume the elastic search backfill", e);
+        }
+    }
+
+    /**
+     * Starts the job in the background. An unfinished run of the same mode is resumed unless a restart
+     * is asked for.
+     * @param mode
+     * @param entityTypes - the entity types to index, all when empty
+     * @param restart - ignore the checkpoints of an unfinished run
+     * @return false if a job is already running, on this or another instance
+     */
+    public synchronized boolean start(Mode mode, Collection<String> entityTypes, boolean restart) throws IOException {
+        if (!isElasticSearchEnabled()) {
+            throw new IllegalStateException("Elastic search is not enabled");
+        }
+        if (isRunning()) {
+            return false;
+        }
+        List<Checkpoint> checkpoints = readCheckpoints(mode);
+        if (checkpoints.stream().anyMatch(Checkpoint::isLeasedByAnother)) {
+            return false;
+        }
+        if (restart || checkpoints.stream().allMatch(checkpoint -> checkpoint.done)) {
+            deleteCheckpoints(mode);
+            checkpoints = new ArrayList<>();
+            Collection<String> types = entityTypes == null || entityTypes.isEmpty() ?
+                    definitionsManager.getAllKnownDefinitions() : entityTypes;
+            for (String entityType : types) {
+                if (!definitionsManager.isValidEntityName(entityType)) {
+                    throw new IllegalArgumentException("Unknown entity type " + entityType);
+                }
+                for (DBConnectionInfo connectionInfo : dbConnectionInfoMgr.getConnectionInfo()) {
+                    checkpoints.add(new Checkpoint(mode, entityType, connectionInfo.getShardId(), "", false));
+                }
+            }
+            saveCheckpoints(checkpoints);
+        } else {
+            checkpoints = claimCheckpoints(mode);
+            if (checkpoints.stream().allMatch(checkpoint -> checkpoint.done)) {
+                return false;
+            }
+            logger.info("Resuming the unfinished elastic search {}", mode);
+        }
+        run(mode, checkpoints);
+        return true;
+    }
+
+    public boolean isRunning() {
+        return job != null && !job.isDone();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", isRunning());
+        status.put(MODE, runningMode);
+        status.put("failedTasks", countFailedTasks());
+        status.put("failedDocuments", countFailedDocuments());
+        Map<String, Object> tasks = new TreeMap<>();
+        progress.forEach((key, taskProgress) -> tasks.put(key, taskProgress.toMap()));
+        status.put("tasks", tasks);
+        return status;
+    }
+
+    private long countFailedTasks() {
+        return progress.values().stream().filter(taskProgress -> taskProgress.error != null).count();
+    }
+
+    private long countFailedDocuments() {
+        return progress.values().stream().mapToLong(taskProgress -> taskProgress.failed.get()).sum();
+    }
+
+    private synchronized void run(Mode mode, List<Checkpoint> checkpoints) {
+        runningMode = mode;
+        progress.clear();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        ExecutorService coordinator = Executors.newSingleThreadExecutor();
+        job = coordinator.submit(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (Checkpoint checkpoint : checkpoints) {
+                    TaskProgress taskProgress = new TaskProgress(checkpoint.done);
+                    progress.put(checkpoint.getTaskKey(), taskProgress);
+                    if (!checkpoint.done) {
+                        tasks.add(workers.submit(() -> runTask(checkpoint, taskProgress)));
+                    }
+                }
+                for (Future<?> task : tasks) {
+                    task.get();
+                }
+                if (mode == Mode.reconcile) {
+                    checkpoints.stream().map(checkpoint -> checkpoint.entityType).distinct()
+                            .forEach(this::removeOrphanDocuments);
+                }
+                long failedTasks = countFailedTasks();
+                long failedDocuments = countFailedDocuments();
+                if (failedTasks > 0 || failedDocuments > 0) {
+                    // failed tasks resume on the next start, documents which were not written need a reconcile
+                    logger.error("Elastic search {} completed in {} ms with {} failed tasks and {} documents not written",
+                            mode, System.currentTimeMillis() - start, failedTasks, failedDocuments);
+                } else {
+                    logger.info("Elastic search {} finished in {} ms", mode, System.currentTimeMillis() - start);
+                }
+            } catch (Exception e) {
+                logger.error("Elastic search {} failed, it resumes on the next start", mode, e);
+            } finally {
+                workers.shutdownNow();
+                coordinator.shutdown();
+            }
+        });
+    }
+
+    private void runTask(Checkpoint checkpoint, TaskProgress taskProgress) {
+        Shard shard = shardManager.activateShard(checkpoint.shardId);
+        try {
+            String lastId = checkpoint.lastId;
+            while (lastId != null) {
+                lastId = indexChunk(shard, checkpoint.mode, checkpoint.entityType, lastId, taskProgress);
+                if (lastId != null) {
+                    checkpoint.lastId = lastId;
+                    saveCheckpoints(Collections.singletonList(checkpoint));
+                }
+            }
+            checkpoint.done = true;
+            saveCheckpoints(Collections.singletonList(checkpoint));
+            taskProgress.done = true;
+        } catch (Exception e) {
+            taskProgress.error = e.getMessage();
+            logger.error("Elastic search {} of {} on shard {} failed", checkpoint.mode, checkpoint.entityType,
+                    checkpoint.shardId, e);
+        }
+    }
+
+    /**
+     * Indexes the records following lastId
+     * @return the last id of the chunk, null when there are no more records
+     */
+    private String indexChunk(Shard shard, Mode mode, String entityType, String lastId, TaskProgress taskProgress) throws Exception {
+        String index = entityType.toLowerCase();
+        List<ESMessage> messages = new ArrayList<>();
+        DatabaseProvider databaseProvider = shard.getDatabaseProvider();
+        IRegistryDao registryDao = new RegistryDaoImpl(databaseProvider, definitionsManager, uuidPropertyName);
+        List<String> ids;
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                GraphTraversal<Vertex, Vertex> traversal = graph.traversal().V().hasLabel(entityType);
+                if (!lastId.isEmpty()) {
+                    traversal = traversal.has(uuidPropertyName, P.gt(lastId));
+                }
+                ids = traversal.order().by(uuidPropertyName, Order.incr).limit(chunkSize)
+                        .<String>values(uuidPropertyName).toList();
+                databaseProvider.commitTransaction(graph, tx);
+            }
+        }
+        if (ids.isEmpty()) {
+            return null;
+        }
+
+        // The documents are read before the records: a record written after it was read changes the sequence
+        // number of its document, and the stale copy written here is then refused
+        Map<String, ESDocument> documents = mode == Mode.reconcile ?
+                elasticService.multiGet(index, ids, OSSystemFields.osUpdatedAt.name(), Constants.STATUS_KEYWORD) :
+                elasticService.multiGet(index, ids);
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                List<Vertex> vertices = graph.traversal().V().hasLabel(entityType)
+                        .has(uuidPropertyName, P.within(ids)).toList();
+                for (Vertex vertex : vertices) {
+                    String id = vertex.value(uuidPropertyName);
+                    boolean deleted = Constants.STATUS_INACTIVE.equals(vertex.property(Constants.STATUS_KEYWORD).orElse(null));
+                    ESDocument document = documents.get(id);
+                    if (deleted) {
+                        if (document != null && !isDeleted(document.getSource())) {
+                            messages.add(esMessage(index, id, "DELETE", null, document));
+                        }
+                    } else if (mode == Mode.backfill || isStale(vertex, document)) {
+                        JsonNode entity = registryDao.getEntity(graph, vertex, ReadConfiguratorFactory.getWithSignatures(), true);
+                        messages.add(esMessage(index, id, "ADD", toDocument(shard, entityType, entity), document));
+                    }
+                }
+                taskProgress.scanned.addAndGet(ids.size());
+                databaseProvider.commitTransaction(graph, tx);
+            }
+        }
+        List<String> failedIds = elasticService.bulk(index, messages);
+        taskProgress.indexed.addAndGet(messages.size() - failedIds.size());
+        taskProgress.failed.addAndGet(failedIds.size());
+        return ids.get(ids.size() - 1);
+    }
+
+    private boolean isStale(Vertex vertex, ESDocument document) {
+        if (document == null || isDeleted(document.getSource())) {
+            return true;
+        }
+        String updatedAt = vertex.<String>property(OSSystemFields.osUpdatedAt.name()).orElse("");
+        return !updatedAt.equals(document.getSource().path(OSSystemFields.osUpdatedAt.name()).asText(""));
+    }
+
+    private static boolean isDeleted(JsonNode document) {
+        return Constants.STATUS_INACTIVE.equals(document.path(Constants.STATUS_KEYWORD).asText());
+    }
+
+    /**
+     * The document as written by the registry service: public fields only, with the shard prefix on the osid
+     */
+    private JsonNode toDocument(Shard shard, String entityType, JsonNode entity) throws IOException {
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        node.set(entityType, entity);
+        if (addShardPrefixForESRecord && !shard.getShardLabel().isEmpty()) {
+            String prefix = shard.getShardLabel() + RecordIdentifier.getSeparator();
+            JSONUtil.addPrefix(node, prefix, new ArrayList<>(Collections.singletonList(uuidPropertyName)));
+        }
+        return JSONUtil.removeNodesByPath(node.get(entityType), definitionsManager.getExcludingFieldsForEntity(entityType));
+    }
+
+    /**
+     * Marks deleted the active documents whose record is in none of the shards
+     */
+    private void removeOrphanDocuments(String entityType) {
+        String index = entityType.toLowerCase();
+        TaskProgress taskProgress = new TaskProgress(false);
+        progress.put(Mode.reconcile + ":" + entityType + ":orphans", taskProgress);
+        try {
+            elasticService.scrollIds(index, chunkSize, ids -> {
+                Set<String> orphans = new HashSet<>(ids.keySet());
+                for (DBConnectionInfo connectionInfo : dbConnectionInfoMgr.getConnectionInfo()) {
+                    orphans.removeAll(findActive(shardManager.activateShard(connectionInfo.getShardId()), entityType, orphans));
+                }
+                // A document indexed again since it was scrolled belongs to a record added meanwhile
+                List<ESMessage> messages = new ArrayList<>();
+                orphans.forEach(id -> messages.add(esMessage(index, id, "DELETE", null, ids.get(id))));
+                try {
+                    List<String> failedIds = elasticService.bulk(index, messages);
+                    taskProgress.indexed.addAndGet(messages.size() - failedIds.size());
+                    taskProgress.failed.addAndGet(failedIds.size());
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                taskProgress.scanned.addAndGet(ids.size());
+            });
+            taskProgress.done = true;
+        } catch (Exception e) {
+            taskProgress.error = e.getMessage();
+            logger.error("Removing orphan documents of {} failed", entityType, e);
+        }
+    }
+
+    private List<String> findActive(Shard shard, String entityType, Collection<String> ids) {
+        DatabaseProvider databaseProvider = shard.getDatabaseProvider();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                List<String> active = graph.traversal().V().hasLabel(entityType)
+                        .has(uuidPropertyName, P.within(new ArrayList<>(ids)))
+                        .not(__.has(Constants.STATUS_KEYWORD, Constants.STATUS_INACTIVE))
+                        .<String>values(uuidPropertyName).toList();
+                databaseProvider.commitTransaction(graph, tx);
+                return active;
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Can't read " + entityType + " from shard " + shard.getShardId(), e);
+        }
+    }
+
+    /**
+     * @param document - the document as read, the write only applies while it is unchanged, or while there is
+     *                 none when null
+     */
+    private static ESMessage esMessage(String index, String id, String operation, JsonNode input, ESDocument document) {
+        ESMessage message = new ESMessage();
+        message.setIndexName(index);
+        message.setOsid(id);
+        message.setOperation(operation);
+        message.setInput(input);
+        message.expect(document);
+        return message;
+    }
+
+    private boolean isElasticSearchEnabled() {
+        return searchProvider.equals("dev.sunbirdrc.registry.service.ElasticSearchService");
+    }
+
+    private List<Checkpoint> readCheckpoints(Mode mode) throws IOException {
+        DatabaseProvider databaseProvider = getHomeProvider();
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                graph.traversal().V().hasLabel(CHECKPOINT_LABEL).has(MODE, mode.name()).forEachRemaining(vertex -> {
+                    Checkpoint checkpoint = new Checkpoint(mode, vertex.value(ENTITY_TYPE), vertex.value(SHARD_ID),
+                            vertex.value(LAST_ID), vertex.value(DONE));
+                    checkpoint.leasedUntil = ((Number) vertex.property(LEASED_UNTIL).orElse(0L)).longValue();
+                    checkpoint.owner = (String) vertex.property(VertexLeases.OWNER).orElse("");
+                    checkpoints.add(checkpoint);
+                });
+                databaseProvider.commitTransaction(graph, tx);
+            }
+        } catch (Exception e) {
+            throw new IOException("Can't read the elastic search checkpoints", e);
+        }
+        return checkpoints;
+    }
+
+    /**
+     * Leases the unfinished checkpoints of the mode whose lease ran out
+     * @return the finished checkpoints of the mode and the ones claimed
+     */
+    private List<Checkpoint> claimCheckpoints(Mode mode) throws IOException {
+        DatabaseProvider databaseProvider = getHomeProvider();
+        List<String> taskKeys = new ArrayList<>();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                List<Vertex> candidates = graph.traversal().V().hasLabel(CHECKPOINT_LABEL).has(MODE, mode.name())
+                        .has(DONE, false).toList();
+                // checkpoints written before they were leased
+                candidates.stream().filter(vertex -> !vertex.property(LEASED_UNTIL).isPresent())
+                        .forEach(vertex -> vertex.property(LEASED_UNTIL, 0L));
+                long now = System.currentTimeMillis();
+                leases.claim(graph, candidates, now, now + leaseTime)
+                        .forEach(vertex -> taskKeys.add(vertex.value(TASK_KEY)));
+                databaseProvider.commitTransaction(graph, tx);
+            }
+        } catch (Exception e) {
+            throw new IOException("Can't lease the elastic search checkpoints", e);
+        }
+        leases.ensureIndex(databaseProvider);
+        Set<String> claimed;
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                claimed = leases.confirm(graph, taskKeys);
+                databaseProvider.commitTransaction(graph, tx);
+            }
+        } catch (Exception e) {
+            throw new IOException("Can't lease the elastic search checkpoints", e);
+        }
+        return readCheckpoints(mode).stream()
+                .filter(checkpoint -> checkpoint.done || claimed.contains(checkpoint.getTaskKey()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes the checkpoints and renews their lease, fails when another instance took over one of them
+     */
+    private synchronized void saveCheckpoints(List<Checkpoint> checkpoints) throws IOException {
+        DatabaseProvider databaseProvider = getHomeProvider();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                long now = System.currentTimeMillis();
+                for (Checkpoint checkpoint : checkpoints) {
+                    Iterator<Vertex> existing = graph.traversal().V().hasLabel(CHECKPOINT_LABEL)
+                            .has(TASK_KEY, checkpoint.getTaskKey());
+                    Vertex vertex = existing.hasNext() ? existing.next() : graph.addVertex(T.label, CHECKPOINT_LABEL);
+                    String owner = (String) vertex.property(VertexLeases.OWNER).orElse(VertexLeases.getInstanceId());
+                    long leasedUntil = ((Number) vertex.property(LEASED_UNTIL).orElse(0L)).longValue();
+                    if (!owner.equals(VertexLeases.getInstanceId()) && leasedUntil > now) {
+                        throw new IllegalStateException("Checkpoint " + checkpoint.getTaskKey() + " is leased by another instance");
+                    }
+                    vertex.property(TASK_KEY, checkpoint.getTaskKey());
+                    vertex.property(MODE, checkpoint.mode.name());
+                    vertex.property(ENTITY_TYPE, checkpoint.entityType);
+                    vertex.property(SHARD_ID, checkpoint.shardId);
+                    vertex.property(LAST_ID, checkpoint.lastId);
+                    vertex.property(DONE, checkpoint.done);
+                    vertex.property(LEASED_UNTIL, now + leaseTime);
+                    vertex.property(VertexLeases.OWNER, VertexLeases.getInstanceId());
+                }
+                databaseProvider.commitTransaction(graph, tx);
+            }
+        } catch (Exception e) {
+            throw new IOException("Can't write the elastic search checkpoints", e);
+        }
+    }
+
+    private void deleteCheckpoints(Mode mode) throws IOException {
+        DatabaseProvider databaseProvider = getHomeProvider();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                graph.traversal().V().hasLabel(CHECKPOINT_LABEL).has(MODE, mode.name()).drop().iterate();
+                databaseProvider.commitTransaction(graph, tx);
+            }
+        } catch (Exception e) {
+            throw new IOException("Can't delete the elastic search checkpoints", e);
+        }
+    }
+
+    private DatabaseProvider getHomeProvider() {
+        return dbProviderFactory.getInstance(dbConnectionInfoMgr.getConnectionInfo().get(0));
+    }
+
+    private static class Checkpoint {
+        private final Mode mode;
+        private final String entityType;
+        private final String shardId;
+        private volatile String lastId;
+        private volatile boolean done;
+        private long leasedUntil;
+        private String owner = "";
+
+        private Checkpoint(Mode mode, String entityType, String shardId, String lastId, boolean done) {
+            this.mode = mode;
+            this.entityType = entityType;
+            this.shardId = shardId;
+            this.lastId = lastId;
+            this.done = done;
+        }
+
+        private String getTaskKey() {
+            return mode + ":" + entityType + ":" + shardId;
+        }
+
+        private boolean isLeasedByAnother() {
+            return !done && leasedUntil > System.currentTimeMillis() && !owner.equals(VertexLeases.getInstanceId());
+        }
+    }
+
+    private static class TaskProgress {
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong indexed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile boolean done;
+        private volatile String error;
+
+        private TaskProgress(boolean done) {
+            this.done = done;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("scanned", scanned.get());
+            map.put("indexed", indexed.get());
+            map.put("failed", failed.get());
+            map.put(DONE, done);
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+}
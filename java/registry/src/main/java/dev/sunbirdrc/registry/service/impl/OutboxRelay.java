@@ -0,0 +1,178 @@
+package dev.sunbirdrc.registry.service.impl;
+
+import dev.sunbirdrc.elastic.ESMessage;
+import dev.sunbirdrc.elastic.IElasticService;
+import dev.sunbirdrc.pojos.AuditRecord;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.model.EventType;
+import dev.sunbirdrc.registry.model.OutboxEntryType;
+import dev.sunbirdrc.registry.model.dto.OutboxEntry;
+import dev.sunbirdrc.registry.service.IAuditService;
+import dev.sunbirdrc.registry.service.OutboxService;
+import dev.sunbirdrc.registry.service.RegistryService;
+import dev.sunbirdrc.registry.service.WebhookService;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Drains the outbox of every shard in batches and delivers the recorded side effects.
+ * Delivered entries are removed from the outbox, which acts as the checkpoint;
+ * failed entries are retried with backoff. Delivery is at-least-once.
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Value("${outbox.relay.batchSize:100}")
+    private int batchSize;
+
+    @Value("${outbox.relay.maxAttempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.backoff:1000}")
+    private long backoffMillis;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private DBConnectionInfoMgr dbConnectionInfoMgr;
+
+    @Autowired
+    private ShardManager shardManager;
+
+    @Autowired
+    private IElasticService elasticService;
+
+    @Autowired
+    private IAuditService auditService;
+
+    @Autowired
+    private RegistryService registryService;
+
+    @Autowired
+    private WebhookService webhookService;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:1000}")
+    public void drain() {
+        if (!outboxService.isRelayEnabled()) {
+            return;
+        }
+        for (DBConnectionInfo connectionInfo : dbConnectionInfoMgr.getConnectionInfo()) {
+            Shard shard = shardManager.activateShard(connectionInfo.getShardId());
+            try {
+                int delivered;
+                do {
+                    delivered = drainBatch(shard);
+                } while (delivered == batchSize);
+            } catch (Exception e) {
+                logger.error("Draining outbox of shard {} failed", connectionInfo.getShardId(), e);
+            }
+        }
+    }
+
+    /**
+     * Delivers one batch of the shard's outbox and returns the number of entries which were picked up.
+     * Delivery runs outside the outbox transaction because the audit writer commits on the same graph.
+     */
+    private int drainBatch(Shard shard) throws Exception {
+        Map<String, OutboxEntry> pending = outboxService.getPending(shard, batchSize);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Set<String> delivered = new HashSet<>();
+        Map<String, List<String>> esIds = new HashMap<>();
+        Map<String, List<ESMessage>> esMessages = new HashMap<>();
+        for (Map.Entry<String, OutboxEntry> pendingEntry : pending.entrySet()) {
+            OutboxEntry entry = pendingEntry.getValue();
+            if (entry.getType() == OutboxEntryType.ELASTIC_SEARCH) {
+                String index = entry.getEntityType().toLowerCase();
+                esIds.computeIfAbsent(index, k -> new ArrayList<>()).add(pendingEntry.getKey());
+                esMessages.computeIfAbsent(index, k -> new ArrayList<>()).add(toESMessage(entry));
+                continue;
+            }
+            try {
+                deliver(shard, entry);
+                delivered.add(pendingEntry.getKey());
+            } catch (Exception e) {
+                logger.error("Delivering {} outbox entry of {} failed", entry.getType(), entry.getEntityId(), e);
+            }
+        }
+        for (Map.Entry<String, List<ESMessage>> indexMessages : esMessages.entrySet()) {
+            delivered.addAll(deliverToElasticSearch(indexMessages.getKey(), indexMessages.getValue(), esIds.get(indexMessages.getKey())));
+        }
+        outboxService.checkpoint(shard, pending.keySet(), delivered, maxAttempts, backoffMillis);
+        return pending.size();
+    }
+
+    /**
+     * Returns the outbox ids of the messages which were indexed.
+     */
+    private List<String> deliverToElasticSearch(String index, List<ESMessage> messages, List<String> outboxIds) {
+        Set<String> failedIds;
+        try {
+            failedIds = new HashSet<>(elasticService.bulk(index, messages));
+        } catch (Exception e) {
+            logger.error("Bulk indexing to {} failed", index, e);
+            return Collections.emptyList();
+        }
+        List<String> delivered = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            if (!failedIds.contains(messages.get(i).getOsid())) {
+                delivered.add(outboxIds.get(i));
+            }
+        }
+        return delivered;
+    }
+
+    private ESMessage toESMessage(OutboxEntry entry) {
+        ESMessage esMessage = new ESMessage();
+        esMessage.setIndexName(entry.getEntityType().toLowerCase());
+        esMessage.setOsid(entry.getEntityId());
+        esMessage.setOperation(entry.getOperation());
+        esMessage.setInput(entry.getPayload() != null ? entry.getPayload().get(entry.getEntityType()) : null);
+        return esMessage;
+    }
+
+    private void deliver(Shard shard, OutboxEntry entry) throws Exception {
+        switch (entry.getType()) {
+            case AUDIT:
+                AuditRecord auditRecord = auditService.createAuditRecord(entry.getUserId(), entry.getEntityId(),
+                        new LinkedList<>(Collections.singletonList(entry.getTransactionId())), entry.getEntityType());
+                switch (entry.getOperation()) {
+                    case "ADD":
+                        auditService.auditAdd(auditRecord, shard, entry.getPayload());
+                        break;
+                    case "UPDATE":
+                        auditService.auditUpdate(auditRecord, shard, entry.getPayload(), entry.getPreviousPayload());
+                        break;
+                    case "PATCH":
+                        // The previous payload of a patch holds its operations
+                        auditService.auditPatch(auditRecord, shard, entry.getPayload(), entry.getPreviousPayload());
+                        break;
+                    case "DELETE":
+                        auditService.auditDelete(auditRecord, shard);
+                        break;
+                }
+                break;
+            case EVENT:
+                registryService.maskAndEmitEvent(entry.getPayload(), entry.getEntityType(),
+                        EventType.valueOf(entry.getOperation()), entry.getUserId(), entry.getEntityId());
+                break;
+            case WEBHOOK:
+                webhookService.postEvent(entry.getWebhookEvent());
+                break;
+            default:
+                logger.error("Unknown outbox entry type {}", entry.getType());
+        }
+    }
+}
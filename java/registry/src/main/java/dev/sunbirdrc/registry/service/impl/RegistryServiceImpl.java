@@ -11,7 +11,9 @@ import dev.sunbirdrc.elastic.IElasticService;
 import dev.sunbirdrc.pojos.ComponentHealthInfo;
 import dev.sunbirdrc.pojos.HealthCheckResponse;
 import dev.sunbirdrc.pojos.HealthIndicator;
+import dev.sunbirdrc.pojos.NotificationMessage;
 import dev.sunbirdrc.registry.dao.*;
+import dev.sunbirdrc.registry.exception.NotificationBatchException;
 import dev.sunbirdrc.registry.exception.RecordNotFoundException;
 import dev.sunbirdrc.registry.exception.SignatureException;
 import dev.sunbirdrc.registry.middleware.util.Constants;
@@ -19,10 +21,13 @@ import dev.sunbirdrc.registry.middleware.util.JSONUtil;
 import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
 import dev.sunbirdrc.registry.model.event.Event;
 import dev.sunbirdrc.registry.model.EventType;
+import dev.sunbirdrc.registry.model.OutboxEntryType;
+import dev.sunbirdrc.registry.model.dto.OutboxEntry;
 import dev.sunbirdrc.registry.service.*;
 import dev.sunbirdrc.registry.sink.DatabaseProvider;
 import dev.sunbirdrc.registry.sink.OSGraph;
 import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
 import dev.sunbirdrc.registry.util.*;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -35,14 +40,20 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.util.concurrent.ListenableFuture;
 import org.sunbird.akka.core.ActorCache;
-import org.sunbird.akka.core.MessageProtos;
+import org.sunbird.akka.core.ActorMetrics;
 import org.sunbird.akka.core.Router;
+import org.sunbird.akka.core.TypedMessage;
 
+import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 import static dev.sunbirdrc.registry.Constants.Schema;
 import static dev.sunbirdrc.registry.exception.ErrorMessages.INVALID_ID_MESSAGE;
@@ -116,6 +127,9 @@ public class RegistryServiceImpl implements RegistryService {
     @Autowired
     private EntityParenter entityParenter;
 
+    @Autowired
+    private ShardManager shardManager;
+
     @Autowired
     private OSSystemFieldsHelper systemFieldsHelper;
 
@@ -134,19 +148,19 @@ public class RegistryServiceImpl implements RegistryService {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private OutboxService outboxService;
+
     @Autowired
     private List<HealthIndicator> healthIndicators;
     public HealthCheckResponse health(Shard shard) throws Exception {
         HealthCheckResponse healthCheck;
-        AtomicBoolean overallHealthStatus = new AtomicBoolean(true);
-        List<ComponentHealthInfo> checks = new ArrayList<>();
-        healthIndicators.parallelStream().forEach(healthIndicator -> {
-            ComponentHealthInfo healthInfo = healthIndicator.getHealthInfo();
-            checks.add(healthInfo);
-            overallHealthStatus.set(overallHealthStatus.get() & healthInfo.isHealthy());
-        });
+        List<ComponentHealthInfo> checks = healthIndicators.parallelStream()
+                .map(HealthIndicator::getHealthInfo)
+                .collect(Collectors.toList());
+        boolean overallHealthStatus = checks.stream().allMatch(ComponentHealthInfo::isHealthy);
 
-        healthCheck = new HealthCheckResponse(Constants.SUNBIRDRC_REGISTRY_API, overallHealthStatus.get(), checks);
+        healthCheck = new HealthCheckResponse(Constants.SUNBIRDRC_REGISTRY_API, overallHealthStatus, checks);
         logger.info("Heath Check :  ", checks.toArray().toString());
         return healthCheck;
     }
@@ -178,6 +192,13 @@ public class RegistryServiceImpl implements RegistryService {
                 if (!(vertex.property(Constants.STATUS_KEYWORD).isPresent()
                         && vertex.property(Constants.STATUS_KEYWORD).value().equals(Constants.STATUS_INACTIVE))) {
                     registryDao.deleteEntity(vertex);
+                    if (outboxService.isEnabled()) {
+                        outboxService.append(graph, createOutboxEntries(shard, EventType.DELETE, index, uuid, uuid, userId,
+                                null, null, vertexReader.constructObject(vertex)));
+                        databaseProvider.commitTransaction(graph, tx);
+                        logger.info("Entity {} marked deleted", uuid);
+                        return vertex;
+                    }
                     databaseProvider.commitTransaction(graph, tx);
                     auditService.auditDelete(
                             auditService.createAuditRecord(userId, uuid, tx, index),
@@ -237,6 +258,10 @@ public class RegistryServiceImpl implements RegistryService {
                 Graph graph = osGraph.getGraphStore();
                 tx = dbProvider.startTransaction(graph);
                 entityId = registryDao.addEntity(graph, rootNode);
+                if (outboxService.isEnabled()) {
+                    outboxService.append(graph, createOutboxEntries(shard, EventType.ADD, vertexLabel, entityId, entityId, userId,
+                            rootNode, null, rootNode.get(vertexLabel)));
+                }
                 if (commitEnabled) {
                     dbProvider.commitTransaction(graph, tx);
                 }
@@ -253,21 +278,23 @@ public class RegistryServiceImpl implements RegistryService {
                 entityParenter.ensureIndexExists(dbProvider, parentVertex, definition, shardId);
             }
 
-            if (isElasticSearchEnabled()) {
-                if (addShardPrefixForESRecord && !shard.getShardLabel().isEmpty()) {
-                    // Replace osid with shard details
-                    String prefix = shard.getShardLabel() + RecordIdentifier.getSeparator();
-                    JSONUtil.addPrefix((ObjectNode) rootNode, prefix, new ArrayList<>(Collections.singletonList(uuidPropertyName)));
+            if (!outboxService.isEnabled()) {
+                if (isElasticSearchEnabled()) {
+                    if (addShardPrefixForESRecord && !shard.getShardLabel().isEmpty()) {
+                        // Replace osid with shard details
+                        String prefix = shard.getShardLabel() + RecordIdentifier.getSeparator();
+                        JSONUtil.addPrefix((ObjectNode) rootNode, prefix, new ArrayList<>(Collections.singletonList(uuidPropertyName)));
+                    }
+                    JsonNode nodeWithPublicData = JsonNodeFactory.instance.objectNode().set(vertexLabel,
+                            JSONUtil.removeNodesByPath(rootNode.get(vertexLabel), definitionsManager.getExcludingFieldsForEntity(vertexLabel)));
+                    callESActors(nodeWithPublicData, "ADD", vertexLabel, entityId, tx);
+                }
+                auditService.auditAdd(
+                        auditService.createAuditRecord(userId, entityId, tx, vertexLabel),
+                        shard, rootNode);
+                if (isEventsEnabled) {
+                    maskAndEmitEvent(rootNode.get(vertexLabel), vertexLabel, EventType.ADD, userId, entityId);
                 }
-                JsonNode nodeWithPublicData = JsonNodeFactory.instance.objectNode().set(vertexLabel,
-                        JSONUtil.removeNodesByPath(rootNode.get(vertexLabel), definitionsManager.getExcludingFieldsForEntity(vertexLabel)));
-                callESActors(nodeWithPublicData, "ADD", vertexLabel, entityId, tx);
-            }
-            auditService.auditAdd(
-                    auditService.createAuditRecord(userId, entityId, tx, vertexLabel),
-                    shard, rootNode);
-            if(isEventsEnabled) {
-                maskAndEmitEvent(rootNode.get(vertexLabel), vertexLabel, EventType.ADD, userId, entityId);
             }
         }
         if (vertexLabel.equals(Schema)) {
@@ -290,7 +317,21 @@ public class RegistryServiceImpl implements RegistryService {
 
     @Override
     public void updateEntity(Shard shard, String userId, String id, String jsonString, boolean skipSignature) throws Exception {
-        JsonNode inputNode = objectMapper.readTree(jsonString);
+        doUpdateEntity(shard, userId, id, objectMapper.readTree(jsonString), skipSignature, null);
+    }
+
+    @Override
+    public void updateEntity(Shard shard, String userId, String id, JsonNode inputJson, boolean skipSignature) throws Exception {
+        // The update adds the audit fields and encrypts in place, copy the caller's tree instead of reparsing it
+        doUpdateEntity(shard, userId, id, inputJson.deepCopy(), skipSignature, null);
+    }
+
+    @Override
+    public void updateEntity(Shard shard, String userId, String id, JsonNode inputJson, boolean skipSignature, EntityPatch removals) throws Exception {
+        doUpdateEntity(shard, userId, id, inputJson.deepCopy(), skipSignature, removals);
+    }
+
+    private void doUpdateEntity(Shard shard, String userId, String id, JsonNode inputNode, boolean skipSignature, EntityPatch removals) throws Exception {
         String entityType = inputNode.fields().next().getKey();
         systemFieldsHelper.ensureUpdateAuditFields(entityType, inputNode.get(entityType), userId);
         if (encryptionEnabled) {
@@ -373,10 +414,29 @@ public class RegistryServiceImpl implements RegistryService {
                 // The entity type is a child and so could be different from parent entity type.
                 doUpdate(shard, graph, registryDao, vr, inputNode.get(entityType), entityType, null);
 
+                if (removals != null) {
+                    // Updates merge into the entity, the properties it no longer has are removed in the same transaction
+                    List<VertexPatcher.PropertyChange> changes = new VertexPatcher(databaseProvider, uuidPropertyName)
+                            .resolve(vr.getVertex(entityType, id), removals, JsonNodeFactory.instance.objectNode());
+                    if (changes == null) {
+                        throw new UnsupportedOperationException("Removing the properties " + removals.getOperations().stream()
+                                .map(EntityPatch.Operation::getPath).collect(Collectors.toList()) + " of " + entityType + " is not supported");
+                    }
+                    changes.forEach(VertexPatcher.PropertyChange::apply);
+                    putRemovedProperties((ObjectNode) mergedNode.get(parentEntityType), changes);
+                }
+
                 if (entityType.equals(Schema)) {
                     schemaService.updateSchema(inputNode);
                 }
 
+                if (outboxService.isEnabled()) {
+                    outboxService.append(graph, createOutboxEntries(shard, EventType.UPDATE, entityType, id, rootId, userId,
+                            mergedNode, readNode, inputNode.get(entityType)));
+                    databaseProvider.commitTransaction(graph, tx);
+                    return;
+                }
+
                 databaseProvider.commitTransaction(graph, tx);
 
                 if (isInternalRegistry(entityType) && isElasticSearchEnabled()) {
@@ -399,17 +459,188 @@ public class RegistryServiceImpl implements RegistryService {
         }
     }
 
+    @Override
+    public boolean patchEntity(Shard shard, String userId, String entityType, String id, EntityPatch patch, JsonNode partialNode) throws Exception {
+        JsonNode patchedNode = partialNode.deepCopy();
+        ObjectNode auditFields = JsonNodeFactory.instance.objectNode();
+        systemFieldsHelper.ensureUpdateAuditFields(entityType, auditFields, userId);
+        ((ObjectNode) patchedNode.get(entityType)).setAll(auditFields);
+        JsonNode inputNode = encryptionEnabled ? encryptionHelper.getEncryptedJson(patchedNode) : patchedNode;
+        return writePropertyChanges(shard, userId, entityType, id, inputNode, auditFields, patch.toAuditNode(entityType),
+                (patcher, rootVertex) -> patcher.resolve(rootVertex, patch, inputNode.get(entityType)));
+    }
+
+    @Override
+    public void addOwners(Shard shard, String userId, String entityType, String id, List<String> ownerIds) throws Exception {
+        String osOwner = OSSystemFields.osOwner.toString();
+        ObjectNode auditFields = JsonNodeFactory.instance.objectNode();
+        systemFieldsHelper.ensureUpdateAuditFields(entityType, auditFields, userId);
+        ObjectNode inputNode = JsonNodeFactory.instance.objectNode();
+        inputNode.putObject(entityType).setAll(auditFields);
+        ArrayNode auditNode = JsonNodeFactory.instance.arrayNode();
+        for (String ownerId : ownerIds) {
+            auditNode.addObject().put("op", EntityPatch.ADD).put("path", "/" + entityType + "/" + osOwner + "/-").put("value", ownerId);
+        }
+        writePropertyChanges(shard, userId, entityType, id, inputNode, auditFields, auditNode, (patcher, rootVertex) -> {
+            // The owners are read and written in the same transaction, so owners added concurrently aren't lost
+            VertexPatcher.PropertyChange change = patcher.append(rootVertex, osOwner, ownerIds);
+            if (change == null) {
+                return Collections.emptyList();
+            }
+            ((ObjectNode) inputNode.get(entityType)).set(osOwner, ArrayHelper.constructArrayNode(change.getValue().toString()));
+            return Collections.singletonList(change);
+        });
+    }
+
+    /**
+     * Writes the property changes resolved against the root vertex of the entity, with the audit fields, and
+     * propagates the values of the input node to elastic search, audit and events
+     *
+     * @param inputNode - the values written, wrapped by the entity type
+     * @param auditNode - the operations recorded as the audit of the change
+     * @param resolver  - the changes to write, or null when they can't be written to the properties
+     * @return false, having changed nothing, when the resolver returns null
+     */
+    private boolean writePropertyChanges(Shard shard, String userId, String entityType, String id, JsonNode inputNode,
+                                         ObjectNode auditFields, JsonNode auditNode,
+                                         BiFunction<VertexPatcher, Vertex, List<VertexPatcher.PropertyChange>> resolver) throws Exception {
+        DatabaseProvider databaseProvider = shard.getDatabaseProvider();
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                VertexReader vr = new VertexReader(databaseProvider, graph, ReadConfiguratorFactory.getOne(false), uuidPropertyName, definitionsManager);
+                Vertex rootVertex = vr.getVertex(entityType, id);
+                if (rootVertex == null || (rootVertex.property(Constants.STATUS_KEYWORD).isPresent()
+                        && Constants.STATUS_INACTIVE.equals(rootVertex.value(Constants.STATUS_KEYWORD)))) {
+                    throw new RecordNotFoundException(INVALID_ID_MESSAGE);
+                }
+                List<VertexPatcher.PropertyChange> changes = resolver.apply(new VertexPatcher(databaseProvider, uuidPropertyName), rootVertex);
+                if (changes == null) {
+                    logger.debug("Patch of {} {} needs the full update", entityType, id);
+                    return false;
+                }
+                changes.forEach(VertexPatcher.PropertyChange::apply);
+                auditFields.fields().forEachRemaining(field -> rootVertex.property(field.getKey(), ValueType.getValue(field.getValue())));
+                logger.info("Patched {} properties of {} {}", changes.size(), entityType, id);
+
+                // Elastic search updates merge the partial document into the indexed one, removed properties are sent as nulls
+                ObjectNode indexNode = inputNode.deepCopy();
+                putRemovedProperties((ObjectNode) indexNode.get(entityType), changes);
+                if (outboxService.isEnabled()) {
+                    List<OutboxEntry> entries = createOutboxEntries(shard, EventType.UPDATE, entityType, id, id, userId,
+                            indexNode, null, inputNode.get(entityType));
+                    entries.replaceAll(entry -> entry.getType() == OutboxEntryType.AUDIT
+                            ? OutboxEntry.builder().type(OutboxEntryType.AUDIT).operation("PATCH").entityType(entityType)
+                            .entityId(id).userId(userId).transactionId(entry.getTransactionId())
+                            .payload(inputNode).previousPayload(auditNode).build()
+                            : entry);
+                    outboxService.append(graph, entries);
+                    databaseProvider.commitTransaction(graph, tx);
+                    return true;
+                }
+
+                databaseProvider.commitTransaction(graph, tx);
+
+                if (isInternalRegistry(entityType) && isElasticSearchEnabled()) {
+                    callESActors(getNodeWithPublicData(shard, indexNode, entityType), "UPDATE", entityType, id, tx);
+                }
+                auditService.auditPatch(auditService.createAuditRecord(userId, id, tx, entityType), shard, inputNode, auditNode);
+                if (isEventsEnabled) {
+                    maskAndEmitEvent(inputNode.get(entityType), entityType, EventType.UPDATE, userId, id);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Builds the side effects of an entity write which are recorded in the outbox
+     *
+     * @param auditId      - record the audit entry is kept under, the root entity of a child update
+     * @param entityNode   - node wrapped by the entity type, used for elastic search and audit
+     * @param previousNode - node before an update, used for audit
+     * @param eventNode    - entity node emitted as event
+     * @return
+     */
+    private List<OutboxEntry> createOutboxEntries(Shard shard, EventType operation, String entityType, String entityId,
+                                                  String auditId, String userId, JsonNode entityNode,
+                                                  JsonNode previousNode, JsonNode eventNode) {
+        List<OutboxEntry> entries = new ArrayList<>();
+        // Identifies the write in the audit, graph transactions have no id of their own
+        String transactionId = UUID.randomUUID().toString();
+        boolean indexed = isElasticSearchEnabled() && (operation != EventType.UPDATE || isInternalRegistry(entityType));
+        if (indexed) {
+            entries.add(OutboxEntry.builder().type(OutboxEntryType.ELASTIC_SEARCH).operation(operation.name())
+                    .entityType(entityType).entityId(entityId)
+                    .payload(entityNode != null ? getNodeWithPublicData(shard, entityNode, entityType) : null)
+                    .build());
+        }
+        if (auditService.shouldAudit(entityType)) {
+            entries.add(OutboxEntry.builder().type(OutboxEntryType.AUDIT).operation(operation.name())
+                    .entityType(entityType).entityId(auditId).userId(userId).transactionId(transactionId)
+                    .payload(entityNode).previousPayload(previousNode)
+                    .build());
+        }
+        if (isEventsEnabled) {
+            entries.add(OutboxEntry.builder().type(OutboxEntryType.EVENT).operation(operation.name())
+                    .entityType(entityType).entityId(entityId).userId(userId)
+                    .payload(eventNode)
+                    .build());
+        }
+        return entries;
+    }
+
+    /**
+     * Sets the properties removed by the changes to null in the entity node, so that merging the node into the
+     * indexed document removes them there as well
+     */
+    private void putRemovedProperties(ObjectNode entityNode, List<VertexPatcher.PropertyChange> changes) {
+        for (VertexPatcher.PropertyChange change : changes) {
+            if (!change.isRemoval()) {
+                continue;
+            }
+            ObjectNode parent = entityNode;
+            List<String> tokens = change.getTokens();
+            for (String token : tokens.subList(0, tokens.size() - 1)) {
+                parent = parent.get(token) instanceof ObjectNode ? (ObjectNode) parent.get(token) : parent.putObject(token);
+            }
+            parent.putNull(change.getProperty());
+        }
+    }
+
+    private JsonNode getNodeWithPublicData(Shard shard, JsonNode entityNode, String entityType) {
+        JsonNode node = entityNode.deepCopy();
+        if (addShardPrefixForESRecord && !shard.getShardLabel().isEmpty()) {
+            // Replace osid with shard details
+            String prefix = shard.getShardLabel() + RecordIdentifier.getSeparator();
+            JSONUtil.addPrefix((ObjectNode) node, prefix, new ArrayList<>(Collections.singletonList(uuidPropertyName)));
+        }
+        return JsonNodeFactory.instance.objectNode().set(entityType,
+                JSONUtil.removeNodesByPath(node.get(entityType), definitionsManager.getExcludingFieldsForEntity(entityType)));
+    }
+
     private boolean isInternalRegistry(String entityType) {
         return definitionsManager.getAllKnownDefinitions().contains(entityType);
     }
 
     @Override
     @Async("taskExecutor")
-    public void callESActors(JsonNode rootNode, String operation, String parentEntityType, String entityRootId, Transaction tx) throws JsonProcessingException {
+    public void callESActors(JsonNode rootNode, String operation, String parentEntityType, String entityRootId, Transaction tx) throws IOException {
         logger.debug("callESActors started");
+        if (outboxService.isRelayEnabled()
+                && (ActorMetrics.isSaturated(Constants.OS_ACTOR) || ActorMetrics.isSaturated(Constants.ELASTIC_SEARCH_ACTOR))) {
+            // The outbox relay indexes it once the write is in the outbox, so the index doesn't miss it. Without
+            // the relay the write is sent all the same and the bounded mailbox drops the overflow.
+            logger.warn("Elastic search actors are saturated, deferring {} of {} to the outbox", operation, entityRootId);
+            outboxService.append(shardManager.getDefaultShard(), Collections.singletonList(OutboxEntry.builder()
+                    .type(OutboxEntryType.ELASTIC_SEARCH).operation(operation)
+                    .entityType(parentEntityType).entityId(entityRootId).payload(rootNode)
+                    .build()));
+            return;
+        }
         rootNode = rootNode != null ? rootNode.get(parentEntityType) : rootNode;
         boolean elasticSearchEnabled = isElasticSearchEnabled();
-        MessageProtos.Message message = MessageFactory.instance().createOSActorMessage(elasticSearchEnabled, operation,
+        TypedMessage message = MessageFactory.instance().createOSActorMessage(elasticSearchEnabled, operation,
                 parentEntityType.toLowerCase(), entityRootId, rootNode, null);
         ActorCache.instance().get(Router.ROUTER_NAME).tell(message, null);
         logger.debug("callESActors ends");
@@ -423,16 +654,60 @@ public class RegistryServiceImpl implements RegistryService {
     @Async("taskExecutor")
     public void callNotificationActors(String operation, String to, String subject, String message) throws JsonProcessingException {
         if(asyncEnabled) {
-            String payload = "{\"message\":\"" + message + "\", \"subject\": \"" + subject + "\", \"recipient\": \"" + to + "\"}";
-            kafkaTemplate.send(notifyTopic, null, payload);
+            kafkaTemplate.send(notifyTopic, null, notificationPayload(to, subject, message));
             return;
         }
         logger.debug("callNotificationActors started");
-        MessageProtos.Message messageProto = MessageFactory.instance().createNotificationActorMessage(operation, to, subject, message);
+        if (ActorMetrics.isSaturated(Constants.NOTIFICATION_ACTOR)) {
+            // Nobody waits for this call, so the drop is only logged and counted
+            ActorMetrics.of(Constants.NOTIFICATION_ACTOR).rejected();
+            logger.error("Notification actors are saturated, dropping {} notification to {}", operation, to);
+            return;
+        }
+        TypedMessage messageProto = MessageFactory.instance().createNotificationActorMessage(operation, to, subject, message);
         ActorCache.instance().get(Router.ROUTER_NAME).tell(messageProto, null);
         logger.debug("callNotificationActors ends");
     }
 
+    @Override
+    public void callNotificationActors(String operation, List<NotificationMessage> messages) throws Exception {
+        if (asyncEnabled) {
+            List<ListenableFuture<SendResult<String, String>>> sends = new ArrayList<>();
+            for (NotificationMessage message : messages) {
+                sends.add(kafkaTemplate.send(notifyTopic, null, notificationPayload(message.getTo(), message.getSubject(), message.getMessage())));
+            }
+            kafkaTemplate.flush();
+            // Only the messages which failed are given back, so that a retry doesn't send the others twice
+            List<NotificationMessage> unsent = new ArrayList<>();
+            Exception failure = null;
+            for (int i = 0; i < sends.size(); i++) {
+                try {
+                    sends.get(i).get();
+                } catch (ExecutionException e) {
+                    unsent.add(messages.get(i));
+                    failure = e;
+                }
+            }
+            if (!unsent.isEmpty()) {
+                throw new NotificationBatchException(unsent, failure.getCause() != null ? failure.getCause() : failure);
+            }
+            return;
+        }
+        // One capacity check for the batch, a saturated pool fails it so that it is retried later
+        if (ActorMetrics.isSaturated(Constants.NOTIFICATION_ACTOR)) {
+            throw new IllegalStateException("Notification actors are saturated");
+        }
+        for (NotificationMessage message : messages) {
+            TypedMessage messageProto = MessageFactory.instance().createNotificationActorMessage(operation, message.getTo(),
+                    message.getSubject(), message.getMessage());
+            ActorCache.instance().get(Router.ROUTER_NAME).tell(messageProto, null);
+        }
+    }
+
+    private String notificationPayload(String to, String subject, String message) {
+        return "{\"message\":\"" + message + "\", \"subject\": \"" + subject + "\", \"recipient\": \"" + to + "\"}";
+    }
+
     private void doUpdateArray(Shard shard, Graph graph, IRegistryDao registryDao, VertexReader vr, Vertex blankArrVertex, ArrayNode arrayNode, String parentName, Vertex parentVertex) throws Exception {
         HashMap<String, Vertex> uuidVertexMap = vr.getUuidVertexMap();
         Set<Object> updatedUuids = new HashSet<Object>();
@@ -1,8 +1,10 @@
 package dev.sunbirdrc.registry.sink;
 
 import dev.sunbirdrc.pojos.ComponentHealthInfo;
+import dev.sunbirdrc.pojos.FilterOperators;
 import dev.sunbirdrc.pojos.HealthIndicator;
 import dev.sunbirdrc.registry.middleware.util.Constants;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.T;
@@ -15,6 +17,7 @@ import org.slf4j.LoggerFactory;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.BiPredicate;
 
 import static dev.sunbirdrc.registry.middleware.util.Constants.CONNECTION_FAILURE;
 
@@ -157,6 +160,42 @@ public abstract class DatabaseProvider implements HealthIndicator {
         //Does nothing, suppose to be overridden by extended classes.
     }
 
+    /**
+     * Returns the predicate for a text filter (contains, startsWith, endsWith and their negations).
+     * This one is evaluated in memory over every vertex of the label; providers override it with
+     * predicates their backend runs as an (indexed) query.
+     *
+     * @param operator
+     * @param value
+     * @return
+     */
+    public P<String> getTextPredicate(FilterOperators operator, String value) {
+        BiPredicate<String, String> condition;
+        switch (operator) {
+            case contains:
+                condition = (s1, s2) -> s1.contains(s2);
+                break;
+            case startsWith:
+                condition = (s1, s2) -> s1.startsWith(s2);
+                break;
+            case endsWith:
+                condition = (s1, s2) -> s1.endsWith(s2);
+                break;
+            case notContains:
+                condition = (s1, s2) -> !s1.contains(s2);
+                break;
+            case notStartsWith:
+                condition = (s1, s2) -> !s1.startsWith(s2);
+                break;
+            case notEndsWith:
+                condition = (s1, s2) -> !s1.endsWith(s2);
+                break;
+            default:
+                throw new IllegalArgumentException(operator + " is not a text operator");
+        }
+        return new P<>(condition, value);
+    }
+
     public Constants.GraphDatabaseProvider getProvider() {
         return this.provider;
     }
@@ -1,15 +1,19 @@
 package dev.sunbirdrc.registry.sink;
 
+import dev.sunbirdrc.pojos.FilterOperators;
 import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.model.DBConnectionInfo;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.janusgraph.core.JanusGraph;
 import org.janusgraph.core.JanusGraphFactory;
 import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.VertexLabel;
+import org.janusgraph.core.attribute.Text;
+import org.janusgraph.core.schema.Mapping;
 import org.janusgraph.core.schema.JanusGraphIndex;
 import org.janusgraph.core.schema.JanusGraphManagement;
 import org.slf4j.Logger;
@@ -24,8 +28,11 @@ import java.util.List;
 public class JanusGraphStorage extends DatabaseProvider {
 
 	private Logger logger = LoggerFactory.getLogger(JanusGraphStorage.class);
+	private static final String SEARCH_INDEX = "search";
 	private JanusGraph graph;
 	private OSGraph osGraph;
+	// Text filters are answered by mixed indexes only when an index backend is configured
+	private boolean mixedIndexEnabled = false;
 
 	public JanusGraphStorage(Environment environment, DBConnectionInfo connectionInfo, String uuidPropertyName) {
 		Configuration config = new BaseConfiguration();
@@ -43,6 +50,13 @@ public class JanusGraphStorage extends DatabaseProvider {
 		config.setProperty("storage.cql.compact-storage", false);
 		config.setProperty("storage.cql.compression", false);
 
+		String indexBackend = environment.getProperty("cassandra.index.storage.backend");
+		if (indexBackend != null && !indexBackend.isEmpty()) {
+			config.setProperty("index." + SEARCH_INDEX + ".backend", indexBackend);
+			config.setProperty("index." + SEARCH_INDEX + ".hostname", environment.getProperty("cassandra.index.hostname"));
+			mixedIndexEnabled = true;
+		}
+
 		setProvider(Constants.GraphDatabaseProvider.CASSANDRA);
 		setUuidPropertyName(uuidPropertyName);
 		graph = JanusGraphFactory.open(config);
@@ -67,6 +81,7 @@ public class JanusGraphStorage extends DatabaseProvider {
 		config.setProperty("storage.hostname", hostname);
 		config.setProperty("index.search.backend", searchIndex);
 		config.setProperty("index.search.hostname", searchHostname);
+		mixedIndexEnabled = searchIndex != null && !searchIndex.isEmpty();
 		config.setProperty("cache.db-cache-size", Float.parseFloat(dbCacheSize));
 		config.setProperty("cache.db-cache-clean-wait", Integer.parseInt(dbCacheCleanUpWaitTime));
 
@@ -104,6 +119,11 @@ public class JanusGraphStorage extends DatabaseProvider {
 				PropertyKey propertyKey = janusGraphManagement.getPropertyKey(propertyName);
 				JanusGraphIndex graphIndex = janusGraphManagement.buildIndex(vlabel.name() + propertyKey.toString(), Vertex.class).addKey(propertyKey).buildCompositeIndex();
 				graphIndexList.add(graphIndex);
+				if (mixedIndexEnabled && propertyKey.dataType() == String.class) {
+					// Composite indexes only serve equality, text predicates need a mixed index
+					graphIndexList.add(janusGraphManagement.buildIndex(vlabel.name() + propertyKey.toString() + "Text", Vertex.class)
+							.addKey(propertyKey, Mapping.STRING.asParameter()).indexOnly(vlabel).buildMixedIndex(SEARCH_INDEX));
+				}
 			});
 			janusGraphManagement.commit();
 			
@@ -124,6 +144,38 @@ public class JanusGraphStorage extends DatabaseProvider {
 	}
 
 
+	/**
+	 * Prefix and substring filters run over the mixed indexes. JanusGraph has no negated text
+	 * predicates, those stay in memory.
+	 */
+	@Override
+	public P<String> getTextPredicate(FilterOperators operator, String value) {
+		if (!mixedIndexEnabled) {
+			return super.getTextPredicate(operator, value);
+		}
+		switch (operator) {
+			case startsWith:
+				return Text.textPrefix(value);
+			case contains:
+				return Text.textRegex(".*" + escapeRegex(value) + ".*");
+			case endsWith:
+				return Text.textRegex(".*" + escapeRegex(value));
+			default:
+				return super.getTextPredicate(operator, value);
+		}
+	}
+
+	private static String escapeRegex(String value) {
+		StringBuilder escaped = new StringBuilder();
+		for (char c : value.toCharArray()) {
+			if ("\\.[]{}()<>*+-=!?^$|&~#@\"".indexOf(c) >= 0) {
+				escaped.append('\\');
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
+	}
+
 	@Override
 	public OSGraph getOSGraph() {
 		return osGraph;
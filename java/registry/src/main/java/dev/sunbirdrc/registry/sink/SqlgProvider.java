@@ -1,18 +1,26 @@
 package dev.sunbirdrc.registry.sink;
 
+import dev.sunbirdrc.pojos.FilterOperators;
 import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.model.DBConnectionInfo;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.*;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.predicate.Text;
+import org.umlg.sqlg.structure.PropertyType;
 import org.umlg.sqlg.structure.SqlgGraph;
 import org.umlg.sqlg.structure.topology.*;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -59,6 +67,29 @@ public class SqlgProvider extends DatabaseProvider {
         return (String) vertex.property(getUuidPropertyName()).value();
     }
 
+    /**
+     * Text filters become LIKE conditions of the query, served by the trigram indexes
+     */
+    @Override
+    public P<String> getTextPredicate(FilterOperators operator, String value) {
+        switch (operator) {
+            case contains:
+                return new P<>(Text.contains, value);
+            case startsWith:
+                return new P<>(Text.startsWith, value);
+            case endsWith:
+                return new P<>(Text.endsWith, value);
+            case notContains:
+                return new P<>(Text.ncontains, value);
+            case notStartsWith:
+                return new P<>(Text.nstartsWith, value);
+            case notEndsWith:
+                return new P<>(Text.nendsWith, value);
+            default:
+                return super.getTextPredicate(operator, value);
+        }
+    }
+
     @Override
     public void createIndex(Graph graph, String label, List<String> propertyNames) {
 		if (propertyNames.size() > 0) {
@@ -124,8 +155,64 @@ public class SqlgProvider extends DatabaseProvider {
         List<PropertyColumn> properties = new ArrayList<>();
         Optional<PropertyColumn> propertyColumnOptional = vertexLabel.getProperty(property);
         propertyColumnOptional.ifPresent(properties::add);
-        propertyColumnOptional.orElseThrow(() -> new RuntimeException("Property not found"));
+        PropertyColumn propertyColumn = propertyColumnOptional.orElseThrow(() -> new RuntimeException("Property not found"));
         ensureIndex(vertexLabel, indexType, properties);
+        if (indexType == IndexType.NON_UNIQUE && propertyColumn.getPropertyType() == PropertyType.STRING) {
+            ensureTextIndex((SqlgGraph) graph, vertexLabel, property);
+        }
+    }
+
+    /**
+     * A btree index can't serve LIKE '%value%', so string fields also get a trigram index which
+     * serves contains, startsWith and endsWith. Without the pg_trgm extension only prefixes are
+     * indexed, through text_pattern_ops.
+     *
+     * @param sqlgGraph
+     * @param vertexLabel
+     * @param property
+     */
+    private void ensureTextIndex(SqlgGraph sqlgGraph, VertexLabel vertexLabel, String property) {
+        String table = sqlgGraph.getSqlDialect().maybeWrapInQoutes(vertexLabel.getSchema().getName()) + "." +
+                sqlgGraph.getSqlDialect().maybeWrapInQoutes(Topology.VERTEX_PREFIX + vertexLabel.getLabel());
+        String column = sqlgGraph.getSqlDialect().maybeWrapInQoutes(property);
+        String indexName = sqlgGraph.getSqlDialect().maybeWrapInQoutes(
+                truncate(vertexLabel.getLabel() + "_" + property + "_text", 63));
+        Connection connection = sqlgGraph.tx().getConnection();
+        try {
+            executeInSavepoint(connection, "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+                    "CREATE INDEX IF NOT EXISTS " + indexName + " ON " + table + " USING gin (" + column + " gin_trgm_ops)");
+            logger.info("text index created for " + vertexLabel.getLabel() + " - " + property);
+        } catch (SQLException e) {
+            logger.warn("Trigram index on {}.{} not created, indexing prefixes only: {}", vertexLabel.getLabel(),
+                    property, e.getMessage());
+            try {
+                executeInSavepoint(connection,
+                        "CREATE INDEX IF NOT EXISTS " + indexName + " ON " + table + " (" + column + " text_pattern_ops)");
+            } catch (SQLException prefixException) {
+                logger.error("Text index on {}.{} not created", vertexLabel.getLabel(), property, prefixException);
+            }
+        }
+    }
+
+    /**
+     * Runs the statements in a savepoint of their own, rolled back when one fails, so that a failing
+     * statement doesn't abort the caller's transaction
+     */
+    private static void executeInSavepoint(Connection connection, String... sqls) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        } catch (SQLException e) {
+            connection.rollback(savepoint);
+            throw e;
+        }
+        connection.releaseSavepoint(savepoint);
+    }
+
+    private static String truncate(String name, int length) {
+        return name.length() > length ? name.substring(0, length) : name;
     }
 
     /**
@@ -0,0 +1,108 @@
+package dev.sunbirdrc.registry.sink;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leases of the vertices of a queue which every registry instance polls, like the outbox or the webhook
+ * deliveries. A claim re-reads the lease property of the vertex and, when it is still due, writes the lease
+ * and records this instance as the owner. Claims are confirmed after commit by reading the owner back.
+ * Leases which run out, like those of a stopped instance, are claimed again.
+ * <p>
+ * This narrows the window in which two instances pick up the same vertex, it does not close it. The check
+ * and the write are separate statements, so under read committed isolation two transactions can both find
+ * the vertex due, and the first can confirm its claim before the second one commits. Delivery from a leased
+ * queue is therefore at-least-once, and what is delivered must be safe to deliver twice.
+ */
+public class VertexLeases {
+    private static final Logger logger = LoggerFactory.getLogger(VertexLeases.class);
+
+    public static final String OWNER = "leaseOwner";
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+    private final String label;
+    private final String uuidPropertyName;
+    private final String leaseProperty;
+    private final List<String> indexedProperties;
+    private final Set<DatabaseProvider> indexedProviders = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param label             - label of the queue vertices
+     * @param uuidPropertyName  - identifier property of the vertices
+     * @param leaseProperty     - time until which a vertex is leased, the vertex is due once it has passed
+     * @param indexedProperties - properties the queue is polled by
+     */
+    public VertexLeases(String label, String uuidPropertyName, String leaseProperty, List<String> indexedProperties) {
+        this.label = label;
+        this.uuidPropertyName = uuidPropertyName;
+        this.leaseProperty = leaseProperty;
+        this.indexedProperties = indexedProperties;
+    }
+
+    /**
+     * Owner recorded on the vertices claimed by this instance
+     */
+    public static String getInstanceId() {
+        return INSTANCE_ID;
+    }
+
+    /**
+     * Claims the due vertices until leaseUntil in the open transaction. Returns the vertices which were still
+     * due when re-read, the others were claimed by another instance since they were read.
+     */
+    public List<Vertex> claim(Graph graph, List<Vertex> candidates, long now, long leaseUntil) {
+        List<Vertex> claimed = new ArrayList<>();
+        for (Vertex candidate : candidates) {
+            graph.traversal().V(candidate.id()).has(leaseProperty, P.lte(now))
+                    .property(leaseProperty, leaseUntil)
+                    .property(OWNER, INSTANCE_ID)
+                    .tryNext()
+                    .ifPresent(claimed::add);
+        }
+        return claimed;
+    }
+
+    /**
+     * Returns the ids which are still leased by this instance, dropping the ones whose claim was overwritten by
+     * another instance. Must run in a transaction started after the claim was committed.
+     */
+    public Set<String> confirm(Graph graph, Collection<String> ids) {
+        Set<String> owned = new HashSet<>();
+        if (ids.isEmpty()) {
+            return owned;
+        }
+        graph.traversal().V().hasLabel(label)
+                .has(uuidPropertyName, P.within(ids))
+                .has(OWNER, INSTANCE_ID)
+                .<String>values(uuidPropertyName)
+                .forEachRemaining(owned::add);
+        return owned;
+    }
+
+    /**
+     * Indexes the properties the queue is polled by, once per database. Sqlg only indexes existing columns,
+     * so this is called once vertices of the label were committed.
+     */
+    public void ensureIndex(DatabaseProvider databaseProvider) {
+        if (!indexedProviders.add(databaseProvider)) {
+            return;
+        }
+        try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+            Graph graph = osGraph.getGraphStore();
+            try (Transaction tx = databaseProvider.startTransaction(graph)) {
+                databaseProvider.createIndex(graph, label, indexedProperties);
+                databaseProvider.commitTransaction(graph, tx);
+            }
+        } catch (Exception e) {
+            indexedProviders.remove(databaseProvider);
+            logger.warn("Index on {} {} not created: {}", label, indexedProperties, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package dev.sunbirdrc.registry.sink.shard;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * An immutable hash ring. Every shard gets weight * virtualNodes tokens on the ring and owns
+ * the keys hashing up to (and including) each of its tokens. A key range is identified by
+ * the token closing it.
+ */
+public class ConsistentHashRing {
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private final Map<String, Integer> members;
+	private final int virtualNodes;
+	private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+	/**
+	 * @param members      - shardId to weight, shards with weight 0 own no keys
+	 * @param virtualNodes - tokens per unit of weight
+	 */
+	public ConsistentHashRing(Map<String, Integer> members, int virtualNodes) {
+		this.members = Collections.unmodifiableMap(new TreeMap<>(members));
+		this.virtualNodes = virtualNodes;
+		for (Map.Entry<String, Integer> member : this.members.entrySet()) {
+			for (int i = 0; i < member.getValue() * virtualNodes; i++) {
+				// On a (very unlikely) collision the smaller shardId keeps the token
+				ring.putIfAbsent(hash(member.getKey() + "#" + i), member.getKey());
+			}
+		}
+		if (ring.isEmpty()) {
+			throw new IllegalArgumentException("Hash ring needs at least one shard with a positive weight");
+		}
+	}
+
+	public static long hash(String key) {
+		return HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asLong();
+	}
+
+	/**
+	 * Returns the token closing the range the hash falls in
+	 */
+	public long tokenOf(long hash) {
+		Long token = ring.ceilingKey(hash);
+		return token != null ? token : ring.firstKey();
+	}
+
+	public String ownerOf(long hash) {
+		return ring.get(tokenOf(hash));
+	}
+
+	public Set<Long> getTokens() {
+		return Collections.unmodifiableSet(ring.keySet());
+	}
+
+	/**
+	 * Returns the owners, on this ring, of the keys in the range closed by the token of
+	 * another ring
+	 */
+	public Set<String> ownersOfRange(long previousToken, long token) {
+		Set<String> owners = new HashSet<>();
+		owners.add(ownerOf(token));
+		Collection<String> inRange = previousToken < token ?
+				ring.subMap(previousToken, false, token, false).values() :
+				// the range wraps around the end of the ring
+				concat(ring.tailMap(previousToken, false).values(), ring.headMap(token, false).values());
+		owners.addAll(inRange);
+		return owners;
+	}
+
+	/**
+	 * Returns the token preceding the given one, wrapping around the start of the ring
+	 */
+	public long previousToken(long token) {
+		Long previous = ring.lowerKey(token);
+		return previous != null ? previous : ring.lastKey();
+	}
+
+	public Map<String, Integer> getMembers() {
+		return members;
+	}
+
+	public int getVirtualNodes() {
+		return virtualNodes;
+	}
+
+	private static Collection<String> concat(Collection<String> first, Collection<String> second) {
+		List<String> result = new ArrayList<>(first);
+		result.addAll(second);
+		return result;
+	}
+}
@@ -0,0 +1,50 @@
+package dev.sunbirdrc.registry.sink.shard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.util.RecordIdentifier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spreads records over the shards by consistent hashing of the shard property value.
+ * Every shard gets weight * database.virtualNodes positions on the ring, so adding or
+ * removing a shard only moves the keys of the ranges it gains or loses. The ring is kept
+ * in the ShardRoutingTable and the moves are done by the ShardMigrator.
+ * Records without the shard property go to the default shard.
+ */
+@Component
+public class ConsistentHashShardAdvisor extends DefaultShardAdvisor {
+
+	@Autowired
+	private ShardRoutingTable routingTable;
+
+	@Override
+	public DBConnectionInfo getShard(Object attributeValue) {
+		String key = keyOf(attributeValue);
+		if (key == null) {
+			return super.getShard(null);
+		}
+		return dBConnectionInfoMgr.getDBConnectionInfo(routingTable.route(key));
+	}
+
+	@Override
+	public String getRelocatedShardId(RecordIdentifier recordId) {
+		return routingTable.getRedirect(recordId);
+	}
+
+	/**
+	 * Returns the text hashed for a shard property value, the same for the value read
+	 * from a request payload and from a stored vertex
+	 */
+	public static String keyOf(Object attributeValue) {
+		if (attributeValue instanceof JsonNode) {
+			JsonNode node = (JsonNode) attributeValue;
+			if (node.isNull() || node.isMissingNode()) {
+				return null;
+			}
+			return node.isValueNode() ? node.asText() : node.toString();
+		}
+		return attributeValue != null ? String.valueOf(attributeValue) : null;
+	}
+}
@@ -1,10 +1,19 @@
 package dev.sunbirdrc.registry.sink.shard;
 
 import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.util.RecordIdentifier;
 
 /**
  * This interface must be implemented by all shard advisors.
  */
 public interface IShardAdvisor {
 	DBConnectionInfo getShard(Object attribute);
+
+	/**
+	 * Returns the shardId of the shard a record was moved to, when it no longer lives on the
+	 * shard its identifier names. Advisors which never move records return null.
+	 */
+	default String getRelocatedShardId(RecordIdentifier recordId) {
+		return null;
+	}
 }
@@ -5,13 +5,20 @@ import dev.sunbirdrc.registry.model.DBConnectionInfo;
 import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
 import dev.sunbirdrc.registry.sink.DBProviderFactory;
 import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.util.RecordIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
+import javax.annotation.PostConstruct;
+import java.util.*;
 
+/**
+ * Holds one Shard per configured DBConnectionInfo, built at startup. The registry is an
+ * immutable snapshot which is replaced as a whole when a shard is added, so lookups are
+ * lock free and every caller gets its own shard reference.
+ */
 @Component("shardManager")
 public class ShardManager {
 
@@ -23,45 +30,63 @@ public class ShardManager {
 	@Autowired
 	private IShardAdvisor shardAdvisor;
 
-	private Shard shard;
+	private volatile Registry registry = new Registry(Collections.emptyMap(), Collections.emptyMap());
 
+	@PostConstruct
+	public void init() {
+		for (DBConnectionInfo connectionInfo : dbConnectionInfoMgr.getConnectionInfo()) {
+			addShard(connectionInfo);
+		}
+		logger.info("Shard registry initialized with shards {}", registry.byId.keySet());
+	}
 
 	/**
-	 * intiatiate a DBShard and ensure activating a databaseProvider. used for
-	 * add end point.
+	 * Registers a shard, creating its database provider. Adding an already known shard returns
+	 * the registered one. Used at startup and for adding shards to a running registry.
 	 *
-	 * @param attributeValue
-	 * @throws IOException
+	 * @param connectionInfo
+	 * @return
 	 */
-	private Shard activateDbShard(Object attributeValue) {
-		DBConnectionInfo connectionInfo = shardAdvisor.getShard(attributeValue);
+	public synchronized Shard addShard(DBConnectionInfo connectionInfo) {
+		Shard existing = registry.byId.get(connectionInfo.getShardId());
+		if (existing != null) {
+			return existing;
+		}
+		if (dbConnectionInfoMgr.getDBConnectionInfo(connectionInfo.getShardId()) == null) {
+			dbConnectionInfoMgr.addConnectionInfo(connectionInfo);
+		}
 		DatabaseProvider databaseProvider = dbProviderFactory.getInstance(connectionInfo);
-		shard = new Shard();
+		Shard shard = new Shard();
 		shard.setShardId(connectionInfo.getShardId());
 		shard.setShardLabel(connectionInfo.getShardLabel());
 		shard.setDatabaseProvider(databaseProvider);
-		logger.info("Activated shard "+connectionInfo.getShardId()+" for attribute value "+attributeValue);
+
+		Map<String, Shard> byId = new HashMap<>(registry.byId);
+		Map<String, Shard> byLabel = new HashMap<>(registry.byLabel);
+		byId.put(shard.getShardId(), shard);
+		if (shard.getShardLabel() != null) {
+			byLabel.putIfAbsent(shard.getShardLabel(), shard);
+		}
+		registry = new Registry(byId, byLabel);
+		logger.info("Added shard {} with label {}", shard.getShardId(), shard.getShardLabel());
 		return shard;
 	}
 
 	public String getShardProperty() {
 		return dbConnectionInfoMgr.getShardProperty();
 	}
+
 	/**
-	 * activates a shard (Default or others) and returns it.
+	 * Returns the shard the advisor picks for the attribute value (Default or others).
 	 * @param attributeValue
 	 * @return
 	 * @throws CustomException
 	 */
 	public Shard getShard(Object attributeValue) {
-
-		if(attributeValue != null){
-			activateDbShard(attributeValue);
-		}else{
-			activateDbShard(null);
-		}
-		return shard;
+		DBConnectionInfo connectionInfo = shardAdvisor.getShard(attributeValue);
+		return resolve(connectionInfo);
 	}
+
 	/**
 	 * Default shard return first shard.
 	 * Atleast one shard configuration is mandatory.
@@ -69,43 +94,81 @@ public class ShardManager {
 	 * @throws CustomException
 	 */
 	public Shard getDefaultShard() {
-		activateDbShard(null);
-		return shard;
+		return getShard(null);
 	}
 
 	/**
-	 * activate a shard given a shardId from entity cache
+	 * Returns a shard given a shardId from entity cache, the default shard if the shardId is null.
 	 * use this for read operation
 	 * @param shardId
 	 * @return
 	 * @throws CustomException
 	 */
 	public Shard activateShard(String shardId) {
-		if (shardId != null) {
-			DBConnectionInfo connectionInfo = dbConnectionInfoMgr.getDBConnectionInfo(shardId);
-			DatabaseProvider databaseProvider = dbProviderFactory.getInstance(connectionInfo);
-			shard = new Shard();
-			shard.setShardId(shardId);
-			shard.setShardLabel(connectionInfo.getShardLabel());
-			shard.setDatabaseProvider(databaseProvider);
-		} else {
-			logger.info("Default shard is activated");
-			shard = activateDbShard(null);
+		if (shardId == null) {
+			return getDefaultShard();
+		}
+		Shard shard = registry.byId.get(shardId);
+		if (shard == null) {
+			shard = resolve(dbConnectionInfoMgr.getDBConnectionInfo(shardId));
+		}
+		return shard;
+	}
 
+	/**
+	 * Returns the shard owning records whose identifiers carry the label
+	 * @param shardLabel - label part of a RecordIdentifier
+	 * @return
+	 */
+	public Shard getShardByLabel(String shardLabel) {
+		Shard shard = shardLabel != null ? registry.byLabel.get(shardLabel) : null;
+		if (shard == null) {
+			shard = activateShard(dbConnectionInfoMgr.getShardId(shardLabel));
 		}
 		return shard;
 	}
 
-	public Shard getShardInstance(String shardId) {
-		Shard thisShard = new Shard();
+	/**
+	 * Returns the shard holding the record, following the advisor when the record was moved
+	 * off the shard its identifier names
+	 * @param recordId
+	 * @return
+	 */
+	public Shard getShardByRecord(RecordIdentifier recordId) {
+		String shardId = shardAdvisor.getRelocatedShardId(recordId);
 		if (shardId != null) {
-			DBConnectionInfo connectionInfo = dbConnectionInfoMgr.getDBConnectionInfo(shardId);
-			DatabaseProvider databaseProvider = dbProviderFactory.getInstance(connectionInfo);
-			thisShard.setShardId(connectionInfo.getShardId());
-			thisShard.setDatabaseProvider(databaseProvider);
+			return activateShard(shardId);
+		}
+		return getShardByLabel(recordId.getShardLabel());
+	}
+
+	public Collection<Shard> getShards() {
+		return registry.byId.values();
+	}
+
+	public Shard getShardInstance(String shardId) {
+		if (shardId == null) {
+			return new Shard();
+		}
+		return activateShard(shardId);
+	}
+
+	private Shard resolve(DBConnectionInfo connectionInfo) {
+		if (connectionInfo == null) {
+			return null;
 		}
+		Shard shard = registry.byId.get(connectionInfo.getShardId());
+		return shard != null ? shard : addShard(connectionInfo);
+	}
 
-		return thisShard;
+	private static class Registry {
+		private final Map<String, Shard> byId;
+		private final Map<String, Shard> byLabel;
+
+		private Registry(Map<String, Shard> byId, Map<String, Shard> byLabel) {
+			this.byId = Collections.unmodifiableMap(byId);
+			this.byLabel = Collections.unmodifiableMap(byLabel);
+		}
 	}
 
 }
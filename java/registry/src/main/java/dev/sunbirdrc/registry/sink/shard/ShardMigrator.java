@@ -0,0 +1,287 @@
+package dev.sunbirdrc.registry.sink.shard;
+
+import com.google.common.collect.Lists;
+import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.util.IDefinitionsManager;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves records to the shards the ConsistentHashShardAdvisor targets, one key range at a time:
+ * <ol>
+ *     <li>writers of the range are fenced, on every instance, through the routing table</li>
+ *     <li>the records of the range are copied in batches, keeping their osids, a redirect is
+ *     recorded for each and the source copy is removed</li>
+ *     <li>the range is switched to its target owner and the fence lifted</li>
+ * </ol>
+ * Records are found by the hash of their shard key, which is kept on the root vertex and indexed,
+ * so that a range is read with a range scan. Once no range is pending, a sweep moves the records
+ * whose writes were in flight during a switch, and the target ring is promoted. Run it on a single
+ * instance, the fence is held by one instance at a time so a second one fails its runs.
+ */
+@Component
+public class ShardMigrator {
+	private static Logger logger = LoggerFactory.getLogger(ShardMigrator.class);
+
+	@Value("${database.migration.enabled:false}")
+	private boolean migrationEnabled;
+
+	@Value("${database.migration.batchSize:100}")
+	private int batchSize;
+
+	@Value("${database.migration.rangesPerRun:8}")
+	private int rangesPerRun;
+
+	@Autowired
+	private ShardManager shardManager;
+
+	@Autowired
+	private ShardRoutingTable routingTable;
+
+	@Autowired
+	private IShardAdvisor shardAdvisor;
+
+	@Autowired
+	private IDefinitionsManager definitionsManager;
+
+	@Autowired
+	private DBConnectionInfoMgr dbConnectionInfoMgr;
+
+	private final Set<String> indexedLabels = ConcurrentHashMap.newKeySet();
+
+	@Scheduled(fixedDelayString = "${database.migration.interval:60000}")
+	public void migrate() {
+		if (!migrationEnabled || !(shardAdvisor instanceof ConsistentHashShardAdvisor)) {
+			return;
+		}
+		try {
+			ShardRoutingTable.RoutingState state = routingTable.getState();
+			if (!state.isMigrating()) {
+				return;
+			}
+			List<Long> pending = state.getPendingRanges();
+			if (pending.isEmpty()) {
+				int moved = moveRecords(state.getSwitchedRanges(), null);
+				if (moved == 0) {
+					routingTable.promote();
+				} else {
+					logger.info("Swept {} records written during the switch", moved);
+				}
+				return;
+			}
+			for (Long range : pending.subList(0, Math.min(rangesPerRun, pending.size()))) {
+				migrateRange(range);
+			}
+			logger.info("{} ranges left to migrate", routingTable.getState().getPendingRanges().size());
+		} catch (Exception e) {
+			logger.error("Shard migration failed, it resumes on the next run", e);
+		}
+	}
+
+	private void migrateRange(long range) throws Exception {
+		routingTable.fence(range);
+		try {
+			int moved = moveRecords(Collections.singleton(range), range);
+			routingTable.switchRange(range);
+			logger.info("Moved {} records of range {}", moved, range);
+		} finally {
+			routingTable.unfence();
+		}
+	}
+
+	/**
+	 * Moves the records whose shard key hashes into the given ranges of the target ring to their target owner
+	 * @param fencedRange - the range fenced for the move, its fence is renewed after every batch
+	 * @return the number of records moved
+	 */
+	private int moveRecords(Collection<Long> ranges, Long fencedRange) throws Exception {
+		ConsistentHashRing target = routingTable.getState().getTarget();
+		Set<String> shardIds = new TreeSet<>(routingTable.getState().getActive().getMembers().keySet());
+		shardIds.addAll(target.getMembers().keySet());
+		int moved = 0;
+		for (String shardId : shardIds) {
+			Shard source = shardManager.activateShard(shardId);
+			for (String entityType : definitionsManager.getAllKnownDefinitions()) {
+				hashShardKeys(source, entityType);
+				Map<String, List<String>> recordsByDestination = findRecords(source, entityType, target, ranges);
+				for (Map.Entry<String, List<String>> destination : recordsByDestination.entrySet()) {
+					Shard destinationShard = shardManager.activateShard(destination.getKey());
+					for (List<String> batch : Lists.partition(destination.getValue(), batchSize)) {
+						moveBatch(source, destinationShard, batch);
+						moved += batch.size();
+						if (fencedRange != null) {
+							routingTable.fence(fencedRange);
+						}
+					}
+				}
+			}
+		}
+		return moved;
+	}
+
+	/**
+	 * Keeps the hash of the shard key on the root vertices which don't have it yet, the records written
+	 * since the last run, and indexes it
+	 */
+	private void hashShardKeys(Shard source, String entityType) throws Exception {
+		String shardProperty = dbConnectionInfoMgr.getShardProperty();
+		DatabaseProvider databaseProvider = source.getDatabaseProvider();
+		try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+			Graph graph = osGraph.getGraphStore();
+			boolean hashed;
+			do {
+				try (Transaction tx = databaseProvider.startTransaction(graph)) {
+					List<Vertex> vertices = graph.traversal().V().hasLabel(entityType).has(shardProperty)
+							.hasNot(Constants.SHARD_HASH_KEYWORD).limit(batchSize).toList();
+					for (Vertex vertex : vertices) {
+						String key = ConsistentHashShardAdvisor.keyOf(vertex.value(shardProperty));
+						vertex.property(Constants.SHARD_HASH_KEYWORD, ConsistentHashRing.hash(key));
+					}
+					databaseProvider.commitTransaction(graph, tx);
+					hashed = !vertices.isEmpty();
+				}
+				// Sqlg only indexes existing columns
+				if (hashed && indexedLabels.add(source.getShardId() + "/" + entityType)) {
+					try (Transaction tx = databaseProvider.startTransaction(graph)) {
+						databaseProvider.createIndex(graph, entityType, Collections.singletonList(Constants.SHARD_HASH_KEYWORD));
+						databaseProvider.commitTransaction(graph, tx);
+					}
+				}
+			} while (hashed);
+		}
+	}
+
+	/**
+	 * Returns the ids of the records of the shard which belong elsewhere, grouped by destination
+	 */
+	private Map<String, List<String>> findRecords(Shard source, String entityType, ConsistentHashRing target,
+												  Collection<Long> ranges) throws Exception {
+		String uuidPropertyName = dbConnectionInfoMgr.getUuidPropertyName();
+		Map<String, List<String>> recordsByDestination = new HashMap<>();
+		DatabaseProvider databaseProvider = source.getDatabaseProvider();
+		try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+			Graph graph = osGraph.getGraphStore();
+			try (Transaction tx = databaseProvider.startTransaction(graph)) {
+				for (long range : ranges) {
+					String owner = target.ownerOf(range);
+					if (owner.equals(source.getShardId())) {
+						continue;
+					}
+					long previous = target.previousToken(range);
+					List<GraphTraversal<Vertex, Vertex>> scans = new ArrayList<>();
+					if (previous < range) {
+						scans.add(graph.traversal().V().hasLabel(entityType).has(Constants.SHARD_HASH_KEYWORD, P.gt(previous))
+								.has(Constants.SHARD_HASH_KEYWORD, P.lte(range)));
+					} else {
+						// the range wraps around the end of the ring
+						scans.add(graph.traversal().V().hasLabel(entityType).has(Constants.SHARD_HASH_KEYWORD, P.gt(previous)));
+						scans.add(graph.traversal().V().hasLabel(entityType).has(Constants.SHARD_HASH_KEYWORD, P.lte(range)));
+					}
+					for (GraphTraversal<Vertex, Vertex> scan : scans) {
+						scan.forEachRemaining(vertex -> recordsByDestination
+								.computeIfAbsent(owner, k -> new ArrayList<>()).add(vertex.value(uuidPropertyName)));
+					}
+				}
+				databaseProvider.commitTransaction(graph, tx);
+			}
+		}
+		return recordsByDestination;
+	}
+
+	/**
+	 * Copies the records with their osids, records the redirects and then removes the source
+	 * copies, so that a record can always be read from one of the two shards
+	 */
+	private void moveBatch(Shard source, Shard destination, List<String> uuids) throws Exception {
+		String uuidPropertyName = dbConnectionInfoMgr.getUuidPropertyName();
+		DatabaseProvider sourceProvider = source.getDatabaseProvider();
+		DatabaseProvider destinationProvider = destination.getDatabaseProvider();
+		try (OSGraph sourceOSGraph = sourceProvider.getOSGraph();
+			 OSGraph destinationOSGraph = destinationProvider.getOSGraph()) {
+			Graph sourceGraph = sourceOSGraph.getGraphStore();
+			Graph destinationGraph = destinationOSGraph.getGraphStore();
+
+			try (Transaction tx = destinationProvider.startTransaction(destinationGraph)) {
+				try (Transaction sourceTx = sourceProvider.startTransaction(sourceGraph)) {
+					for (String uuid : uuids) {
+						// Left over by an interrupted run
+						removeRecord(destinationGraph, uuid);
+						copyRecord(getRecordVertices(sourceGraph, uuid), destinationGraph, uuidPropertyName);
+					}
+					sourceProvider.commitTransaction(sourceGraph, sourceTx);
+				}
+				destinationProvider.commitTransaction(destinationGraph, tx);
+			}
+
+			Map<String, String> redirects = new HashMap<>();
+			uuids.forEach(uuid -> redirects.put(uuid, destination.getShardId()));
+			routingTable.addRedirects(source.getShardId(), redirects);
+
+			try (Transaction tx = sourceProvider.startTransaction(sourceGraph)) {
+				for (String uuid : uuids) {
+					removeRecord(sourceGraph, uuid);
+				}
+				sourceProvider.commitTransaction(sourceGraph, tx);
+			}
+		}
+	}
+
+	/**
+	 * The root vertex and the vertices of its nested objects and arrays, which carry the root osid
+	 */
+	private List<Vertex> getRecordVertices(Graph graph, String uuid) {
+		List<Vertex> vertices = new ArrayList<>();
+		graph.traversal().V().has(dbConnectionInfoMgr.getUuidPropertyName(), uuid).forEachRemaining(vertices::add);
+		graph.traversal().V().has(Constants.ROOT_KEYWORD, uuid).forEachRemaining(vertices::add);
+		return vertices;
+	}
+
+	/**
+	 * Copies the vertices and the edges between them. Records only link their own vertices, edges to or from
+	 * the vertices of another record can't be followed to the destination shard and are dropped, with a warning.
+	 */
+	private void copyRecord(List<Vertex> vertices, Graph destinationGraph, String uuidPropertyName) {
+		Map<Object, Vertex> copies = new HashMap<>();
+		for (Vertex vertex : vertices) {
+			Vertex copy = destinationGraph.addVertex(T.label, vertex.label());
+			vertex.properties().forEachRemaining(property -> copy.property(property.key(), property.value()));
+			copies.put(vertex.id(), copy);
+		}
+		for (Vertex vertex : vertices) {
+			vertex.edges(Direction.OUT).forEachRemaining(edge -> {
+				Vertex inCopy = copies.get(edge.inVertex().id());
+				if (inCopy == null) {
+					logger.warn("Edge {} of record vertex {} leaves the record, not copied", edge.label(),
+							vertex.value(uuidPropertyName).toString());
+					return;
+				}
+				Edge copy = copies.get(vertex.id()).addEdge(edge.label(), inCopy);
+				edge.properties().forEachRemaining(property -> copy.property(property.key(), property.value()));
+			});
+			// Edges within the record are copied as OUT edges above
+			vertex.edges(Direction.IN).forEachRemaining(edge -> {
+				if (!copies.containsKey(edge.outVertex().id())) {
+					logger.warn("Edge {} into record vertex {} comes from outside the record, not copied", edge.label(),
+							vertex.value(uuidPropertyName).toString());
+				}
+			});
+		}
+	}
+
+	private void removeRecord(Graph graph, String uuid) {
+		getRecordVertices(graph, uuid).forEach(Vertex::remove);
+	}
+}
@@ -0,0 +1,632 @@
+package dev.sunbirdrc.registry.sink.shard;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import dev.sunbirdrc.registry.exception.ShardRangeMigratingException;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.sink.DBProviderFactory;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.sink.VertexLeases;
+import dev.sunbirdrc.registry.util.RecordIdentifier;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The routing table of the ConsistentHashShardAdvisor, persisted on the default shard:
+ * <ul>
+ *     <li>the active ring - the shards and weights records are placed by</li>
+ *     <li>the target ring - the configured shards and weights, while they differ from the active ring</li>
+ *     <li>the switched ranges - ranges of the target ring whose keys were moved to their target owner</li>
+ *     <li>redirects - the shard a record was moved to, so that its RecordIdentifier keeps resolving, and the
+ *     shards records were moved off, only the identifiers naming one of them are looked up</li>
+ *     <li>the fence - the range being migrated, the instance migrating it and until when it is held</li>
+ * </ul>
+ * The table is loaded on first use and reloaded periodically. While a migration is in progress, writers
+ * read the switched ranges and the fence from the database, at most once per fence cache ttl, and the
+ * migrating instance waits that long after taking a fence, so that a switch or a fence it makes applies
+ * to every instance before records are moved.
+ */
+@Component
+public class ShardRoutingTable {
+	private static Logger logger = LoggerFactory.getLogger(ShardRoutingTable.class);
+
+	public static final String ROUTING_LABEL = "ShardRoutingTable";
+	public static final String REDIRECT_LABEL = "ShardRedirect";
+	public static final String MEMBERS = "members";
+	public static final String TARGET_MEMBERS = "targetMembers";
+	public static final String SWITCHED_RANGES = "switchedRanges";
+	public static final String VIRTUAL_NODES = "virtualNodes";
+	// Replaced by redirectSources, only read to upgrade the tables written before it
+	public static final String HAS_REDIRECTS = "hasRedirects";
+	public static final String REDIRECT_SOURCES = "redirectSources";
+	public static final String RECORD_ID = "recordId";
+	public static final String SHARD_ID = "shardId";
+	public static final String FENCED_RANGE = "fencedRange";
+	public static final String FENCED_UNTIL = "fencedUntil";
+	public static final String FENCE_OWNER = "fenceOwner";
+
+	@Value("${database.virtualNodes:128}")
+	private int virtualNodes;
+
+	@Value("${database.routing.fenceTimeout:5000}")
+	private long fenceTimeout;
+
+	@Value("${database.routing.fenceLease:600000}")
+	private long fenceLease;
+
+	@Value("${database.routing.fenceCacheTtl:1000}")
+	private long fenceCacheTtl;
+
+	@Value("${database.routing.redirectCacheSize:100000}")
+	private long redirectCacheSize;
+
+	@Value("${database.routing.refreshInterval:10000}")
+	private long refreshInterval;
+
+	@Autowired
+	private DBConnectionInfoMgr dbConnectionInfoMgr;
+
+	@Autowired
+	private DBProviderFactory dbProviderFactory;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private volatile RoutingState state;
+	private final Object fenceMonitor = new Object();
+	private volatile Long fencedRange;
+	private volatile Fence cachedFence;
+	private Cache<String, Optional<String>> redirects;
+
+	@PostConstruct
+	public void init() {
+		// Negative entries expire so that moves made by another instance are seen
+		redirects = CacheBuilder.newBuilder()
+				.maximumSize(redirectCacheSize)
+				.expireAfterWrite(refreshInterval, TimeUnit.MILLISECONDS)
+				.build();
+	}
+
+	/**
+	 * Returns the shardId owning the key. While the range of the key is being switched, waits when this
+	 * instance is migrating it and fails when another one is, the write can then be retried.
+	 * @param key
+	 * @return
+	 * @throws ShardRangeMigratingException when the range stays fenced
+	 */
+	public String route(String key) {
+		long hash = ConsistentHashRing.hash(key);
+		RoutingState current = getState();
+		if (!current.isMigrating()) {
+			return current.ownerOf(hash);
+		}
+		Fence fence = getFence();
+		if (!fence.switchedRanges.equals(current.switchedRanges)) {
+			refresh();
+			current = getState();
+			if (!current.isMigrating()) {
+				return current.ownerOf(hash);
+			}
+		}
+		long range = current.getTarget().tokenOf(hash);
+		if (fence.holds(range, System.currentTimeMillis())) {
+			if (!VertexLeases.getInstanceId().equals(fence.owner)) {
+				throw new ShardRangeMigratingException(fenceTimeout);
+			}
+			awaitUnfenced(range);
+			current = getState();
+		}
+		return current.ownerOf(hash);
+	}
+
+	/**
+	 * Returns the shardId the record was moved to, null if it was never moved. Only identifiers naming
+	 * a shard records were moved off, or a shard which is no longer configured, are looked up.
+	 * @param recordId
+	 * @return
+	 */
+	public String getRedirect(RecordIdentifier recordId) {
+		String shardId = dbConnectionInfoMgr.getShardId(recordId.getShardLabel());
+		RoutingState current = getState();
+		if (!current.hasRedirects() || (shardId != null && !current.getRedirectSources().contains(shardId))) {
+			return null;
+		}
+		String uuid = recordId.getUuid();
+		try {
+			return redirects.get(uuid, () -> Optional.ofNullable(readRedirect(uuid))).orElse(null);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Can't read the shard redirect of " + uuid, e.getCause());
+		}
+	}
+
+	public RoutingState getState() {
+		RoutingState current = state;
+		if (current == null) {
+			synchronized (this) {
+				if (state == null) {
+					state = load();
+				}
+				current = state;
+			}
+		}
+		return current;
+	}
+
+	@Scheduled(fixedDelayString = "${database.routing.refreshInterval:10000}")
+	public void refresh() {
+		if (state == null) {
+			return;
+		}
+		try {
+			synchronized (this) {
+				state = load();
+			}
+			cachedFence = null;
+		} catch (Exception e) {
+			logger.error("Refreshing the shard routing table failed", e);
+		}
+	}
+
+	/**
+	 * Stops the writes of keys in the range, on every instance, until unfence is called or the fence
+	 * lease runs out. Calling it again for the fenced range renews the lease.
+	 * @param range
+	 * @throws IOException when another instance holds the fence
+	 */
+	public void fence(long range) throws IOException {
+		long now = System.currentTimeMillis();
+		String instanceId = VertexLeases.getInstanceId();
+		DatabaseProvider databaseProvider = getHomeProvider();
+		try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+			Graph graph = osGraph.getGraphStore();
+			boolean claimed;
+			try (Transaction tx = databaseProvider.startTransaction(graph)) {
+				// Only applies while the fence is free or already ours
+				claimed = graph.traversal().V().hasLabel(ROUTING_LABEL)
+						.or(__.has(FENCED_UNTIL, P.lte(now)), __.has(FENCE_OWNER, instanceId))
+						.property(FENCED_RANGE, range)
+						.property(FENCED_UNTIL, now + fenceLease)
+						.property(FENCE_OWNER, instanceId)
+						.tryNext().isPresent();
+				databaseProvider.commitTransaction(graph, tx);
+			}
+			if (!claimed || !instanceId.equals(readFence().owner)) {
+				throw new IOException("Shard key ranges are being migrated by another instance");
+			}
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException("Can't fence the shard key range " + range, e);
+		}
+		boolean renewed;
+		synchronized (fenceMonitor) {
+			renewed = fencedRange != null && fencedRange == range;
+			fencedRange = range;
+		}
+		cachedFence = null;
+		if (!renewed && fenceCacheTtl > 0) {
+			// Writers of the other instances see the fence once the copy they cached expires
+			try {
+				Thread.sleep(fenceCacheTtl);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while fencing the shard key range " + range, e);
+			}
+		}
+	}
+
+	public void unfence() throws IOException {
+		try {
+			update(vertex -> {
+				if (VertexLeases.getInstanceId().equals(vertex.property(FENCE_OWNER).orElse(null))) {
+					vertex.property(FENCED_UNTIL, 0L);
+				}
+			});
+		} finally {
+			synchronized (fenceMonitor) {
+				fencedRange = null;
+				fenceMonitor.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Gives the keys of the range to its target owner
+	 * @param range - token of the target ring closing the range
+	 * @throws IOException
+	 */
+	public synchronized void switchRange(long range) throws IOException {
+		RoutingState current = getState();
+		Set<Long> switched = new TreeSet<>(current.switchedRanges);
+		switched.add(range);
+		update(vertex -> vertex.property(SWITCHED_RANGES, writeJson(switched)));
+		logger.info("Switched range {} to shard {}", range, current.getTarget().ownerOf(range));
+	}
+
+	/**
+	 * Makes the target ring the active one, once all the ranges are switched
+	 * @throws IOException
+	 */
+	public synchronized void promote() throws IOException {
+		RoutingState current = getState();
+		if (!current.isMigrating()) {
+			return;
+		}
+		update(vertex -> {
+			vertex.property(MEMBERS, writeJson(current.getTarget().getMembers()));
+			vertex.property(TARGET_MEMBERS, "");
+			vertex.property(SWITCHED_RANGES, "[]");
+		});
+		logger.info("Shard ring {} is now active", current.getTarget().getMembers());
+	}
+
+	/**
+	 * Records where the records were moved to
+	 * @param sourceShardId - the shard the records were moved off
+	 * @param recordShards - record uuid to shardId
+	 * @throws IOException
+	 */
+	public synchronized void addRedirects(String sourceShardId, Map<String, String> recordShards) throws IOException {
+		if (recordShards.isEmpty()) {
+			return;
+		}
+		DatabaseProvider databaseProvider = getHomeProvider();
+		try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+			Graph graph = osGraph.getGraphStore();
+			boolean firstRedirects;
+			try (Transaction tx = databaseProvider.startTransaction(graph)) {
+				for (Map.Entry<String, String> recordShard : recordShards.entrySet()) {
+					Iterator<Vertex> existing = graph.traversal().V().hasLabel(REDIRECT_LABEL)
+							.has(RECORD_ID, recordShard.getKey());
+					Vertex redirect = existing.hasNext() ? existing.next() : graph.addVertex(T.label, REDIRECT_LABEL);
+					redirect.property(RECORD_ID, recordShard.getKey());
+					redirect.property(SHARD_ID, recordShard.getValue());
+				}
+				Vertex routing = graph.traversal().V().hasLabel(ROUTING_LABEL).next();
+				Set<String> sources = readRedirectSources(routing);
+				firstRedirects = sources.isEmpty();
+				if (sources.add(sourceShardId)) {
+					routing.property(REDIRECT_SOURCES, writeJson(sources));
+				}
+				databaseProvider.commitTransaction(graph, tx);
+			}
+			if (firstRedirects) {
+				try (Transaction tx = databaseProvider.startTransaction(graph)) {
+					databaseProvider.createIndex(graph, REDIRECT_LABEL, Collections.singletonList(RECORD_ID));
+					databaseProvider.commitTransaction(graph, tx);
+				}
+			}
+		} catch (Exception e) {
+			throw new IOException("Can't write shard redirects", e);
+		}
+		recordShards.forEach((uuid, shardId) -> redirects.put(uuid, Optional.of(shardId)));
+		state = getState().withRedirectSource(sourceShardId);
+	}
+
+	public Map<String, Object> describe() {
+		RoutingState current = getState();
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put(MEMBERS, current.getActive().getMembers());
+		result.put(VIRTUAL_NODES, current.getActive().getVirtualNodes());
+		if (current.isMigrating()) {
+			result.put(TARGET_MEMBERS, current.getTarget().getMembers());
+			result.put("pendingRanges", current.getPendingRanges().size());
+			result.put(SWITCHED_RANGES, current.switchedRanges.size());
+		}
+		result.put(REDIRECT_SOURCES, current.getRedirectSources());
+		return result;
+	}
+
+	private void awaitUnfenced(long range) {
+		long deadline = System.currentTimeMillis() + fenceTimeout;
+		synchronized (fenceMonitor) {
+			while (fencedRange != null && fencedRange == range) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					throw new ShardRangeMigratingException(fenceTimeout);
+				}
+				try {
+					fenceMonitor.wait(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while the shard key range is migrated", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the table, creating it from the configuration on the first start. A target ring
+	 * is planned when the configured shards differ from the active ones.
+	 */
+	private RoutingState load() {
+		DatabaseProvider databaseProvider = getHomeProvider();
+		try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+			Graph graph = osGraph.getGraphStore();
+			try (Transaction tx = databaseProvider.startTransaction(graph)) {
+				Map<String, Integer> configured = getConfiguredMembers();
+				Iterator<Vertex> existing = graph.traversal().V().hasLabel(ROUTING_LABEL);
+				Vertex vertex;
+				if (existing.hasNext()) {
+					vertex = existing.next();
+				} else {
+					vertex = graph.addVertex(T.label, ROUTING_LABEL);
+					vertex.property(MEMBERS, writeJson(configured));
+					vertex.property(VIRTUAL_NODES, virtualNodes);
+					vertex.property(TARGET_MEMBERS, "");
+					vertex.property(SWITCHED_RANGES, "[]");
+					vertex.property(REDIRECT_SOURCES, "[]");
+					logger.info("Created shard routing table with shards {}", configured);
+				}
+				if (!vertex.property(REDIRECT_SOURCES).isPresent()) {
+					// Which shards the records were moved off wasn't kept, any configured one may be
+					Set<String> sources = new TreeSet<>();
+					if ((Boolean) vertex.property(HAS_REDIRECTS).orElse(false)) {
+						sources.addAll(readMembers(vertex.value(MEMBERS)).keySet());
+						sources.addAll(configured.keySet());
+					}
+					vertex.property(REDIRECT_SOURCES, writeJson(sources));
+				}
+				if (!vertex.property(FENCED_UNTIL).isPresent()) {
+					vertex.property(FENCED_UNTIL, 0L);
+					vertex.property(FENCE_OWNER, "");
+				}
+				RoutingState loaded = read(vertex);
+				Map<String, Integer> planned = loaded.isMigrating() ?
+						loaded.getTarget().getMembers() : loaded.getActive().getMembers();
+				if (!planned.equals(configured)) {
+					if (loaded.isMigrating()) {
+						logger.warn("Configured shards {} will be planned once the move to {} completes",
+								configured, planned);
+					} else {
+						vertex.property(TARGET_MEMBERS, writeJson(configured));
+						vertex.property(SWITCHED_RANGES, "[]");
+						loaded = read(vertex);
+						logger.info("Planned the move of {} ranges to shards {}", loaded.getPendingRanges().size(), configured);
+					}
+				}
+				databaseProvider.commitTransaction(graph, tx);
+				return loaded;
+			}
+		} catch (Exception e) {
+			throw new IllegalStateException("Can't load the shard routing table", e);
+		}
+	}
+
+	private interface VertexUpdate {
+		void apply(Vertex vertex) throws IOException;
+	}
+
+	private void update(VertexUpdate vertexUpdate) throws IOException {
+		DatabaseProvider databaseProvider = getHomeProvider();
+		try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+			Graph graph = osGraph.getGraphStore();
+			try (Transaction tx = databaseProvider.startTransaction(graph)) {
+				Vertex vertex = graph.traversal().V().hasLabel(ROUTING_LABEL).next();
+				vertexUpdate.apply(vertex);
+				RoutingState updated = read(vertex);
+				databaseProvider.commitTransaction(graph, tx);
+				// Published only once durable, writers then route by it
+				state = updated;
+				cachedFence = null;
+			}
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException("Can't update the shard routing table", e);
+		}
+	}
+
+	/**
+	 * Returns the fence read at most fence cache ttl ago
+	 */
+	private Fence getFence() {
+		Fence current = cachedFence;
+		if (current == null || System.currentTimeMillis() - current.readAt >= fenceCacheTtl) {
+			current = readFence();
+			cachedFence = current;
+		}
+		return current;
+	}
+
+	/**
+	 * Reads the switched ranges and the fence, without building the rings
+	 */
+	private Fence readFence() {
+		long readAt = System.currentTimeMillis();
+		DatabaseProvider databaseProvider = getHomeProvider();
+		try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+			Graph graph = osGraph.getGraphStore();
+			try (Transaction tx = databaseProvider.startTransaction(graph)) {
+				Vertex vertex = graph.traversal().V().hasLabel(ROUTING_LABEL).next();
+				Set<Long> switched = objectMapper.readValue((String) vertex.value(SWITCHED_RANGES), new TypeReference<Set<Long>>() {});
+				Fence fence = new Fence(switched, vertex.<Long>property(FENCED_RANGE).orElse(null),
+						((Number) vertex.property(FENCED_UNTIL).orElse(0L)).longValue(),
+						vertex.<String>property(FENCE_OWNER).orElse(null), readAt);
+				databaseProvider.commitTransaction(graph, tx);
+				return fence;
+			}
+		} catch (Exception e) {
+			throw new IllegalStateException("Can't read the shard routing fence", e);
+		}
+	}
+
+	private String readRedirect(String uuid) throws Exception {
+		DatabaseProvider databaseProvider = getHomeProvider();
+		try (OSGraph osGraph = databaseProvider.getOSGraph()) {
+			Graph graph = osGraph.getGraphStore();
+			try (Transaction tx = databaseProvider.startTransaction(graph)) {
+				Iterator<Object> shardIds = graph.traversal().V().hasLabel(REDIRECT_LABEL)
+						.has(RECORD_ID, uuid).values(SHARD_ID);
+				String shardId = shardIds.hasNext() ? (String) shardIds.next() : null;
+				databaseProvider.commitTransaction(graph, tx);
+				return shardId;
+			}
+		}
+	}
+
+	private RoutingState read(Vertex vertex) throws IOException {
+		int ringVirtualNodes = ((Number) vertex.value(VIRTUAL_NODES)).intValue();
+		ConsistentHashRing active = new ConsistentHashRing(readMembers(vertex.value(MEMBERS)), ringVirtualNodes);
+		String targetMembers = vertex.value(TARGET_MEMBERS);
+		ConsistentHashRing target = targetMembers.isEmpty() ? null :
+				new ConsistentHashRing(readMembers(targetMembers), ringVirtualNodes);
+		Set<Long> switched = objectMapper.readValue((String) vertex.value(SWITCHED_RANGES), new TypeReference<Set<Long>>() {});
+		return new RoutingState(active, target, switched, readRedirectSources(vertex));
+	}
+
+	private Set<String> readRedirectSources(Vertex vertex) throws IOException {
+		return objectMapper.readValue((String) vertex.value(REDIRECT_SOURCES), new TypeReference<TreeSet<String>>() {});
+	}
+
+	private Map<String, Integer> readMembers(String json) throws IOException {
+		return objectMapper.readValue(json, new TypeReference<Map<String, Integer>>() {});
+	}
+
+	private String writeJson(Object value) throws IOException {
+		return objectMapper.writeValueAsString(value);
+	}
+
+	private Map<String, Integer> getConfiguredMembers() {
+		Map<String, Integer> members = new TreeMap<>();
+		for (DBConnectionInfo connectionInfo : dbConnectionInfoMgr.getConnectionInfo()) {
+			members.put(connectionInfo.getShardId(), connectionInfo.getWeight());
+		}
+		return members;
+	}
+
+	/**
+	 * The table lives on the default shard
+	 */
+	private DatabaseProvider getHomeProvider() {
+		return dbProviderFactory.getInstance(dbConnectionInfoMgr.getConnectionInfo().get(0));
+	}
+
+	private static class Fence {
+		private final Set<Long> switchedRanges;
+		private final Long range;
+		private final long until;
+		private final String owner;
+		private final long readAt;
+
+		private Fence(Set<Long> switchedRanges, Long range, long until, String owner, long readAt) {
+			this.switchedRanges = switchedRanges;
+			this.range = range;
+			this.until = until;
+			this.owner = owner;
+			this.readAt = readAt;
+		}
+
+		private boolean holds(long token, long now) {
+			return range != null && range == token && until > now;
+		}
+	}
+
+	/**
+	 * An immutable snapshot of the table
+	 */
+	public static class RoutingState {
+		private final ConsistentHashRing active;
+		private final ConsistentHashRing target;
+		private final Set<Long> switchedRanges;
+		private final Set<String> redirectSources;
+		private final List<Long> pendingRanges;
+
+		private RoutingState(ConsistentHashRing active, ConsistentHashRing target, Set<Long> switchedRanges,
+							 Set<String> redirectSources) {
+			this.active = active;
+			this.target = target;
+			this.switchedRanges = Collections.unmodifiableSet(switchedRanges);
+			this.redirectSources = Collections.unmodifiableSet(redirectSources);
+			this.pendingRanges = target == null ? Collections.emptyList() : computePendingRanges();
+		}
+
+		private RoutingState withRedirectSource(String shardId) {
+			if (redirectSources.contains(shardId)) {
+				return this;
+			}
+			Set<String> sources = new TreeSet<>(redirectSources);
+			sources.add(shardId);
+			return new RoutingState(active, target, switchedRanges, sources);
+		}
+
+		/**
+		 * Ranges of the target ring holding keys of another active owner, and not switched yet
+		 */
+		private List<Long> computePendingRanges() {
+			List<Long> pending = new ArrayList<>();
+			for (long token : target.getTokens()) {
+				if (switchedRanges.contains(token)) {
+					continue;
+				}
+				Set<String> owners = active.ownersOfRange(target.previousToken(token), token);
+				if (owners.size() > 1 || !owners.contains(target.ownerOf(token))) {
+					pending.add(token);
+				}
+			}
+			return Collections.unmodifiableList(pending);
+		}
+
+		public String ownerOf(long hash) {
+			if (target != null && switchedRanges.contains(target.tokenOf(hash))) {
+				return target.ownerOf(hash);
+			}
+			return active.ownerOf(hash);
+		}
+
+		public boolean isMigrating() {
+			return target != null;
+		}
+
+		public boolean isSwitched(long hash) {
+			return target != null && switchedRanges.contains(target.tokenOf(hash));
+		}
+
+		public ConsistentHashRing getActive() {
+			return active;
+		}
+
+		public ConsistentHashRing getTarget() {
+			return target;
+		}
+
+		public List<Long> getPendingRanges() {
+			return pendingRanges;
+		}
+
+		public Set<Long> getSwitchedRanges() {
+			return switchedRanges;
+		}
+
+		public boolean hasRedirects() {
+			return !redirectSources.isEmpty();
+		}
+
+		/**
+		 * The shards records were moved off
+		 */
+		public Set<String> getRedirectSources() {
+			return redirectSources;
+		}
+	}
+}
@@ -25,9 +25,9 @@ public class ClaimRequestClient {
     private static final String CLAIMS_PATH = "/api/v1/claims";
     private static final String FETCH_CLAIMS_PATH = "/api/v1/getClaims";
 
-    ClaimRequestClient(@Value("${claims.url}") String claimRequestUrl, RestTemplate restTemplate) {
+    ClaimRequestClient(@Value("${claims.url}") String claimRequestUrl, OutboundHttpClients outboundHttpClients) {
         this.claimRequestUrl = claimRequestUrl;
-        this.restTemplate = restTemplate;
+        this.restTemplate = outboundHttpClients.getRestTemplate(OutboundHttpClients.CLAIMS);
     }
 
     public HashMap<String, Object> riseClaimRequest(ClaimDTO claimDTO) {
@@ -0,0 +1,194 @@
+package dev.sunbirdrc.registry.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Derives the elastic search mapping of an entity type from its schema definition:
+ * <ul>
+ *     <li>strings are text with a keyword sub field, enums, formatted strings (email, uri, uuid) and unique
+ *     index fields included, so that every text operator works on them. Exact matches, terms and suffixes
+ *     use the keyword sub field.</li>
+ *     <li>date and date-time strings are dates, integers longs, numbers doubles</li>
+ *     <li>arrays of objects are nested, objects without properties are stored but not indexed</li>
+ *     <li>private and internal fields are left out, they are never written to elastic search</li>
+ * </ul>
+ */
+public class ElasticMappingGenerator {
+    private static Logger logger = LoggerFactory.getLogger(ElasticMappingGenerator.class);
+
+    private static final String DEFINITIONS = "definitions";
+    private static final String PROPERTIES = "properties";
+    private static final String REF = "$ref";
+    private static final String TYPE = "type";
+    private static final String KEYWORD = "keyword";
+    private static final List<String> DATE_FORMATS = Arrays.asList("date", "date-time");
+    // Guards against schemas referring to each other in a cycle
+    private static final int MAX_DEPTH = 10;
+
+    private final IDefinitionsManager definitionsManager;
+    private final String uuidPropertyName;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ElasticMappingGenerator(IDefinitionsManager definitionsManager, String uuidPropertyName) {
+        this.definitionsManager = definitionsManager;
+        this.uuidPropertyName = uuidPropertyName;
+    }
+
+    /**
+     * @return the type mapping, with the properties of the entity and the system fields
+     */
+    public ObjectNode generate(Definition definition) throws IOException {
+        JsonNode schema = objectMapper.readTree(definition.getContent());
+        Set<String> excludedFields = new HashSet<>();
+        for (String path : definitionsManager.getExcludingFieldsForEntity(definition.getTitle())) {
+            excludedFields.add(path.startsWith("$.") ? path.substring(2) : path);
+        }
+
+        ObjectNode mapping = JsonNodeFactory.instance.objectNode();
+        ObjectNode properties = mapping.putObject(PROPERTIES);
+        addSystemProperties(properties);
+        properties.set(Constants.STATUS_KEYWORD, keyword());
+        addProperties(properties, schema, schema.path(DEFINITIONS).path(definition.getTitle()).path(PROPERTIES),
+                "", excludedFields, 0);
+        return mapping;
+    }
+
+    private void addProperties(ObjectNode mappingProperties, JsonNode schema, JsonNode schemaProperties, String prefix,
+                               Set<String> excludedFields, int depth) {
+        Iterator<Map.Entry<String, JsonNode>> fields = schemaProperties.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String path = prefix + field.getKey();
+            if (excludedFields.contains(path)) {
+                continue;
+            }
+            JsonNode fieldMapping = mappingOf(schema, field.getValue(), path, excludedFields, depth);
+            if (fieldMapping != null) {
+                mappingProperties.set(field.getKey(), fieldMapping);
+            }
+        }
+    }
+
+    /**
+     * @return the mapping of the field, null to leave it to dynamic mapping
+     */
+    private JsonNode mappingOf(JsonNode schema, JsonNode fieldSchema, String path, Set<String> excludedFields,
+                               int depth) {
+        if (depth > MAX_DEPTH) {
+            logger.warn("Schema too deep at {}, left to dynamic mapping", path);
+            return null;
+        }
+        if (fieldSchema.has(REF)) {
+            String ref = fieldSchema.get(REF).asText();
+            String name = ref.substring(ref.lastIndexOf("/") + 1);
+            if (!schema.path(DEFINITIONS).has(name)) {
+                Definition refDefinition = definitionsManager.getDefinition(name);
+                if (refDefinition == null) {
+                    logger.warn("Reference {} of {} not found, left to dynamic mapping", ref, path);
+                    return null;
+                }
+                try {
+                    schema = objectMapper.readTree(refDefinition.getContent());
+                } catch (IOException e) {
+                    logger.error("Invalid schema {}", name, e);
+                    return null;
+                }
+            }
+            fieldSchema = schema.path(DEFINITIONS).path(name);
+        }
+
+        String type = fieldSchema.path(TYPE).asText(fieldSchema.has(PROPERTIES) ? "object" : "");
+        ObjectNode mapping = JsonNodeFactory.instance.objectNode();
+        switch (type) {
+            case "array":
+                JsonNode itemMapping = mappingOf(schema, fieldSchema.path("items"), path, excludedFields, depth + 1);
+                if (itemMapping != null && itemMapping.has(PROPERTIES)) {
+                    // Keeps the fields of every item together
+                    ((ObjectNode) itemMapping).put(TYPE, "nested");
+                }
+                return itemMapping;
+            case "object":
+                if (!fieldSchema.path(PROPERTIES).fields().hasNext()) {
+                    // a free form object, kept in the source only
+                    return blob();
+                }
+                ObjectNode properties = mapping.putObject(PROPERTIES);
+                addSystemProperties(properties);
+                addProperties(properties, schema, fieldSchema.get(PROPERTIES), path + ".", excludedFields, depth + 1);
+                return mapping;
+            case "integer":
+                mapping.put(TYPE, "long");
+                mapping.put("ignore_malformed", true);
+                return mapping;
+            case "number":
+                mapping.put(TYPE, "double");
+                mapping.put("ignore_malformed", true);
+                return mapping;
+            case "boolean":
+                mapping.put(TYPE, "boolean");
+                return mapping;
+            case "string":
+                String format = fieldSchema.path("format").asText();
+                if (DATE_FORMATS.contains(format)) {
+                    return date();
+                }
+                mapping.put(TYPE, "text");
+                mapping.putObject("fields").set(KEYWORD, keyword());
+                return mapping;
+            default:
+                return null;
+        }
+    }
+
+    private void addSystemProperties(ObjectNode properties) {
+        properties.set(uuidPropertyName, keyword());
+        properties.set(OSSystemFields.osOwner.name(), keyword());
+        properties.set(OSSystemFields.osCreatedBy.name(), keyword());
+        properties.set(OSSystemFields.osUpdatedBy.name(), keyword());
+        properties.set(OSSystemFields.osCreatedAt.name(), date());
+        properties.set(OSSystemFields.osUpdatedAt.name(), date());
+        properties.set(OSSystemFields._osState.name(), keyword());
+        properties.set(OSSystemFields._osClaimId.name(), keyword());
+        properties.set(OSSystemFields._osSignedData.name(), storedOnly());
+        properties.set(OSSystemFields._osAttestedData.name(), blob());
+    }
+
+    private static ObjectNode keyword() {
+        ObjectNode mapping = JsonNodeFactory.instance.objectNode();
+        mapping.put(TYPE, KEYWORD);
+        mapping.put("ignore_above", 256);
+        return mapping;
+    }
+
+    private static ObjectNode date() {
+        ObjectNode mapping = JsonNodeFactory.instance.objectNode();
+        mapping.put(TYPE, "date");
+        mapping.put("ignore_malformed", true);
+        return mapping;
+    }
+
+    private static ObjectNode blob() {
+        ObjectNode mapping = JsonNodeFactory.instance.objectNode();
+        mapping.put(TYPE, "object");
+        mapping.put("enabled", false);
+        return mapping;
+    }
+
+    private static ObjectNode storedOnly() {
+        ObjectNode mapping = JsonNodeFactory.instance.objectNode();
+        mapping.put(TYPE, KEYWORD);
+        mapping.put("index", false);
+        mapping.put("doc_values", false);
+        return mapping;
+    }
+}
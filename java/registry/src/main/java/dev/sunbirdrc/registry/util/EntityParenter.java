@@ -19,7 +19,6 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -48,11 +47,16 @@ public class EntityParenter {
     /**
      * Holds information about a shard and a list of definitionParents
      */
-    private HashMap<String, ShardParentInfoList> shardParentMap = new HashMap<>();
+    private Map<String, ShardParentInfoList> shardParentMap = new ConcurrentHashMap<>();
     /**
      * Holds information for all definitions and it's indices
+     * key = shardId+definitionName
      */
     private Map<String, IndexFields> definitionIndexFields = new ConcurrentHashMap<String, IndexFields>();
+    /**
+     * Index creations running now, key = shardId+definitionName
+     */
+    private Set<String> indexingInProgress = ConcurrentHashMap.newKeySet();
 
 
     @Autowired
@@ -68,50 +72,58 @@ public class EntityParenter {
      * Loads all the definitions for each shard
      */
     public void loadDefinitionIndex() {
-        Map<String, Boolean> indexMap = new ConcurrentHashMap<String, Boolean>();
-
+        for (String shardId : shardParentMap.keySet()) {
+            loadDefinitionIndex(shardId);
+        }
+    }
 
-        for (Map.Entry<String, ShardParentInfoList> entry : shardParentMap.entrySet()) {
-            String shardId = entry.getKey();
-            ShardParentInfoList shardParentInfoList = entry.getValue();
-            shardParentInfoList.getParentInfos().forEach(shardParentInfo -> {
-                Definition definition = definitionsManager.getDefinition(shardParentInfo.getName());
-                Vertex parentVertex = shardParentInfo.getVertex();
-                List<String> indexFields = definition.getOsSchemaConfiguration().getIndexFields();
+    /**
+     * Loads all the definitions of a shard, finding the index fields not created yet
+     */
+    public void loadDefinitionIndex(String shardId) {
+        ShardParentInfoList shardParentInfoList = shardParentMap.get(shardId);
+        if (shardParentInfoList == null) {
+            return;
+        }
+        Map<String, Boolean> indexMap = new ConcurrentHashMap<String, Boolean>();
+        shardParentInfoList.getParentInfos().forEach(shardParentInfo -> {
+            Definition definition = definitionsManager.getDefinition(shardParentInfo.getName());
+            Vertex parentVertex = shardParentInfo.getVertex();
+            List<String> indexFields = definition.getOsSchemaConfiguration().getIndexFields();
+            // shards load their definitions at the same time
+            synchronized (indexFields) {
                 if (!indexFields.contains(uuidPropertyName)) {
                     indexFields.add(uuidPropertyName); // adds default field
                     // (uuid)
                 }
-                List<String> compositeIndexFields = IndexHelper.getCompositeIndexFields(indexFields);
-                List<String> uniqueIndexFields = definition.getOsSchemaConfiguration().getUniqueIndexFields();
-                List<String> compositeUniqueIndexFields = IndexHelper.getCompositeIndexFields(uniqueIndexFields);
-                List<String> singleIndexFields = IndexHelper.getSingleIndexFields(indexFields);
-                List<String> indexUniqueFields = IndexHelper.getSingleIndexFields(uniqueIndexFields);
-
-                IndexFields indicesByDefinition = new IndexFields();
-                indicesByDefinition.setDefinitionName(definition.getTitle());
-                indicesByDefinition.setIndexFields(indexFields);
-                indicesByDefinition.setUniqueIndexFields(indexUniqueFields);
-                indicesByDefinition.setNewSingleIndexFields(indexHelper.getNewFields(parentVertex, singleIndexFields, false));
-                indicesByDefinition.setNewCompositeIndexFields(indexHelper.getNewFields(parentVertex, compositeIndexFields, false));
-                indicesByDefinition.setNewUniqueIndexFields(indexHelper.getNewFields(parentVertex, indexUniqueFields, true));
-                indicesByDefinition.setNewCompositeUniqueIndexFields(indexHelper.getNewFields(parentVertex, compositeUniqueIndexFields, true));
-
-                int nNewIndices = indicesByDefinition.getNewSingleIndexFields().size();
-                int nNewUniqIndices = indicesByDefinition.getNewUniqueIndexFields().size();
-                int nNewCompIndices = indicesByDefinition.getNewCompositeIndexFields().size();
-                int nNewCompUniqueIndices = indicesByDefinition.getNewCompositeUniqueIndexFields().size();
-
-                boolean indexingComplete = (nNewIndices == 0 && nNewUniqIndices == 0 && nNewCompIndices == 0 && nNewCompUniqueIndices == 0);
-                indexHelper.updateDefinitionIndex(shardId, definition.getTitle(), indexingComplete);
-                logger.info("On loadDefinitionIndex for Shard:" + shardId + " definition: {} updated index to {} ",
-                        definition.getTitle(), indexingComplete);
-
-                definitionIndexFields.put(indicesByDefinition.getDefinitionName(), indicesByDefinition);
-
-            });
-
-        }
+            }
+            List<String> compositeIndexFields = IndexHelper.getCompositeIndexFields(indexFields);
+            List<String> uniqueIndexFields = definition.getOsSchemaConfiguration().getUniqueIndexFields();
+            List<String> compositeUniqueIndexFields = IndexHelper.getCompositeIndexFields(uniqueIndexFields);
+            List<String> singleIndexFields = IndexHelper.getSingleIndexFields(indexFields);
+            List<String> indexUniqueFields = IndexHelper.getSingleIndexFields(uniqueIndexFields);
+
+            IndexFields indicesByDefinition = new IndexFields();
+            indicesByDefinition.setDefinitionName(definition.getTitle());
+            indicesByDefinition.setIndexFields(indexFields);
+            indicesByDefinition.setUniqueIndexFields(indexUniqueFields);
+            indicesByDefinition.setNewSingleIndexFields(indexHelper.getNewFields(parentVertex, singleIndexFields, false));
+            indicesByDefinition.setNewCompositeIndexFields(indexHelper.getNewFields(parentVertex, compositeIndexFields, false));
+            indicesByDefinition.setNewUniqueIndexFields(indexHelper.getNewFields(parentVertex, indexUniqueFields, true));
+            indicesByDefinition.setNewCompositeUniqueIndexFields(indexHelper.getNewFields(parentVertex, compositeUniqueIndexFields, true));
+
+            int nNewIndices = indicesByDefinition.getNewSingleIndexFields().size();
+            int nNewUniqIndices = indicesByDefinition.getNewUniqueIndexFields().size();
+            int nNewCompIndices = indicesByDefinition.getNewCompositeIndexFields().size();
+            int nNewCompUniqueIndices = indicesByDefinition.getNewCompositeUniqueIndexFields().size();
+
+            boolean indexingComplete = (nNewIndices == 0 && nNewUniqIndices == 0 && nNewCompIndices == 0 && nNewCompUniqueIndices == 0);
+            indexMap.put(shardId + definition.getTitle(), indexingComplete);
+            logger.info("On loadDefinitionIndex for Shard:" + shardId + " definition: {} updated index to {} ",
+                    definition.getTitle(), indexingComplete);
+
+            definitionIndexFields.put(shardId + indicesByDefinition.getDefinitionName(), indicesByDefinition);
+        });
         indexHelper.setDefinitionIndexMap(indexMap);
     }
 
@@ -122,49 +134,50 @@ public class EntityParenter {
      */
     public Optional<String> ensureKnownParenters() {
         logger.info("Start - ensure parent node for defined schema");
-        Optional<String> result;
+        dbConnectionInfoList.forEach(this::ensureKnownParenters);
+        logger.info("End - ensure parent node for defined schema");
+        return Optional.empty();
+    }
 
-        dbConnectionInfoList.forEach(dbConnectionInfo -> {
-            logger.info("Starting to parents for {} definitions in shard {}", defintionNames.size(),
-                    dbConnectionInfo.getShardId());
-            DatabaseProvider dbProvider = dbProviderFactory.getInstance(dbConnectionInfo);
-            try {
-                try (OSGraph osGraph = dbProvider.getOSGraph()) {
-                    Graph graph = osGraph.getGraphStore();
-                    List<ShardParentInfo> shardParentInfoList = new ArrayList<>();
-                    try (Transaction tx = dbProvider.startTransaction(graph)) {
+    /**
+     * Creates the parent vertex in the shard for all default definitions
+     */
+    public void ensureKnownParenters(DBConnectionInfo dbConnectionInfo) {
+        logger.info("Starting to parents for {} definitions in shard {}", defintionNames.size(),
+                dbConnectionInfo.getShardId());
+        DatabaseProvider dbProvider = dbProviderFactory.getInstance(dbConnectionInfo);
+        try {
+            try (OSGraph osGraph = dbProvider.getOSGraph()) {
+                Graph graph = osGraph.getGraphStore();
+                List<ShardParentInfo> shardParentInfoList = new ArrayList<>();
+                try (Transaction tx = dbProvider.startTransaction(graph)) {
 
-                        List<String> parentLabels = new ArrayList<>();
-                        defintionNames.forEach(defintionName -> {
-                            String parentLabel = ParentLabelGenerator.getLabel(defintionName);
-                            parentLabels.add(parentLabel);
+                    List<String> parentLabels = new ArrayList<>();
+                    defintionNames.forEach(defintionName -> {
+                        String parentLabel = ParentLabelGenerator.getLabel(defintionName);
+                        parentLabels.add(parentLabel);
 
-                            VertexWriter vertexWriter = new VertexWriter(graph, dbProvider, uuidPropertyName);
-                            Vertex v = vertexWriter.ensureParentVertex(parentLabel);
+                        VertexWriter vertexWriter = new VertexWriter(graph, dbProvider, uuidPropertyName);
+                        Vertex v = vertexWriter.ensureParentVertex(parentLabel);
 
-                            ShardParentInfo shardParentInfo = new ShardParentInfo(defintionName, v);
-                            shardParentInfo.setUuid(dbProvider.getId(v));
-                            shardParentInfoList.add(shardParentInfo);
-                        });
+                        ShardParentInfo shardParentInfo = new ShardParentInfo(defintionName, v);
+                        shardParentInfo.setUuid(dbProvider.getId(v));
+                        shardParentInfoList.add(shardParentInfo);
+                    });
 
-                        ShardParentInfoList valList = new ShardParentInfoList();
-                        valList.setParentInfos(shardParentInfoList);
+                    ShardParentInfoList valList = new ShardParentInfoList();
+                    valList.setParentInfos(shardParentInfoList);
 
-                        shardParentMap.put(dbConnectionInfo.getShardId(), valList);
+                    shardParentMap.put(dbConnectionInfo.getShardId(), valList);
 
-                        dbProvider.commitTransaction(graph, tx);
-                    }
-                    logger.info("Ensured parents for {} definitions in shard {}", defintionNames.size(),
-                            dbConnectionInfo.getShardId());
+                    dbProvider.commitTransaction(graph, tx);
                 }
-            } catch (Exception e) {
-                logger.error("Can't ensure parents for definitions " + e);
+                logger.info("Ensured parents for {} definitions in shard {}", defintionNames.size(),
+                        dbConnectionInfo.getShardId());
             }
-        });
-
-        logger.info("End - ensure parent node for defined schema");
-        result = Optional.empty();
-        return result;
+        } catch (Exception e) {
+            logger.error("Can't ensure parents for definitions " + e);
+        }
     }
 
     /**
@@ -205,20 +218,25 @@ public class EntityParenter {
      * Indices gets added
      */
     public void ensureIndexExists() {
-        dbConnectionInfoList.forEach(dbConnectionInfo -> {
-            DatabaseProvider dbProvider = dbProviderFactory.getInstance(dbConnectionInfo);
-
-            for (Map.Entry<String, ShardParentInfoList> entry : shardParentMap.entrySet()) {
-                List<ShardParentInfo> shardParentInfoList = entry.getValue().getParentInfos();
-                shardParentInfoList.forEach(shardParentInfo -> {
-                    Definition definition = definitionsManager.getDefinition(shardParentInfo.getName());
-                    Vertex v = shardParentInfo.getVertex();
-                    ensureIndexExists(dbProvider, v, definition, dbConnectionInfo.getShardId());
+        dbConnectionInfoList.forEach(dbConnectionInfo -> ensureIndexExists(dbConnectionInfo, false));
+    }
 
-                });
-            }
+    /**
+     * Adds the missing indices of all the definitions of a shard
+     *
+     * @param uniqueOnly only the unique indices, the others are left for a later call
+     */
+    public void ensureIndexExists(DBConnectionInfo dbConnectionInfo, boolean uniqueOnly) {
+        String shardId = dbConnectionInfo.getShardId();
+        ShardParentInfoList shardParentInfoList = shardParentMap.get(shardId);
+        if (shardParentInfoList == null) {
+            return;
+        }
+        DatabaseProvider dbProvider = dbProviderFactory.getInstance(dbConnectionInfo);
+        shardParentInfoList.getParentInfos().forEach(shardParentInfo -> {
+            Definition definition = definitionsManager.getDefinition(shardParentInfo.getName());
+            addIndex(dbProvider, shardParentInfo.getVertex(), definition, shardId, uniqueOnly);
         });
-
     }
 
     /**
@@ -231,14 +249,25 @@ public class EntityParenter {
      */
     @Async("taskExecutor")
     public void ensureIndexExists(DatabaseProvider dbProvider, Vertex parentVertex, Definition definition, String shardId) {
+        addIndex(dbProvider, parentVertex, definition, shardId, false);
+    }
+
+    private void addIndex(DatabaseProvider dbProvider, Vertex parentVertex, Definition definition, String shardId, boolean uniqueOnly) {
+        String key = shardId + definition.getTitle();
+        // Writes ask for the index of a definition until it is created, one creation at a time is enough
+        if (!indexingInProgress.add(key)) {
+            return;
+        }
         try {
             if (!indexHelper.isIndexPresent(definition, shardId)) {
                 logger.info("Adding index to shard: {} for definition: {}", shardId, definition.getTitle());
-                asyncAddIndex(dbProvider, shardId, parentVertex, definition);
+                asyncAddIndex(dbProvider, shardId, parentVertex, definition, uniqueOnly);
             }
         } catch (Exception e) {
             logger.error("ensureIndexExists: Can't create index on table {} for shardId: {} ", definition.getTitle(),
                     shardId);
+        } finally {
+            indexingInProgress.remove(key);
         }
     }
 
@@ -251,26 +280,32 @@ public class EntityParenter {
      */
 
     private void asyncAddIndex(DatabaseProvider dbProvider, String shardId, Vertex parentVertex,
-            Definition definition) {
+            Definition definition, boolean uniqueOnly) {
         logger.debug("asyncAddIndex starts");
         if (parentVertex != null && definition != null) {
 
-            IndexFields inxFields = definitionIndexFields.get(definition.getTitle());
+            IndexFields inxFields = definitionIndexFields.get(shardId + definition.getTitle());
             try (OSGraph osGraph = dbProvider.getOSGraph()) {
                 Graph graph = osGraph.getGraphStore();
                 try (Transaction tx = dbProvider.startTransaction(graph)) {
 
 					Indexer indexer = new Indexer(dbProvider);
-					indexer.setSingleIndexFields(inxFields.getNewSingleIndexFields());
-					indexer.setCompositeIndexFields(inxFields.getNewCompositeIndexFields());
+					indexer.setSingleIndexFields(uniqueOnly ? new ArrayList<>() : inxFields.getNewSingleIndexFields());
+					indexer.setCompositeIndexFields(uniqueOnly ? new ArrayList<>() : inxFields.getNewCompositeIndexFields());
 
 					indexer.setUniqueIndexFields(inxFields.getNewUniqueIndexFields());
 					indexer.setCompositeUniqueIndexFields(inxFields.getNewCompositeUniqueIndexFields());
                     indexer.createIndex(graph, definition.getTitle());
                     dbProvider.commitTransaction(graph, tx);
 
-                    updateParentVertexIndexProperties(dbProvider, parentVertex, inxFields.getIndexFields(), inxFields.getUniqueIndexFields());
-                    indexHelper.updateDefinitionIndex(shardId, definition.getTitle(), true);
+                    if (uniqueOnly) {
+                        updateParentVertexIndexProperties(dbProvider, parentVertex, null, inxFields.getUniqueIndexFields());
+                        inxFields.setNewUniqueIndexFields(new ArrayList<>());
+                        inxFields.setNewCompositeUniqueIndexFields(new ArrayList<>());
+                    } else {
+                        updateParentVertexIndexProperties(dbProvider, parentVertex, inxFields.getIndexFields(), inxFields.getUniqueIndexFields());
+                        indexHelper.updateDefinitionIndex(shardId, definition.getTitle(), true);
+                    }
                 }
             } catch (Exception e) {
                 logger.error(e.getMessage());
@@ -300,7 +335,9 @@ public class EntityParenter {
                 VertexWriter vertexWriter = new VertexWriter(graph, dbProvider, uuidPropertyName);
                 Vertex v = graph.vertices(parentVertex.id()).next();
 
-                vertexWriter.updateParentIndexProperty(v, Constants.INDEX_FIELDS, indexFields);
+                if (indexFields != null) {
+                    vertexWriter.updateParentIndexProperty(v, Constants.INDEX_FIELDS, indexFields);
+                }
                 vertexWriter.updateParentIndexProperty(v, Constants.UNIQUE_INDEX_FIELDS, indexUniqueFields);
                 dbProvider.commitTransaction(graph, tx);
             }
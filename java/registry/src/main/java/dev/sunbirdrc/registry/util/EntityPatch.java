@@ -0,0 +1,218 @@
+package dev.sunbirdrc.registry.util;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flipkart.zjsonpatch.JsonPatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A partial update of an entity, given as a JSON Patch (RFC 6902) or a JSON Merge Patch (RFC 7386).
+ * Paths are relative to the entity, e.g. /address/city. Both forms are read into a list of operations
+ * on single paths, merge patches set each leaf value and remove each null.
+ */
+public class EntityPatch {
+    public static final String JSON_PATCH_TYPE = "application/json-patch+json";
+    public static final String MERGE_PATCH_TYPE = "application/merge-patch+json";
+
+    public static final String ADD = "add";
+    public static final String REPLACE = "replace";
+    public static final String REMOVE = "remove";
+    public static final String TEST = "test";
+
+    private final JsonNode patch;
+    private final boolean mergePatch;
+    private final List<Operation> operations;
+
+    private EntityPatch(JsonNode patch, boolean mergePatch, List<Operation> operations) {
+        this.patch = patch;
+        this.mergePatch = mergePatch;
+        this.operations = Collections.unmodifiableList(operations);
+    }
+
+    public static EntityPatch jsonPatch(JsonNode patch) {
+        if (patch == null || !patch.isArray()) {
+            throw new IllegalArgumentException("JSON patch must be an array of operations");
+        }
+        List<Operation> operations = new ArrayList<>();
+        for (JsonNode operation : patch) {
+            JsonNode op = operation.get("op");
+            JsonNode path = operation.get("path");
+            if (op == null || path == null || !path.isTextual()) {
+                throw new IllegalArgumentException("JSON patch operation needs an op and a path: " + operation);
+            }
+            operations.add(new Operation(op.asText(), path.textValue(), operation.get("value"), operation.get("from")));
+        }
+        return new EntityPatch(patch, false, operations);
+    }
+
+    public static EntityPatch mergePatch(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("JSON merge patch must be an object");
+        }
+        List<Operation> operations = new ArrayList<>();
+        addMergeOperations("", patch, operations);
+        return new EntityPatch(patch, true, operations);
+    }
+
+    private static void addMergeOperations(String prefix, JsonNode patch, List<Operation> operations) {
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String path = prefix + "/" + escape(field.getKey());
+            JsonNode value = field.getValue();
+            if (value.isNull()) {
+                operations.add(new Operation(REMOVE, path, null, null));
+            } else if (value.isObject()) {
+                addMergeOperations(path, value, operations);
+            } else {
+                operations.add(new Operation(ADD, path, value, null));
+            }
+        }
+    }
+
+    private static String escape(String token) {
+        return token.replace("~", "~0").replace("/", "~1");
+    }
+
+    public boolean isMergePatch() {
+        return mergePatch;
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Applies the patch to a copy of the entity node
+     */
+    public JsonNode applyTo(JsonNode entityNode) {
+        if (mergePatch) {
+            return merge(entityNode.deepCopy(), patch);
+        }
+        return JsonPatch.apply(patch, entityNode);
+    }
+
+    private static JsonNode merge(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+        ObjectNode result = target != null && target.isObject() ? (ObjectNode) target : JsonNodeFactory.instance.objectNode();
+        patch.fields().forEachRemaining(field -> {
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), merge(result.get(field.getKey()), field.getValue()));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The values set by the patch at their paths, wrapped by the entity type. Only the patched properties are
+     * in the node, so that they can be validated, encrypted and indexed without the rest of the entity.
+     */
+    public ObjectNode toPartialNode(String entityType) {
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
+        ObjectNode entityNode = root.putObject(entityType);
+        for (Operation operation : operations) {
+            if (!operation.isSet()) {
+                continue;
+            }
+            ObjectNode parent = entityNode;
+            List<String> tokens = operation.getTokens();
+            for (String token : tokens.subList(0, tokens.size() - 1)) {
+                JsonNode child = parent.get(token);
+                parent = child instanceof ObjectNode ? (ObjectNode) child : parent.putObject(token);
+            }
+            parent.set(operation.getProperty(), operation.getValue().deepCopy());
+        }
+        return root;
+    }
+
+    /**
+     * The patch as the list of operations recorded by the audit, with paths from the node wrapped by the entity type
+     * like the diffs of full updates
+     */
+    public ArrayNode toAuditNode(String entityType) {
+        ArrayNode auditNode = JsonNodeFactory.instance.arrayNode();
+        for (Operation operation : operations) {
+            if (operation.isTest()) {
+                continue;
+            }
+            ObjectNode operationNode = auditNode.addObject();
+            operationNode.put("op", operation.getOp());
+            operationNode.put("path", "/" + escape(entityType) + operation.getPath());
+            if (operation.getValue() != null) {
+                operationNode.set("value", operation.getValue());
+            }
+        }
+        return auditNode;
+    }
+
+    public static class Operation {
+        private final String op;
+        private final String path;
+        private final List<String> tokens;
+        private final JsonNode value;
+        private final JsonNode from;
+
+        private Operation(String op, String path, JsonNode value, JsonNode from) {
+            this.op = op;
+            this.path = path;
+            this.value = value;
+            this.from = from;
+            List<String> pathTokens = new ArrayList<>();
+            for (JsonPointer pointer = JsonPointer.compile(path); !pointer.matches(); pointer = pointer.tail()) {
+                pathTokens.add(pointer.getMatchingProperty());
+            }
+            this.tokens = Collections.unmodifiableList(pathTokens);
+        }
+
+        public String getOp() {
+            return op;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public List<String> getTokens() {
+            return tokens;
+        }
+
+        /**
+         * Name of the property the operation changes, the last token of its path
+         */
+        public String getProperty() {
+            return tokens.isEmpty() ? "" : tokens.get(tokens.size() - 1);
+        }
+
+        public JsonNode getValue() {
+            return value;
+        }
+
+        public JsonNode getFrom() {
+            return from;
+        }
+
+        public boolean isSet() {
+            return (ADD.equals(op) || REPLACE.equals(op)) && value != null;
+        }
+
+        public boolean isRemove() {
+            return REMOVE.equals(op);
+        }
+
+        public boolean isTest() {
+            return TEST.equals(op);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package dev.sunbirdrc.registry.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fields of an entity requested by a read or search, given as dotted paths like
+ * name,contact.email,educationDetails.degree. Paths into arrays of objects apply to each item.
+ * A field given without sub fields is read whole.
+ */
+public class FieldProjection {
+    /**
+     * The projection of a field read whole
+     */
+    public static final FieldProjection ALL = new FieldProjection(Collections.emptyMap());
+
+    // Only added to while the projection is built
+    private final Map<String, FieldProjection> children;
+
+    private FieldProjection(Map<String, FieldProjection> children) {
+        this.children = children;
+    }
+
+    /**
+     * The projection of comma separated paths, null when none are given
+     */
+    public static FieldProjection parse(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return null;
+        }
+        return of(Arrays.asList(fields.split(",")));
+    }
+
+    /**
+     * The projection of the paths, null when none are given
+     */
+    public static FieldProjection of(Collection<String> paths) {
+        FieldProjection projection = new FieldProjection(new LinkedHashMap<>());
+        for (String path : paths) {
+            if (path != null && !path.trim().isEmpty()) {
+                projection.add(path.trim().split("\\."), 0);
+            }
+        }
+        return projection.isAll() ? null : projection;
+    }
+
+    /**
+     * Adds the path from the token at the index, a field read whole takes over its sub fields
+     */
+    private void add(String[] tokens, int index) {
+        FieldProjection child = children.get(tokens[index]);
+        if (child == ALL) {
+            return;
+        }
+        if (index == tokens.length - 1) {
+            children.put(tokens[index], ALL);
+        } else {
+            if (child == null) {
+                child = new FieldProjection(new LinkedHashMap<>());
+                children.put(tokens[index], child);
+            }
+            child.add(tokens, index + 1);
+        }
+    }
+
+    public boolean isAll() {
+        return children.isEmpty();
+    }
+
+    /**
+     * Whether the field, or some of its sub fields, are requested
+     */
+    public boolean includes(String field) {
+        return isAll() || children.containsKey(field);
+    }
+
+    /**
+     * The projection of the sub fields of the field, null when the field isn't requested
+     */
+    public FieldProjection child(String field) {
+        return isAll() ? ALL : children.get(field);
+    }
+
+    /**
+     * The requested fields as dotted paths, like the _source includes of elastic search
+     */
+    public List<String> toPaths() {
+        List<String> paths = new ArrayList<>();
+        children.forEach((field, child) -> {
+            if (child.isAll()) {
+                paths.add(field);
+            } else {
+                child.toPaths().forEach(path -> paths.add(field + "." + path));
+            }
+        });
+        return paths;
+    }
+
+    /**
+     * Removes the fields which aren't requested from the node, and from the items of its arrays
+     *
+     * @param node         - entity node
+     * @param keptFields   - fields kept in each object whether requested or not, like its identifier
+     */
+    public void apply(JsonNode node, Collection<String> keptFields) {
+        if (isAll() || node == null) {
+            return;
+        }
+        if (node.isArray()) {
+            node.forEach(item -> apply(item, keptFields));
+        } else if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                FieldProjection child = children.get(field.getKey());
+                if (child != null) {
+                    child.apply(field.getValue(), keptFields);
+                } else if (!keptFields.contains(field.getKey())) {
+                    fields.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", toPaths());
+    }
+}
@@ -0,0 +1,198 @@
+package dev.sunbirdrc.registry.util;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * RestTemplates for the external services the registry calls, one per service so that a slow service only
+ * holds its own connections and threads. Each has its own connection pool, timeouts and {@link OutboundServiceGuard}.
+ * The defaults under outbound.http can be overridden per service under outbound.http.services.&lt;service&gt;.
+ * Webhooks get a client per endpoint host, named webhook-&lt;host&gt;, so that a failing endpoint only opens its
+ * own circuit. They all take the settings of the webhook service.
+ */
+@Component
+public class OutboundHttpClients {
+    private static final Logger logger = LoggerFactory.getLogger(OutboundHttpClients.class);
+
+    public static final String SIGNATURE = "signature";
+    public static final String ENCRYPTION = "encryption";
+    public static final String CERTIFICATE = "certificate";
+    public static final String CLAIMS = "claims";
+    public static final String WEBHOOK = "webhook";
+    public static final String DEFAULT = "default";
+
+    // Properties holding the urls of each service, to find the service of a url
+    private static final Map<String, List<String>> SERVICE_URL_PROPERTIES = new LinkedHashMap<>();
+
+    static {
+        SERVICE_URL_PROPERTIES.put(SIGNATURE, Arrays.asList("signature.signURL", "signature.verifyURL", "signature.healthCheckURL"));
+        SERVICE_URL_PROPERTIES.put(ENCRYPTION, Arrays.asList("encryption.base", "encryption.uri", "decryption.uri", "signature.keysURL"));
+        SERVICE_URL_PROPERTIES.put(CERTIFICATE, Arrays.asList("certificate.apiUrl", "certificate.healthCheckURL"));
+        SERVICE_URL_PROPERTIES.put(CLAIMS, Collections.singletonList("claims.url"));
+    }
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${service.connection.timeout:5000}")
+    private int connectionTimeout;
+    @Value("${service.read.timeout:5000}")
+    private int readTimeout;
+    @Value("${service.connection.request.timeout:5000}")
+    private int connectionRequestTimeout;
+    @Value("${outbound.http.maxConnections:20}")
+    private int maxConnections;
+    @Value("${outbound.http.keepAlive:30000}")
+    private long keepAlive;
+    @Value("${outbound.http.maxConcurrentCalls:20}")
+    private int maxConcurrentCalls;
+    @Value("${outbound.http.bulkheadWaitTime:1000}")
+    private long bulkheadWaitTime;
+    @Value("${outbound.http.circuitBreaker.failureThreshold:5}")
+    private int failureThreshold;
+    @Value("${outbound.http.circuitBreaker.openDuration:30000}")
+    private long openDuration;
+
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+    private volatile Map<String, String> servicesByHost;
+
+    public RestTemplate getRestTemplate(String service) {
+        return getClient(service).restTemplate;
+    }
+
+    /**
+     * The RestTemplate of the host of the webhook url
+     */
+    public RestTemplate getWebhookRestTemplate(String url) {
+        return getClient(WEBHOOK + "-" + hostOf(url)).restTemplate;
+    }
+
+    /**
+     * The RestTemplate of the service the url belongs to, urls of unknown hosts share the default one
+     */
+    public RestTemplate getRestTemplateForUrl(String url) {
+        return getRestTemplate(getServiceOfUrl(url));
+    }
+
+    /**
+     * Runs the call on the threads of the service, so that callers can overlap calls. The queue is bounded,
+     * calls beyond it fail with a RejectedExecutionException.
+     */
+    public <T> CompletableFuture<T> callAsync(String service, Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, getClient(service).executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new TreeMap<>();
+        clients.forEach((service, client) -> metrics.put(service, client.guard.snapshot()));
+        return metrics;
+    }
+
+    String getServiceOfUrl(String url) {
+        if (servicesByHost == null) {
+            Map<String, String> hosts = new HashMap<>();
+            SERVICE_URL_PROPERTIES.forEach((service, properties) -> properties.forEach(property -> {
+                String serviceUrl = environment.getProperty(property);
+                if (serviceUrl != null) {
+                    hosts.putIfAbsent(hostOf(serviceUrl), service);
+                }
+            }));
+            servicesByHost = hosts;
+        }
+        return servicesByHost.getOrDefault(hostOf(url), DEFAULT);
+    }
+
+    private static String hostOf(String url) {
+        try {
+            URI uri = URI.create(url.trim());
+            return uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private Client getClient(String service) {
+        return clients.computeIfAbsent(service, this::createClient);
+    }
+
+    private Client createClient(String service) {
+        int serviceMaxConnections = getSetting(service, "maxConnections", Integer.class, maxConnections);
+        int serviceMaxConcurrentCalls = getSetting(service, "maxConcurrentCalls", Integer.class, maxConcurrentCalls);
+        long serviceKeepAlive = getSetting(service, "keepAlive", Long.class, keepAlive);
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(serviceKeepAlive, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(serviceMaxConnections);
+        connectionManager.setDefaultMaxPerRoute(serviceMaxConnections);
+        HttpClient httpClient = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> serviceKeepAlive)
+                .evictIdleConnections(serviceKeepAlive, TimeUnit.MILLISECONDS)
+                .build();
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setConnectTimeout(getSetting(service, "connectionTimeout", Integer.class, connectionTimeout));
+        requestFactory.setConnectionRequestTimeout(getSetting(service, "connectionRequestTimeout", Integer.class, connectionRequestTimeout));
+        requestFactory.setReadTimeout(getSetting(service, "readTimeout", Integer.class, readTimeout));
+
+        OutboundServiceGuard guard = new OutboundServiceGuard(service, serviceMaxConcurrentCalls,
+                getSetting(service, "bulkheadWaitTime", Long.class, bulkheadWaitTime),
+                getSetting(service, "circuitBreaker.failureThreshold", Integer.class, failureThreshold),
+                getSetting(service, "circuitBreaker.openDuration", Long.class, openDuration),
+                connectionManager);
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(guard);
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(serviceMaxConcurrentCalls, serviceMaxConcurrentCalls,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(serviceMaxConcurrentCalls * 10), runnable -> {
+            Thread thread = new Thread(runnable, "outbound-" + service);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        logger.info("Created the http client of {} with {} connections and {} concurrent calls", service,
+                serviceMaxConnections, serviceMaxConcurrentCalls);
+        return new Client(restTemplate, guard, executor);
+    }
+
+    private <T> T getSetting(String service, String setting, Class<T> type, T defaultValue) {
+        String settingsService = service.startsWith(WEBHOOK + "-") ? WEBHOOK : service;
+        return environment.getProperty("outbound.http.services." + settingsService + "." + setting, type, defaultValue);
+    }
+
+    @PreDestroy
+    public void close() {
+        clients.values().forEach(client -> client.executor.shutdown());
+    }
+
+    private static class Client {
+        private final RestTemplate restTemplate;
+        private final OutboundServiceGuard guard;
+        private final ExecutorService executor;
+
+        private Client(RestTemplate restTemplate, OutboundServiceGuard guard, ExecutorService executor) {
+            this.restTemplate = restTemplate;
+            this.guard = guard;
+            this.executor = executor;
+        }
+    }
+}
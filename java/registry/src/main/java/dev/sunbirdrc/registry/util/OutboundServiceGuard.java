@@ -0,0 +1,153 @@
+package dev.sunbirdrc.registry.util;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Guards the calls to one external service:
+ * <ul>
+ *     <li>a bulkhead limits the calls in flight, callers wait at most bulkheadWaitTime for a permit</li>
+ *     <li>a circuit breaker opens after failureThreshold consecutive failures (IO errors and 5xx responses),
+ *     rejects the calls for openDuration, then lets a single trial call through</li>
+ *     <li>latency, error and rejection counts, with the connection pool usage</li>
+ * </ul>
+ * Rejected calls fail with {@link RejectedCallException}, which RestTemplate reports as a ResourceAccessException.
+ */
+public class OutboundServiceGuard implements ClientHttpRequestInterceptor {
+
+    private final String service;
+    private final Semaphore permits;
+    private final int maxConcurrentCalls;
+    private final long bulkheadWaitTime;
+    private final int failureThreshold;
+    private final long openDuration;
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // 0 while the circuit is closed
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    public OutboundServiceGuard(String service, int maxConcurrentCalls, long bulkheadWaitTime, int failureThreshold,
+                                long openDuration, PoolingHttpClientConnectionManager connectionManager) {
+        this.service = service;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permits = new Semaphore(maxConcurrentCalls);
+        this.bulkheadWaitTime = bulkheadWaitTime;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        boolean trial = false;
+        if (openedAt.get() != 0) {
+            trial = System.currentTimeMillis() - openedAt.get() >= openDuration && trialInFlight.compareAndSet(false, true);
+            if (!trial) {
+                rejected.increment();
+                throw new RejectedCallException("Circuit of " + service + " is open");
+            }
+        }
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(bulkheadWaitTime, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            if (trial) {
+                trialInFlight.set(false);
+            }
+            rejected.increment();
+            throw new RejectedCallException("Too many concurrent calls to " + service);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            failed = response.getRawStatusCode() >= 500;
+            return response;
+        } finally {
+            permits.release();
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            calls.increment();
+            totalLatency.add(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+            if (failed) {
+                onFailure(trial);
+            } else {
+                onSuccess();
+            }
+        }
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        openedAt.set(0);
+        trialInFlight.set(false);
+    }
+
+    private void onFailure(boolean trial) {
+        errors.increment();
+        if (trial || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(System.currentTimeMillis());
+        }
+        if (trial) {
+            trialInFlight.set(false);
+        }
+    }
+
+    public boolean isOpen() {
+        return openedAt.get() != 0;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        long count = calls.sum();
+        snapshot.put("calls", count);
+        snapshot.put("errors", errors.sum());
+        snapshot.put("rejected", rejected.sum());
+        snapshot.put("averageLatency", count == 0 ? 0 : totalLatency.sum() / count);
+        snapshot.put("maxLatency", maxLatency.get());
+        snapshot.put("callsInFlight", maxConcurrentCalls - permits.availablePermits());
+        snapshot.put("circuit", isOpen() ? "open" : "closed");
+        if (connectionManager != null) {
+            PoolStats stats = connectionManager.getTotalStats();
+            Map<String, Object> pool = new LinkedHashMap<>();
+            pool.put("leased", stats.getLeased());
+            pool.put("available", stats.getAvailable());
+            pool.put("pending", stats.getPending());
+            pool.put("max", stats.getMax());
+            snapshot.put("pool", pool);
+        }
+        return snapshot;
+    }
+
+    public static class RejectedCallException extends IOException {
+        public RejectedCallException(String message) {
+            super(message);
+        }
+    }
+}
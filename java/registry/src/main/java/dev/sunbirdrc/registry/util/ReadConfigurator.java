@@ -1,5 +1,7 @@
 package dev.sunbirdrc.registry.util;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * ReadConfigurator controls the data visible to the end user.
  */
@@ -40,6 +42,13 @@ public class ReadConfigurator {
      */
     private boolean includeRootIdentifiers = false;
 
+    /**
+     * The fields to read, the vertices and properties of other fields are not loaded
+     * All fields, by default
+     */
+    @JsonIgnore
+    private FieldProjection projection = null;
+
     public boolean isIncludeTypeAttributes() {
         return includeTypeAttributes;
     }
@@ -87,4 +96,14 @@ public class ReadConfigurator {
     public void setIncludeRootIdentifiers(boolean includeRootIdentifiers) {
         this.includeRootIdentifiers = includeRootIdentifiers;
     }
+
+    @JsonIgnore
+    public FieldProjection getProjection() {
+        return projection;
+    }
+
+    @JsonIgnore
+    public void setProjection(FieldProjection projection) {
+        this.projection = projection;
+    }
 }
@@ -9,9 +9,11 @@ import dev.sunbirdrc.views.Field;
 import dev.sunbirdrc.views.ViewTemplate;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import javax.annotation.PostConstruct;
 
@@ -103,6 +105,27 @@ public class ViewTemplateManager {
 		return mapper.readValue(templateContent, ViewTemplate.class);
 	}
 
+	/**
+	 * The fields of the entity the view template reads, the fields it shows and the arguments of its functions
+	 *
+	 * @param viewTemplate
+	 * @return
+	 */
+	public FieldProjection getProjection(ViewTemplate viewTemplate) {
+		Set<String> fields = new LinkedHashSet<>();
+		for (Field field : viewTemplate.getFields()) {
+			if (field.getFunction() != null) {
+				for (String argName : field.getArgNames()) {
+					// Cut off the $
+					fields.add(argName.trim().substring(1));
+				}
+			} else if (field.getDisplay()) {
+				fields.add(field.getName());
+			}
+		}
+		return FieldProjection.of(fields);
+	}
+
 	// TODO = this cannot be determined by the root level node alone. Check subschema
 	public boolean isPrivateFieldEnabled(ViewTemplate viewTemplate, String entityType) {
 		boolean privateFieldEnabled = false;
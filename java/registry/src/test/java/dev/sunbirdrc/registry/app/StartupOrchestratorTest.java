@@ -0,0 +1,88 @@
+package dev.sunbirdrc.registry.app;
+
+import dev.sunbirdrc.registry.config.SchemaLoader;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.util.EntityParenter;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class StartupOrchestratorTest {
+
+	private final EntityParenter entityParenter = mock(EntityParenter.class);
+	private final DBConnectionInfo shard1 = connection("shard1");
+	private final DBConnectionInfo shard2 = connection("shard2");
+	private StartupOrchestrator startupOrchestrator;
+
+	private static DBConnectionInfo connection(String shardId) {
+		DBConnectionInfo connectionInfo = new DBConnectionInfo();
+		connectionInfo.setShardId(shardId);
+		return connectionInfo;
+	}
+
+	@Before
+	public void setUp() {
+		DBConnectionInfoMgr dbConnectionInfoMgr = new DBConnectionInfoMgr();
+		dbConnectionInfoMgr.setConnectionInfo(Arrays.asList(shard1, shard2));
+		startupOrchestrator = new StartupOrchestrator();
+		ReflectionTestUtils.setField(startupOrchestrator, "entityParenter", entityParenter);
+		ReflectionTestUtils.setField(startupOrchestrator, "dbConnectionInfoMgr", dbConnectionInfoMgr);
+		ReflectionTestUtils.setField(startupOrchestrator, "schemaLoader", mock(SchemaLoader.class));
+		ReflectionTestUtils.setField(startupOrchestrator, "parallelism", 2);
+		ReflectionTestUtils.setField(startupOrchestrator, "deferIndexCreation", true);
+	}
+
+	@Test
+	public void shouldCompleteEachPhaseOnEveryShardBeforeTheNext() {
+		startupOrchestrator.start();
+
+		InOrder inOrder = inOrder(entityParenter);
+		inOrder.verify(entityParenter, times(2)).ensureKnownParenters(any(DBConnectionInfo.class));
+		inOrder.verify(entityParenter, times(2)).loadDefinitionIndex(anyString());
+		inOrder.verify(entityParenter, times(2)).ensureIndexExists(any(DBConnectionInfo.class), eq(true));
+		verify(entityParenter, never()).ensureIndexExists(any(DBConnectionInfo.class), eq(false));
+		assertFalse(startupOrchestrator.isBackgroundComplete());
+		assertEquals(Arrays.asList("schemas", "parents", "definitionIndex", "uniqueIndices"),
+				new ArrayList<>(startupOrchestrator.getPhaseTimings().keySet()));
+	}
+
+	@Test
+	public void shouldCreateTheOtherIndicesOnceReady() throws InterruptedException {
+		startupOrchestrator.start();
+		startupOrchestrator.startBackgroundPhase();
+		((Thread) ReflectionTestUtils.getField(startupOrchestrator, "backgroundPhase")).join(5000);
+
+		verify(entityParenter).ensureIndexExists(shard1, false);
+		verify(entityParenter).ensureIndexExists(shard2, false);
+		InOrder inOrder = inOrder(entityParenter);
+		inOrder.verify(entityParenter, times(2)).ensureIndexExists(any(DBConnectionInfo.class), eq(true));
+		inOrder.verify(entityParenter, times(2)).ensureIndexExists(any(DBConnectionInfo.class), eq(false));
+		assertTrue(startupOrchestrator.isBackgroundComplete());
+		assertTrue(startupOrchestrator.getPhaseTimings().containsKey("indices"));
+	}
+
+	@Test
+	public void shouldCreateAllIndicesBeforeReadyWhenNotDeferred() {
+		ReflectionTestUtils.setField(startupOrchestrator, "deferIndexCreation", false);
+
+		startupOrchestrator.start();
+		startupOrchestrator.startBackgroundPhase();
+
+		verify(entityParenter, times(2)).ensureIndexExists(any(DBConnectionInfo.class), eq(false));
+		verify(entityParenter, never()).ensureIndexExists(any(DBConnectionInfo.class), eq(true));
+		assertTrue(startupOrchestrator.isBackgroundComplete());
+		List<String> phases = new ArrayList<>(startupOrchestrator.getPhaseTimings().keySet());
+		assertEquals(Arrays.asList("schemas", "parents", "definitionIndex", "indices"), phases);
+	}
+}
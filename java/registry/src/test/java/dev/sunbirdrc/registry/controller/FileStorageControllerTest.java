@@ -0,0 +1,126 @@
+package dev.sunbirdrc.registry.controller;
+
+import dev.sunbirdrc.registry.helper.RegistryHelper;
+import dev.sunbirdrc.registry.service.FileStorageService;
+import io.minio.StatObjectResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class FileStorageControllerTest {
+	private static final String URI = "/api/v1/Student/1/documents/documents/file.txt";
+	private static final String CONTENT = "0123456789";
+	private static final String ETAG = "\"abc\"";
+
+	private final FileStorageService fileStorageService = mock(FileStorageService.class);
+	private final HttpServletRequest request = mock(HttpServletRequest.class);
+	private final StatObjectResponse stat = mock(StatObjectResponse.class);
+	private FileStorageController controller;
+
+	@Before
+	public void setUp() throws Exception {
+		when(stat.etag()).thenReturn("abc");
+		when(stat.size()).thenReturn((long) CONTENT.length());
+		when(stat.contentType()).thenReturn("text/plain");
+		when(fileStorageService.statDocument(URI)).thenReturn(stat);
+		when(fileStorageService.getDocumentStream(eq(URI), anyLong(), any())).thenAnswer(invocation -> {
+			int offset = (int) (long) invocation.getArgument(1);
+			Long length = invocation.getArgument(2);
+			int end = length == null ? CONTENT.length() : offset + length.intValue();
+			return new ByteArrayInputStream(CONTENT.substring(offset, end).getBytes(StandardCharsets.UTF_8));
+		});
+		when(request.getRequestURI()).thenReturn(URI);
+		controller = new FileStorageController(fileStorageService, mock(RegistryHelper.class));
+	}
+
+	private ResponseEntity<StreamingResponseBody> get(String range, String ifRange, String ifNoneMatch) {
+		return controller.get("Student", "1", "documents", "file.txt", range, ifRange, ifNoneMatch, request);
+	}
+
+	private static String body(ResponseEntity<StreamingResponseBody> response) throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		response.getBody().writeTo(outputStream);
+		return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void shouldServeASingleRange() throws Exception {
+		ResponseEntity<StreamingResponseBody> response = get("bytes=2-5", null, null);
+
+		assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+		assertEquals("bytes 2-5/10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+		assertEquals(4, response.getHeaders().getContentLength());
+		assertEquals("2345", body(response));
+		verify(fileStorageService).getDocumentStream(URI, 2, 4L);
+	}
+
+	@Test
+	public void shouldRejectAnUnsatisfiableRange() throws Exception {
+		ResponseEntity<StreamingResponseBody> response = get("bytes=20-", null, null);
+
+		assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatusCode());
+		assertEquals("bytes */10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+		assertNull(response.getBody());
+		verify(fileStorageService, never()).getDocumentStream(any(), anyLong(), any());
+	}
+
+	@Test
+	public void shouldAnswerNotModifiedWhenTheETagMatches() throws Exception {
+		ResponseEntity<StreamingResponseBody> response = get(null, null, ETAG);
+
+		assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+		assertEquals(ETAG, response.getHeaders().getETag());
+		assertNull(response.getBody());
+	}
+
+	@Test
+	public void shouldServeTheWholeDocumentWhenIfRangeDoesNotMatch() throws Exception {
+		ResponseEntity<StreamingResponseBody> response = get("bytes=2-5", "\"stale\"", null);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+		assertEquals(10, response.getHeaders().getContentLength());
+		assertEquals(CONTENT, body(response));
+		verify(fileStorageService).getDocumentStream(URI, 0, null);
+	}
+
+	@Test
+	public void shouldServeTheDocumentAsAnAttachmentWhateverItsStoredType() throws Exception {
+		when(stat.contentType()).thenReturn("text/html; charset=");
+
+		ResponseEntity<StreamingResponseBody> response = get(null, null, null);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(MediaType.APPLICATION_OCTET_STREAM, response.getHeaders().getContentType());
+		assertEquals("attachment", response.getHeaders().getContentDisposition().getType());
+		assertEquals("file.txt", response.getHeaders().getContentDisposition().getFilename());
+		assertEquals("nosniff", response.getHeaders().getFirst("X-Content-Type-Options"));
+	}
+
+	@Test
+	public void shouldRedirectToAnAttachmentWhenPresigned() throws Exception {
+		ReflectionTestUtils.setField(controller, "presignedRedirect", true);
+		when(fileStorageService.getDocumentSignedUrl(eq(URI), anyString())).thenReturn("http://minio/file.txt?X-Amz-Signature=1");
+
+		ResponseEntity<StreamingResponseBody> response = get(null, null, null);
+
+		assertEquals(HttpStatus.FOUND, response.getStatusCode());
+		assertEquals("http://minio/file.txt?X-Amz-Signature=1", response.getHeaders().getLocation().toString());
+		verify(fileStorageService).getDocumentSignedUrl(eq(URI), startsWith("attachment; filename="));
+		verify(fileStorageService, never()).statDocument(any());
+	}
+}
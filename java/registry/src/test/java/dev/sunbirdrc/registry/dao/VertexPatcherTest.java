@@ -0,0 +1,145 @@
+package dev.sunbirdrc.registry.dao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.util.EntityPatch;
+import dev.sunbirdrc.registry.util.RefLabelHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class VertexPatcherTest {
+	private static final String OSID = "osid";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private TinkerGraph graph;
+	private Vertex student;
+	private Vertex address;
+	private VertexPatcher vertexPatcher;
+
+	@Before
+	public void setUp() {
+		graph = TinkerGraph.open();
+		DatabaseProvider databaseProvider = mock(DatabaseProvider.class);
+		when(databaseProvider.getId(any(Vertex.class))).thenAnswer(invocation -> ((Vertex) invocation.getArgument(0)).value(OSID));
+		student = graph.addVertex(T.label, "Student", OSID, "1", "name", "student", "subjects", "[\"maths\"]");
+		address = graph.addVertex(T.label, "address", OSID, "2", "city", "Pune");
+		student.addEdge("address", address);
+		student.property(RefLabelHelper.getLabel("address", OSID), "2");
+		vertexPatcher = new VertexPatcher(databaseProvider, OSID);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		graph.close();
+	}
+
+	private List<VertexPatcher.PropertyChange> resolve(String patch) throws IOException {
+		EntityPatch entityPatch = EntityPatch.jsonPatch(objectMapper.readTree(patch));
+		return vertexPatcher.resolve(student, entityPatch, entityPatch.toPartialNode("Student").get("Student"));
+	}
+
+	private List<VertexPatcher.PropertyChange> resolveMerge(String patch) throws IOException {
+		EntityPatch entityPatch = EntityPatch.mergePatch(objectMapper.readTree(patch));
+		return vertexPatcher.resolve(student, entityPatch, entityPatch.toPartialNode("Student").get("Student"));
+	}
+
+	@Test
+	public void shouldPatchPropertiesOfNestedObjects() throws Exception {
+		List<VertexPatcher.PropertyChange> changes = resolve("[{\"op\":\"replace\",\"path\":\"/address/city\",\"value\":\"Delhi\"}]");
+
+		assertEquals(1, changes.size());
+		assertEquals(Arrays.asList("address", "city"), changes.get(0).getTokens());
+		changes.get(0).apply();
+		assertEquals("Delhi", address.value("city"));
+		assertEquals("student", student.value("name"));
+	}
+
+	@Test
+	public void shouldWriteValueArraysAsTheWriterDoes() throws Exception {
+		List<VertexPatcher.PropertyChange> changes = resolve("[{\"op\":\"replace\",\"path\":\"/subjects\",\"value\":[\"maths\",\"physics\"]}]");
+
+		changes.get(0).apply();
+		assertEquals("[\"maths\",\"physics\"]", student.value("subjects"));
+	}
+
+	@Test
+	public void shouldNotPatchObjectsWhichAreMissing() throws Exception {
+		assertNull(resolve("[{\"op\":\"add\",\"path\":\"/contact/phone\",\"value\":\"123\"}]"));
+	}
+
+	@Test
+	public void shouldNotPatchObjectsOrReferences() throws Exception {
+		assertNull(resolve("[{\"op\":\"replace\",\"path\":\"/address\",\"value\":{\"city\":\"Delhi\"}}]"));
+		assertNull(resolve("[{\"op\":\"replace\",\"path\":\"/osid\",\"value\":\"3\"}]"));
+	}
+
+	@Test
+	public void shouldOnlyReplacePropertiesWhichArePresent() throws Exception {
+		assertNull(resolve("[{\"op\":\"replace\",\"path\":\"/nickname\",\"value\":\"nick\"}]"));
+
+		List<VertexPatcher.PropertyChange> changes = resolve("[{\"op\":\"add\",\"path\":\"/nickname\",\"value\":\"nick\"}]");
+		changes.get(0).apply();
+		assertEquals("nick", student.value("nickname"));
+	}
+
+	@Test
+	public void shouldRemoveProperties() throws Exception {
+		List<VertexPatcher.PropertyChange> changes = resolve("[{\"op\":\"remove\",\"path\":\"/address/city\"}]");
+
+		assertTrue(changes.get(0).isRemoval());
+		changes.get(0).apply();
+		assertFalse(address.property("city").isPresent());
+	}
+
+	@Test
+	public void shouldOnlySkipRemovingAbsentPropertiesInMergePatches() throws Exception {
+		assertNull(resolve("[{\"op\":\"remove\",\"path\":\"/nickname\"}]"));
+		assertEquals(Collections.emptyList(), resolveMerge("{\"nickname\":null}"));
+	}
+
+	@Test
+	public void shouldCheckTestsBeforeTheChanges() throws Exception {
+		assertEquals(1, resolve("[{\"op\":\"test\",\"path\":\"/name\",\"value\":\"student\"},"
+				+ "{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"renamed\"}]").size());
+		assertNull(resolve("[{\"op\":\"test\",\"path\":\"/name\",\"value\":\"other\"},"
+				+ "{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"renamed\"}]"));
+	}
+
+	@Test
+	public void shouldLeaveTestsAfterChangesToTheFullUpdate() throws Exception {
+		assertNull(resolve("[{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"renamed\"},"
+				+ "{\"op\":\"test\",\"path\":\"/name\",\"value\":\"renamed\"}]"));
+		assertEquals("student", student.value("name"));
+	}
+
+	@Test
+	public void shouldAppendOnlyTheMissingValues() {
+		VertexPatcher.PropertyChange change = vertexPatcher.append(student, "subjects", Arrays.asList("physics", "maths", "physics"));
+
+		change.apply();
+		assertEquals("[\"maths\",\"physics\"]", student.value("subjects"));
+		assertNull(vertexPatcher.append(student, "subjects", Collections.singletonList("maths")));
+	}
+
+	@Test
+	public void shouldAppendToAbsentProperties() {
+		vertexPatcher.append(student, "osOwner", Collections.singletonList("user1")).apply();
+
+		assertEquals("[\"user1\"]", student.value("osOwner"));
+	}
+}
@@ -1,9 +1,12 @@
 package dev.sunbirdrc.registry.dao.impl;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.pojos.Aggregation;
+import dev.sunbirdrc.pojos.AggregationType;
 import dev.sunbirdrc.pojos.Filter;
 import dev.sunbirdrc.pojos.FilterOperators;
 import dev.sunbirdrc.pojos.SearchQuery;
@@ -143,6 +146,18 @@ public class SearchDaoImplTest {
         assertTrue(result.get("Teacher").size() == 1);
     }
     @Test
+    public void testContainsOperator() {
+        SearchQuery searchQuery = getSearchQuery(entities, "teacherName", "as", FilterOperators.contains);
+        JsonNode result = searchDao.search(graph, searchQuery, expandInternal);
+        assertTrue(result.get("Teacher").size() == 2);
+    }
+    @Test
+    public void testNotContainsOperator() {
+        SearchQuery searchQuery = getSearchQuery(entities, "teacherName", "as", FilterOperators.notContains);
+        JsonNode result = searchDao.search(graph, searchQuery, expandInternal);
+        assertTrue(result.get("Teacher").size() == 1);
+    }
+    @Test
     public void testMultiOperators() {
         SearchQuery searchQuery = getSearchQuery(entities, "teacherName", "a", FilterOperators.contains);
         //addes other filter
@@ -162,6 +177,20 @@ public class SearchDaoImplTest {
         assertTrue(result.get("Teacher").size() == 1);
     }
 
+    @Test
+    public void testAggregate() {
+        SearchQuery searchQuery = getSearchQuery(entities, "serialNum", 2, FilterOperators.gte);
+        searchQuery.getAggregations().add(new Aggregation("names", AggregationType.terms, "teacherName"));
+        searchQuery.getAggregations().add(new Aggregation("lowest", AggregationType.min, "serialNum"));
+        searchQuery.getAggregations().add(new Aggregation("highest", AggregationType.max, "serialNum"));
+        JsonNode result = searchDao.aggregate(graph, searchQuery).get("Teacher");
+        assertEquals(2, result.get(Aggregation.COUNT).asLong());
+        JsonNode aggregations = result.get(Aggregation.AGGREGATIONS);
+        assertEquals(2, aggregations.get("names").get(Aggregation.BUCKETS).size());
+        assertEquals(2, aggregations.get("lowest").get(Aggregation.VALUE).asInt());
+        assertEquals(3, aggregations.get("highest").get(Aggregation.VALUE).asInt());
+    }
+
     @PreDestroy
     public void shutdown() throws Exception {
         graph.close();
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.sunbirdrc.keycloak.KeycloakAdminUtil;
 import dev.sunbirdrc.keycloak.OwnerCreationException;
+import dev.sunbirdrc.keycloak.OwnerProvisioningService;
 import dev.sunbirdrc.registry.entities.AttestationPolicy;
 import dev.sunbirdrc.registry.util.Definition;
 import dev.sunbirdrc.workflow.KieConfiguration;
@@ -14,6 +15,7 @@ import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.workflow.RuleEngineService;
 import dev.sunbirdrc.registry.util.ClaimRequestClient;
 import dev.sunbirdrc.registry.util.DefinitionsManager;
+import dev.sunbirdrc.registry.util.OutboundHttpClients;
 import org.apache.commons.io.IOUtils;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Before;
@@ -44,7 +46,7 @@ import static org.mockito.Mockito.when;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(classes = {ObjectMapper.class,
-        ConditionResolverService.class, ClaimRequestClient.class, KieConfiguration.class})
+        ConditionResolverService.class, ClaimRequestClient.class, OutboundHttpClients.class, KieConfiguration.class})
 @Import(EntityStateHelperTestConfiguration.class)
 @ActiveProfiles(Constants.TEST_ENVIRONMENT)
 public class EntityStateHelperTest {
@@ -81,7 +83,8 @@ public class EntityStateHelperTest {
     }
 
     private void runTest(JsonNode existing, JsonNode updated, JsonNode expected, List<AttestationPolicy> attestationPolicies) throws IOException {
-        RuleEngineService ruleEngineService = new RuleEngineService(kieContainer, keycloakAdminUtil);
+        RuleEngineService ruleEngineService = new RuleEngineService(kieContainer, keycloakAdminUtil,
+                new OwnerProvisioningService(keycloakAdminUtil, 1, false, 1, 0));
         EntityStateHelper entityStateHelper = new EntityStateHelper(definitionsManager, ruleEngineService, conditionResolverService, claimRequestClient);
         ReflectionTestUtils.setField(entityStateHelper, "uuidPropertyName", "osid");
         updated = entityStateHelper.applyWorkflowTransitions(existing, updated, attestationPolicies);
@@ -9,10 +9,14 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import dev.sunbirdrc.keycloak.KeycloakAdminUtil;
+import dev.sunbirdrc.keycloak.OwnerCreationException;
+import dev.sunbirdrc.keycloak.OwnerProvisioningService;
 import dev.sunbirdrc.pojos.AsyncRequest;
+import dev.sunbirdrc.pojos.OwnershipsAttributes;
 import dev.sunbirdrc.pojos.PluginResponseMessage;
 import dev.sunbirdrc.pojos.SunbirdRCInstrumentation;
 import dev.sunbirdrc.registry.entities.AttestationPolicy;
+import dev.sunbirdrc.registry.exception.UnAuthorizedException;
 import dev.sunbirdrc.registry.middleware.MiddlewareHaltException;
 import dev.sunbirdrc.registry.middleware.service.ConditionResolverService;
 import dev.sunbirdrc.registry.middleware.util.Constants;
@@ -39,6 +43,8 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.kie.api.runtime.KieContainer;
+import org.keycloak.adapters.OidcKeycloakAccount;
+import org.keycloak.adapters.springsecurity.token.KeycloakAuthenticationToken;
 import org.mockito.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -56,6 +62,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static dev.sunbirdrc.registry.Constants.*;
 import static dev.sunbirdrc.registry.middleware.util.Constants.FILTERS;
@@ -101,6 +108,12 @@ public class RegistryHelperTest {
 	@Mock
 	IReadService readService;
 
+	@Mock
+	private OwnerProvisioningFailureStore ownerProvisioningFailureStore;
+
+	@Mock
+	private NativeReadService nativeReadService;
+
 	@Mock
 	private DBConnectionInfoMgr dbConnectionInfoMgr;
 
@@ -137,7 +150,8 @@ public class RegistryHelperTest {
 		registryHelper.setObjectMapper(objectMapper);
 		MockitoAnnotations.initMocks(this);
 		registryHelper.uuidPropertyName = "osid";
-		RuleEngineService ruleEngineService = new RuleEngineService(kieContainer, keycloakAdminUtil);
+		RuleEngineService ruleEngineService = new RuleEngineService(kieContainer, keycloakAdminUtil,
+				new OwnerProvisioningService(keycloakAdminUtil, 1, false, 1, 0));
 		registryHelper.entityStateHelper = new EntityStateHelper(definitionsManager, ruleEngineService, conditionResolverService, claimRequestClient);
 		registryHelper.setDefinitionsManager(definitionsManager);
 	}
@@ -466,7 +480,7 @@ public class RegistryHelperTest {
 		ReflectionTestUtils.setField(definitionsManager, "definitionMap", definitionMap);
 		ReflectionTestUtils.setField(registryHelper, "definitionsManager", definitionsManager);
 		registryHelper.invalidateAttestation(entity, entityId, "userId", null);
-		verify(registryService, times(1)).updateEntity(any(), any(), any(), eq(expectedUpdatedNode.toString()), any(boolean.class));
+		verify(registryService, times(1)).updateEntity(any(), any(), any(), eq(expectedUpdatedNode), any(boolean.class));
 	}
 
 	@Test
@@ -910,10 +924,166 @@ public class RegistryHelperTest {
 		when(shardManager.getShard(any())).thenReturn(new Shard());
 		when(dbConnectionInfoMgr.getUuidPropertyName()).thenReturn("osid");
 		ReflectionTestUtils.setField(registryHelper, "notificationEnabled", true);
-		doNothing().when(registryService).updateEntity(any(), any(), any(), any(), anyBoolean());
+		doNothing().when(registryService).updateEntity(any(), any(), any(), any(JsonNode.class), anyBoolean());
 		doNothing().when(notificationHelper).sendNotification(any(), any());
 		registryHelper.updateEntityAndState(existingJson, updateJson, "");
-		verify(registryService, times(1)).updateEntity(any(), any(), any(), any(), anyBoolean());
+		verify(registryService, times(1)).updateEntity(any(), any(), any(), any(JsonNode.class), anyBoolean());
 		verify(notificationHelper, times(1)).sendNotification(any(), any());
 	}
+
+	@Test
+	public void shouldHydrateEsHitsWithOneReadPerShardInHitOrder() throws Exception {
+		String uuid1 = "1a2b3c4d-0000-4000-8000-000000000001";
+		String uuid2 = "1a2b3c4d-0000-4000-8000-000000000002";
+		String uuid3 = "1a2b3c4d-0000-4000-8000-000000000003";
+		String uuid4 = "1a2b3c4d-0000-4000-8000-000000000004";
+		Shard shard1 = new Shard();
+		shard1.setShardId("shard1");
+		shard1.setShardLabel("1");
+		Shard shard2 = new Shard();
+		shard2.setShardId("shard2");
+		shard2.setShardLabel("2");
+		when(shardManager.getShardByRecord(any())).thenAnswer(invocation ->
+				"1".equals(((RecordIdentifier) invocation.getArgument(0)).getShardLabel()) ? shard1 : shard2);
+		when(nativeReadService.getEntities(eq(shard1), any(), any(), eq("Student"), any())).thenReturn(Collections.singletonMap(uuid1,
+				objectMapper.readTree("{\"Student\":{\"osid\":\"1-" + uuid1 + "\"}}")));
+		Map<String, JsonNode> shard2Records = new HashMap<>();
+		shard2Records.put(uuid2, objectMapper.readTree("{\"Student\":{\"osid\":\"2-" + uuid2 + "\"}}"));
+		shard2Records.put(uuid3, objectMapper.readTree("{\"Student\":{\"osid\":\"2-" + uuid3 + "\"}}"));
+		when(nativeReadService.getEntities(eq(shard2), any(), any(), eq("Student"), any())).thenReturn(shard2Records);
+
+		ArrayNode hits = objectMapper.createArrayNode();
+		hits.addObject().put("osid", "2-" + uuid3);
+		hits.addObject().put("osid", "1-" + uuid1);
+		hits.addObject().put("osid", "1-" + uuid4);
+		hits.addObject().put("osid", "2-" + uuid2);
+		ArrayNode result = registryHelper.fetchFromDBUsingEsResponse("Student", hits);
+
+		assertEquals(3, result.size());
+		assertEquals("2-" + uuid3, result.get(0).get("osid").asText());
+		assertEquals("1-" + uuid1, result.get(1).get("osid").asText());
+		assertEquals("2-" + uuid2, result.get(2).get("osid").asText());
+		verify(nativeReadService, times(1)).getEntities(eq(shard1), any(), eq(Arrays.asList(uuid1, uuid4)), eq("Student"), any());
+		verify(nativeReadService, times(1)).getEntities(eq(shard2), any(), eq(Arrays.asList(uuid3, uuid2)), eq("Student"), any());
+		verify(readService, never()).getEntity(any(), any(), any(), any(), any());
+	}
+
+	@Test
+	public void shouldReadEntitiesWithOneReadPerShardAndReportEachId() throws Exception {
+		mockDefinitionManager();
+		String uuid1 = "1a2b3c4d-0000-4000-8000-000000000001";
+		String uuid2 = "1a2b3c4d-0000-4000-8000-000000000002";
+		String uuid3 = "1a2b3c4d-0000-4000-8000-000000000003";
+		Shard shard = new Shard();
+		shard.setShardId("shard1");
+		shard.setShardLabel("1");
+		when(shardManager.getShardByRecord(any())).thenReturn(shard);
+		Map<String, JsonNode> records = new HashMap<>();
+		records.put(uuid1, objectMapper.readTree("{\"Student\":{\"osid\":\"1-" + uuid1 + "\",\"osOwner\":[\"user1\"]}}"));
+		records.put(uuid2, objectMapper.readTree("{\"Student\":{\"osid\":\"1-" + uuid2 + "\",\"osOwner\":[\"user2\"]}}"));
+		when(nativeReadService.getEntities(eq(shard), any(), any(), eq("Student"), any())).thenReturn(records);
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		doReturn("user1").when(registryHelper).getUserId(request, "Student");
+		doThrow(new Exception("Forbidden")).when(registryHelper).authorizeManageEntity(request, "Student");
+		doThrow(new Exception("Forbidden")).when(registryHelper).authorizeAttestor("Student", request);
+		ReflectionTestUtils.setField(registryHelper, "securityEnabled", true);
+		ReflectionTestUtils.setField(registryHelper, "mgetMaxIds", 10);
+
+		ArrayNode result = registryHelper.readEntities(request, "Student", Arrays.asList("1-" + uuid1, "1-" + uuid2, "1-" + uuid3, "1-" + uuid1), null, null);
+
+		assertEquals(3, result.size());
+		assertEquals(200, result.get(0).get("status").asInt());
+		assertEquals("1-" + uuid1, result.get(0).get("result").get("osid").asText());
+		assertEquals(403, result.get(1).get("status").asInt());
+		assertFalse(result.get(1).has("result"));
+		assertEquals(404, result.get(2).get("status").asInt());
+		verify(nativeReadService, times(1)).getEntities(eq(shard), eq("user1"), eq(Arrays.asList(uuid1, uuid2, uuid3)), eq("Student"), any());
+	}
+
+	@Test
+	public void shouldAddTheProvisionedOwnersAndRecordTheFailedOnes() throws Exception {
+		String uuid = "1a2b3c4d-0000-4000-8000-000000000001";
+		Shard shard = new Shard();
+		shard.setShardLabel("1");
+		when(shardManager.getShardByRecord(any())).thenReturn(shard);
+		CompletableFuture<String> failedOwner = new CompletableFuture<>();
+		failedOwner.completeExceptionally(new OwnerProvisioningService.ProvisioningFailedException(
+				new OwnerProvisioningService.Owner("Student", "student2", "", "", ""), 1,
+				new OwnerCreationException("Username already invited / registered")));
+
+		ReflectionTestUtils.invokeMethod(registryHelper, "addOwnersOnceProvisioned", "Student", "1-" + uuid, "user1",
+				Arrays.asList(CompletableFuture.completedFuture("owner1"), failedOwner));
+
+		verify(registryService).addOwners(shard, "user1", "Student", uuid, Collections.singletonList("owner1"));
+		ArgumentCaptor<OwnerProvisioningFailureStore.Failure> failure = ArgumentCaptor.forClass(OwnerProvisioningFailureStore.Failure.class);
+		verify(ownerProvisioningFailureStore).record(failure.capture());
+		assertEquals("student2", failure.getValue().getUserName());
+		assertEquals("1-" + uuid, failure.getValue().getEntityId());
+		assertEquals("Username already invited / registered", failure.getValue().getError());
+		assertNull(failure.getValue().getOwnerId());
+	}
+
+	@Test
+	public void shouldRecordTheOwnersWhichCouldNotBeAddedToTheRecord() throws Exception {
+		String uuid = "1a2b3c4d-0000-4000-8000-000000000001";
+		when(shardManager.getShardByRecord(any())).thenReturn(new Shard());
+		doThrow(new Exception("Connection refused")).when(registryService).addOwners(any(), any(), any(), any(), any());
+
+		ReflectionTestUtils.invokeMethod(registryHelper, "addOwnersOnceProvisioned", "Student", "1-" + uuid, "user1",
+				Collections.singletonList(CompletableFuture.completedFuture("owner1")));
+
+		ArgumentCaptor<OwnerProvisioningFailureStore.Failure> failure = ArgumentCaptor.forClass(OwnerProvisioningFailureStore.Failure.class);
+		verify(ownerProvisioningFailureStore).record(failure.capture());
+		assertEquals("owner1", failure.getValue().getOwnerId());
+		assertNull(failure.getValue().getUserName());
+	}
+
+	private boolean canPatchDirectly(String entityName, String patch) throws IOException {
+		return ReflectionTestUtils.invokeMethod(registryHelper, "canPatchDirectly", entityName, EntityPatch.jsonPatch(objectMapper.readTree(patch)));
+	}
+
+	@Test
+	public void shouldOnlyPatchValuePropertiesOutsideTheOwnerDetailsDirectly() throws Exception {
+		IDefinitionsManager definitions = mock(IDefinitionsManager.class);
+		when(definitions.getOwnershipAttributes("Student")).thenReturn(Collections.singletonList(OwnershipsAttributes.builder()
+				.userId("/contactDetails/mobile").mobile("/contactDetails/mobile").email("/contactDetails/email").build()));
+		ReflectionTestUtils.setField(registryHelper, "definitionsManager", definitions);
+		ReflectionTestUtils.setField(registryHelper, "workflowEnabled", true);
+		doReturn(Collections.emptyList()).when(registryHelper).getAttestationPolicies("Student");
+
+		assertTrue(canPatchDirectly("Student", "[{\"op\":\"replace\",\"path\":\"/studentName\",\"value\":\"name\"}]"));
+		assertTrue(canPatchDirectly("Student", "[{\"op\":\"remove\",\"path\":\"/identityDetails/gender\"}]"));
+		assertFalse(canPatchDirectly("Student", "[{\"op\":\"replace\",\"path\":\"/_osState\",\"value\":\"PUBLISHED\"}]"));
+		assertFalse(canPatchDirectly("Student", "[{\"op\":\"add\",\"path\":\"/osOwner/-\",\"value\":\"user2\"}]"));
+		assertFalse(canPatchDirectly("Student", "[{\"op\":\"replace\",\"path\":\"/contactDetails/email\",\"value\":\"a@b.c\"}]"));
+		assertFalse(canPatchDirectly("Student", "[{\"op\":\"replace\",\"path\":\"/contactDetails\",\"value\":{}}]"));
+		assertFalse(canPatchDirectly("Student", "[{\"op\":\"replace\",\"path\":\"\",\"value\":{}}]"));
+		assertFalse(canPatchDirectly(Schema, "[{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"name\"}]"));
+
+		doReturn(Collections.singletonList(new AttestationPolicy())).when(registryHelper).getAttestationPolicies("Student");
+		assertFalse(canPatchDirectly("Student", "[{\"op\":\"replace\",\"path\":\"/studentName\",\"value\":\"name\"}]"));
+
+		ReflectionTestUtils.setField(registryHelper, "workflowEnabled", false);
+		ReflectionTestUtils.setField(registryHelper, "signatureEnabled", true);
+		when(definitions.getCredentialTemplate("Student")).thenReturn("{}");
+		assertFalse(canPatchDirectly("Student", "[{\"op\":\"replace\",\"path\":\"/studentName\",\"value\":\"name\"}]"));
+	}
+
+	@Test
+	public void shouldAllowOnlyAdminsToTheOperationalEndpoints() {
+		ReflectionTestUtils.setField(registryHelper, "securityEnabled", true);
+		ReflectionTestUtils.setField(registryHelper, "adminRoles", Collections.singletonList("admin"));
+		OidcKeycloakAccount account = mock(OidcKeycloakAccount.class);
+		KeycloakAuthenticationToken token = mock(KeycloakAuthenticationToken.class);
+		when(token.getAccount()).thenReturn(account);
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		when(request.getUserPrincipal()).thenReturn(token);
+
+		when(account.getRoles()).thenReturn(new HashSet<>(Arrays.asList("user", "admin")));
+		registryHelper.authorizeAdmin(request);
+
+		when(account.getRoles()).thenReturn(Collections.singleton("user"));
+		exception.expect(UnAuthorizedException.class);
+		registryHelper.authorizeAdmin(request);
+	}
 }
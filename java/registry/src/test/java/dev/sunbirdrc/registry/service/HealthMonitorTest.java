@@ -0,0 +1,194 @@
+package dev.sunbirdrc.registry.service;
+
+import dev.sunbirdrc.pojos.ComponentHealthInfo;
+import dev.sunbirdrc.pojos.HealthCheckResponse;
+import dev.sunbirdrc.pojos.HealthIndicator;
+import dev.sunbirdrc.registry.app.StartupOrchestrator;
+import dev.sunbirdrc.registry.middleware.util.Constants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HealthMonitorTest {
+
+	private final AtomicInteger checkCount = new AtomicInteger();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final AtomicInteger stuckChecks = new AtomicInteger();
+	private HealthMonitor healthMonitor;
+
+	@Before
+	public void setUp() {
+		healthMonitor = new HealthMonitor();
+		ReflectionTestUtils.setField(healthMonitor, "healthIndicators", Arrays.asList(indicator("fast", 0), indicator("slow", 5000)));
+		ReflectionTestUtils.setField(healthMonitor, "environment", new MockEnvironment()
+				.withProperty("health.services.slow.timeout", "100")
+				.withProperty("health.services.stuck.timeout", "100"));
+		ReflectionTestUtils.setField(healthMonitor, "refreshInterval", 60000L);
+		ReflectionTestUtils.setField(healthMonitor, "timeout", 1000L);
+		ReflectionTestUtils.setField(healthMonitor, "staleAfterIntervals", 3);
+	}
+
+	@After
+	public void tearDown() {
+		release.countDown();
+		healthMonitor.stop();
+	}
+
+	private HealthIndicator indicator(String name, long delay) {
+		return indicator(name, delay, true);
+	}
+
+	private HealthIndicator indicator(String name, long delay, boolean healthy) {
+		return new HealthIndicator() {
+			@Override
+			public String getServiceName() {
+				return name;
+			}
+
+			@Override
+			public ComponentHealthInfo getHealthInfo() {
+				checkCount.incrementAndGet();
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return new ComponentHealthInfo(name, healthy);
+			}
+		};
+	}
+
+	/**
+	 * A component whose check ignores interrupts until it is released
+	 */
+	private HealthIndicator stuckIndicator() {
+		return new HealthIndicator() {
+			@Override
+			public String getServiceName() {
+				return "stuck";
+			}
+
+			@Override
+			public ComponentHealthInfo getHealthInfo() {
+				stuckChecks.incrementAndGet();
+				while (true) {
+					try {
+						release.await();
+						return new ComponentHealthInfo("stuck", true);
+					} catch (InterruptedException e) {
+						// keeps hanging
+					}
+				}
+			}
+		};
+	}
+
+	private void awaitChecked(String... serviceNames) throws InterruptedException {
+		for (String serviceName : serviceNames) {
+			assertTrue(healthMonitor.getStatus(serviceName).awaitChecked(5, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void shouldAnswerFromTheLatestResults() throws InterruptedException {
+		healthMonitor.start();
+		awaitChecked("fast", "slow");
+		int checks = checkCount.get();
+		HealthCheckResponse health = healthMonitor.getHealth();
+		healthMonitor.getHealth();
+		assertEquals(checks, checkCount.get());
+		assertFalse(health.isHealthy());
+		assertEquals(2, health.getChecks().size());
+	}
+
+	@Test
+	public void shouldMarkSlowComponentsUnhealthy() throws InterruptedException {
+		healthMonitor.start();
+		awaitChecked("fast", "slow");
+		ComponentHealthInfo slow = healthMonitor.getStatus("slow").currentHealth(System.currentTimeMillis());
+		assertFalse(slow.isHealthy());
+		assertTrue(slow.getErrmsg().contains("timed out"));
+		assertTrue(healthMonitor.getStatus("fast").currentHealth(System.currentTimeMillis()).isHealthy());
+		assertTrue(healthMonitor.getLiveness().isHealthy());
+		Map<String, Object> metrics = (Map<String, Object>) healthMonitor.getMetrics().get("fast");
+		assertEquals(1L, metrics.get("checks"));
+	}
+
+	@Test
+	public void shouldMarkStaleResultsUnhealthy() throws InterruptedException {
+		healthMonitor.start();
+		awaitChecked("fast");
+		long later = System.currentTimeMillis() + 60000L * 4;
+		assertFalse(healthMonitor.getStatus("fast").currentHealth(later).isHealthy());
+	}
+
+	@Test
+	public void shouldNotStartAnotherCheckWhileATimedOutOneHangs() throws Exception {
+		ReflectionTestUtils.setField(healthMonitor, "healthIndicators", Arrays.asList(stuckIndicator()));
+		healthMonitor.start();
+		awaitChecked("stuck");
+		HealthMonitor.ComponentStatus stuck = healthMonitor.getStatus("stuck");
+		assertTrue(stuck.currentHealth(System.currentTimeMillis()).getErrmsg().contains("timed out"));
+
+		healthMonitor.refresh(stuck);
+
+		assertEquals(1, stuckChecks.get());
+		assertTrue(stuck.currentHealth(System.currentTimeMillis()).getErrmsg().contains("still running"));
+
+		release.countDown();
+		((Future<?>) ReflectionTestUtils.getField(stuck, "running")).get(5, TimeUnit.SECONDS);
+		healthMonitor.refresh(stuck);
+		assertEquals(2, stuckChecks.get());
+		assertTrue(stuck.currentHealth(System.currentTimeMillis()).isHealthy());
+	}
+
+	@Test
+	public void shouldOnlyNeedTheCriticalComponentsForReadiness() throws InterruptedException {
+		List<HealthIndicator> indicators = new ArrayList<>();
+		indicators.add(indicator(Constants.SUNBIRDRC_DATABASE_NAME, 0));
+		indicators.add(indicator(Constants.SUNBIRD_ELASTIC_SERVICE_NAME, 0, false));
+		indicators.add(indicator(Constants.SUNBIRD_NOTIFICATION_SERVICE_NAME, 0, false));
+		ReflectionTestUtils.setField(healthMonitor, "healthIndicators", indicators);
+		StartupOrchestrator startupOrchestrator = mock(StartupOrchestrator.class);
+		when(startupOrchestrator.isBackgroundComplete()).thenReturn(true);
+		ReflectionTestUtils.setField(healthMonitor, "startupOrchestrator", startupOrchestrator);
+		healthMonitor.start();
+		awaitChecked(Constants.SUNBIRDRC_DATABASE_NAME, Constants.SUNBIRD_ELASTIC_SERVICE_NAME, Constants.SUNBIRD_NOTIFICATION_SERVICE_NAME);
+
+		assertFalse(healthMonitor.getHealth().isHealthy());
+		HealthCheckResponse readiness = healthMonitor.getReadiness();
+		assertTrue(readiness.isHealthy());
+		assertEquals(2, readiness.getChecks().size());
+
+		when(startupOrchestrator.isBackgroundComplete()).thenReturn(false);
+		assertFalse(healthMonitor.getReadiness().isHealthy());
+	}
+
+	@Test
+	public void shouldNeedElasticSearchForReadinessWhenItServesTheSearches() throws InterruptedException {
+		ReflectionTestUtils.setField(healthMonitor, "healthIndicators", Arrays.asList(
+				indicator(Constants.SUNBIRDRC_DATABASE_NAME, 0), indicator(Constants.SUNBIRD_ELASTIC_SERVICE_NAME, 0, false)));
+		ReflectionTestUtils.setField(healthMonitor, "searchProvider", "dev.sunbirdrc.registry.service.ElasticSearchService");
+		healthMonitor.start();
+		awaitChecked(Constants.SUNBIRDRC_DATABASE_NAME, Constants.SUNBIRD_ELASTIC_SERVICE_NAME);
+
+		HealthCheckResponse readiness = healthMonitor.getReadiness();
+		assertFalse(readiness.isHealthy());
+		assertEquals(2, readiness.getChecks().size());
+	}
+}
@@ -0,0 +1,96 @@
+package dev.sunbirdrc.registry.service;
+
+import dev.sunbirdrc.pojos.NotificationMessage;
+import dev.sunbirdrc.registry.exception.NotificationBatchException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class NotificationDispatcherTest {
+
+	private final RegistryService registryService = mock(RegistryService.class);
+	private NotificationDispatcher notificationDispatcher;
+
+	@After
+	public void tearDown() {
+		notificationDispatcher.stop();
+	}
+
+	private static boolean allOn(List<NotificationMessage> messages, String scheme, int size) {
+		return messages.size() == size && messages.stream().allMatch(message -> message.getTo().startsWith(scheme));
+	}
+
+	@Test
+	public void shouldSendTheNotificationsOfEachChannelInBatches() throws Exception {
+		notificationDispatcher = new NotificationDispatcher(registryService, 2, 100, 60000, 1, 1, 0);
+
+		notificationDispatcher.dispatch("INVITE", "tel:123", "Invitation", "You have been invited");
+		notificationDispatcher.dispatch("INVITE", "mailto:a@example.com", "Invitation", "You have been invited");
+		notificationDispatcher.dispatch("INVITE", "tel:456", "Invitation", "You have been invited");
+		notificationDispatcher.dispatch("INVITE", "mailto:b@example.com", "Invitation", "You have been invited");
+
+		verify(registryService, timeout(5000)).callNotificationActors(eq("INVITE"), argThat(messages -> allOn(messages, "tel:", 2)));
+		verify(registryService, timeout(5000)).callNotificationActors(eq("INVITE"), argThat(messages -> allOn(messages, "mailto:", 2)));
+		verify(registryService, never()).callNotificationActors(any(), any(), any(), any());
+	}
+
+	@Test
+	public void shouldFlushPartialBatches() throws Exception {
+		notificationDispatcher = new NotificationDispatcher(registryService, 100, 100, 50, 1, 1, 0);
+
+		notificationDispatcher.dispatch("CREATE", "mailto:a@example.com", "Created", "Your record has been created");
+
+		verify(registryService, timeout(5000)).callNotificationActors(eq("CREATE"), argThat(messages -> allOn(messages, "mailto:", 1)));
+	}
+
+	@Test
+	public void shouldRetryFailedBatchesAndCountThem() throws Exception {
+		notificationDispatcher = new NotificationDispatcher(registryService, 1, 100, 60000, 1, 3, 10);
+		doThrow(new IllegalStateException("Notification actors are saturated")).doNothing()
+				.when(registryService).callNotificationActors(eq("CREATE"), anyList());
+
+		notificationDispatcher.dispatch("CREATE", "tel:123", "Created", "Your record has been created");
+
+		verify(registryService, timeout(5000).times(2)).callNotificationActors(eq("CREATE"), anyList());
+		Map<String, Object> sms = (Map<String, Object>) notificationDispatcher.getMetrics().get(NotificationDispatcher.SMS);
+		for (int i = 0; i < 100 && !sms.get("sent").equals(1L); i++) {
+			Thread.sleep(50);
+			sms = (Map<String, Object>) notificationDispatcher.getMetrics().get(NotificationDispatcher.SMS);
+		}
+		assertEquals(1L, sms.get("sent"));
+		assertEquals(1L, sms.get("retried"));
+		assertEquals(0L, sms.get("failed"));
+	}
+
+	@Test
+	public void shouldRetryOnlyTheUnsentNotificationsOfABatch() throws Exception {
+		notificationDispatcher = new NotificationDispatcher(registryService, 2, 100, 60000, 1, 3, 10);
+		NotificationMessage unsent = new NotificationMessage();
+		unsent.setTo("tel:456");
+		doThrow(new NotificationBatchException(Collections.singletonList(unsent), new IOException("Broker unavailable")))
+				.doNothing().when(registryService).callNotificationActors(eq("CREATE"), anyList());
+
+		notificationDispatcher.dispatch("CREATE", "tel:123", "Created", "Your record has been created");
+		notificationDispatcher.dispatch("CREATE", "tel:456", "Created", "Your record has been created");
+
+		verify(registryService, timeout(5000)).callNotificationActors(eq("CREATE"),
+				argThat(messages -> messages.size() == 1 && messages.get(0).getTo().equals("tel:456")));
+		Map<String, Object> sms = (Map<String, Object>) notificationDispatcher.getMetrics().get(NotificationDispatcher.SMS);
+		for (int i = 0; i < 100 && !sms.get("sent").equals(2L); i++) {
+			Thread.sleep(50);
+			sms = (Map<String, Object>) notificationDispatcher.getMetrics().get(NotificationDispatcher.SMS);
+		}
+		assertEquals(2L, sms.get("sent"));
+		assertEquals(1L, sms.get("retried"));
+	}
+}
@@ -159,4 +159,14 @@ public class NotificationHelperTest {
         verify(registryService, times(1)).callNotificationActors("DELETE", "tel:1234123423", "Revoked", ", Your credential has been revoked");
         verify(registryService, times(1)).callNotificationActors("DELETE", "tel:1234123423", "Revoked", "Insitute2, Your credential has been revoked");
     }
+
+    @Test
+    public void shouldUseChangedTemplatesAfterSchemaChange() throws Exception {
+        when(notificationTemplates.getCreate()).thenReturn(Collections.singletonList(new NotificationTemplate("Credential Created", "Your {{entityType}} credential has been created")));
+        notificationHelper.sendNotification(inputJson, "CREATE");
+        when(notificationTemplates.getCreate()).thenReturn(Collections.singletonList(new NotificationTemplate("Credential Issued", "Your {{entityType}} credential has been issued")));
+        notificationHelper.sendNotification(inputJson, "CREATE");
+        verify(registryService, times(1)).callNotificationActors("CREATE", "tel:1234123423", "Credential Created", "Your Institute credential has been created");
+        verify(registryService, times(1)).callNotificationActors("CREATE", "tel:1234123423", "Credential Issued", "Your Institute credential has been issued");
+    }
 }
\ No newline at end of file
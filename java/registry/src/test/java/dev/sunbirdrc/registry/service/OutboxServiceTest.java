@@ -0,0 +1,155 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.model.OutboxEntryType;
+import dev.sunbirdrc.registry.model.dto.OutboxEntry;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.sink.VertexLeases;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class OutboxServiceTest {
+	private static final String OSID = "osid";
+
+	private TinkerGraph graph;
+	private Shard shard;
+	private OutboxService outboxService;
+
+	@Before
+	public void setUp() {
+		graph = TinkerGraph.open();
+		DatabaseProvider databaseProvider = mock(DatabaseProvider.class);
+		when(databaseProvider.getOSGraph()).thenAnswer(invocation -> new OSGraph(graph, false));
+		shard = new Shard();
+		shard.setDatabaseProvider(databaseProvider);
+
+		outboxService = new OutboxService();
+		ReflectionTestUtils.setField(outboxService, "uuidPropertyName", OSID);
+		ReflectionTestUtils.setField(outboxService, "leaseTime", 60000L);
+		ReflectionTestUtils.setField(outboxService, "objectMapper", new ObjectMapper());
+		outboxService.init();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		graph.close();
+	}
+
+	private void append(String... entityIds) throws Exception {
+		List<OutboxEntry> entries = new ArrayList<>();
+		for (String entityId : entityIds) {
+			entries.add(OutboxEntry.builder().type(OutboxEntryType.EVENT).operation("ADD").entityType("Student")
+					.entityId(entityId).build());
+		}
+		outboxService.append(shard, entries);
+	}
+
+	private Vertex outboxVertex(String entityId) {
+		return graph.traversal().V().hasLabel(OutboxService.OUTBOX_LABEL).toList().stream()
+				.filter(vertex -> vertex.<String>value(OutboxService.ENTRY).contains("\"" + entityId + "\""))
+				.findFirst().get();
+	}
+
+	@Test
+	public void shouldLeasePendingEntriesOnce() throws Exception {
+		append("1", "2");
+
+		Map<String, OutboxEntry> pending = outboxService.getPending(shard, 10);
+
+		assertEquals(2, pending.size());
+		assertEquals(VertexLeases.getInstanceId(), outboxVertex("1").value(VertexLeases.OWNER));
+		assertTrue(outboxService.getPending(shard, 10).isEmpty());
+	}
+
+	@Test
+	public void shouldSkipEntriesLeasedByAnotherInstance() throws Exception {
+		append("1", "2");
+		Vertex leased = outboxVertex("1");
+		leased.property(VertexLeases.OWNER, "other");
+		leased.property(OutboxService.NEXT_ATTEMPT_AT, System.currentTimeMillis() + 60000);
+
+		Map<String, OutboxEntry> pending = outboxService.getPending(shard, 10);
+
+		assertEquals(1, pending.size());
+		assertEquals("2", pending.values().iterator().next().getEntityId());
+		assertEquals("other", leased.value(VertexLeases.OWNER));
+	}
+
+	@Test
+	public void shouldPickUpEntriesWhoseLeaseRanOut() throws Exception {
+		append("1");
+		Vertex leased = outboxVertex("1");
+		leased.property(VertexLeases.OWNER, "other");
+		leased.property(OutboxService.NEXT_ATTEMPT_AT, System.currentTimeMillis() - 1);
+
+		assertEquals(1, outboxService.getPending(shard, 10).size());
+		assertEquals(VertexLeases.getInstanceId(), leased.value(VertexLeases.OWNER));
+	}
+
+	@Test
+	public void shouldNotClaimEntriesLeasedSinceTheyWereRead() throws Exception {
+		append("1", "2");
+		VertexLeases leases = new VertexLeases(OutboxService.OUTBOX_LABEL, OSID, OutboxService.NEXT_ATTEMPT_AT,
+				Collections.singletonList(OutboxService.STATUS));
+		List<Vertex> candidates = graph.traversal().V().hasLabel(OutboxService.OUTBOX_LABEL).toList();
+		Vertex claimedByOther = outboxVertex("1");
+		claimedByOther.property(OutboxService.NEXT_ATTEMPT_AT, System.currentTimeMillis() + 60000);
+
+		long now = System.currentTimeMillis();
+		List<Vertex> claimed = leases.claim(graph, candidates, now, now + 60000);
+
+		assertEquals(Collections.singletonList(outboxVertex("2")), claimed);
+		claimedByOther.property(VertexLeases.OWNER, "other");
+		Set<String> ids = new HashSet<>(Arrays.asList(claimedByOther.<String>value(OSID), outboxVertex("2").<String>value(OSID)));
+		assertEquals(Collections.singleton(outboxVertex("2").<String>value(OSID)), leases.confirm(graph, ids));
+	}
+
+	@Test
+	public void shouldRemoveDeliveredEntriesAndRetryTheOthers() throws Exception {
+		append("1", "2");
+		Map<String, OutboxEntry> pending = outboxService.getPending(shard, 10);
+		String delivered = outboxVertex("1").<String>value(OSID);
+
+		outboxService.checkpoint(shard, pending.keySet(), Collections.singleton(delivered), 3, 1000);
+
+		assertEquals(1L, (long) graph.traversal().V().hasLabel(OutboxService.OUTBOX_LABEL).count().next());
+		Vertex failed = outboxVertex("2");
+		assertEquals(1, ((Number) failed.value(OutboxService.ATTEMPTS)).intValue());
+		assertEquals(OutboxService.STATUS_PENDING, failed.value(OutboxService.STATUS));
+		assertTrue(((Number) failed.value(OutboxService.NEXT_ATTEMPT_AT)).longValue() > System.currentTimeMillis());
+	}
+
+	@Test
+	public void shouldParkEntriesOnceTheAttemptsAreExhausted() throws Exception {
+		append("1");
+		Map<String, OutboxEntry> pending = outboxService.getPending(shard, 10);
+
+		outboxService.checkpoint(shard, pending.keySet(), Collections.emptySet(), 1, 1000);
+
+		assertEquals(OutboxService.STATUS_FAILED, outboxVertex("1").value(OutboxService.STATUS));
+	}
+
+	@Test
+	public void shouldNotCheckpointEntriesClaimedByAnotherInstance() throws Exception {
+		append("1");
+		Map<String, OutboxEntry> pending = outboxService.getPending(shard, 10);
+		outboxVertex("1").property(VertexLeases.OWNER, "other");
+
+		outboxService.checkpoint(shard, pending.keySet(), pending.keySet(), 3, 1000);
+
+		Vertex entry = outboxVertex("1");
+		assertEquals("other", entry.value(VertexLeases.OWNER));
+		assertEquals(OutboxService.STATUS_PENDING, entry.value(OutboxService.STATUS));
+	}
+}
@@ -0,0 +1,71 @@
+package dev.sunbirdrc.registry.service;
+
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class OwnerProvisioningFailureStoreTest {
+	private TinkerGraph graph;
+	private OwnerProvisioningFailureStore failureStore;
+
+	@Before
+	public void setUp() {
+		graph = TinkerGraph.open();
+		DatabaseProvider databaseProvider = mock(DatabaseProvider.class);
+		when(databaseProvider.getOSGraph()).thenAnswer(invocation -> new OSGraph(graph, false));
+		Shard shard = new Shard();
+		shard.setDatabaseProvider(databaseProvider);
+		ShardManager shardManager = mock(ShardManager.class);
+		when(shardManager.getDefaultShard()).thenReturn(shard);
+
+		failureStore = new OwnerProvisioningFailureStore();
+		ReflectionTestUtils.setField(failureStore, "uuidPropertyName", "osid");
+		ReflectionTestUtils.setField(failureStore, "shardManager", shardManager);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		graph.close();
+	}
+
+	@Test
+	public void shouldListTheFailuresWithTheIdToDeleteThemWith() throws Exception {
+		failureStore.record(new OwnerProvisioningFailureStore.Failure("Student", "1", "student1", null, "exists", 1L));
+		failureStore.record(new OwnerProvisioningFailureStore.Failure("Student", "2", null, "owner2", "timeout", 2L));
+
+		List<OwnerProvisioningFailureStore.Failure> failures = failureStore.getFailures(10);
+
+		assertEquals(2, failures.size());
+		assertEquals("student1", failures.get(0).getUserName());
+		assertEquals("owner2", failures.get(1).getOwnerId());
+		assertNotNull(failures.get(0).getId());
+		assertNotEquals(failures.get(0).getId(), failures.get(1).getId());
+	}
+
+	@Test
+	public void shouldDeleteTheFixedFailures() throws Exception {
+		failureStore.record(new OwnerProvisioningFailureStore.Failure("Student", "1", "student1", null, "exists", 1L));
+		failureStore.record(new OwnerProvisioningFailureStore.Failure("Student", "2", "student2", null, "exists", 2L));
+		String fixed = failureStore.getFailures(10).get(0).getId();
+
+		assertEquals(1, failureStore.delete(Arrays.asList(fixed, "unknown")));
+
+		List<OwnerProvisioningFailureStore.Failure> failures = failureStore.getFailures(10);
+		assertEquals(1, failures.size());
+		assertEquals("2", failures.get(0).getEntityId());
+		assertEquals(0, failureStore.delete(Collections.emptyList()));
+	}
+}
@@ -0,0 +1,110 @@
+package dev.sunbirdrc.registry.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.model.dto.WebhookEvent;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.sink.VertexLeases;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class WebhookDeliveryStoreTest {
+	private static final String OSID = "osid";
+	private static final String CALLBACK = "http://localhost:5001/api/v1/callback";
+
+	private TinkerGraph graph;
+	private DatabaseProvider databaseProvider;
+	private WebhookDeliveryStore webhookDeliveryStore;
+
+	@Before
+	public void setUp() {
+		graph = TinkerGraph.open();
+		databaseProvider = mock(DatabaseProvider.class);
+		when(databaseProvider.getOSGraph()).thenAnswer(invocation -> new OSGraph(graph, false));
+		Shard shard = new Shard();
+		shard.setDatabaseProvider(databaseProvider);
+		ShardManager shardManager = mock(ShardManager.class);
+		when(shardManager.getDefaultShard()).thenReturn(shard);
+
+		webhookDeliveryStore = new WebhookDeliveryStore();
+		ReflectionTestUtils.setField(webhookDeliveryStore, "uuidPropertyName", OSID);
+		ReflectionTestUtils.setField(webhookDeliveryStore, "leaseTime", 60000L);
+		ReflectionTestUtils.setField(webhookDeliveryStore, "shardManager", shardManager);
+		ReflectionTestUtils.setField(webhookDeliveryStore, "objectMapper", new ObjectMapper());
+		webhookDeliveryStore.init();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		graph.close();
+	}
+
+	private void append(String... events) throws Exception {
+		for (String event : events) {
+			webhookDeliveryStore.append(WebhookEvent.builder().event(event).webhookUrl(CALLBACK).build());
+		}
+	}
+
+	private Vertex deliveryVertex(String event) {
+		return graph.traversal().V().hasLabel(WebhookDeliveryStore.WEBHOOK_LABEL).toList().stream()
+				.filter(vertex -> vertex.<String>value(WebhookDeliveryStore.EVENT).contains("\"" + event + "\""))
+				.findFirst().get();
+	}
+
+	@Test
+	public void shouldLeasePendingDeliveriesOnce() throws Exception {
+		append("ADD", "UPDATE");
+
+		assertEquals(2, webhookDeliveryStore.lease(10, Collections.emptySet()).size());
+		assertEquals(VertexLeases.getInstanceId(), deliveryVertex("ADD").value(VertexLeases.OWNER));
+		assertTrue(webhookDeliveryStore.lease(10, Collections.emptySet()).isEmpty());
+		verify(databaseProvider).createIndex(any(), eq(WebhookDeliveryStore.WEBHOOK_LABEL),
+				eq(Arrays.asList(WebhookDeliveryStore.STATUS, WebhookDeliveryStore.NEXT_ATTEMPT_AT)));
+	}
+
+	@Test
+	public void shouldSkipDeliveriesLeasedByAnotherInstance() throws Exception {
+		append("ADD", "UPDATE");
+		Vertex leased = deliveryVertex("ADD");
+		leased.property(VertexLeases.OWNER, "other");
+		leased.property(WebhookDeliveryStore.NEXT_ATTEMPT_AT, System.currentTimeMillis() + 60000);
+
+		List<WebhookDeliveryStore.Delivery> deliveries = webhookDeliveryStore.lease(10, Collections.emptySet());
+
+		assertEquals(1, deliveries.size());
+		assertTrue(deliveries.get(0).getEvent().contains("\"UPDATE\""));
+		assertEquals("other", leased.value(VertexLeases.OWNER));
+	}
+
+	@Test
+	public void shouldPickUpDeliveriesWhoseLeaseRanOut() throws Exception {
+		append("ADD");
+		Vertex leased = deliveryVertex("ADD");
+		leased.property(VertexLeases.OWNER, "other");
+		leased.property(WebhookDeliveryStore.NEXT_ATTEMPT_AT, System.currentTimeMillis() - 1);
+
+		assertEquals(1, webhookDeliveryStore.lease(10, Collections.emptySet()).size());
+		assertEquals(VertexLeases.getInstanceId(), leased.value(VertexLeases.OWNER));
+	}
+
+	@Test
+	public void shouldLeaveTheDeliveriesOfSkippedEndpointsPending() throws Exception {
+		append("ADD");
+
+		assertTrue(webhookDeliveryStore.lease(10, Collections.singleton(CALLBACK)).isEmpty());
+		assertFalse(deliveryVertex("ADD").property(VertexLeases.OWNER).isPresent());
+	}
+}
@@ -0,0 +1,106 @@
+package dev.sunbirdrc.registry.service;
+
+import dev.sunbirdrc.registry.util.OutboundHttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class WebhookDispatcherTest {
+	private static final String CALLBACK = "http://localhost:5001/api/v1/callback";
+	private static final String OTHER_CALLBACK = "http://localhost:5002/api/v1/callback";
+
+	private final WebhookDeliveryStore webhookDeliveryStore = mock(WebhookDeliveryStore.class);
+	private final OutboundHttpClients outboundHttpClients = mock(OutboundHttpClients.class);
+	private final RestTemplate restTemplate = mock(RestTemplate.class);
+	private WebhookDispatcher webhookDispatcher;
+
+	@Before
+	public void setUp() {
+		when(outboundHttpClients.getWebhookRestTemplate(anyString())).thenReturn(restTemplate);
+	}
+
+	@After
+	public void tearDown() {
+		webhookDispatcher.stop();
+	}
+
+	private WebhookDispatcher dispatcher(boolean batchEnabled, int maxConcurrency) {
+		return new WebhookDispatcher(webhookDeliveryStore, outboundHttpClients, true, true, batchEnabled, 2, 100, 4,
+				maxConcurrency, 0, 3, 1000);
+	}
+
+	private static WebhookDeliveryStore.Delivery delivery(String id, String endpoint, int attempts) {
+		return new WebhookDeliveryStore.Delivery(id, endpoint, "{\"event\":\"" + id + "\"}", attempts, System.currentTimeMillis(), null);
+	}
+
+	private static HttpEntity<String> body(String body) {
+		return argThat(entity -> body.equals(entity.getBody()));
+	}
+
+	@Test
+	public void shouldPostTheEventsOfEachEndpointInBatches() throws Exception {
+		webhookDispatcher = dispatcher(true, 2);
+		when(webhookDeliveryStore.lease(eq(100), anyCollection())).thenReturn(Arrays.asList(delivery("1", CALLBACK, 0),
+				delivery("2", CALLBACK, 0), delivery("3", OTHER_CALLBACK, 0), delivery("4", CALLBACK, 0)));
+
+		webhookDispatcher.dispatch();
+
+		verify(restTemplate, timeout(5000)).postForEntity(eq(CALLBACK), body("[{\"event\":\"1\"},{\"event\":\"2\"}]"), eq(String.class));
+		verify(restTemplate, timeout(5000)).postForEntity(eq(CALLBACK), body("[{\"event\":\"4\"}]"), eq(String.class));
+		verify(restTemplate, timeout(5000)).postForEntity(eq(OTHER_CALLBACK), body("[{\"event\":\"3\"}]"), eq(String.class));
+		verify(webhookDeliveryStore, timeout(5000)).delivered(Arrays.asList("1", "2"));
+		verify(webhookDeliveryStore, timeout(5000)).delivered(Collections.singletonList("3"));
+		verify(webhookDeliveryStore, timeout(5000)).delivered(Collections.singletonList("4"));
+	}
+
+	@Test
+	public void shouldRescheduleFailedDeliveriesAndCountDeadLetters() throws Exception {
+		webhookDispatcher = dispatcher(false, 2);
+		when(webhookDeliveryStore.lease(eq(100), anyCollection())).thenReturn(Collections.singletonList(delivery("1", CALLBACK, 2)));
+		when(restTemplate.postForEntity(eq(CALLBACK), any(), eq(String.class))).thenThrow(new ResourceAccessException("Connection refused"));
+
+		webhookDispatcher.dispatch();
+
+		verify(webhookDeliveryStore, timeout(5000)).failed(Collections.singletonList("1"), "Connection refused", 3, 1000);
+		verify(webhookDeliveryStore, never()).delivered(any());
+		Map<String, Object> endpoint = (Map<String, Object>) ((Map<String, Object>) webhookDispatcher.getMetrics().get("endpoints")).get(CALLBACK);
+		assertEquals(1L, endpoint.get("failed"));
+		assertEquals(1L, endpoint.get("deadLettered"));
+	}
+
+	@Test
+	public void shouldLeaveDeliveriesBeyondTheEndpointConcurrencyPending() throws Exception {
+		webhookDispatcher = dispatcher(false, 1);
+		CountDownLatch sending = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(restTemplate.postForEntity(eq(CALLBACK), any(), eq(String.class))).thenAnswer(invocation -> {
+			sending.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return null;
+		});
+		when(webhookDeliveryStore.lease(eq(100), anyCollection())).thenReturn(Arrays.asList(delivery("1", CALLBACK, 0),
+				delivery("2", CALLBACK, 0)));
+
+		webhookDispatcher.dispatch();
+		sending.await(5, TimeUnit.SECONDS);
+		webhookDispatcher.dispatch();
+		release.countDown();
+
+		verify(webhookDeliveryStore).release(Collections.singletonList("2"));
+		verify(webhookDeliveryStore).lease(100, Collections.singleton(CALLBACK));
+		verify(webhookDeliveryStore, timeout(5000)).delivered(Collections.singletonList("1"));
+	}
+}
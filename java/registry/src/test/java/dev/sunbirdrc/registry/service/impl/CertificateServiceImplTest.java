@@ -0,0 +1,107 @@
+package dev.sunbirdrc.registry.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import dev.sunbirdrc.registry.service.FileStorageService;
+import dev.sunbirdrc.registry.util.OutboundHttpClients;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CertificateServiceImplTest {
+
+	private RestTemplate restTemplate;
+	private CertificateServiceImpl certificateService;
+	private final JsonNode entity = JsonNodeFactory.instance.objectNode().put("name", "Student1");
+
+	@Before
+	public void setUp() {
+		restTemplate = mock(RestTemplate.class);
+		OutboundHttpClients outboundHttpClients = mock(OutboundHttpClients.class);
+		when(outboundHttpClients.getRestTemplate(OutboundHttpClients.CERTIFICATE)).thenReturn(restTemplate);
+		certificateService = new CertificateServiceImpl("http://localhost/templates/", "http://localhost/certificate",
+				true, "http://localhost/health", outboundHttpClients);
+		ReflectionTestUtils.setField(certificateService, "cacheMaxSizeInBytes", 1024L);
+		ReflectionTestUtils.setField(certificateService, "cacheTtl", 60000L);
+		ReflectionTestUtils.setField(certificateService, "templateTtl", 60000L);
+		certificateService.init();
+		when(restTemplate.postForObject(anyString(), any(HttpEntity.class), eq(byte[].class))).thenReturn(new byte[]{1, 2, 3});
+		when(restTemplate.getForObject(any(URI.class), eq(byte[].class))).thenReturn("<html>template</html>".getBytes());
+	}
+
+	@Test
+	public void shouldRenderEachVersionOnce() {
+		String version = certificateService.getCertificateVersion("123", "2023-01-01T00:00:00Z", "Student", null, null, "application/pdf");
+		certificateService.getCertificate(entity, "Student", "123", "application/pdf", null, entity, version);
+		Object certificate = certificateService.getCertificate(entity, "Student", "123", "application/pdf", null, entity, version);
+		assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) certificate);
+		verify(restTemplate, times(1)).postForObject(anyString(), any(HttpEntity.class), eq(byte[].class));
+	}
+
+	@Test
+	public void shouldRenderAgainWhenTheRecordChanges() {
+		String version = certificateService.getCertificateVersion("123", "2023-01-01T00:00:00Z", "Student", null, null, "application/pdf");
+		String updatedVersion = certificateService.getCertificateVersion("123", "2023-01-02T00:00:00Z", "Student", null, null, "application/pdf");
+		assertNotEquals(version, updatedVersion);
+		certificateService.getCertificate(entity, "Student", "123", "application/pdf", null, entity, version);
+		certificateService.getCertificate(entity, "Student", "123", "application/pdf", null, entity, updatedVersion);
+		verify(restTemplate, times(2)).postForObject(anyString(), any(HttpEntity.class), eq(byte[].class));
+	}
+
+	@Test
+	public void shouldNotCacheFailedRenders() {
+		String version = certificateService.getCertificateVersion("123", "2023-01-01T00:00:00Z", "Student", null, null, "application/pdf");
+		reset(restTemplate);
+		assertNull(certificateService.getCertificate(entity, "Student", "123", "application/pdf", null, entity, version));
+		when(restTemplate.postForObject(anyString(), any(HttpEntity.class), eq(byte[].class))).thenReturn(new byte[]{1});
+		assertArrayEquals(new byte[]{1}, (byte[]) certificateService.getCertificate(entity, "Student", "123", "application/pdf", null, entity, version));
+	}
+
+	@Test
+	public void shouldVersionTheResolvedTemplate() {
+		ReflectionTestUtils.setField(certificateService, "templateTtl", 0L);
+		certificateService.init();
+		String version = certificateService.getCertificateVersion("123", "2023-01-01T00:00:00Z", "Student", null, null, "application/pdf");
+		when(restTemplate.getForObject(any(URI.class), eq(byte[].class))).thenReturn("<html>edited</html>".getBytes());
+
+		assertNotEquals(version, certificateService.getCertificateVersion("123", "2023-01-01T00:00:00Z", "Student", null, null, "application/pdf"));
+		verify(restTemplate, times(2)).getForObject(URI.create("http://localhost/templates/Student.html"), byte[].class);
+	}
+
+	@Test
+	public void shouldNotVersionCertificatesWhoseTemplateCantBeRead() {
+		when(restTemplate.getForObject(any(URI.class), eq(byte[].class))).thenThrow(new ResourceAccessException("unavailable"));
+
+		assertNull(certificateService.getCertificateVersion("123", "2023-01-01T00:00:00Z", "Student", "key", "http://localhost/other.html", "application/pdf"));
+	}
+
+	@Test
+	public void shouldExpireTheStoredCertificates() throws Exception {
+		FileStorageService fileStorageService = mock(FileStorageService.class);
+		ReflectionTestUtils.setField(certificateService, "fileStorageService", fileStorageService);
+		ReflectionTestUtils.setField(certificateService, "objectStoreEnabled", true);
+		certificateService.init();
+		verify(fileStorageService).expireObjects("certificates/", 1);
+
+		String version = certificateService.getCertificateVersion("123", "2023-01-01T00:00:00Z", "Student", null, null, "application/pdf");
+		certificateService.getCertificate(entity, "Student", "123", "application/pdf", null, entity, version);
+
+		verify(fileStorageService).read("certificates/" + version, 60000L);
+	}
+
+	@Test
+	public void shouldNotVersionRecordsWithoutUpdatedAt() {
+		assertNull(certificateService.getCertificateVersion("123", null, "Student", null, null, "application/pdf"));
+	}
+}
@@ -0,0 +1,222 @@
+package dev.sunbirdrc.registry.service.impl;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.sunbirdrc.elastic.ESDocument;
+import dev.sunbirdrc.elastic.ESMessage;
+import dev.sunbirdrc.elastic.IElasticService;
+import dev.sunbirdrc.registry.middleware.util.Constants;
+import dev.sunbirdrc.registry.middleware.util.OSSystemFields;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.sink.DBProviderFactory;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.sink.VertexLeases;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import dev.sunbirdrc.registry.util.IDefinitionsManager;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ElasticBackfillJobTest {
+	private static final String OSID = "osid";
+	private static final String TASK_KEY = "backfill:Student:shard1";
+
+	private final IElasticService elasticService = mock(IElasticService.class);
+	private TinkerGraph graph;
+	private ElasticBackfillJob backfillJob;
+
+	@Before
+	public void setUp() {
+		graph = TinkerGraph.open();
+		DatabaseProvider databaseProvider = mock(DatabaseProvider.class);
+		when(databaseProvider.getOSGraph()).thenAnswer(invocation -> new OSGraph(graph, false));
+		when(databaseProvider.getId(any(Vertex.class))).thenAnswer(invocation -> ((Vertex) invocation.getArgument(0)).value(OSID));
+		Shard shard = new Shard();
+		shard.setShardId("shard1");
+		shard.setShardLabel("");
+		shard.setDatabaseProvider(databaseProvider);
+		ShardManager shardManager = mock(ShardManager.class);
+		when(shardManager.activateShard("shard1")).thenReturn(shard);
+		DBProviderFactory dbProviderFactory = mock(DBProviderFactory.class);
+		when(dbProviderFactory.getInstance(any())).thenReturn(databaseProvider);
+		DBConnectionInfo connectionInfo = new DBConnectionInfo();
+		connectionInfo.setShardId("shard1");
+		DBConnectionInfoMgr dbConnectionInfoMgr = new DBConnectionInfoMgr();
+		dbConnectionInfoMgr.setConnectionInfo(Collections.singletonList(connectionInfo));
+		IDefinitionsManager definitionsManager = mock(IDefinitionsManager.class);
+		when(definitionsManager.getAllKnownDefinitions()).thenReturn(Collections.singleton("Student"));
+		when(definitionsManager.isValidEntityName("Student")).thenReturn(true);
+
+		backfillJob = new ElasticBackfillJob();
+		ReflectionTestUtils.setField(backfillJob, "parallelism", 2);
+		ReflectionTestUtils.setField(backfillJob, "chunkSize", 500);
+		ReflectionTestUtils.setField(backfillJob, "leaseTime", 60000L);
+		ReflectionTestUtils.setField(backfillJob, "uuidPropertyName", OSID);
+		ReflectionTestUtils.setField(backfillJob, "searchProvider", "dev.sunbirdrc.registry.service.ElasticSearchService");
+		ReflectionTestUtils.setField(backfillJob, "elasticService", elasticService);
+		ReflectionTestUtils.setField(backfillJob, "definitionsManager", definitionsManager);
+		ReflectionTestUtils.setField(backfillJob, "dbConnectionInfoMgr", dbConnectionInfoMgr);
+		ReflectionTestUtils.setField(backfillJob, "dbProviderFactory", dbProviderFactory);
+		ReflectionTestUtils.setField(backfillJob, "shardManager", shardManager);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		graph.close();
+	}
+
+	private void addStudent(String osid, String updatedAt) {
+		graph.addVertex(T.label, "Student", Constants.TYPE_STR_JSON_LD, "Student", OSID, osid, "name", "student" + osid,
+				OSSystemFields.osUpdatedAt.name(), updatedAt);
+	}
+
+	private Vertex addCheckpoint(String owner, long leasedUntil) {
+		return graph.addVertex(T.label, ElasticBackfillJob.CHECKPOINT_LABEL, ElasticBackfillJob.TASK_KEY, TASK_KEY,
+				ElasticBackfillJob.MODE, "backfill", ElasticBackfillJob.ENTITY_TYPE, "Student",
+				ElasticBackfillJob.SHARD_ID, "shard1", ElasticBackfillJob.LAST_ID, "", ElasticBackfillJob.DONE, false,
+				ElasticBackfillJob.LEASED_UNTIL, leasedUntil, VertexLeases.OWNER, owner);
+	}
+
+	private static ESDocument document(String updatedAt, long seqNo) {
+		ObjectNode source = JsonNodeFactory.instance.objectNode();
+		source.put(OSSystemFields.osUpdatedAt.name(), updatedAt);
+		return new ESDocument(source, seqNo, 1);
+	}
+
+	private void awaitJob() throws Exception {
+		Future<?> job = (Future<?>) ReflectionTestUtils.getField(backfillJob, "job");
+		job.get(10, TimeUnit.SECONDS);
+	}
+
+	private Map<String, ESMessage> bulkMessages() throws Exception {
+		ArgumentCaptor<List<ESMessage>> messages = ArgumentCaptor.forClass(List.class);
+		verify(elasticService, atLeastOnce()).bulk(eq("student"), messages.capture());
+		Map<String, ESMessage> byId = new HashMap<>();
+		messages.getAllValues().forEach(bulk -> bulk.forEach(message -> byId.put(message.getOsid(), message)));
+		return byId;
+	}
+
+	@Test
+	public void shouldIndexOnConditionOfTheDocumentsRead() throws Exception {
+		addStudent("1", "t1");
+		addStudent("2", "t2");
+		when(elasticService.multiGet("student", Arrays.asList("1", "2")))
+				.thenReturn(Collections.singletonMap("2", document("t2", 3)));
+
+		assertTrue(backfillJob.start(ElasticBackfillJob.Mode.backfill, Collections.emptyList(), true));
+		awaitJob();
+
+		Map<String, ESMessage> messages = bulkMessages();
+		assertEquals(2, messages.size());
+		assertEquals(Long.valueOf(ESMessage.NOT_EXISTS), messages.get("1").getSeqNo());
+		assertEquals(Long.valueOf(3), messages.get("2").getSeqNo());
+		assertEquals(Long.valueOf(1), messages.get("2").getPrimaryTerm());
+		assertEquals("student1", messages.get("1").getInput().get("name").asText());
+	}
+
+	@Test
+	public void shouldReportTheDocumentsWhichWereNotWritten() throws Exception {
+		addStudent("1", "t1");
+		addStudent("2", "t2");
+		when(elasticService.bulk(eq("student"), anyList())).thenReturn(Collections.singletonList("2"));
+
+		assertTrue(backfillJob.start(ElasticBackfillJob.Mode.backfill, Collections.emptyList(), true));
+		awaitJob();
+
+		Map<String, Object> status = backfillJob.getStatus();
+		assertEquals(0L, status.get("failedTasks"));
+		assertEquals(1L, status.get("failedDocuments"));
+	}
+
+	@Test
+	public void shouldReconcileOnlyTheStaleDocuments() throws Exception {
+		addStudent("1", "t1");
+		addStudent("2", "t2");
+		Map<String, ESDocument> documents = new HashMap<>();
+		documents.put("1", document("t1", 5));
+		documents.put("2", document("old", 6));
+		when(elasticService.multiGet("student", Arrays.asList("1", "2"), OSSystemFields.osUpdatedAt.name(),
+				Constants.STATUS_KEYWORD)).thenReturn(documents);
+
+		assertTrue(backfillJob.start(ElasticBackfillJob.Mode.reconcile, Collections.emptyList(), true));
+		awaitJob();
+
+		Map<String, ESMessage> messages = bulkMessages();
+		assertEquals(Collections.singleton("2"), messages.keySet());
+		assertEquals(Long.valueOf(6), messages.get("2").getSeqNo());
+	}
+
+	@Test
+	public void shouldDeleteOrphanDocumentsOnConditionOfTheirScrolledSeqNo() throws Exception {
+		addStudent("1", "t1");
+		when(elasticService.multiGet("student", Collections.singletonList("1"), OSSystemFields.osUpdatedAt.name(),
+				Constants.STATUS_KEYWORD)).thenReturn(Collections.singletonMap("1", document("t1", 5)));
+		Map<String, ESDocument> scrolled = new HashMap<>();
+		scrolled.put("1", document("t1", 5));
+		scrolled.put("9", document("t9", 7));
+		doAnswer(invocation -> {
+			((Consumer<Map<String, ESDocument>>) invocation.getArgument(2)).accept(scrolled);
+			return null;
+		}).when(elasticService).scrollIds(eq("student"), anyInt(), any());
+
+		assertTrue(backfillJob.start(ElasticBackfillJob.Mode.reconcile, Collections.emptyList(), true));
+		awaitJob();
+
+		Map<String, ESMessage> messages = bulkMessages();
+		assertEquals(Collections.singleton("9"), messages.keySet());
+		assertEquals("DELETE", messages.get("9").getOperation());
+		assertEquals(Long.valueOf(7), messages.get("9").getSeqNo());
+	}
+
+	@Test
+	public void shouldNotResumeCheckpointsLeasedByAnotherInstance() throws Exception {
+		addStudent("1", "t1");
+		addCheckpoint("other", System.currentTimeMillis() + 60000);
+
+		backfillJob.resume();
+
+		assertFalse(backfillJob.isRunning());
+		assertNull(ReflectionTestUtils.getField(backfillJob, "job"));
+		verify(elasticService, never()).bulk(anyString(), anyList());
+	}
+
+	@Test
+	public void shouldResumeCheckpointsWhoseLeaseRanOut() throws Exception {
+		addStudent("1", "t1");
+		Vertex checkpoint = addCheckpoint("other", System.currentTimeMillis() - 1);
+
+		backfillJob.resume();
+		awaitJob();
+
+		assertEquals(VertexLeases.getInstanceId(), checkpoint.value(VertexLeases.OWNER));
+		assertTrue(checkpoint.<Boolean>value(ElasticBackfillJob.DONE));
+		assertEquals(Collections.singleton("1"), bulkMessages().keySet());
+	}
+
+	@Test
+	public void shouldNotStartWhileAnotherInstanceHoldsALease() throws Exception {
+		Vertex checkpoint = addCheckpoint("other", System.currentTimeMillis() + 60000);
+
+		assertFalse(backfillJob.start(ElasticBackfillJob.Mode.backfill, Collections.emptyList(), true));
+
+		assertEquals("other", checkpoint.value(VertexLeases.OWNER));
+		assertEquals(1L, (long) graph.traversal().V().hasLabel(ElasticBackfillJob.CHECKPOINT_LABEL).count().next());
+	}
+}
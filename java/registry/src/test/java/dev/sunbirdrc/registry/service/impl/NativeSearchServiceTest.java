@@ -8,6 +8,7 @@ import dev.sunbirdrc.registry.middleware.util.Constants;
 import dev.sunbirdrc.registry.model.DBConnectionInfo;
 import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
 import dev.sunbirdrc.registry.service.NativeSearchService;
+import dev.sunbirdrc.registry.dao.SearchPlanner;
 import dev.sunbirdrc.registry.sink.DBProviderFactory;
 import dev.sunbirdrc.registry.sink.DatabaseProvider;
 import dev.sunbirdrc.registry.sink.shard.DefaultShardAdvisor;
@@ -71,6 +72,7 @@ public class NativeSearchServiceTest {
 		ReflectionTestUtils.setField(nativeSearchService, "definitionsManager", definitionsManager);
 		ReflectionTestUtils.setField(nativeSearchService, "dbConnectionInfoMgr", dbConnectionInfoMgr);
 		ReflectionTestUtils.setField(nativeSearchService, "shardManager", shardManager);
+		ReflectionTestUtils.setField(nativeSearchService, "searchPlanner", new SearchPlanner());
 		ReflectionTestUtils.setField(nativeSearchService, "limit", 100);
 		ReflectionTestUtils.setField(nativeSearchService, "uuidPropertyName", "osid");
 
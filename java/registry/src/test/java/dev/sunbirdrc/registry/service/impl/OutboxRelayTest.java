@@ -0,0 +1,102 @@
+package dev.sunbirdrc.registry.service.impl;
+
+import dev.sunbirdrc.elastic.ESMessage;
+import dev.sunbirdrc.elastic.IElasticService;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.model.OutboxEntryType;
+import dev.sunbirdrc.registry.model.dto.OutboxEntry;
+import dev.sunbirdrc.registry.service.IAuditService;
+import dev.sunbirdrc.registry.service.OutboxService;
+import dev.sunbirdrc.registry.service.RegistryService;
+import dev.sunbirdrc.registry.service.WebhookService;
+import dev.sunbirdrc.registry.sink.shard.Shard;
+import dev.sunbirdrc.registry.sink.shard.ShardManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OutboxRelayTest {
+	private final OutboxService outboxService = mock(OutboxService.class);
+	private final IElasticService elasticService = mock(IElasticService.class);
+	private final IAuditService auditService = mock(IAuditService.class);
+	private final Shard shard = new Shard();
+	private OutboxRelay outboxRelay;
+
+	@Before
+	public void setUp() {
+		DBConnectionInfo connectionInfo = new DBConnectionInfo();
+		connectionInfo.setShardId("shard1");
+		DBConnectionInfoMgr dbConnectionInfoMgr = new DBConnectionInfoMgr();
+		dbConnectionInfoMgr.setConnectionInfo(Collections.singletonList(connectionInfo));
+		ShardManager shardManager = mock(ShardManager.class);
+		when(shardManager.activateShard("shard1")).thenReturn(shard);
+		when(outboxService.isRelayEnabled()).thenReturn(true);
+
+		outboxRelay = new OutboxRelay();
+		ReflectionTestUtils.setField(outboxRelay, "batchSize", 100);
+		ReflectionTestUtils.setField(outboxRelay, "maxAttempts", 3);
+		ReflectionTestUtils.setField(outboxRelay, "backoffMillis", 1000L);
+		ReflectionTestUtils.setField(outboxRelay, "outboxService", outboxService);
+		ReflectionTestUtils.setField(outboxRelay, "dbConnectionInfoMgr", dbConnectionInfoMgr);
+		ReflectionTestUtils.setField(outboxRelay, "shardManager", shardManager);
+		ReflectionTestUtils.setField(outboxRelay, "elasticService", elasticService);
+		ReflectionTestUtils.setField(outboxRelay, "auditService", auditService);
+		ReflectionTestUtils.setField(outboxRelay, "registryService", mock(RegistryService.class));
+		ReflectionTestUtils.setField(outboxRelay, "webhookService", mock(WebhookService.class));
+	}
+
+	private static OutboxEntry entry(OutboxEntryType type, String operation, String entityId) {
+		return OutboxEntry.builder().type(type).operation(operation).entityType("Student").entityId(entityId)
+				.userId("user").transactionId("1").build();
+	}
+
+	@Test
+	public void shouldIndexEntriesInOneBulkAndCheckpointTheDeliveredOnes() throws Exception {
+		Map<String, OutboxEntry> pending = new LinkedHashMap<>();
+		pending.put("o1", entry(OutboxEntryType.ELASTIC_SEARCH, "ADD", "1"));
+		pending.put("o2", entry(OutboxEntryType.ELASTIC_SEARCH, "UPDATE", "2"));
+		pending.put("o3", entry(OutboxEntryType.AUDIT, "UPDATE", "root"));
+		when(outboxService.getPending(shard, 100)).thenReturn(pending);
+		when(elasticService.bulk(eq("student"), anyList())).thenReturn(Collections.singletonList("2"));
+
+		outboxRelay.drain();
+
+		ArgumentCaptor<List<ESMessage>> messages = ArgumentCaptor.forClass(List.class);
+		verify(elasticService).bulk(eq("student"), messages.capture());
+		assertEquals(2, messages.getValue().size());
+		verify(auditService).createAuditRecord(eq("user"), eq("root"), anyList(), eq("Student"));
+		verify(outboxService).checkpoint(shard, pending.keySet(), new HashSet<>(Arrays.asList("o1", "o3")), 3, 1000L);
+	}
+
+	@Test
+	public void shouldRetryEntriesWhoseDeliveryFailed() throws Exception {
+		Map<String, OutboxEntry> pending = new LinkedHashMap<>();
+		pending.put("o1", entry(OutboxEntryType.ELASTIC_SEARCH, "ADD", "1"));
+		pending.put("o2", entry(OutboxEntryType.AUDIT, "DELETE", "1"));
+		when(outboxService.getPending(shard, 100)).thenReturn(pending);
+		when(elasticService.bulk(eq("student"), anyList())).thenThrow(new IOException("unavailable"));
+		doThrow(new RuntimeException("audit failed")).when(auditService).auditDelete(any(), eq(shard));
+
+		outboxRelay.drain();
+
+		verify(outboxService).checkpoint(shard, pending.keySet(), Collections.emptySet(), 3, 1000L);
+	}
+
+	@Test
+	public void shouldNotDrainWhenDisabled() throws Exception {
+		when(outboxService.isRelayEnabled()).thenReturn(false);
+
+		outboxRelay.drain();
+
+		verify(outboxService, never()).getPending(any(), anyInt());
+	}
+}
@@ -22,6 +22,7 @@ import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
 import dev.sunbirdrc.registry.model.event.Event;
 import dev.sunbirdrc.registry.service.IAuditService;
 import dev.sunbirdrc.registry.service.IEventService;
+import dev.sunbirdrc.registry.service.OutboxService;
 import dev.sunbirdrc.registry.service.EntityTransformer;
 import dev.sunbirdrc.registry.service.SchemaService;
 import dev.sunbirdrc.registry.sink.DBProviderFactory;
@@ -143,6 +144,8 @@ public class RegistryServiceImplTest {
 	private JsonValidationServiceImpl jsonValidationService;
 	@Mock
 	private IAuditService auditService;
+	@Mock
+	private OutboxService outboxService;
 
 	public void setup() throws IOException {
 		MockitoAnnotations.initMocks(this);
@@ -0,0 +1,59 @@
+package dev.sunbirdrc.registry.sink;
+
+import dev.sunbirdrc.pojos.FilterOperators;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.junit.Test;
+import org.umlg.sqlg.predicate.Text;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+
+public class SqlgProviderTest {
+	private static final List<String> VALUES = Arrays.asList("marko", "vedas", "jas", "", "as");
+
+	// Only the predicate mapping is exercised, it doesn't need a database
+	private final SqlgProvider sqlgProvider = mock(SqlgProvider.class, CALLS_REAL_METHODS);
+	private final DatabaseProvider inMemoryProvider = mock(DatabaseProvider.class, CALLS_REAL_METHODS);
+
+	@Test
+	public void testTextFiltersArePushedDownAsSqlgPredicates() {
+		assertSame(Text.contains, sqlgProvider.getTextPredicate(FilterOperators.contains, "as").getBiPredicate());
+		assertSame(Text.startsWith, sqlgProvider.getTextPredicate(FilterOperators.startsWith, "as").getBiPredicate());
+		assertSame(Text.endsWith, sqlgProvider.getTextPredicate(FilterOperators.endsWith, "as").getBiPredicate());
+		assertSame(Text.ncontains, sqlgProvider.getTextPredicate(FilterOperators.notContains, "as").getBiPredicate());
+		assertSame(Text.nstartsWith, sqlgProvider.getTextPredicate(FilterOperators.notStartsWith, "as").getBiPredicate());
+		assertSame(Text.nendsWith, sqlgProvider.getTextPredicate(FilterOperators.notEndsWith, "as").getBiPredicate());
+		assertEquals("as", sqlgProvider.getTextPredicate(FilterOperators.contains, "as").getValue());
+	}
+
+	@Test
+	public void testPushedDownFiltersMatchLikeTheInMemoryFallback() {
+		for (FilterOperators operator : Arrays.asList(FilterOperators.contains, FilterOperators.startsWith,
+				FilterOperators.endsWith, FilterOperators.notContains, FilterOperators.notStartsWith,
+				FilterOperators.notEndsWith)) {
+			P<String> pushedDown = sqlgProvider.getTextPredicate(operator, "as");
+			P<String> inMemory = inMemoryProvider.getTextPredicate(operator, "as");
+			for (String value : VALUES) {
+				assertEquals(operator + " " + value, inMemory.test(value), pushedDown.test(value));
+			}
+		}
+	}
+
+	@Test
+	public void testInMemoryFallback() {
+		assertTrue(inMemoryProvider.getTextPredicate(FilterOperators.contains, "ed").test("vedas"));
+		assertFalse(inMemoryProvider.getTextPredicate(FilterOperators.notContains, "ed").test("vedas"));
+		assertTrue(inMemoryProvider.getTextPredicate(FilterOperators.notContains, "ed").test("marko"));
+		assertTrue(inMemoryProvider.getTextPredicate(FilterOperators.startsWith, "ma").test("marko"));
+		assertTrue(inMemoryProvider.getTextPredicate(FilterOperators.endsWith, "as").test("jas"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonTextOperatorIsRejected() {
+		sqlgProvider.getTextPredicate(FilterOperators.eq, "as");
+	}
+}
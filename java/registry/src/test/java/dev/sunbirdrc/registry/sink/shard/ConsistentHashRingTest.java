@@ -0,0 +1,68 @@
+package dev.sunbirdrc.registry.sink.shard;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ConsistentHashRingTest {
+
+	private static Map<String, Integer> members(Object... shardWeights) {
+		Map<String, Integer> members = new HashMap<>();
+		for (int i = 0; i < shardWeights.length; i += 2) {
+			members.put((String) shardWeights[i], (Integer) shardWeights[i + 1]);
+		}
+		return members;
+	}
+
+	@Test
+	public void testOwnerIsStable() {
+		ConsistentHashRing ring = new ConsistentHashRing(members("shard1", 1, "shard2", 1), 64);
+		ConsistentHashRing sameRing = new ConsistentHashRing(members("shard2", 1, "shard1", 1), 64);
+		for (int i = 0; i < 1000; i++) {
+			long hash = ConsistentHashRing.hash("key" + i);
+			assertEquals(ring.ownerOf(hash), sameRing.ownerOf(hash));
+		}
+	}
+
+	@Test
+	public void testAddingShardOnlyMovesKeysToIt() {
+		ConsistentHashRing before = new ConsistentHashRing(members("shard1", 1, "shard2", 1), 64);
+		ConsistentHashRing after = new ConsistentHashRing(members("shard1", 1, "shard2", 1, "shard3", 1), 64);
+		int moved = 0;
+		for (int i = 0; i < 3000; i++) {
+			long hash = ConsistentHashRing.hash("key" + i);
+			if (!before.ownerOf(hash).equals(after.ownerOf(hash))) {
+				assertEquals("shard3", after.ownerOf(hash));
+				moved++;
+			}
+		}
+		assertTrue(moved > 500 && moved < 1500);
+	}
+
+	@Test
+	public void testWeightZeroOwnsNothing() {
+		ConsistentHashRing ring = new ConsistentHashRing(members("shard1", 1, "shard2", 0), 64);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals("shard1", ring.ownerOf(ConsistentHashRing.hash("key" + i)));
+		}
+	}
+
+	@Test
+	public void testRangeOwners() {
+		ConsistentHashRing before = new ConsistentHashRing(members("shard1", 1), 8);
+		ConsistentHashRing after = new ConsistentHashRing(members("shard1", 1, "shard2", 1), 8);
+		for (long token : after.getTokens()) {
+			long previous = after.previousToken(token);
+			assertEquals(1, before.ownersOfRange(previous, token).size());
+			assertTrue(before.ownersOfRange(previous, token).contains("shard1"));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoWeightedShard() {
+		new ConsistentHashRing(members("shard1", 0), 64);
+	}
+}
@@ -0,0 +1,69 @@
+package dev.sunbirdrc.registry.sink.shard;
+
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.sink.DBProviderFactory;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.util.RecordIdentifier;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ShardManagerTest {
+
+	private ShardManager shardManager;
+	private DBConnectionInfoMgr dbConnectionInfoMgr;
+
+	private static DBConnectionInfo connection(String shardId, String shardLabel) {
+		DBConnectionInfo connectionInfo = new DBConnectionInfo();
+		connectionInfo.setShardId(shardId);
+		connectionInfo.setShardLabel(shardLabel);
+		return connectionInfo;
+	}
+
+	@Before
+	public void setUp() {
+		DBConnectionInfo defaultConnection = connection("shard1", null);
+		dbConnectionInfoMgr = new DBConnectionInfoMgr();
+		dbConnectionInfoMgr.setConnectionInfo(Arrays.asList(defaultConnection, connection("shard2", "2")));
+		dbConnectionInfoMgr.init();
+
+		DBProviderFactory dbProviderFactory = mock(DBProviderFactory.class);
+		when(dbProviderFactory.getInstance(any())).thenReturn(mock(DatabaseProvider.class));
+		IShardAdvisor shardAdvisor = mock(IShardAdvisor.class);
+		when(shardAdvisor.getShard(null)).thenReturn(defaultConnection);
+
+		shardManager = new ShardManager();
+		ReflectionTestUtils.setField(shardManager, "dbConnectionInfoMgr", dbConnectionInfoMgr);
+		ReflectionTestUtils.setField(shardManager, "dbProviderFactory", dbProviderFactory);
+		ReflectionTestUtils.setField(shardManager, "shardAdvisor", shardAdvisor);
+		shardManager.init();
+	}
+
+	@Test
+	public void testPlainUuidResolvesToDefaultShard() {
+		RecordIdentifier recordId = RecordIdentifier.parse("a2b3c4d5-e6f7-4a1b-8c9d-0e1f2a3b4c5d");
+		assertNull(recordId.getShardLabel());
+		assertEquals("shard1", shardManager.getShardByRecord(recordId).getShardId());
+		assertEquals("shard1", shardManager.getShardByLabel(null).getShardId());
+	}
+
+	@Test
+	public void testLabelledIdResolvesToItsShard() {
+		RecordIdentifier recordId = RecordIdentifier.parse("2-a2b3c4d5-e6f7-4a1b-8c9d-0e1f2a3b4c5d");
+		assertEquals("shard2", shardManager.getShardByRecord(recordId).getShardId());
+	}
+
+	@Test
+	public void testUnlabelledShardCanBeAdded() {
+		shardManager.addShard(connection("shard3", null));
+		assertEquals("shard1", dbConnectionInfoMgr.getShardId(null));
+		assertEquals("shard3", shardManager.activateShard("shard3").getShardId());
+	}
+}
@@ -0,0 +1,176 @@
+package dev.sunbirdrc.registry.sink.shard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.registry.exception.ShardRangeMigratingException;
+import dev.sunbirdrc.registry.model.DBConnectionInfo;
+import dev.sunbirdrc.registry.model.DBConnectionInfoMgr;
+import dev.sunbirdrc.registry.sink.DBProviderFactory;
+import dev.sunbirdrc.registry.sink.DatabaseProvider;
+import dev.sunbirdrc.registry.sink.OSGraph;
+import dev.sunbirdrc.registry.sink.VertexLeases;
+import dev.sunbirdrc.registry.util.RecordIdentifier;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ShardRoutingTableTest {
+
+	private TinkerGraph graph;
+	private DBConnectionInfoMgr dbConnectionInfoMgr;
+	private ShardRoutingTable routingTable;
+	private String movedKey;
+	private long movedRange;
+
+	private static DBConnectionInfo connection(String shardId) {
+		DBConnectionInfo connectionInfo = new DBConnectionInfo();
+		connectionInfo.setShardId(shardId);
+		connectionInfo.setShardLabel(shardId.substring("shard".length()));
+		return connectionInfo;
+	}
+
+	@Before
+	public void setUp() {
+		graph = TinkerGraph.open();
+		DatabaseProvider databaseProvider = mock(DatabaseProvider.class);
+		when(databaseProvider.getOSGraph()).thenAnswer(invocation -> new OSGraph(graph, false));
+		DBProviderFactory dbProviderFactory = mock(DBProviderFactory.class);
+		when(dbProviderFactory.getInstance(any())).thenReturn(databaseProvider);
+		dbConnectionInfoMgr = new DBConnectionInfoMgr();
+		dbConnectionInfoMgr.setConnectionInfo(Arrays.asList(connection("shard1"), connection("shard2")));
+		dbConnectionInfoMgr.init();
+
+		routingTable = new ShardRoutingTable();
+		ReflectionTestUtils.setField(routingTable, "virtualNodes", 8);
+		ReflectionTestUtils.setField(routingTable, "fenceTimeout", 100L);
+		ReflectionTestUtils.setField(routingTable, "fenceLease", 60000L);
+		ReflectionTestUtils.setField(routingTable, "redirectCacheSize", 100L);
+		ReflectionTestUtils.setField(routingTable, "refreshInterval", 10000L);
+		ReflectionTestUtils.setField(routingTable, "dbConnectionInfoMgr", dbConnectionInfoMgr);
+		ReflectionTestUtils.setField(routingTable, "dbProviderFactory", dbProviderFactory);
+		ReflectionTestUtils.setField(routingTable, "objectMapper", new ObjectMapper());
+		routingTable.init();
+		routingTable.getState();
+
+		// Adding a shard plans a migration
+		dbConnectionInfoMgr.setConnectionInfo(Arrays.asList(connection("shard1"), connection("shard2"), connection("shard3")));
+		dbConnectionInfoMgr.init();
+		routingTable.refresh();
+		ShardRoutingTable.RoutingState state = routingTable.getState();
+		assertTrue(state.isMigrating());
+		for (int i = 0; movedKey == null; i++) {
+			long hash = ConsistentHashRing.hash("key" + i);
+			if (state.getTarget().ownerOf(hash).equals("shard3")) {
+				movedKey = "key" + i;
+				movedRange = state.getTarget().tokenOf(hash);
+			}
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		graph.close();
+	}
+
+	private Vertex routingVertex() {
+		return graph.traversal().V().hasLabel(ShardRoutingTable.ROUTING_LABEL).next();
+	}
+
+	private void fenceByOther(long until) {
+		Vertex vertex = routingVertex();
+		vertex.property(ShardRoutingTable.FENCED_RANGE, movedRange);
+		vertex.property(ShardRoutingTable.FENCED_UNTIL, until);
+		vertex.property(ShardRoutingTable.FENCE_OWNER, "other");
+	}
+
+	@Test(expected = ShardRangeMigratingException.class)
+	public void testWritesToRangeFencedByAnotherInstanceFail() {
+		fenceByOther(System.currentTimeMillis() + 60000);
+		routingTable.route(movedKey);
+	}
+
+	@Test
+	public void testExpiredFenceIsIgnoredAndTakenOver() throws Exception {
+		fenceByOther(System.currentTimeMillis() - 1);
+		assertNotEquals("shard3", routingTable.route(movedKey));
+
+		routingTable.fence(movedRange);
+
+		assertEquals(VertexLeases.getInstanceId(), routingVertex().value(ShardRoutingTable.FENCE_OWNER));
+	}
+
+	@Test(expected = IOException.class)
+	public void testFenceHeldByAnotherInstanceCantBeTaken() throws Exception {
+		fenceByOther(System.currentTimeMillis() + 60000);
+		routingTable.fence(movedRange);
+	}
+
+	@Test
+	public void testUnfenceLiftsTheFence() throws Exception {
+		routingTable.fence(movedRange);
+		routingTable.unfence();
+
+		assertEquals(0L, routingVertex().value(ShardRoutingTable.FENCED_UNTIL));
+		assertNotEquals("shard3", routingTable.route(movedKey));
+	}
+
+	@Test
+	public void testSwitchByAnotherInstanceIsSeenByWriters() {
+		routingVertex().property(ShardRoutingTable.SWITCHED_RANGES, "[" + movedRange + "]");
+
+		assertEquals("shard3", routingTable.route(movedKey));
+	}
+
+	@Test
+	public void testFenceIsReadOncePerCacheTtl() {
+		ReflectionTestUtils.setField(routingTable, "fenceCacheTtl", 60000L);
+		assertNotEquals("shard3", routingTable.route(movedKey));
+		fenceByOther(System.currentTimeMillis() + 60000);
+
+		assertNotEquals("shard3", routingTable.route(movedKey));
+
+		ReflectionTestUtils.setField(routingTable, "fenceCacheTtl", 0L);
+		try {
+			routingTable.route(movedKey);
+			fail("The fence should have been read again");
+		} catch (ShardRangeMigratingException e) {
+			assertEquals(100L, e.getRetryAfter());
+		}
+	}
+
+	@Test
+	public void testOnlyIdentifiersOfShardsRecordsWereMovedOffAreRedirected() throws Exception {
+		assertNull(routingTable.getRedirect(new RecordIdentifier("1", "uuid1")));
+
+		routingTable.addRedirects("shard1", Collections.singletonMap("uuid1", "shard3"));
+
+		assertEquals("shard3", routingTable.getRedirect(new RecordIdentifier("1", "uuid1")));
+		assertNull(routingTable.getRedirect(new RecordIdentifier("2", "uuid1")));
+		// The label of a shard which was removed
+		assertEquals("shard3", routingTable.getRedirect(new RecordIdentifier("9", "uuid1")));
+		assertEquals(Collections.singleton("shard1"), routingTable.getState().getRedirectSources());
+	}
+
+	@Test
+	public void testTablesWithRedirectsFromBeforeTheirSourcesWereKeptLookUpEveryShard() {
+		Vertex vertex = routingVertex();
+		vertex.property(ShardRoutingTable.REDIRECT_SOURCES).remove();
+		vertex.property(ShardRoutingTable.HAS_REDIRECTS, true);
+
+		routingTable.refresh();
+
+		assertEquals(new HashSet<>(Arrays.asList("shard1", "shard2", "shard3")),
+				routingTable.getState().getRedirectSources());
+	}
+}
@@ -0,0 +1,63 @@
+package dev.sunbirdrc.registry.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ElasticMappingGeneratorTest {
+	private JsonNode properties;
+
+	@Before
+	public void setUp() throws IOException {
+		JsonNode schema = new ObjectMapper().readTree(getClass().getResourceAsStream("/validation-test/_schemas/Student.json"));
+		Definition definition = new Definition(schema);
+		IDefinitionsManager definitionsManager = mock(IDefinitionsManager.class);
+		when(definitionsManager.getExcludingFieldsForEntity("Student")).thenReturn(Collections.singleton("$.address.line2"));
+		properties = new ElasticMappingGenerator(definitionsManager, "osid").generate(definition).get("properties");
+	}
+
+	@Test
+	public void shouldMapFieldTypesFromSchema() {
+		assertEquals("text", properties.at("/name/type").asText());
+		assertEquals("keyword", properties.at("/name/fields/keyword/type").asText());
+		assertEquals("date", properties.at("/dob/type").asText());
+		assertEquals("keyword", properties.at("/osid/type").asText());
+		assertEquals("date", properties.at("/osCreatedAt/type").asText());
+	}
+
+	@Test
+	public void shouldMapObjectArraysAsNested() {
+		assertEquals("nested", properties.at("/education/type").asText());
+		assertEquals("date", properties.at("/education/properties/fromDate/type").asText());
+		assertFalse(properties.at("/address/type").isTextual());
+		assertEquals("text", properties.at("/address/properties/line1/type").asText());
+	}
+
+	@Test
+	public void shouldMapEnumsFormattedAndUniqueStringsAsTextWithKeyword() throws IOException {
+		JsonNode schema = new ObjectMapper().readTree("{\"title\": \"Teacher\", \"definitions\": {\"Teacher\": {\"properties\": {"
+				+ "\"gender\": {\"type\": \"string\", \"enum\": [\"Male\", \"Female\"]},"
+				+ "\"email\": {\"type\": \"string\", \"format\": \"email\"},"
+				+ "\"code\": {\"type\": \"string\"}}}},"
+				+ "\"_osConfig\": {\"uniqueIndexFields\": [\"code\"]}}");
+		JsonNode teacher = new ElasticMappingGenerator(mock(IDefinitionsManager.class), "osid")
+				.generate(new Definition(schema)).get("properties");
+		for (String field : new String[]{"gender", "email", "code"}) {
+			assertEquals(field, "text", teacher.at("/" + field + "/type").asText());
+			assertEquals(field, "keyword", teacher.at("/" + field + "/fields/keyword/type").asText());
+		}
+	}
+
+	@Test
+	public void shouldLeaveOutNonPublicFields() {
+		assertTrue(properties.at("/address/properties/line2").isMissingNode());
+	}
+}
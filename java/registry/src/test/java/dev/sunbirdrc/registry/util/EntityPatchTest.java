@@ -0,0 +1,66 @@
+package dev.sunbirdrc.registry.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EntityPatchTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private JsonNode json(String json) throws IOException {
+		return objectMapper.readTree(json.replace('\'', '"'));
+	}
+
+	@Test
+	public void shouldFlattenMergePatchToOperations() throws IOException {
+		EntityPatch patch = EntityPatch.mergePatch(json("{'name':'abc','address':{'city':'Pune','pin':null},'tags':['a','b']}"));
+
+		List<EntityPatch.Operation> operations = patch.getOperations();
+		assertTrue(patch.isMergePatch());
+		assertEquals(4, operations.size());
+		assertEquals("/address/city", operations.get(1).getPath());
+		assertEquals(Arrays.asList("address", "city"), operations.get(1).getTokens());
+		assertTrue(operations.get(2).isRemove());
+		assertEquals("pin", operations.get(2).getProperty());
+		assertTrue(operations.get(3).isSet());
+	}
+
+	@Test
+	public void shouldBuildPartialNodeOfSetValues() throws IOException {
+		EntityPatch patch = EntityPatch.jsonPatch(json("[{'op':'replace','path':'/address/city','value':'Pune'},"
+				+ "{'op':'remove','path':'/name'},{'op':'test','path':'/age','value':3}]"));
+
+		assertEquals(json("{'Teacher':{'address':{'city':'Pune'}}}"), patch.toPartialNode("Teacher"));
+	}
+
+	@Test
+	public void shouldApplyPatchToCopyOfEntity() throws IOException {
+		JsonNode entity = json("{'name':'abc','address':{'city':'Delhi','pin':'110001'}}");
+
+		JsonNode merged = EntityPatch.mergePatch(json("{'address':{'city':'Pune','pin':null}}")).applyTo(entity);
+		JsonNode patched = EntityPatch.jsonPatch(json("[{'op':'remove','path':'/name'}]")).applyTo(entity);
+
+		assertEquals(json("{'name':'abc','address':{'city':'Pune'}}"), merged);
+		assertEquals(json("{'address':{'city':'Delhi','pin':'110001'}}"), patched);
+		assertEquals("abc", entity.get("name").asText());
+	}
+
+	@Test
+	public void shouldAuditOperationsAtEntityPaths() throws IOException {
+		EntityPatch patch = EntityPatch.jsonPatch(json("[{'op':'test','path':'/name','value':'abc'},{'op':'add','path':'/name','value':'xyz'}]"));
+
+		assertEquals(json("[{'op':'add','path':'/Teacher/name','value':'xyz'}]"), patch.toAuditNode("Teacher"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectJsonPatchWithoutPath() throws IOException {
+		EntityPatch.jsonPatch(json("[{'op':'add','value':'xyz'}]"));
+	}
+}
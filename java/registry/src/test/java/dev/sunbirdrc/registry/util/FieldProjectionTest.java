@@ -0,0 +1,58 @@
+package dev.sunbirdrc.registry.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class FieldProjectionTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private JsonNode json(String json) throws IOException {
+		return objectMapper.readTree(json.replace('\'', '"'));
+	}
+
+	@Test
+	public void shouldParseDottedPaths() {
+		FieldProjection projection = FieldProjection.parse("name, contact.email,educationDetails.degree,contact.mobile");
+
+		assertTrue(projection.includes("name"));
+		assertFalse(projection.includes("gender"));
+		assertTrue(projection.child("name").isAll());
+		assertTrue(projection.child("contact").includes("email"));
+		assertFalse(projection.child("contact").includes("address"));
+		assertNull(projection.child("gender"));
+		assertEquals(Arrays.asList("name", "contact.email", "contact.mobile", "educationDetails.degree"), projection.toPaths());
+	}
+
+	@Test
+	public void shouldReadWholeFieldOverItsSubFields() {
+		FieldProjection projection = FieldProjection.parse("contact.email,contact");
+
+		assertEquals(Collections.singletonList("contact"), projection.toPaths());
+		assertTrue(projection.child("contact").includes("address"));
+	}
+
+	@Test
+	public void shouldBeNullWithoutFields() {
+		assertNull(FieldProjection.parse(null));
+		assertNull(FieldProjection.parse(" , "));
+	}
+
+	@Test
+	public void shouldRemoveFieldsNotRequested() throws IOException {
+		JsonNode entity = json("{'osid':'1','name':'abc','gender':'F','contact':{'osid':'2','email':'a@b.c','mobile':'123'},"
+				+ "'educationDetails':[{'osid':'3','degree':'BSc','year':2000}]}");
+
+		FieldProjection.parse("name,contact.email,educationDetails.degree").apply(entity, Collections.singletonList("osid"));
+
+		assertEquals(json("{'osid':'1','name':'abc','contact':{'osid':'2','email':'a@b.c'},"
+				+ "'educationDetails':[{'osid':'3','degree':'BSc'}]}"), entity);
+	}
+}
@@ -0,0 +1,51 @@
+package dev.sunbirdrc.registry.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class OutboundHttpClientsTest {
+
+	private OutboundHttpClients outboundHttpClients;
+
+	@Before
+	public void setUp() {
+		outboundHttpClients = new OutboundHttpClients();
+		ReflectionTestUtils.setField(outboundHttpClients, "environment", new MockEnvironment()
+				.withProperty("outbound.http.services.webhook.maxConnections", "3"));
+		ReflectionTestUtils.setField(outboundHttpClients, "connectionTimeout", 1000);
+		ReflectionTestUtils.setField(outboundHttpClients, "readTimeout", 1000);
+		ReflectionTestUtils.setField(outboundHttpClients, "connectionRequestTimeout", 1000);
+		ReflectionTestUtils.setField(outboundHttpClients, "maxConnections", 20);
+		ReflectionTestUtils.setField(outboundHttpClients, "keepAlive", 30000L);
+		ReflectionTestUtils.setField(outboundHttpClients, "maxConcurrentCalls", 20);
+		ReflectionTestUtils.setField(outboundHttpClients, "bulkheadWaitTime", 1000L);
+		ReflectionTestUtils.setField(outboundHttpClients, "failureThreshold", 5);
+		ReflectionTestUtils.setField(outboundHttpClients, "openDuration", 30000L);
+	}
+
+	@After
+	public void tearDown() {
+		outboundHttpClients.close();
+	}
+
+	@Test
+	public void shouldGiveEachWebhookHostItsOwnClient() {
+		assertSame(outboundHttpClients.getWebhookRestTemplate("http://localhost:5001/callback"),
+				outboundHttpClients.getWebhookRestTemplate("http://localhost:5001/other"));
+		assertNotSame(outboundHttpClients.getWebhookRestTemplate("http://localhost:5001/callback"),
+				outboundHttpClients.getWebhookRestTemplate("http://example.com/callback"));
+
+		Map<String, Object> metrics = outboundHttpClients.getMetrics();
+		assertEquals(2, metrics.size());
+		Map<String, Object> pool = (Map<String, Object>) ((Map<String, Object>) metrics.get("webhook-localhost:5001")).get("pool");
+		assertEquals(3, pool.get("max"));
+		assertTrue(metrics.containsKey("webhook-example.com"));
+	}
+}
@@ -0,0 +1,64 @@
+package dev.sunbirdrc.registry.util;
+
+import org.junit.Test;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class OutboundServiceGuardTest {
+
+	private ClientHttpResponse response(int status) throws IOException {
+		ClientHttpResponse response = mock(ClientHttpResponse.class);
+		when(response.getRawStatusCode()).thenReturn(status);
+		return response;
+	}
+
+	@Test
+	public void testCircuitOpensAfterConsecutiveFailures() throws IOException {
+		OutboundServiceGuard guard = new OutboundServiceGuard("certificate", 2, 10, 2, 60000, null);
+		ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+		when(execution.execute(any(), any())).thenReturn(response(503));
+		guard.intercept(null, new byte[0], execution);
+		assertFalse(guard.isOpen());
+		guard.intercept(null, new byte[0], execution);
+		assertTrue(guard.isOpen());
+		try {
+			guard.intercept(null, new byte[0], execution);
+			fail("Call went through an open circuit");
+		} catch (OutboundServiceGuard.RejectedCallException e) {
+			verify(execution, times(2)).execute(any(), any());
+		}
+	}
+
+	@Test
+	public void testTrialCallClosesCircuit() throws IOException {
+		OutboundServiceGuard guard = new OutboundServiceGuard("certificate", 2, 10, 1, 0, null);
+		ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+		when(execution.execute(any(), any())).thenThrow(new IOException("refused"));
+		try {
+			guard.intercept(null, new byte[0], execution);
+		} catch (IOException ignored) {
+		}
+		assertTrue(guard.isOpen());
+		reset(execution);
+		when(execution.execute(any(), any())).thenReturn(response(200));
+		guard.intercept(null, new byte[0], execution);
+		assertFalse(guard.isOpen());
+		assertEquals(2L, guard.snapshot().get("calls"));
+		assertEquals(1L, guard.snapshot().get("errors"));
+	}
+
+	@Test(expected = OutboundServiceGuard.RejectedCallException.class)
+	public void testBulkheadRejectsCallsBeyondLimit() throws IOException {
+		OutboundServiceGuard guard = new OutboundServiceGuard("certificate", 1, 10, 5, 60000, null);
+		ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+		// The first call, still in flight, makes a second one
+		when(execution.execute(any(), any())).thenAnswer(invocation -> guard.intercept(null, new byte[0], mock(ClientHttpRequestExecution.class)));
+		guard.intercept(null, new byte[0], execution);
+	}
+}
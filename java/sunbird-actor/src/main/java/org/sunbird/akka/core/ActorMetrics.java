@@ -0,0 +1,114 @@
+package org.sunbird.akka.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters per actor type (the deployment name, e.g. ElasticSearchActor), shared by all
+ * the routees of the type. Mailbox depth is only tracked for actors on a BoundedOverflowMailbox.
+ */
+public class ActorMetrics {
+    /**
+     * Fraction of the mailbox capacity above which an actor type is reported as saturated, unless its
+     * mailbox configures high-watermark
+     */
+    public static final double HIGH_WATERMARK = 0.8;
+
+    private static final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    private ActorMetrics() {}
+
+    public static Stats of(String actorType) {
+        return stats.computeIfAbsent(actorType, k -> new Stats());
+    }
+
+    /**
+     * Tells whether the mailboxes of the actor type are filled above the high watermark. Senders use this as
+     * the backpressure signal: work for a saturated actor type is deferred or rejected, senders count
+     * the rejections with Stats.rejected.
+     * @param actorType
+     * @return
+     */
+    public static boolean isSaturated(String actorType) {
+        Stats actorStats = stats.get(actorType);
+        return actorStats != null && actorStats.capacity.get() > 0
+                && actorStats.depth.get() >= actorStats.capacity.get() * actorStats.highWatermark;
+    }
+
+    public static Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        stats.forEach((actorType, actorStats) -> result.put(actorType, actorStats.toMap()));
+        return result;
+    }
+
+    public static class Stats {
+        private final AtomicInteger depth = new AtomicInteger();
+        // Sum of the capacities of the routee mailboxes
+        private final AtomicInteger capacity = new AtomicInteger();
+        private final AtomicLong dropped = new AtomicLong();
+        // Messages the senders didn't send because the actor type was saturated
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong processingNanos = new AtomicLong();
+        private volatile double highWatermark = HIGH_WATERMARK;
+
+        void addCapacity(int mailboxCapacity) {
+            capacity.addAndGet(mailboxCapacity);
+        }
+
+        void setHighWatermark(double highWatermark) {
+            this.highWatermark = highWatermark;
+        }
+
+        void enqueued() {
+            depth.incrementAndGet();
+        }
+
+        void dequeued() {
+            depth.decrementAndGet();
+        }
+
+        void dropped() {
+            dropped.incrementAndGet();
+        }
+
+        public void rejected() {
+            rejected.incrementAndGet();
+        }
+
+        void processed(long nanos, boolean success) {
+            processed.incrementAndGet();
+            processingNanos.addAndGet(nanos);
+            if (!success) {
+                failed.incrementAndGet();
+            }
+        }
+
+        public int getDepth() {
+            return depth.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            long processedCount = processed.get();
+            map.put("mailboxDepth", depth.get());
+            map.put("mailboxCapacity", capacity.get());
+            map.put("dropped", dropped.get());
+            map.put("rejected", rejected.get());
+            map.put("processed", processedCount);
+            map.put("failed", failed.get());
+            map.put("avgProcessingMillis", processedCount == 0 ? 0 :
+                    TimeUnit.NANOSECONDS.toMillis(processingNanos.get()) / (double) processedCount);
+            return map;
+        }
+    }
+}
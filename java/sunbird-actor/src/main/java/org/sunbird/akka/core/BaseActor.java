@@ -14,6 +14,8 @@ public abstract class BaseActor extends UntypedAbstractActor {
     protected MessageProtos.Message.Builder responseMsgBldr;
     protected final String ON_FAILURE_METHOD_NAME = "onFailure";
     protected final String ON_SUCCESS_METHOD_NAME = "onSuccess";
+    // Payload of the message being processed when it was received as a TypedMessage
+    protected Object localPayload;
 
     @Override
     public void preStart() throws Exception {
@@ -44,11 +46,31 @@ public abstract class BaseActor extends UntypedAbstractActor {
     }
 
 
+    /**
+     * Returns the payload of the request, by reference when it was sent from this JVM
+     * and decoded with the registered serializer otherwise.
+     * @param request
+     * @param type
+     * @return
+     * @throws Exception
+     */
+    protected <T> T getPayload(MessageProtos.Message request, Class<T> type) throws Exception {
+        if (type.isInstance(localPayload)) {
+            return type.cast(localPayload);
+        }
+        return MessageSerializers.deserialize(request.getPayload().getStringValue(), type);
+    }
+
     @Override
     public void onReceive(Object genericMessage) throws Throwable {
         if (genericMessage != null) {
         MessageProtos.Message sunbirdActorMessage = null;
+        localPayload = null;
         try {
+            if (genericMessage instanceof TypedMessage) {
+                localPayload = ((TypedMessage) genericMessage).getPayload();
+                genericMessage = ((TypedMessage) genericMessage).getHeader();
+            }
             sunbirdActorMessage = (MessageProtos.Message) genericMessage;
             String targetActorName = sunbirdActorMessage.getTargetActorName();
 
@@ -81,7 +103,15 @@ public abstract class BaseActor extends UntypedAbstractActor {
                 }
 
                 // Act upon the message.
-                onReceive(msgWithSrc);
+                ActorMetrics.Stats stats = ActorMetrics.of(self().path().parent().name());
+                long start = System.nanoTime();
+                boolean success = false;
+                try {
+                    onReceive(msgWithSrc);
+                    success = true;
+                } finally {
+                    stats.processed(System.nanoTime() - start, success);
+                }
 
                 // Ack if this is of type 'ask'.
                 if (msgWithSrc.getMsgOption() == MessageProtos.MessageOption.GET_BACK_RESPONSE) {
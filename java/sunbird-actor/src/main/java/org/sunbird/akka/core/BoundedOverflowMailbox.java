@@ -0,0 +1,151 @@
+package org.sunbird.akka.core;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.DeadLetter;
+import akka.dispatch.Envelope;
+import akka.dispatch.MailboxType;
+import akka.dispatch.MessageQueue;
+import akka.dispatch.ProducesMessageQueue;
+import com.typesafe.config.Config;
+import scala.Option;
+
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded mailbox with a configurable overflow policy:
+ * <ul>
+ *     <li>block - the sender waits up to push-timeout-time, then the message is dropped</li>
+ *     <li>drop-oldest - the oldest queued message makes room for the new one</li>
+ *     <li>drop-new - the new message is dropped</li>
+ * </ul>
+ * Dropped messages go to dead letters. The actor type is reported as saturated once its mailboxes
+ * are filled above high-watermark, a fraction of their capacity (ActorMetrics.HIGH_WATERMARK by default).
+ * Configured as
+ * <pre>
+ * bounded-mailbox {
+ *   mailbox-type = "org.sunbird.akka.core.BoundedOverflowMailbox"
+ *   mailbox-capacity = 1000
+ *   overflow-policy = "drop-oldest"
+ *   push-timeout-time = 1s
+ *   high-watermark = 0.8
+ * }
+ * </pre>
+ */
+public class BoundedOverflowMailbox implements MailboxType, ProducesMessageQueue<BoundedOverflowMailbox.OverflowMessageQueue> {
+    public enum OverflowPolicy {
+        BLOCK, DROP_OLDEST, DROP_NEW
+    }
+
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final long pushTimeoutMillis;
+    private final double highWatermark;
+
+    public BoundedOverflowMailbox(ActorSystem.Settings settings, Config config) {
+        this.capacity = config.getInt("mailbox-capacity");
+        this.policy = OverflowPolicy.valueOf(config.getString("overflow-policy").toUpperCase().replace('-', '_'));
+        this.pushTimeoutMillis = config.hasPath("push-timeout-time") ?
+                config.getDuration("push-timeout-time", TimeUnit.MILLISECONDS) : 0;
+        this.highWatermark = config.hasPath("high-watermark") ?
+                config.getDouble("high-watermark") : ActorMetrics.HIGH_WATERMARK;
+    }
+
+    @Override
+    public MessageQueue create(Option<ActorRef> owner, Option<ActorSystem> system) {
+        String actorType = owner.isDefined() ? owner.get().path().parent().name() : "unknown";
+        ActorMetrics.Stats stats = ActorMetrics.of(actorType);
+        stats.addCapacity(capacity);
+        stats.setHighWatermark(highWatermark);
+        return new OverflowMessageQueue(capacity, policy, pushTimeoutMillis, stats,
+                system.isDefined() ? system.get().deadLetters() : null);
+    }
+
+    public static class OverflowMessageQueue implements MessageQueue {
+        private final LinkedBlockingDeque<Envelope> queue;
+        private final int capacity;
+        private final OverflowPolicy policy;
+        private final long pushTimeoutMillis;
+        private final ActorMetrics.Stats stats;
+        private final ActorRef deadLetters;
+
+        OverflowMessageQueue(int capacity, OverflowPolicy policy, long pushTimeoutMillis,
+                             ActorMetrics.Stats stats, ActorRef deadLetters) {
+            this.queue = new LinkedBlockingDeque<>(capacity);
+            this.capacity = capacity;
+            this.policy = policy;
+            this.pushTimeoutMillis = pushTimeoutMillis;
+            this.stats = stats;
+            this.deadLetters = deadLetters;
+        }
+
+        @Override
+        public void enqueue(ActorRef receiver, Envelope handle) {
+            boolean queued;
+            switch (policy) {
+                case BLOCK:
+                    try {
+                        queued = queue.offerLast(handle, pushTimeoutMillis, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        queued = false;
+                    }
+                    break;
+                case DROP_OLDEST:
+                    while (!(queued = queue.offerLast(handle))) {
+                        Envelope oldest = queue.pollFirst();
+                        if (oldest != null) {
+                            stats.dequeued();
+                            drop(receiver, oldest);
+                        }
+                    }
+                    break;
+                default:
+                    queued = queue.offerLast(handle);
+            }
+            if (queued) {
+                stats.enqueued();
+            } else {
+                drop(receiver, handle);
+            }
+        }
+
+        private void drop(ActorRef receiver, Envelope handle) {
+            stats.dropped();
+            if (deadLetters != null) {
+                deadLetters.tell(new DeadLetter(handle.message(), handle.sender(), receiver), handle.sender());
+            }
+        }
+
+        @Override
+        public Envelope dequeue() {
+            Envelope handle = queue.pollFirst();
+            if (handle != null) {
+                stats.dequeued();
+            }
+            return handle;
+        }
+
+        @Override
+        public int numberOfMessages() {
+            return queue.size();
+        }
+
+        @Override
+        public boolean hasMessages() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public void cleanUp(ActorRef owner, MessageQueue deadLetters) {
+            Envelope handle;
+            while ((handle = queue.pollFirst()) != null) {
+                stats.dequeued();
+                deadLetters.enqueue(owner, handle);
+            }
+            // The routee is gone, e.g. after the pool got downsized
+            stats.addCapacity(-capacity);
+        }
+    }
+}
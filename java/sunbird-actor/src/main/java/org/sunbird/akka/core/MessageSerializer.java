@@ -0,0 +1,11 @@
+package org.sunbird.akka.core;
+
+/**
+ * Encodes the payload of a typed message when it has to leave the JVM
+ * @param <T> type of the payload
+ */
+public interface MessageSerializer<T> {
+    String serialize(T payload) throws Exception;
+
+    T deserialize(String payload) throws Exception;
+}
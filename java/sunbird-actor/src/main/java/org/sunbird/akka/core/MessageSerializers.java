@@ -0,0 +1,36 @@
+package org.sunbird.akka.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the serializers of the payload types, registered once at startup.
+ * Only remote hops and actors receiving a plain message use them.
+ */
+public class MessageSerializers {
+    private static final Map<Class<?>, MessageSerializer<?>> serializers = new ConcurrentHashMap<>();
+
+    private MessageSerializers() {}
+
+    public static <T> void register(Class<T> type, MessageSerializer<T> serializer) {
+        serializers.put(type, serializer);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> MessageSerializer<T> get(Class<T> type) {
+        MessageSerializer<T> serializer = (MessageSerializer<T>) serializers.get(type);
+        if (serializer == null) {
+            throw new IllegalStateException("No serializer registered for " + type.getName());
+        }
+        return serializer;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static String serialize(Object payload) throws Exception {
+        return ((MessageSerializer<Object>) get(payload.getClass())).serialize(payload);
+    }
+
+    public static <T> T deserialize(String payload, Class<T> type) throws Exception {
+        return get(type).deserialize(payload);
+    }
+}
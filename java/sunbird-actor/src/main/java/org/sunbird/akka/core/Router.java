@@ -62,19 +62,34 @@ public class Router extends BaseActor {
             actorSelection = ActorCache.instance().getRemote(request.getTargetActorName());
         }
 
+        Object outgoing = request;
+        if (localPayload != null) {
+            // Local actors get the payload by reference; remote ones need it encoded
+            outgoing = ref != null ? TypedMessage.of(request, localPayload) : encode(request);
+        }
+
         if (request.getMsgOption() ==
                 SEND_AND_FORGET) {
             if (ref != null) {
-                ref.tell(request, self());
+                ref.tell(outgoing, self());
             } else if (actorSelection != null) {
-                actorSelection.tell(request, self());
+                actorSelection.tell(outgoing, self());
             }
         } else if (request.getMsgOption() == GET_BACK_RESPONSE) {
-            route(actorSelection, ref, request, getContext().dispatcher());
+            route(actorSelection, ref, request, outgoing, getContext().dispatcher());
         }
         return (ref != null || actorSelection != null);
     }
 
+    private MessageProtos.Message encode(MessageProtos.Message request) {
+        try {
+            return TypedMessage.of(request, localPayload).toMessage();
+        } catch (Exception e) {
+            logger.error(e, "Can't encode payload for {}", request.getTargetActorName());
+            return request;
+        }
+    }
+
     /**
      * The source of the message may be different from that of the router
      * in case of remote calling.
@@ -107,16 +122,17 @@ public class Router extends BaseActor {
      *
      * @param router
      * @param message
+     * @param outgoing - message as sent to the target, typed for local targets
      * @return boolean
      */
-    private boolean route(ActorSelection router, ActorRef ref, MessageProtos.Message message, ExecutionContext ec) {
+    private boolean route(ActorSelection router, ActorRef ref, MessageProtos.Message message, Object outgoing, ExecutionContext ec) {
         logger.info("Actor Service Call start for api {}", message.getTargetActorName());
         Timeout timeout = new Timeout(Duration.create(WAIT_TIME_VALUE, TimeUnit.SECONDS));
         Future<Object> future = null;
         if (router == null) {
-            future = Patterns.ask(ref, message, timeout);
+            future = Patterns.ask(ref, outgoing, timeout);
         } else {
-            future = Patterns.ask(router, message, timeout);
+            future = Patterns.ask(router, outgoing, timeout);
         }
 
         future.onComplete(
@@ -115,6 +115,17 @@ public class SunbirdActorFactory {
         return dispatcher;
     }
 
+    /**
+     * Gets the mailbox name from the configuration, null if the default mailbox is used
+     * @param actor
+     * @return
+     */
+    private String getMailboxName(Class actor) {
+        String completePath = this.actorSystem.name() + ".akka.actor.deployment./" + actor.getSimpleName() + ".routee-mailbox";
+        Config config = configProcessor.getConfig();
+        return config.hasPath(completePath) ? config.getString(completePath) : null;
+    }
+
     /**
      * Creates an actor
      * @param actorContext
@@ -132,6 +143,11 @@ public class SunbirdActorFactory {
         } else {
             props = Props.create(actor);
         }
+        String mailbox = getMailboxName(actor);
+        if (null != mailbox) {
+            // Applies to the routees of the pool
+            props = props.withMailbox(mailbox);
+        }
 
         String name = actor.getSimpleName();
         ActorRef actorRef = actorContext.actorOf(FromConfig.getInstance().props(props), name);
@@ -0,0 +1,44 @@
+package org.sunbird.akka.core;
+
+import com.google.protobuf.Value;
+
+/**
+ * A message whose payload is carried by reference between actors of the same JVM.
+ * The header holds the routing details; the payload is encoded into it only when
+ * the message is sent to a remote actor. The payload must not be mutated once sent.
+ */
+public final class TypedMessage {
+    private final MessageProtos.Message header;
+    private final Object payload;
+
+    private TypedMessage(MessageProtos.Message header, Object payload) {
+        this.header = header;
+        this.payload = payload;
+    }
+
+    public static TypedMessage of(MessageProtos.Message header, Object payload) {
+        return new TypedMessage(header, payload);
+    }
+
+    public MessageProtos.Message getHeader() {
+        return header;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+
+    /**
+     * Encodes the payload with its registered serializer for the remote hop
+     * @return
+     * @throws Exception
+     */
+    public MessageProtos.Message toMessage() throws Exception {
+        if (payload == null) {
+            return header;
+        }
+        return MessageProtos.Message.newBuilder(header)
+                .setPayload(Value.newBuilder().setStringValue(MessageSerializers.serialize(payload)))
+                .build();
+    }
+}
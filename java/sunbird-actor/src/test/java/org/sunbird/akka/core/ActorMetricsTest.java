@@ -0,0 +1,65 @@
+package org.sunbird.akka.core;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ActorMetricsTest {
+
+    @Test
+    public void shouldReportSaturationAboveTheHighWatermark() {
+        ActorMetrics.Stats stats = ActorMetrics.of("saturation");
+        stats.addCapacity(10);
+        for (int i = 0; i < 7; i++) {
+            stats.enqueued();
+        }
+        assertFalse(ActorMetrics.isSaturated("saturation"));
+
+        stats.enqueued();
+        assertTrue(ActorMetrics.isSaturated("saturation"));
+
+        stats.dequeued();
+        assertFalse(ActorMetrics.isSaturated("saturation"));
+    }
+
+    @Test
+    public void shouldReportSaturationAboveTheHighWatermarkOfTheMailbox() {
+        ActorMetrics.Stats stats = ActorMetrics.of("watermark");
+        stats.addCapacity(10);
+        stats.setHighWatermark(0.5);
+        for (int i = 0; i < 4; i++) {
+            stats.enqueued();
+        }
+        assertFalse(ActorMetrics.isSaturated("watermark"));
+
+        stats.enqueued();
+        assertTrue(ActorMetrics.isSaturated("watermark"));
+    }
+
+    @Test
+    public void shouldNotReportUnboundedOrUnknownActorsAsSaturated() {
+        ActorMetrics.of("unbounded").enqueued();
+
+        assertFalse(ActorMetrics.isSaturated("unbounded"));
+        assertFalse(ActorMetrics.isSaturated("unknown"));
+    }
+
+    @Test
+    public void shouldSnapshotTheCounters() {
+        ActorMetrics.Stats stats = ActorMetrics.of("snapshot");
+        stats.processed(2_000_000, true);
+        stats.processed(4_000_000, false);
+        stats.dropped();
+        stats.rejected();
+
+        Map<String, Object> snapshot = ActorMetrics.snapshot().get("snapshot");
+
+        assertEquals(2L, snapshot.get("processed"));
+        assertEquals(1L, snapshot.get("failed"));
+        assertEquals(1L, snapshot.get("dropped"));
+        assertEquals(1L, snapshot.get("rejected"));
+        assertEquals(3.0, (double) snapshot.get("avgProcessingMillis"), 0.001);
+    }
+}
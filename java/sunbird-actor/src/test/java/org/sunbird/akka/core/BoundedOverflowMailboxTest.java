@@ -0,0 +1,85 @@
+package org.sunbird.akka.core;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.dispatch.Envelope;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BoundedOverflowMailboxTest {
+    private static ActorSystem actorSystem;
+
+    @BeforeClass
+    public static void setUp() {
+        actorSystem = ActorSystem.create("BoundedOverflowMailboxTest");
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        actorSystem.terminate();
+    }
+
+    private static BoundedOverflowMailbox.OverflowMessageQueue queue(String actorType,
+                                                                   BoundedOverflowMailbox.OverflowPolicy policy) {
+        ActorMetrics.Stats stats = ActorMetrics.of(actorType);
+        stats.addCapacity(2);
+        return new BoundedOverflowMailbox.OverflowMessageQueue(2, policy, 0, stats, null);
+    }
+
+    private static void enqueue(BoundedOverflowMailbox.OverflowMessageQueue queue, String... messages) {
+        for (String message : messages) {
+            queue.enqueue(ActorRef.noSender(), Envelope.apply(message, ActorRef.noSender(), actorSystem));
+        }
+    }
+
+    private static Object dropped(String actorType) {
+        return ActorMetrics.snapshot().get(actorType).get("dropped");
+    }
+
+    @Test
+    public void shouldDropNewMessagesWhenFull() {
+        BoundedOverflowMailbox.OverflowMessageQueue queue = queue("dropNew", BoundedOverflowMailbox.OverflowPolicy.DROP_NEW);
+
+        enqueue(queue, "1", "2", "3");
+
+        assertEquals(2, queue.numberOfMessages());
+        assertEquals("1", queue.dequeue().message());
+        assertEquals("2", queue.dequeue().message());
+        assertEquals(1L, dropped("dropNew"));
+    }
+
+    @Test
+    public void shouldDropOldestMessagesWhenFull() {
+        BoundedOverflowMailbox.OverflowMessageQueue queue = queue("dropOldest", BoundedOverflowMailbox.OverflowPolicy.DROP_OLDEST);
+
+        enqueue(queue, "1", "2", "3");
+
+        assertEquals("2", queue.dequeue().message());
+        assertEquals("3", queue.dequeue().message());
+        assertNull(queue.dequeue());
+        assertEquals(1L, dropped("dropOldest"));
+    }
+
+    @Test
+    public void shouldDropMessagesBlockedPastThePushTimeout() {
+        BoundedOverflowMailbox.OverflowMessageQueue queue = queue("block", BoundedOverflowMailbox.OverflowPolicy.BLOCK);
+
+        enqueue(queue, "1", "2", "3");
+
+        assertEquals(2, queue.numberOfMessages());
+        assertEquals(1L, dropped("block"));
+    }
+
+    @Test
+    public void shouldTrackTheMailboxDepth() {
+        BoundedOverflowMailbox.OverflowMessageQueue queue = queue("depth", BoundedOverflowMailbox.OverflowPolicy.DROP_NEW);
+
+        enqueue(queue, "1", "2");
+        assertEquals(2, ActorMetrics.of("depth").getDepth());
+        queue.dequeue();
+        assertEquals(1, ActorMetrics.of("depth").getDepth());
+    }
+}
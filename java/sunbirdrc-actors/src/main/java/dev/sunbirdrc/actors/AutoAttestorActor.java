@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.jayway.jsonpath.JsonPath;
+import dev.sunbirdrc.actors.services.SharedRestTemplate;
 import dev.sunbirdrc.pojos.Response;
 import dev.sunbirdrc.pojos.ResponseParams;
 import dev.sunbirdrc.pojos.attestation.auto.AutoAttestationMessage;
@@ -75,7 +76,7 @@ public class AutoAttestorActor extends BaseActor {
         headers.set("Authorization", autoAttestationMessage.getAccessToken());
         HttpEntity<JsonNode> entity = new HttpEntity<>(nodeRef, headers);
         String uri = String.format(SYSTEM_PROPERTY_URL, property, propertyId);
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = SharedRestTemplate.get();
         ResponseEntity<ResponseParams> responseEntity = restTemplate.postForEntity(autoAttestationMessage.getUrl() + uri, entity, ResponseParams.class);
         ResponseParams responseParams = Objects.requireNonNull(responseEntity.getBody());
 
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import dev.sunbirdrc.actors.factory.MessageFactory;
+import dev.sunbirdrc.actors.services.SharedRestTemplate;
 import dev.sunbirdrc.pojos.PluginRequestMessage;
 import dev.sunbirdrc.pojos.PluginResponseMessage;
 import dev.sunbirdrc.pojos.PluginResponseMessageCreator;
@@ -30,7 +31,7 @@ public class ClaimPluginActor extends BaseActor {
     // TODO: read url from config
     private final String claimRequestUrl = System.getenv().getOrDefault("claims_url", "http://localhost:8082");
     private final String CLAIMS_PATH = "/api/v1/claims";
-    RestTemplate restTemplate = new RestTemplate();
+    RestTemplate restTemplate = SharedRestTemplate.get();
 
 
     @Override
@@ -2,6 +2,7 @@ package dev.sunbirdrc.actors;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.actors.factory.MessageFactory;
 import dev.sunbirdrc.elastic.ESMessage;
 import dev.sunbirdrc.elastic.ElasticServiceImpl;
 import dev.sunbirdrc.elastic.IElasticService;
@@ -13,13 +14,19 @@ public class ElasticSearchActor extends BaseActor {
     public IElasticService elasticSearch;
     public ObjectMapper objectMapper;
 
+    @Override
+    public void preStart() throws Exception {
+        super.preStart();
+        // registers the payload serializers used for messages from remote senders
+        MessageFactory.instance();
+    }
+
     @Override
     public void onReceive(MessageProtos.Message request) throws Throwable {
         logger.debug("Received a message to ElasticSearch Actor {}", request.getPerformOperation());
         MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
         elasticSearch = new ElasticServiceImpl();
-        objectMapper = new ObjectMapper();
-        ESMessage esMessage = objectMapper.readValue(request.getPayload().getStringValue(), ESMessage.class);
+        ESMessage esMessage = getPayload(request, ESMessage.class);
         //ESMessage es =  objectMapper.writeValue(request.getPayload(), ESMessage.class);
         switch (request.getPerformOperation()) {
             case "ADD":
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import dev.sunbirdrc.actors.factory.MessageFactory;
+import dev.sunbirdrc.actors.services.SharedRestTemplate;
 import dev.sunbirdrc.pojos.PluginRequestMessage;
 import dev.sunbirdrc.pojos.PluginResponseMessage;
 import dev.sunbirdrc.pojos.PluginResponseMessageCreator;
@@ -29,7 +30,7 @@ public class GenericPluginActor extends BaseActor {
         JsonNode additionalInput = pluginRequestMessage.getAdditionalInputs();
 
         String url = "http://127.0.0.1:5000/mosip";
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = SharedRestTemplate.get();
         ResponseEntity<JsonNode> response = restTemplate.postForEntity(url, additionalInput, JsonNode.class);
         PluginResponseMessage pluginResponseMessage = PluginResponseMessageCreator.createPluginResponseMessage(pluginRequestMessage);
 
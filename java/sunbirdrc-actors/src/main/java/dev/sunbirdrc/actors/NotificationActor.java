@@ -2,6 +2,7 @@ package dev.sunbirdrc.actors;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.actors.factory.MessageFactory;
 import dev.sunbirdrc.actors.services.NotificationService;
 import dev.sunbirdrc.pojos.NotificationMessage;
 import okhttp3.Response;
@@ -14,12 +15,18 @@ public class NotificationActor extends BaseActor {
     public ObjectMapper objectMapper;
     private NotificationService notificationService;
 
+    @Override
+    public void preStart() throws Exception {
+        super.preStart();
+        // registers the payload serializers used for messages from remote senders
+        MessageFactory.instance();
+    }
+
     @Override
     public void onReceive(MessageProtos.Message request) throws Throwable {
         logger.debug("Received a message to Notification Actor {}", request.getPerformOperation());
-        objectMapper = new ObjectMapper();
         notificationService = new NotificationService();
-        NotificationMessage notificationMessage = objectMapper.readValue(request.getPayload().getStringValue(), NotificationMessage.class);
+        NotificationMessage notificationMessage = getPayload(request, NotificationMessage.class);
         Map<String, String> response = notificationService.notify(notificationMessage);
         logger.info("{}", response);
     }
@@ -10,25 +10,36 @@ import org.sunbird.akka.core.ActorCache;
 import org.sunbird.akka.core.BaseActor;
 import org.sunbird.akka.core.MessageProtos;
 import org.sunbird.akka.core.Router;
+import org.sunbird.akka.core.TypedMessage;
 
 public class OSActor extends BaseActor {
     private boolean elasticSearchEnabled;
-    public ObjectMapper objectMapper;
+    public ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public void preStart() throws Exception {
+        super.preStart();
+        // registers the payload serializers used for messages from remote senders
+        MessageFactory.instance();
+    }
+
     @Override
     protected void onReceive(MessageProtos.Message message) throws Throwable {
-        objectMapper = new ObjectMapper();
         ESMessage esMessage = null;
 		/*
 		 * AuditRecord auditRecord = null;
 		 */        
-        OSEvent osEvent = objectMapper.readValue(message.getPayload().getStringValue(), OSEvent.class);
+        OSEvent osEvent = getPayload(message, OSEvent.class);
         Map<String, Object> osMap = osEvent.getOsMap();
         elasticSearchEnabled = (boolean) osMap.get("esEnabled");
-        if(null != osMap.get("esMessage")) {
-            esMessage = objectMapper.convertValue(osMap.get("esMessage"),ESMessage.class);
+        Object esMap = osMap.get("esMessage");
+        if (esMap instanceof ESMessage) {
+            esMessage = (ESMessage) esMap;
+        } else if (null != esMap) {
+            esMessage = objectMapper.convertValue(esMap, ESMessage.class);
         }
         if(elasticSearchEnabled) {
-            MessageProtos.Message esProtoMessage = MessageFactory.instance().createElasticSearchMessage(
+            TypedMessage esProtoMessage = MessageFactory.instance().createElasticSearchMessage(
                     message.getPerformOperation(), esMessage);
             ActorCache.instance().get(Router.ROUTER_NAME).tell(esProtoMessage, null);
         }
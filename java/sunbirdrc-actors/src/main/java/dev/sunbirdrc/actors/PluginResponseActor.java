@@ -3,6 +3,7 @@ package dev.sunbirdrc.actors;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sunbirdrc.actors.services.SharedRestTemplate;
 import dev.sunbirdrc.pojos.PluginResponseMessage;
 import dev.sunbirdrc.pojos.ResponseParams;
 import dev.sunbirdrc.pojos.attestation.Action;
@@ -49,7 +50,7 @@ public class PluginResponseActor extends BaseActor {
         headers.setContentType(MediaType.APPLICATION_JSON);
         HttpEntity<PluginResponseMessage> entity = new HttpEntity<>(pluginResponseMessage, headers);
         String uri = String.format(SYSTEM_PROPERTY_URL, pluginResponseMessage.getSourceEntity(), pluginResponseMessage.getSourceOSID(), pluginResponseMessage.getPolicyName(), pluginResponseMessage.getAttestationOSID());
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = SharedRestTemplate.get();
         ResponseEntity<ResponseParams> responseEntity = restTemplate.exchange(REGISTRY_HOST_URL + uri, HttpMethod.PUT, entity, ResponseParams.class);
         logger.info("Update status api call's status {}", responseEntity.getStatusCode());
     }
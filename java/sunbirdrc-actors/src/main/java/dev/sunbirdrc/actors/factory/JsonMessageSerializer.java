@@ -0,0 +1,30 @@
+package dev.sunbirdrc.actors.factory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.sunbird.akka.core.MessageSerializer;
+
+/**
+ * Serializes a payload type with a reader and writer built once for that type
+ * @param <T>
+ */
+public class JsonMessageSerializer<T> implements MessageSerializer<T> {
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    public JsonMessageSerializer(ObjectMapper objectMapper, Class<T> type) {
+        this.reader = objectMapper.readerFor(type);
+        this.writer = objectMapper.writerFor(type);
+    }
+
+    @Override
+    public String serialize(T payload) throws Exception {
+        return writer.writeValueAsString(payload);
+    }
+
+    @Override
+    public T deserialize(String payload) throws Exception {
+        return reader.readValue(payload);
+    }
+}
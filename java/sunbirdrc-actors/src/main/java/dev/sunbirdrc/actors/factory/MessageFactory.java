@@ -12,6 +12,8 @@ import dev.sunbirdrc.pojos.attestation.auto.AutoAttestationPolicy;
 import dev.sunbirdrc.pojos.attestation.exception.PolicyNotFoundException;
 import dev.sunbirdrc.registry.middleware.util.Constants;
 import org.sunbird.akka.core.MessageProtos;
+import org.sunbird.akka.core.MessageSerializers;
+import org.sunbird.akka.core.TypedMessage;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -20,78 +22,83 @@ public class MessageFactory {
     private static final MessageFactory instance = new MessageFactory();
 
     private MessageFactory() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        register(objectMapper, ESMessage.class);
+        register(objectMapper, AuditRecord.class);
+        register(objectMapper, OSEvent.class);
+        register(objectMapper, NotificationMessage.class);
+        register(objectMapper, PluginRequestMessage.class);
+        register(objectMapper, PluginResponseMessage.class);
+        register(objectMapper, AutoAttestationMessage.class);
+    }
+
+    private static <T> void register(ObjectMapper objectMapper, Class<T> type) {
+        MessageSerializers.register(type, new JsonMessageSerializer<>(objectMapper, type));
+    }
+
+    private static String serialize(Object payload) throws JsonProcessingException {
+        try {
+            return MessageSerializers.serialize(payload);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public static MessageFactory instance() {
         return instance;
     }
 
-    public MessageProtos.Message createElasticSearchMessage(String operation, ESMessage esMessage) throws JsonProcessingException {
+    public TypedMessage createElasticSearchMessage(String operation, ESMessage esMessage) throws JsonProcessingException {
         MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
         msgBuilder.setPerformOperation(operation);
         msgBuilder.setTargetActorName(Constants.ELASTIC_SEARCH_ACTOR);
-        Value.Builder payloadBuilder = msgBuilder.getPayloadBuilder();
-        ObjectMapper objectMapper = new ObjectMapper();
-        payloadBuilder.setStringValue(objectMapper.writeValueAsString(esMessage));
-        msgBuilder.setPayload(payloadBuilder.build());
-        return msgBuilder.build();
+        return TypedMessage.of(msgBuilder.build(), esMessage);
     }
 
-    public MessageProtos.Message createAuditMessage(AuditRecord auditRecord) throws JsonProcessingException {
+    public TypedMessage createAuditMessage(AuditRecord auditRecord) throws JsonProcessingException {
         MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
         msgBuilder.setTargetActorName(Constants.AUDIT_ACTOR);
-        Value.Builder payloadBuilder = msgBuilder.getPayloadBuilder();
-        ObjectMapper objectMapper = new ObjectMapper();
-        payloadBuilder.setStringValue(objectMapper.writeValueAsString(auditRecord));
-        msgBuilder.setPayload(payloadBuilder.build());
-        return msgBuilder.build();
+        return TypedMessage.of(msgBuilder.build(), auditRecord);
     }
 
-    public MessageProtos.Message createOSActorMessage(boolean esEnabled, String operation, String index, String osid, JsonNode latestNode,
+    public TypedMessage createOSActorMessage(boolean esEnabled, String operation, String index, String osid, JsonNode latestNode,
                                                       AuditRecord auditRecord) throws JsonProcessingException {
         MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
         msgBuilder.setPerformOperation(operation);
         msgBuilder.setTargetActorName(Constants.OS_ACTOR);
-        Value.Builder payloadBuilder = msgBuilder.getPayloadBuilder();
         ESMessage esMessage = new ESMessage();
         esMessage.setIndexName(index);
         esMessage.setOsid(osid);
         esMessage.setInput(latestNode);
-        ObjectMapper objectMapper = new ObjectMapper();
         OSEvent osEvent = new OSEvent();
         Map<String, Object> osMsg = new HashMap<>();
         osMsg.put("esEnabled", esEnabled);
         osMsg.put("esMessage", esMessage);
         osMsg.put("auditMessage", auditRecord);
         osEvent.setOsMap(osMsg);
-        payloadBuilder.setStringValue(objectMapper.writeValueAsString(osEvent));
-        msgBuilder.setPayload(payloadBuilder.build());
-        return msgBuilder.build();
+        return TypedMessage.of(msgBuilder.build(), osEvent);
     }
 
     public MessageProtos.Message createPluginActorMessage(String pluginActorName, PluginRequestMessage pluginRequestMessage) throws JsonProcessingException {
         MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
         msgBuilder.setTargetActorName(pluginActorName);
         Value.Builder payloadBuilder = msgBuilder.getPayloadBuilder();
-        ObjectMapper objectMapper = new ObjectMapper();
-        payloadBuilder.setStringValue(objectMapper.writeValueAsString(pluginRequestMessage));
+        payloadBuilder.setStringValue(serialize(pluginRequestMessage));
         msgBuilder.setPayload(payloadBuilder.build());
         return msgBuilder.build();
     }
 
-    public MessageProtos.Message createNotificationActorMessage(String operation, String to, String subject, String message) throws JsonProcessingException {
+    public TypedMessage createNotificationActorMessage(String operation, String to, String subject, String message) throws JsonProcessingException {
         MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
         msgBuilder.setPerformOperation(operation);
         msgBuilder.setTargetActorName(Constants.NOTIFICATION_ACTOR);
-        Value.Builder payloadBuilder = msgBuilder.getPayloadBuilder();
-        ObjectMapper objectMapper = new ObjectMapper();
         NotificationMessage notificationMessage = new NotificationMessage();
         notificationMessage.setMessage(message);
         notificationMessage.setTo(to);
         notificationMessage.setSubject(subject);
-        payloadBuilder.setStringValue(objectMapper.writeValueAsString(notificationMessage));
-        msgBuilder.setPayload(payloadBuilder.build());
-        return msgBuilder.build();
+        return TypedMessage.of(msgBuilder.build(), notificationMessage);
     }
 
     public MessageProtos.Message createAutoAttestationMessage(AutoAttestationPolicy autoAttestationPolicy, JsonNode updatedNode, String accessToken, String url) throws JsonProcessingException {
@@ -99,13 +106,12 @@ public class MessageFactory {
         msgBuilder.setPerformOperation("");
         msgBuilder.setTargetActorName(Constants.AUTO_ATTESTOR_ACTOR);
         Value.Builder payloadBuilder = msgBuilder.getPayloadBuilder();
-        ObjectMapper objectMapper = new ObjectMapper();
         AutoAttestationMessage autoAttestationMessage = new AutoAttestationMessage();
         autoAttestationMessage.setAutoAttestationPolicy(autoAttestationPolicy);
         autoAttestationMessage.setInput(updatedNode);
         autoAttestationMessage.setUrl(url);
         autoAttestationMessage.setAccessToken(accessToken);
-        payloadBuilder.setStringValue(objectMapper.writeValueAsString(autoAttestationMessage));
+        payloadBuilder.setStringValue(serialize(autoAttestationMessage));
         msgBuilder.setPayload(payloadBuilder.build());
         return msgBuilder.build();
     }
@@ -114,8 +120,7 @@ public class MessageFactory {
         MessageProtos.Message.Builder msgBuilder = MessageProtos.Message.newBuilder();
         msgBuilder.setTargetActorName(Constants.PLUGIN_RESPONSE_ACTOR);
         Value.Builder payloadBuilder = msgBuilder.getPayloadBuilder();
-        ObjectMapper objectMapper = new ObjectMapper();
-        payloadBuilder.setStringValue(objectMapper.writeValueAsString(pluginResponseMessage));
+        payloadBuilder.setStringValue(serialize(pluginResponseMessage));
         msgBuilder.setPayload(payloadBuilder.build());
         return msgBuilder.build();
     }
@@ -126,8 +131,7 @@ public class MessageFactory {
         msgBuilder.setTargetActorName(requestMessage.getActorName().orElseThrow(() ->
                 new Exception("Invalid plugin name " + requestMessage.getAttestorPlugin())));
         Value.Builder payloadBuilder = msgBuilder.getPayloadBuilder();
-        ObjectMapper objectMapper = new ObjectMapper();
-        payloadBuilder.setStringValue(objectMapper.writeValueAsString(requestMessage));
+        payloadBuilder.setStringValue(serialize(requestMessage));
         return msgBuilder.build();
     }
 }
@@ -36,7 +36,7 @@ public class NotificationService implements HealthIndicator {
         map.put("recipient", notificationMessage.getTo());
         map.put("message", notificationMessage.getMessage());
         map.put("subject", notificationMessage.getSubject());
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = SharedRestTemplate.get();
         return restTemplate.postForObject(connectionInfo, map, HashMap.class);
     }
 
@@ -0,0 +1,37 @@
+package dev.sunbirdrc.actors.services;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The RestTemplate the actors call the registry, plugins and notification service with. Sharing it keeps the
+ * connections alive across messages, instead of opening new ones with a RestTemplate per message.
+ */
+public class SharedRestTemplate {
+    private static final int MAX_IDLE_CONNECTIONS = 20;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final long CONNECT_TIMEOUT_SECONDS = 5;
+    private static final long READ_TIMEOUT_SECONDS = 60;
+
+    private static final RestTemplate INSTANCE = create();
+
+    private SharedRestTemplate() {
+    }
+
+    public static RestTemplate get() {
+        return INSTANCE;
+    }
+
+    private static RestTemplate create() {
+        OkHttpClient client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .build();
+        return new RestTemplate(new OkHttp3ClientHttpRequestFactory(client));
+    }
+}
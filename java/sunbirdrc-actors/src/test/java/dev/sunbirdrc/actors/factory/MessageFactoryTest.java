@@ -0,0 +1,102 @@
+package dev.sunbirdrc.actors.factory;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import dev.sunbirdrc.elastic.ESMessage;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sunbird.akka.core.BaseActor;
+import org.sunbird.akka.core.MessageProtos;
+import org.sunbird.akka.core.MessageSerializers;
+import org.sunbird.akka.core.TypedMessage;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MessageFactoryTest {
+    private static final BlockingQueue<ESMessage> received = new LinkedBlockingQueue<>();
+    private static ActorSystem actorSystem;
+    private static ActorRef actor;
+
+    public static class RecordingActor extends BaseActor {
+        @Override
+        protected void onReceive(MessageProtos.Message request) throws Throwable {
+            received.offer(getPayload(request, ESMessage.class));
+        }
+    }
+
+    @BeforeClass
+    public static void setUp() {
+        actorSystem = ActorSystem.create("MessageFactoryTest");
+        actor = actorSystem.actorOf(Props.create(RecordingActor.class), "recorder");
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        actorSystem.terminate();
+    }
+
+    private static ESMessage esMessage() {
+        ESMessage esMessage = new ESMessage();
+        esMessage.setIndexName("student");
+        esMessage.setOsid("1-a2b3c4d5");
+        esMessage.setInput(JsonNodeFactory.instance.objectNode().put("name", "a"));
+        return esMessage;
+    }
+
+    @Test
+    public void shouldPassThePayloadByReferenceToLocalActors() throws Exception {
+        ESMessage esMessage = esMessage();
+        TypedMessage message = MessageFactory.instance().createElasticSearchMessage("ADD", esMessage);
+
+        actor.tell(message, ActorRef.noSender());
+
+        assertSame(esMessage, received.poll(5, TimeUnit.SECONDS));
+        assertEquals("", message.getHeader().getPayload().getStringValue());
+    }
+
+    @Test
+    public void shouldDecodeThePayloadOfPlainMessages() throws Exception {
+        ESMessage esMessage = esMessage();
+        MessageProtos.Message remoteMessage = MessageFactory.instance().createElasticSearchMessage("ADD", esMessage).toMessage();
+
+        actor.tell(remoteMessage, ActorRef.noSender());
+
+        ESMessage decoded = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(decoded);
+        assertNotSame(esMessage, decoded);
+        assertEquals(esMessage.getOsid(), decoded.getOsid());
+        assertEquals(esMessage.getIndexName(), decoded.getIndexName());
+        assertEquals(esMessage.getInput(), decoded.getInput());
+    }
+
+    @Test
+    public void shouldEncodeThePayloadWithItsSerializer() throws Exception {
+        TypedMessage message = MessageFactory.instance().createElasticSearchMessage("UPDATE", esMessage());
+
+        MessageProtos.Message encoded = message.toMessage();
+
+        assertEquals("UPDATE", encoded.getPerformOperation());
+        ESMessage decoded = MessageSerializers.deserialize(encoded.getPayload().getStringValue(), ESMessage.class);
+        assertEquals("1-a2b3c4d5", decoded.getOsid());
+    }
+
+    @Test
+    public void shouldKeepTheHeaderOfMessagesWithoutPayload() throws Exception {
+        MessageProtos.Message header = MessageProtos.Message.newBuilder().setTargetActorName("recorder").build();
+
+        assertSame(header, TypedMessage.of(header, null).toMessage());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectPayloadsWithoutSerializer() throws Exception {
+        MessageFactory.instance();
+        TypedMessage.of(MessageProtos.Message.newBuilder().build(), new StringBuilder("unregistered")).toMessage();
+    }
+}
@@ -7,6 +7,7 @@ import dev.sunbirdrc.validators.IValidate;
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
 import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,31 +65,68 @@ public class JsonValidationServiceImpl implements IValidate {
 	public void validate(String entityType, String objString, boolean ignoreRequiredFields) throws MiddlewareHaltException {
 		Schema schema = getEntitySchema(entityType);
 		if (schema != null) {
-			JSONObject obj = new JSONObject(objString);
-			try {
-				schema.validate(obj); // throws a ValidationException if this object is invalid
-			} catch (ValidationException e) {
-				logger.error("Validation Exception : " + e.getAllMessages());
-				if (ignoreRequiredFields) {
-					List<ValidationException> flattenedExceptions = flattenException(e).stream()
-							.filter(ve -> !ve.getKeyword().equals(REQUIRED_KEYWORD))
-							.collect(Collectors.toList());
-
-					if (!flattenedExceptions.isEmpty()) {
-						String errMsg = flattenedExceptions.stream()
-								.map(ve -> String.format("%s : %s", ve.getPointerToViolation(), ve.getMessage()))
-								.collect(Collectors.joining("; "));
-						throw new MiddlewareHaltException("Validation Exception : " + errMsg);
-					}
-				} else {
-					throw new MiddlewareHaltException("Validation Exception : " + String.join("; ", e.getAllMessages()));
-				}
-			}
+			validate(schema, new JSONObject(objString), ignoreRequiredFields);
+		} else {
+			logger.warn("{} schema not found for validation", entityType);
+		}
+	}
+
+	@Override
+	public void validate(String entityType, JsonNode payload, boolean ignoreRequiredFields) throws MiddlewareHaltException {
+		Schema schema = getEntitySchema(entityType);
+		if (schema != null && payload.isObject()) {
+			validate(schema, (JSONObject) toJson(payload), ignoreRequiredFields);
+		} else if (schema != null) {
+			validate(schema, new JSONObject(payload.toString()), ignoreRequiredFields);
 		} else {
 			logger.warn("{} schema not found for validation", entityType);
 		}
 	}
 
+	/**
+	 * Builds the org.json value the schema validates straight from the tree, instead of writing and parsing the text
+	 */
+	private static Object toJson(JsonNode node) {
+		if (node.isObject()) {
+			JSONObject object = new JSONObject();
+			node.fields().forEachRemaining(field -> object.put(field.getKey(), toJson(field.getValue())));
+			return object;
+		} else if (node.isArray()) {
+			JSONArray array = new JSONArray();
+			node.forEach(item -> array.put(toJson(item)));
+			return array;
+		} else if (node.isNumber()) {
+			return node.numberValue();
+		} else if (node.isBoolean()) {
+			return node.booleanValue();
+		} else if (node.isNull() || node.isMissingNode()) {
+			return JSONObject.NULL;
+		}
+		return node.asText();
+	}
+
+	private void validate(Schema schema, JSONObject obj, boolean ignoreRequiredFields) throws MiddlewareHaltException {
+		try {
+			schema.validate(obj); // throws a ValidationException if this object is invalid
+		} catch (ValidationException e) {
+			logger.error("Validation Exception : " + e.getAllMessages());
+			if (ignoreRequiredFields) {
+				List<ValidationException> flattenedExceptions = flattenException(e).stream()
+						.filter(ve -> !ve.getKeyword().equals(REQUIRED_KEYWORD))
+						.collect(Collectors.toList());
+
+				if (!flattenedExceptions.isEmpty()) {
+					String errMsg = flattenedExceptions.stream()
+							.map(ve -> String.format("%s : %s", ve.getPointerToViolation(), ve.getMessage()))
+							.collect(Collectors.joining("; "));
+					throw new MiddlewareHaltException("Validation Exception : " + errMsg);
+				}
+			} else {
+				throw new MiddlewareHaltException("Validation Exception : " + String.join("; ", e.getAllMessages()));
+			}
+		}
+	}
+
 	/**
      * Store all list of known definitions as definitionMap.
      * Must get populated before creating the schema.